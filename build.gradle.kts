@@ -12,6 +12,7 @@ plugins {
     alias(libs.plugins.android.library) apply false
     alias(libs.plugins.binary.compatibility) apply false
     alias(libs.plugins.compose.compiler) apply false
+    alias(libs.plugins.jmh) apply false
     alias(libs.plugins.kotlin.android) apply false
     alias(libs.plugins.kotlin.serialization) apply false
     alias(libs.plugins.kover)
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+// JMH benchmarks for the face geometry in :liveness. The geometry package only depends on kotlin.math, so it is
+// compiled here for a plain JVM and measured without an Android runtime. Run with ./gradlew :liveness-benchmark:jmh
+plugins {
+    kotlin("jvm")
+    id("me.champeau.jmh")
+    id("amplify.android.ktlint")
+}
+
+kotlin {
+    jvmToolchain(17)
+
+    sourceSets.main {
+        kotlin.srcDir("../liveness/src/main/java/com/amplifyframework/ui/liveness/geometry")
+    }
+
+    // The geometry classes are internal to :liveness
+    target.compilations.getByName("jmh").associateWith(target.compilations.getByName("main"))
+}
+
+jmh {
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+    // Next to the pipeline results written by LivenessPipelineBenchmarkTest
+    resultsFile.set(rootProject.layout.projectDirectory.file("liveness/build/benchmarks/liveness-geometry.json"))
+}
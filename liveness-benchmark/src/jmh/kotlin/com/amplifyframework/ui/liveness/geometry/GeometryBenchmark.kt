@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.geometry
+
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder.AnchorConfig
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder.Companion.NUM_COORDS
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder.OutputLayout
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+/**
+ * Measures the per-frame geometry work. Inputs are shaped like a face in view: a cluster of overlapping detections
+ * around one face plus sub-threshold noise on every other anchor, and faces drifting around the oval as when the user
+ * moves to fit it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+open class GeometryBenchmark {
+
+    // Matches FaceDetectionModel.SHORT_RANGE, which loads its model through Android assets
+    private val decoder = FaceDetectionDecoder(
+        inputWidth = 128,
+        inputHeight = 128,
+        anchorConfig = AnchorConfig(strides = intArrayOf(8, 16, 16, 16)),
+        outputLayout = OutputLayout(numBoxes = NUM_BOXES, xScale = 128f, yScale = 128f, wScale = 128f, hScale = 128f)
+    )
+
+    private lateinit var boxes: Array<Array<FloatArray>>
+    private lateinit var scores: Array<Array<FloatArray>>
+    private lateinit var faces: Array<FloatArray>
+    private var next = 0
+
+    @Setup
+    fun setUp() {
+        val random = Random(42)
+        boxes = arrayOf(Array(NUM_BOXES) { FloatArray(NUM_COORDS) { random.nextFloat() * 10f - 5f } })
+        scores = arrayOf(Array(NUM_BOXES) { floatArrayOf(random.nextFloat() * -10f) })
+
+        // A face spread over the neighbouring anchors of the stride 8 grid
+        for (cell in intArrayOf(0, 1, 16, 17)) {
+            val anchor = ((7 * 16 + 7) + cell) * 2
+            scores[0][anchor][0] = 3f + cell % 4
+            scores[0][anchor + 1][0] = 2f + cell % 4
+            floatArrayOf(0f, 0f, 40f, 48f, -8f, -6f, 8f, -6f, 0f, 0f, 0f, 10f, -18f, -2f, 18f, -2f)
+                .copyInto(boxes[0][anchor])
+        }
+
+        faces = Array(FACE_COUNT) {
+            val x = 90f + random.nextFloat() * 40f
+            val y = 90f + random.nextFloat() * 40f
+            val size = 180f + random.nextFloat() * 60f
+            floatArrayOf(x, y, x + size, y + size * 1.4f)
+        }
+    }
+
+    @Benchmark
+    fun decode(): Int = decoder.decode(boxes, scores, THRESHOLD)
+
+    @Benchmark
+    fun intersectionOverUnion(): Float {
+        val face = nextFace()
+        return FaceGeometry.intersectionOverUnion(
+            face[0], face[1], face[2], face[3],
+            OVAL_LEFT, OVAL_TOP, OVAL_RIGHT, OVAL_BOTTOM
+        )
+    }
+
+    @Benchmark
+    fun ovalPosition(): Int {
+        val face = nextFace()
+        return FaceGeometry.ovalPosition(
+            face[0], face[1], face[2], face[3],
+            OVAL_LEFT, OVAL_TOP, OVAL_RIGHT, OVAL_BOTTOM,
+            0.7f, 0.25f, 0.25f, 0.15f, 0.15f
+        ).ordinal
+    }
+
+    @Benchmark
+    fun faceMatchPercentage(): Float {
+        val face = nextFace()
+        return FaceGeometry.faceMatchPercentage(
+            face[0], face[1], face[2], face[3],
+            OVAL_LEFT, OVAL_TOP, OVAL_RIGHT, OVAL_BOTTOM,
+            0.7f,
+            0.1f
+        )
+    }
+
+    private fun nextFace(): FloatArray = faces[next++ and (FACE_COUNT - 1)]
+
+    companion object {
+        private const val NUM_BOXES = 896
+        private const val THRESHOLD = 0.7f
+
+        // A power of two, so nextFace can wrap with a mask
+        private const val FACE_COUNT = 64
+        private const val OVAL_LEFT = 100f
+        private const val OVAL_TOP = 100f
+        private const val OVAL_RIGHT = 300f
+        private const val OVAL_BOTTOM = 420f
+    }
+}
@@ -270,7 +270,7 @@ namespace {
 }  // namespace
 extern "C" {
 JNIEXPORT jlong JNICALL
-Java_com_amplifyframework_ui_liveness_camera_OpenGLRenderer_initContext(
+Java_com_amplifyframework_ui_liveness_camera_JniRenderBackend_nativeInitContext(
         JNIEnv *env, jclass clazz) {
     EGLDisplay eglDisplay = eglGetDisplay(EGL_DEFAULT_DISPLAY);
     assert(eglDisplay != EGL_NO_DISPLAY);
@@ -354,7 +354,7 @@ Java_com_amplifyframework_ui_liveness_camera_OpenGLRenderer_initContext(
     return reinterpret_cast<jlong>(nativeContext);
 }
 JNIEXPORT jlong JNICALL
-Java_com_amplifyframework_ui_liveness_camera_OpenGLRenderer_initAdditionalContext(
+Java_com_amplifyframework_ui_liveness_camera_JniRenderBackend_nativeInitAdditionalContext(
         JNIEnv *env, jclass clazz, jlong context) {
     auto *origNativeContext = reinterpret_cast<NativeContext *>(context);
     auto *nativeContext =
@@ -381,7 +381,7 @@ Java_com_amplifyframework_ui_liveness_camera_OpenGLRenderer_initAdditionalContex
     return reinterpret_cast<jlong>(nativeContext);
 }
 JNIEXPORT jboolean JNICALL
-Java_com_amplifyframework_ui_liveness_camera_OpenGLRenderer_setWindowSurface(
+Java_com_amplifyframework_ui_liveness_camera_JniRenderBackend_nativeSetWindowSurface(
         JNIEnv *env, jclass clazz, jlong context, jobject jsurface) {
     auto *nativeContext = reinterpret_cast<NativeContext *>(context);
     // Destroy previously connected surface
@@ -413,14 +413,14 @@ Java_com_amplifyframework_ui_liveness_camera_OpenGLRenderer_setWindowSurface(
     return JNI_TRUE;
 }
 JNIEXPORT jint JNICALL
-Java_com_amplifyframework_ui_liveness_camera_OpenGLRenderer_getTexName(
+Java_com_amplifyframework_ui_liveness_camera_JniRenderBackend_nativeGetTexName(
         JNIEnv *env, jclass clazz, jlong context) {
     auto *nativeContext = reinterpret_cast<NativeContext *>(context);
     return nativeContext->textureId;
 }
 
 JNIEXPORT jboolean JNICALL
-Java_com_amplifyframework_ui_liveness_camera_OpenGLRenderer_makeCurrent(
+Java_com_amplifyframework_ui_liveness_camera_JniRenderBackend_nativeMakeCurrent(
         JNIEnv *env, jclass clazz, jlong context) {
     auto *nativeContext = reinterpret_cast<NativeContext *>(context);
     return eglMakeCurrent(nativeContext->display, nativeContext->windowSurface.second, nativeContext->windowSurface.second,
@@ -428,15 +428,16 @@ Java_com_amplifyframework_ui_liveness_camera_OpenGLRenderer_makeCurrent(
 }
 
 JNIEXPORT void JNICALL
-Java_com_amplifyframework_ui_liveness_camera_OpenGLRenderer_setViewPort(
+Java_com_amplifyframework_ui_liveness_camera_JniRenderBackend_nativeSetViewPort(
         JNIEnv *env, jclass clazz, jint width, jint height) {
     glViewport(0, 0, width, height);
 }
 
 JNIEXPORT jboolean JNICALL
-Java_com_amplifyframework_ui_liveness_camera_OpenGLRenderer_renderTexture(
+Java_com_amplifyframework_ui_liveness_camera_JniRenderBackend_nativeRenderTexture(
         JNIEnv *env, jclass clazz, jlong context, jlong timestampNs,
-        jfloatArray jmvpTransformArray, jboolean mvpDirty,jfloatArray jtexTransformArray, jint texName) {
+        jfloatArray jmvpTransformArray, jboolean mvpDirty,jfloatArray jtexTransformArray,
+        jboolean texTransformDirty, jint texName) {
     auto *nativeContext = reinterpret_cast<NativeContext *>(context);
     // We use two triangles drawn with GL_TRIANGLE_STRIP to create the surface which will be
     // textured with the camera frame. This could also be done with a quad (GL_QUADS) on a
@@ -489,14 +490,17 @@ Java_com_amplifyframework_ui_liveness_camera_OpenGLRenderer_renderTexture(
                                        JNI_ABORT);
     }
     CHECK_GL(glUniform1i(nativeContext->samplerHandle, 0));
-    numMatrices = 1;
-    transpose = GL_FALSE;
-    GLfloat *texTransformArray =
-            env->GetFloatArrayElements(jtexTransformArray, nullptr);
-    CHECK_GL(glUniformMatrix4fv(nativeContext->texTransformHandle, numMatrices,
-                                transpose, texTransformArray));
-    env->ReleaseFloatArrayElements(jtexTransformArray, texTransformArray,
-                                   JNI_ABORT);
+    // Only re-upload the texture transform to GPU if it is dirty
+    if (texTransformDirty) {
+        numMatrices = 1;
+        transpose = GL_FALSE;
+        GLfloat *texTransformArray =
+                env->GetFloatArrayElements(jtexTransformArray, nullptr);
+        CHECK_GL(glUniformMatrix4fv(nativeContext->texTransformHandle, numMatrices,
+                                    transpose, texTransformArray));
+        env->ReleaseFloatArrayElements(jtexTransformArray, texTransformArray,
+                                       JNI_ABORT);
+    }
     CHECK_GL(glBindTexture(GL_TEXTURE_EXTERNAL_OES, texName));
     // Required to use a left-handed coordinate system in order to match our world-space
     //
@@ -536,7 +540,7 @@ Java_com_amplifyframework_ui_liveness_camera_OpenGLRenderer_renderTexture(
     return JNI_TRUE;
 }
 JNIEXPORT void JNICALL
-Java_com_amplifyframework_ui_liveness_camera_OpenGLRenderer_closeContext(
+Java_com_amplifyframework_ui_liveness_camera_JniRenderBackend_nativeCloseContext(
         JNIEnv *env, jclass clazz, jlong context) {
     auto *nativeContext = reinterpret_cast<NativeContext *>(context);
     if (nativeContext->program) {
@@ -552,7 +556,7 @@ Java_com_amplifyframework_ui_liveness_camera_OpenGLRenderer_closeContext(
     delete nativeContext;
 }
 JNIEXPORT void JNICALL
-Java_com_amplifyframework_ui_liveness_camera_OpenGLRenderer_closeAdditionalContext(
+Java_com_amplifyframework_ui_liveness_camera_JniRenderBackend_nativeCloseAdditionalContext(
         JNIEnv *env, jclass clazz, jlong context) {
     auto *nativeContext = reinterpret_cast<NativeContext *>(context);
     DestroySurface(nativeContext);
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import com.amplifyframework.predictions.models.FaceLivenessChallengeType
+import com.amplifyframework.ui.liveness.ui.Camera
+import com.amplifyframework.ui.liveness.ui.ChallengeOptions
+
+/**
+ * The cameras a session can bind its preview and analysis to
+ */
+internal interface CameraBinding {
+
+    /**
+     * @return true if the device has the camera. Suspends until the camera provider is available.
+     */
+    suspend fun hasCamera(camera: Camera): Boolean
+
+    /**
+     * Binds the camera in place of any camera bound before
+     */
+    fun bind(camera: Camera)
+}
+
+/**
+ * Binds the camera of a session whose challenges use different cameras. The camera of the most likely challenge is
+ * opened while the session negotiates its challenge type, and rebound only if the session asks for the other one.
+ * Calls are expected on a single thread.
+ */
+internal class CameraBinder(private val cameras: CameraBinding) {
+
+    var boundCamera: Camera? = null
+        private set
+
+    // The camera of the session's challenge, once known
+    private var selectedCamera: Camera? = null
+
+    // Times the speculatively bound camera had to be replaced
+    var mispredictions = 0
+        private set
+
+    /**
+     * Binds the first available of [candidates], unless the session's camera has already been selected
+     */
+    suspend fun prebind(candidates: List<Camera>) {
+        for (camera in candidates) {
+            if (selectedCamera != null) return
+            if (cameras.hasCamera(camera)) {
+                // The challenge type may have arrived while waiting for the camera provider
+                if (selectedCamera == null) bindCamera(camera)
+                return
+            }
+        }
+    }
+
+    /**
+     * Binds the camera of the session's challenge, keeping the speculatively bound one if it was the right camera
+     * @return false if the device does not have the camera
+     */
+    suspend fun select(camera: Camera): Boolean {
+        selectedCamera = camera
+        if (!cameras.hasCamera(camera)) return false
+        if (boundCamera != camera) {
+            if (boundCamera != null) mispredictions++
+            bindCamera(camera)
+        }
+        return true
+    }
+
+    private fun bindCamera(camera: Camera) {
+        cameras.bind(camera)
+        boundCamera = camera
+    }
+
+    companion object {
+        // Challenge type of the last session, as sessions created by the same backend tend to repeat it
+        @Volatile
+        var lastChallengeType: FaceLivenessChallengeType? = null
+
+        /**
+         * @return the configured cameras, most likely first
+         */
+        fun predictCameras(challengeOptions: ChallengeOptions): List<Camera> {
+            val likelyType = lastChallengeType ?: FaceLivenessChallengeType.FaceMovementAndLightChallenge
+            val otherType = when (likelyType) {
+                FaceLivenessChallengeType.FaceMovementAndLightChallenge ->
+                    FaceLivenessChallengeType.FaceMovementChallenge
+                FaceLivenessChallengeType.FaceMovementChallenge ->
+                    FaceLivenessChallengeType.FaceMovementAndLightChallenge
+            }
+            return listOf(likelyType, otherType).map { challengeOptions.getLivenessChallenge(it).camera }.distinct()
+        }
+    }
+}
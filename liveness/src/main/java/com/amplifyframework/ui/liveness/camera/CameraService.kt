@@ -0,0 +1,208 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import android.annotation.SuppressLint
+import android.content.Context
+import android.graphics.SurfaceTexture
+import android.hardware.camera2.CameraCharacteristics
+import android.hardware.camera2.CaptureRequest
+import android.os.Handler
+import android.os.Looper
+import android.util.Range
+import android.util.Size
+import androidx.camera.camera2.interop.Camera2CameraControl
+import androidx.camera.camera2.interop.Camera2CameraInfo
+import androidx.camera.camera2.interop.CaptureRequestOptions
+import androidx.camera.core.CameraSelector
+import androidx.camera.core.UseCase
+import androidx.camera.lifecycle.ProcessCameraProvider
+import androidx.concurrent.futures.CallbackToFutureAdapter
+import androidx.lifecycle.LifecycleOwner
+import com.amplifyframework.ui.liveness.ui.Camera
+import com.google.common.util.concurrent.ListenableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executor
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+import kotlin.coroutines.suspendCoroutine
+
+/**
+ * What a camera of the device supports
+ * @param fpsRanges auto exposure target frame rate ranges
+ * @param resolutions output sizes for a preview surface
+ */
+internal class CameraCapabilities(
+    val fpsRanges: List<Range<Int>>,
+    val resolutions: List<Size>
+)
+
+/**
+ * The parts of [ProcessCameraProvider] the liveness check uses
+ */
+internal interface LivenessCameraProvider {
+    fun hasCamera(camera: Camera): Boolean
+    fun capabilities(camera: Camera): CameraCapabilities
+
+    /**
+     * @param fpsRange auto exposure target frame rate range of the camera, replacing the one of the use cases
+     */
+    fun bindToLifecycle(lifecycleOwner: LifecycleOwner, camera: Camera, fpsRange: Range<Int>, vararg useCases: UseCase)
+
+    fun unbindAll()
+}
+
+/**
+ * Loads the camera provider once per process and caches what each camera supports, so launching the camera again
+ * and unbinding it do not wait for the provider or query the camera service.
+ */
+internal class CameraService(
+    private val loadProvider: (Context) -> ListenableFuture<out LivenessCameraProvider>,
+    private val mainExecutor: Executor = Executor { Handler(Looper.getMainLooper()).post(it) }
+) {
+
+    private var providerFuture: ListenableFuture<out LivenessCameraProvider>? = null
+
+    @Volatile
+    var provider: LivenessCameraProvider? = null
+        private set
+
+    private val cameraAvailability = ConcurrentHashMap<Camera, Boolean>()
+    private val cameraCapabilities = ConcurrentHashMap<Camera, CameraCapabilities>()
+
+    /**
+     * Starts loading the camera provider if it has not been loaded yet
+     */
+    fun prefetch(context: Context) {
+        load(context)
+    }
+
+    /**
+     * @return the camera provider, without suspending once it has been loaded
+     */
+    suspend fun awaitProvider(context: Context): LivenessCameraProvider {
+        provider?.let { return it }
+        val future = load(context)
+        return suspendCoroutine { continuation ->
+            future.addListener({
+                runCatching { future.get() }
+                    .onSuccess { continuation.resume(it) }
+                    .onFailure { continuation.resumeWithException(it.cause ?: it) }
+            }, Runnable::run)
+        }
+    }
+
+    /**
+     * @return false if the device does not have the camera, or the provider has not been loaded yet
+     */
+    fun hasCamera(camera: Camera): Boolean {
+        val provider = provider ?: return false
+        return cameraAvailability.getOrPut(camera) { provider.hasCamera(camera) }
+    }
+
+    val availableCameras: List<Camera>
+        get() = listOf(Camera.Front, Camera.Back).filter(::hasCamera)
+
+    /**
+     * @return what the camera supports, or null if it is not available
+     */
+    fun capabilities(camera: Camera): CameraCapabilities? {
+        val provider = provider ?: return null
+        if (!hasCamera(camera)) return null
+        return cameraCapabilities.getOrPut(camera) { provider.capabilities(camera) }
+    }
+
+    /**
+     * Unbinds the cameras on the main thread. Does nothing if the provider was never loaded, as nothing can be bound.
+     */
+    fun unbindAll() {
+        val provider = provider ?: return
+        mainExecutor.execute { provider.unbindAll() }
+    }
+
+    private fun load(context: Context) = synchronized(this) {
+        providerFuture ?: loadProvider(context.applicationContext).also { future ->
+            providerFuture = future
+            future.addListener({
+                val loaded = runCatching { future.get() }.getOrNull()
+                synchronized(this) {
+                    // A failed load is retried by the next launch
+                    if (loaded == null) providerFuture = null else provider = loaded
+                }
+            }, Runnable::run)
+        }
+    }
+
+    companion object {
+        val shared = CameraService(::loadProcessCameraProvider)
+
+        private fun loadProcessCameraProvider(context: Context) =
+            CallbackToFutureAdapter.getFuture<LivenessCameraProvider> { completer ->
+                val future = ProcessCameraProvider.getInstance(context)
+                future.addListener({
+                    runCatching { future.get() }
+                        .onSuccess { completer.set(CameraXProvider(it)) }
+                        .onFailure { completer.setException(it.cause ?: it) }
+                }, Runnable::run)
+                "ProcessCameraProvider"
+            }
+    }
+}
+
+@SuppressLint("UnsafeOptInUsageError")
+private class CameraXProvider(private val cameraProvider: ProcessCameraProvider) : LivenessCameraProvider {
+
+    override fun hasCamera(camera: Camera) = cameraProvider.hasCamera(camera.selector)
+
+    override fun capabilities(camera: Camera): CameraCapabilities {
+        val cameraInfo = camera.selector.filter(cameraProvider.availableCameraInfos).first()
+        val camera2Info = Camera2CameraInfo.from(cameraInfo)
+        val fpsRanges = camera2Info.getCameraCharacteristic(
+            CameraCharacteristics.CONTROL_AE_AVAILABLE_TARGET_FPS_RANGES
+        )
+        val streamConfigurations = camera2Info.getCameraCharacteristic(
+            CameraCharacteristics.SCALER_STREAM_CONFIGURATION_MAP
+        )
+        return CameraCapabilities(
+            fpsRanges = fpsRanges?.toList().orEmpty(),
+            resolutions = streamConfigurations?.getOutputSizes(SurfaceTexture::class.java)?.toList().orEmpty()
+        )
+    }
+
+    override fun bindToLifecycle(
+        lifecycleOwner: LifecycleOwner,
+        camera: Camera,
+        fpsRange: Range<Int>,
+        vararg useCases: UseCase
+    ) {
+        val boundCamera = cameraProvider.bindToLifecycle(lifecycleOwner, camera.selector, *useCases)
+        Camera2CameraControl.from(boundCamera.cameraControl).setCaptureRequestOptions(
+            CaptureRequestOptions.Builder()
+                .setCaptureRequestOption(CaptureRequest.CONTROL_AE_TARGET_FPS_RANGE, fpsRange)
+                .build()
+        )
+    }
+
+    override fun unbindAll() {
+        cameraProvider.unbindAll()
+    }
+
+    private val Camera.selector
+        get() = when (this) {
+            Camera.Front -> CameraSelector.DEFAULT_FRONT_CAMERA
+            Camera.Back -> CameraSelector.DEFAULT_BACK_CAMERA
+        }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import androidx.camera.core.ImageAnalysis
+import java.util.concurrent.Executor
+
+/**
+ * Delivers the frames of a CameraX [ImageAnalysis] use case configured for RGBA_8888 output
+ */
+internal class CameraXFrameSource(
+    private val analysis: ImageAnalysis,
+    private val executor: Executor
+) : FrameSource {
+    override fun start(onFrame: (RgbaFrame) -> Unit) {
+        analysis.setAnalyzer(executor) { image ->
+            image.use {
+                onFrame(
+                    RgbaFrame(
+                        it.width,
+                        it.height,
+                        it.imageInfo.rotationDegrees,
+                        it.imageInfo.timestamp,
+                        it.planes[0].buffer
+                    )
+                )
+            }
+        }
+    }
+
+    override fun stop() {
+        analysis.clearAnalyzer()
+    }
+}
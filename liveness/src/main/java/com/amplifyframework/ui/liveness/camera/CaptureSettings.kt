@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import android.util.Range
+import android.util.Size
+import com.amplifyframework.ui.liveness.camera.LivenessCoordinator.Companion.TARGET_FPS_MAX
+import com.amplifyframework.ui.liveness.camera.LivenessCoordinator.Companion.TARGET_FPS_MIN
+import com.amplifyframework.ui.liveness.camera.LivenessCoordinator.Companion.TARGET_RESOLUTION_SIZE
+import kotlin.math.abs
+import kotlin.math.max
+import kotlin.math.min
+
+/**
+ * The auto exposure frame rate range and preview resolution requested from a camera
+ * @param frameRate frames per second the encoder receives, which is the camera's rate capped at the target rate
+ */
+internal data class CaptureSettings(
+    val fpsRange: Range<Int>,
+    val resolution: Size,
+    val frameRate: Int
+) {
+    companion object {
+        // Requested when the camera's capabilities are not known yet
+        val DEFAULT = CaptureSettings(Range(TARGET_FPS_MIN, TARGET_FPS_MAX), TARGET_RESOLUTION_SIZE, TARGET_FPS_MAX)
+
+        // Below this the face movement in the video is too choppy for the check
+        const val MIN_FRAME_RATE = 15
+
+        // Some legacy camera HALs report frame rates in thousandths of a frame
+        private const val LEGACY_FPS_SCALE = 1000
+
+        private const val ASPECT_RATIO_TOLERANCE = 0.01f
+
+        /**
+         * Picks the frame rate range and resolution of [capabilities] closest to what the encoder needs
+         * @param targetResolution in portrait orientation, as requested from CameraX
+         */
+        fun select(
+            capabilities: CameraCapabilities?,
+            targetFrameRate: Int = TARGET_FPS_MAX,
+            targetResolution: Size = TARGET_RESOLUTION_SIZE
+        ): CaptureSettings {
+            if (capabilities == null) return DEFAULT
+            val fpsRange = selectFpsRange(capabilities.fpsRanges, targetFrameRate)
+            return CaptureSettings(
+                fpsRange = fpsRange ?: DEFAULT.fpsRange,
+                resolution = selectResolution(capabilities.resolutions, targetResolution),
+                frameRate = fpsRange?.let { min(normalize(it).upper, targetFrameRate) } ?: targetFrameRate
+            )
+        }
+
+        /**
+         * Prefers a range containing the target with the highest lower bound, so the cadence stays close to the
+         * target in low light, then the narrowest. Otherwise the fixed or narrowest range closest to the target.
+         */
+        private fun selectFpsRange(fpsRanges: List<Range<Int>>, targetFrameRate: Int): Range<Int>? {
+            val usable = fpsRanges.filter { normalize(it).upper >= MIN_FRAME_RATE }
+            val containing = usable.filter { normalize(it).contains(targetFrameRate) }
+            if (containing.isNotEmpty()) {
+                return containing.sortedWith(
+                    compareByDescending<Range<Int>> { normalize(it).lower }.thenBy { normalize(it).upper }
+                ).first()
+            }
+            return usable.minWithOrNull(
+                compareBy<Range<Int>> { distance(normalize(it), targetFrameRate) }
+                    .thenBy { normalize(it).upper - normalize(it).lower }
+                    // Faster ranges can be capped to the target, slower ones cannot be raised
+                    .thenByDescending { normalize(it).upper }
+            )
+        }
+
+        private fun distance(range: Range<Int>, frameRate: Int) =
+            min(abs(range.lower - frameRate), abs(range.upper - frameRate))
+
+        private fun normalize(range: Range<Int>) = if (range.upper >= LEGACY_FPS_SCALE) {
+            Range(range.lower / LEGACY_FPS_SCALE, range.upper / LEGACY_FPS_SCALE)
+        } else {
+            range
+        }
+
+        /**
+         * Prefers the smallest size of the target aspect ratio that covers the target, then the smallest size of
+         * any aspect ratio that does, then the largest size. Camera sizes are in landscape orientation.
+         */
+        private fun selectResolution(resolutions: List<Size>, targetResolution: Size): Size {
+            val targetLong = max(targetResolution.width, targetResolution.height)
+            val targetShort = min(targetResolution.width, targetResolution.height)
+            val covering = resolutions.filter {
+                max(it.width, it.height) >= targetLong && min(it.width, it.height) >= targetShort
+            }
+            val targetAspectRatio = aspectRatio(targetResolution)
+            val sameAspect = covering.filter { abs(aspectRatio(it) - targetAspectRatio) < ASPECT_RATIO_TOLERANCE }
+            val selected = sameAspect.minByOrNull { it.width * it.height }
+                ?: covering.minByOrNull { it.width * it.height }
+                ?: resolutions.maxByOrNull { it.width * it.height }
+                ?: return targetResolution
+            // Back to the orientation of the target
+            return if (targetResolution.width < targetResolution.height) {
+                Size(min(selected.width, selected.height), max(selected.width, selected.height))
+            } else {
+                Size(max(selected.width, selected.height), min(selected.width, selected.height))
+            }
+        }
+
+        private fun aspectRatio(size: Size) = max(size.width, size.height).toFloat() / min(size.width, size.height)
+    }
+}
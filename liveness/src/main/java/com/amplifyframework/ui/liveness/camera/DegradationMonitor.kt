@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import android.content.BroadcastReceiver
+import android.content.Context
+import android.content.Intent
+import android.content.IntentFilter
+import android.os.Build
+import android.os.PowerManager
+import androidx.annotation.RequiresApi
+import androidx.core.content.ContextCompat
+import com.amplifyframework.ui.liveness.ml.FaceDetectionInterpreter
+
+/**
+ * How far the liveness pipeline is scaled back to reduce heat and power use. Higher tiers analyze fewer frames,
+ * run the face detection model on fewer threads and encode at a lower bitrate, never going above the settings of
+ * the [PipelineConfig] or below [LivenessCoordinator.MIN_ENCODE_BITRATE]. The camera, preview and encoder frame
+ * rates are never changed, so the freshness colors are displayed and recorded with the same timing.
+ */
+internal enum class DegradationTier(
+    val analysisFrameRate: Int,
+    val interpreterThreads: Int,
+    val encoderBitrateScale: Float
+) {
+    NONE(FrameRateDecimator.UNLIMITED, FaceDetectionInterpreter.DEFAULT_THREADS, 1f),
+    LIGHT(16, 2, 0.85f),
+    MODERATE(12, 2, 0.7f),
+    SEVERE(8, 1, 0.5f);
+
+    companion object {
+        fun from(thermalStatus: Int, powerSaveMode: Boolean): DegradationTier {
+            val thermalTier = when {
+                thermalStatus >= PowerManager.THERMAL_STATUS_SEVERE -> SEVERE
+                thermalStatus == PowerManager.THERMAL_STATUS_MODERATE -> MODERATE
+                thermalStatus == PowerManager.THERMAL_STATUS_LIGHT -> LIGHT
+                else -> NONE
+            }
+            // Battery saver asks for at least the light tier
+            return if (powerSaveMode && thermalTier < LIGHT) LIGHT else thermalTier
+        }
+    }
+}
+
+/**
+ * Follows the device thermal status and battery saver mode, and reports the [DegradationTier] they call for
+ * whenever it changes. The thermal status is only available from Android 10, so older devices only degrade for
+ * battery saver. Callbacks are made on the main thread.
+ */
+internal class DegradationMonitor(
+    private val context: Context,
+    private val onTierChanged: (DegradationTier) -> Unit
+) {
+    private val powerManager = context.getSystemService(Context.POWER_SERVICE) as PowerManager
+    private val thermalListener = if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) ThermalListener() else null
+    private val powerSaveModeReceiver = object : BroadcastReceiver() {
+        override fun onReceive(context: Context, intent: Intent) {
+            update()
+        }
+    }
+    private var started = false
+
+    var tier = DegradationTier.NONE
+        private set
+
+    fun start() {
+        if (started) return
+        started = true
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            thermalListener?.register()
+        }
+        ContextCompat.registerReceiver(
+            context,
+            powerSaveModeReceiver,
+            IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED),
+            ContextCompat.RECEIVER_NOT_EXPORTED
+        )
+        update()
+    }
+
+    fun stop() {
+        if (!started) return
+        started = false
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            thermalListener?.unregister()
+        }
+        context.unregisterReceiver(powerSaveModeReceiver)
+    }
+
+    private fun update() {
+        if (!started) return
+        val thermalStatus = if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            powerManager.currentThermalStatus
+        } else {
+            PowerManager.THERMAL_STATUS_NONE
+        }
+        val newTier = DegradationTier.from(thermalStatus, powerManager.isPowerSaveMode)
+        if (newTier != tier) {
+            tier = newTier
+            onTierChanged(newTier)
+        }
+    }
+
+    @RequiresApi(Build.VERSION_CODES.Q)
+    private inner class ThermalListener : PowerManager.OnThermalStatusChangedListener {
+        fun register() = powerManager.addThermalStatusListener(ContextCompat.getMainExecutor(context), this)
+
+        fun unregister() = powerManager.removeThermalStatusListener(this)
+
+        override fun onThermalStatusChanged(status: Int) {
+            update()
+        }
+    }
+}
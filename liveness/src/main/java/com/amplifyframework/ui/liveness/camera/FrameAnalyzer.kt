@@ -17,14 +17,18 @@ package com.amplifyframework.ui.liveness.camera
 
 import android.content.Context
 import android.graphics.Bitmap
-import android.util.Size
-import androidx.camera.core.ImageAnalysis
-import androidx.camera.core.ImageProxy
 import androidx.core.graphics.createBitmap
 import com.amplifyframework.core.Amplify
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder
+import com.amplifyframework.ui.liveness.ml.FaceDetectionInterpreter
+import com.amplifyframework.ui.liveness.ml.FaceDetectionModel
 import com.amplifyframework.ui.liveness.ml.FaceDetector
-import com.amplifyframework.ui.liveness.ml.FaceOval
+import com.amplifyframework.ui.liveness.ml.FacePresenceGate
+import com.amplifyframework.ui.liveness.ml.FrameQualityGate
+import com.amplifyframework.ui.liveness.ml.LiteRtFaceDetectionInterpreter
 import com.amplifyframework.ui.liveness.state.LivenessState
+import com.amplifyframework.ui.liveness.trace.TraceRecord
+import com.amplifyframework.ui.liveness.util.ResourceLedger
 import org.tensorflow.lite.DataType
 import org.tensorflow.lite.support.common.ops.NormalizeOp
 import org.tensorflow.lite.support.image.ImageProcessor
@@ -32,20 +36,98 @@ import org.tensorflow.lite.support.image.TensorImage
 import org.tensorflow.lite.support.image.ops.ResizeOp
 import org.tensorflow.lite.support.image.ops.Rot90Op
 
-internal class FrameAnalyzer(context: Context, private val livenessState: LivenessState) : ImageAnalysis.Analyzer {
+/**
+ * @param presenceGate skips the face detector on frames without skin tones. It is off by default, as its skin tone
+ * range has not been validated on labeled images across complexions and lighting.
+ */
+internal class FrameAnalyzer(
+    private val livenessState: LivenessState,
+    private val interpreter: FaceDetectionInterpreter,
+    private val presenceGate: FacePresenceGate? = null,
+    private val qualityGate: FrameQualityGate = FrameQualityGate(interpreter.model),
+    private val pipelineConfig: PipelineConfig = PipelineConfig.HIGH,
+    private val resources: ResourceLedger = ResourceLedger()
+) {
+
+    constructor(
+        context: Context,
+        livenessState: LivenessState,
+        pipelineConfig: PipelineConfig,
+        resources: ResourceLedger,
+        model: FaceDetectionModel = FaceDetectionModel.DEFAULT
+    ) : this(
+        livenessState,
+        LiteRtFaceDetectionInterpreter(
+            { numThreads -> FaceDetector.loadModel(context, model, numThreads) },
+            model,
+            pipelineConfig.interpreterThreads
+        ),
+        pipelineConfig = pipelineConfig,
+        resources = resources
+    )
+
+    private val model = interpreter.model
 
-    private val tfLite = FaceDetector.loadModel(context)
     private val tfImageBuffer = TensorImage(DataType.UINT8)
     private var tfImageProcessor: ImageProcessor? = null
 
-    private var cachedBitmap: Bitmap? = null
-    private var faceDetector = FaceDetector(livenessState)
+    private val interpreterResource = resources.register("face detection interpreter", interpreter) { it.close() }
+    private var cachedBitmap: ResourceLedger.Resource<Bitmap>? = null
+    private var closed = false
+    private var faceDetector = FaceDetector(livenessState, model)
+
+    // Records every frame when the session is traced
+    private val trace = livenessState.trace
+
+    // Model outputs are fully overwritten by each run
+    private val outputLocations = arrayOf(
+        Array(model.outputLayout.numBoxes) { FloatArray(FaceDetectionDecoder.NUM_COORDS) }
+    )
+    private val outputScores = arrayOf(Array(model.outputLayout.numBoxes) { FloatArray(1) })
 
     private val logger = Amplify.Logging.forNamespace("Liveness")
 
-    override fun analyze(image: ImageProxy) {
+    // Whether the last detector run found a face. The presence gate never skips the frame after one.
+    private var faceInPreviousFrame = false
+
+    // Set from the main thread and applied on the analysis thread before the next frame
+    @Volatile
+    private var degradationTier = DegradationTier.NONE
+    private var appliedDegradationTier: DegradationTier? = null
+    private val analysisRateDecimator = FrameRateDecimator(pipelineConfig.analysisFrameRate)
+
+    // Frames the detector ran on, frames it was skipped on because the presence gate found no face, and frames it
+    // was skipped on because they were too dark, bright or blurry
+    var detectorRuns = 0
+        private set
+    var gatedFrames = 0
+        private set
+    var unusableFrames = 0
+        private set
+
+    // Frames skipped to keep to the analysis frame rate of the pipeline config and degradation tier
+    var decimatedFrames = 0
+        private set
+
+    fun setDegradationTier(tier: DegradationTier) {
+        degradationTier = tier
+    }
+
+    /**
+     * Releases the interpreter and bitmap. Must be called on the analysis thread, once frames have stopped, so it
+     * cannot release them during a frame.
+     */
+    fun close() {
+        closed = true
+        cachedBitmap?.release()
+        cachedBitmap = null
+        interpreterResource.release()
+    }
+
+    fun analyze(frame: RgbaFrame) {
+        if (closed) return
         try {
-            attemptAnalyze(image)
+            attemptAnalyze(frame)
         } catch (e: Exception) {
             // We've seen a few instances of exceptions thrown by copyPixelsFromBuffer.
             // This indicates the image received may have been in an unexpected format.
@@ -54,81 +136,85 @@ internal class FrameAnalyzer(context: Context, private val livenessState: Livene
         }
     }
 
-    private fun attemptAnalyze(image: ImageProxy) {
+    private fun attemptAnalyze(frame: RgbaFrame) {
         if (cachedBitmap == null) {
-            cachedBitmap = createBitmap(image.width, image.height)
+            cachedBitmap = resources.register("analysis bitmap", createBitmap(frame.width, frame.height)) {
+                it.recycle()
+            }
         }
 
-        image.use {
-            cachedBitmap?.let { bitmap ->
-                bitmap.copyPixelsFromBuffer(it.planes[0].buffer)
-                if (livenessState.onFrameAvailable()) {
-                    val outputLocations = arrayOf(
-                        Array(FaceDetector.NUM_BOXES) {
-                            FloatArray(FaceDetector.NUM_COORDS)
-                        }
-                    )
-                    val outputScores = arrayOf(Array(FaceDetector.NUM_BOXES) { FloatArray(1) })
-                    val outputMap = mapOf(0 to outputLocations, 1 to outputScores)
-                    val tensorImage = tfImageBuffer.apply { load(cachedBitmap) }
-                    val tfImage = getImageProcessor(it.imageInfo.rotationDegrees)
-                        .process(tensorImage)
-                    tfLite.runForMultipleInputsOutputs(arrayOf(tfImage.buffer), outputMap)
-
-                    val facesFound = faceDetector.getBoundingBoxes(outputLocations, outputScores)
-                    livenessState.onFrameFaceCountUpdate(facesFound.size)
-
-                    if (facesFound.size > 1) return
-
-                    facesFound.firstOrNull()?.let { detectedFace ->
-                        val mirrorRectangle = FaceOval.convertMirroredRectangle(
-                            detectedFace.location,
-                            LivenessCoordinator.TARGET_WIDTH
-                        )
-                        val mirroredLeftEye = FaceOval.convertMirroredLandmark(
-                            detectedFace.leftEye,
-                            LivenessCoordinator.TARGET_WIDTH
-                        )
-                        val mirroredRightEye = FaceOval.convertMirroredLandmark(
-                            detectedFace.rightEye,
-                            LivenessCoordinator.TARGET_WIDTH
-                        )
-                        val mirroredMouth = FaceOval.convertMirroredLandmark(
-                            detectedFace.mouth,
-                            LivenessCoordinator.TARGET_WIDTH
-                        )
-
-                        livenessState.onFrameFaceUpdate(
-                            mirrorRectangle,
-                            mirroredLeftEye,
-                            mirroredRightEye,
-                            mirroredMouth
-                        )
-                    }
+        cachedBitmap?.value?.let { bitmap ->
+            val frameMillis = trace?.now() ?: 0
+            if (livenessState.onFrameAvailable()) {
+                applyDegradationTier()
+                if (!analysisRateDecimator.shouldRender(frame.timestampNanos)) {
+                    decimatedFrames++
+                    trace?.frame(frameMillis, TraceRecord.FrameOutcome.DECIMATED)
+                    return
+                }
+                val gate = presenceGate
+                if (gate != null && !gate.shouldDetect(frame.pixels, frame.width, frame.height, faceInPreviousFrame)) {
+                    // The gate is only a guess, so the face count shown from the last detector run is left as is
+                    gatedFrames++
+                    trace?.frame(frameMillis, TraceRecord.FrameOutcome.NO_FACE)
+                    return
+                }
+
+                bitmap.copyPixelsFromBuffer(frame.pixels)
+                val tensorImage = tfImageBuffer.apply { load(bitmap) }
+                val tfImage = getImageProcessor(frame.rotationDegrees)
+                    .process(tensorImage)
+
+                val qualityIssue = qualityGate.check(tfImage.buffer, !model.quantized)
+                if (qualityIssue != null && livenessState.onFrameQualityIssue(qualityIssue)) {
+                    unusableFrames++
+                    trace?.frame(frameMillis, TraceRecord.FrameOutcome.UNUSABLE, qualityIssue)
+                    return
                 }
+
+                detectorRuns++
+                interpreter.run(tfImage.buffer, outputLocations, outputScores)
+                trace?.frame(
+                    frameMillis,
+                    TraceRecord.FrameOutcome.DETECTED,
+                    qualityIssue,
+                    outputLocations,
+                    outputScores
+                )
+
+                faceInPreviousFrame = faceDetector.reportFaces(outputLocations, outputScores) > 0
+            } else {
+                trace?.frame(frameMillis, TraceRecord.FrameOutcome.SKIPPED)
             }
         }
     }
 
+    private fun applyDegradationTier() {
+        val tier = degradationTier
+        if (tier == appliedDegradationTier) return
+        analysisRateDecimator.setMaxFrameRate(pipelineConfig.analysisFrameRate(tier))
+        interpreter.setNumThreads(pipelineConfig.interpreterThreads(tier))
+        appliedDegradationTier = tier
+    }
+
     private fun getImageProcessor(imageRotationDegrees: Int): ImageProcessor {
         val existingImageProcessor = tfImageProcessor
         if (existingImageProcessor != null) return existingImageProcessor
 
-        val tfInputSize = tfLite.getInputTensor(0).shape().let {
-            Size(it[2], it[1])
-        }
-
-        val imageProcessor = ImageProcessor.Builder()
+        val imageProcessorBuilder = ImageProcessor.Builder()
             .add(
                 ResizeOp(
-                    tfInputSize.height,
-                    tfInputSize.width,
+                    model.inputHeight,
+                    model.inputWidth,
                     ResizeOp.ResizeMethod.NEAREST_NEIGHBOR
                 )
             )
             .add(Rot90Op(-imageRotationDegrees / 90))
-            .add(NormalizeOp(0f, 255f)) // transform RGB values from [-255, 255] to [-1, 1]
-            .build()
+        // Quantized models take the UINT8 RGB values as they are
+        if (!model.quantized) {
+            imageProcessorBuilder.add(NormalizeOp(0f, 255f)) // transform RGB values from [-255, 255] to [-1, 1]
+        }
+        val imageProcessor = imageProcessorBuilder.build()
 
         this.tfImageProcessor = imageProcessor
         return imageProcessor
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera;
+
+/**
+ * Decides which camera frames are rendered to an output surface so that the surface receives
+ * at most a fixed frame rate, independent of the rate the camera delivers.
+ *
+ * <p>Frames are scheduled against an ideal cadence of one frame per interval. A frame is
+ * rendered once its timestamp reaches the next scheduled time, allowing for a small amount of
+ * camera jitter. If frames stop arriving for longer than an interval, or the timestamps jump
+ * backwards, the cadence is restarted from the next frame.
+ */
+final class FrameRateDecimator {
+    static final int UNLIMITED = 0;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    // Portion of the interval a frame may arrive early and still be rendered.
+    private static final int JITTER_TOLERANCE_DIVISOR = 8;
+
+    private long mIntervalNs;
+    private long mToleranceNs;
+    private long mNextFrameNs;
+    private boolean mScheduled;
+
+    FrameRateDecimator(int maxFrameRate) {
+        setMaxFrameRate(maxFrameRate);
+    }
+
+    /**
+     * Sets the maximum rate of rendered frames. {@link #UNLIMITED} renders every frame.
+     */
+    void setMaxFrameRate(int maxFrameRate) {
+        if (maxFrameRate < 0) {
+            throw new IllegalArgumentException("maxFrameRate must not be negative: " + maxFrameRate);
+        }
+        mIntervalNs = maxFrameRate == UNLIMITED ? 0 : NANOS_PER_SECOND / maxFrameRate;
+        mToleranceNs = mIntervalNs / JITTER_TOLERANCE_DIVISOR;
+        reset();
+    }
+
+    void reset() {
+        mScheduled = false;
+        mNextFrameNs = 0;
+    }
+
+    /**
+     * @param timestampNs The timestamp of the camera frame, in nanoseconds.
+     * @return true if the frame should be rendered to the surface.
+     */
+    boolean shouldRender(long timestampNs) {
+        if (mIntervalNs == 0 || timestampNs <= 0) {
+            // No decimation requested, or no timestamp to schedule against.
+            return true;
+        }
+        if (!mScheduled
+                || timestampNs - mNextFrameNs > mIntervalNs
+                || mNextFrameNs - timestampNs > 2 * mIntervalNs) {
+            // First frame, a stall, or a timestamp discontinuity. Restart the cadence here.
+            mScheduled = true;
+            mNextFrameNs = timestampNs + mIntervalNs;
+            return true;
+        }
+        if (timestampNs >= mNextFrameNs - mToleranceNs) {
+            mNextFrameNs += mIntervalNs;
+            return true;
+        }
+        return false;
+    }
+}
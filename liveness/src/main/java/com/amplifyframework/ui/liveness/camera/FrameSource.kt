@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import java.nio.ByteBuffer
+
+/**
+ * Delivers RGBA frames to the [FrameAnalyzer]. Frames are delivered one at a time on a background thread and are
+ * only valid until the callback returns.
+ */
+internal interface FrameSource {
+    fun start(onFrame: (RgbaFrame) -> Unit)
+    fun stop()
+}
+
+/**
+ * A frame of tightly packed RGBA_8888 pixels
+ */
+internal class RgbaFrame(
+    val width: Int,
+    val height: Int,
+    val rotationDegrees: Int,
+    val timestampNanos: Long,
+    val pixels: ByteBuffer
+)
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera;
+
+import android.view.Surface;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+/**
+ * {@link RenderBackend} backed by liveness_opengl_renderer_jni. The native library is loaded
+ * when this class is first used, so renderers built on another backend never load it.
+ */
+final class JniRenderBackend implements RenderBackend {
+    static {
+        System.loadLibrary("liveness_opengl_renderer_jni");
+    }
+
+    @Override
+    public long initContext() {
+        return nativeInitContext();
+    }
+
+    @Override
+    public long initAdditionalContext(long nativeContext) {
+        return nativeInitAdditionalContext(nativeContext);
+    }
+
+    @Override
+    public boolean setWindowSurface(long nativeContext, @Nullable Surface surface) {
+        return nativeSetWindowSurface(nativeContext, surface);
+    }
+
+    @Override
+    public int getTexName(long nativeContext) {
+        return nativeGetTexName(nativeContext);
+    }
+
+    @Override
+    public boolean makeCurrent(long nativeContext) {
+        return nativeMakeCurrent(nativeContext);
+    }
+
+    @Override
+    public void setViewPort(int width, int height) {
+        nativeSetViewPort(width, height);
+    }
+
+    @Override
+    public boolean renderTexture(
+            long nativeContext,
+            long timestampNs,
+            @NonNull float[] mvpTransform,
+            boolean mvpDirty,
+            @NonNull float[] textureTransform,
+            boolean textureTransformDirty,
+            int texName) {
+        return nativeRenderTexture(nativeContext, timestampNs, mvpTransform, mvpDirty, textureTransform,
+                textureTransformDirty, texName);
+    }
+
+    @Override
+    public void closeContext(long nativeContext) {
+        nativeCloseContext(nativeContext);
+    }
+
+    @Override
+    public void closeAdditionalContext(long nativeContext) {
+        nativeCloseAdditionalContext(nativeContext);
+    }
+
+    @WorkerThread
+    private static native long nativeInitContext();
+
+    @WorkerThread
+    private static native long nativeInitAdditionalContext(long nativeContext);
+
+    @WorkerThread
+    private static native boolean nativeSetWindowSurface(long nativeContext, @Nullable Surface surface);
+
+    @WorkerThread
+    private static native int nativeGetTexName(long nativeContext);
+
+    @WorkerThread
+    private static native boolean nativeMakeCurrent(long nativeContext);
+
+    @WorkerThread
+    private static native void nativeSetViewPort(int width, int height);
+
+    @WorkerThread
+    private static native boolean nativeRenderTexture(
+            long nativeContext,
+            long timestampNs,
+            @NonNull float[] mvpTransform,
+            boolean mvpDirty,
+            @NonNull float[] textureTransform,
+            boolean textureTransformDirty,
+            int texName);
+
+    @WorkerThread
+    private static native void nativeCloseContext(long nativeContext);
+
+    @WorkerThread
+    private static native void nativeCloseAdditionalContext(long nativeContext);
+}
@@ -18,51 +18,56 @@ package com.amplifyframework.ui.liveness.camera
 import android.annotation.SuppressLint
 import android.content.Context
 import android.hardware.camera2.CaptureRequest
-import android.util.Range
 import android.util.Size
+import android.view.Surface
+import android.view.TextureView
 import androidx.camera.camera2.interop.Camera2Interop
-import androidx.camera.core.CameraSelector
 import androidx.camera.core.ImageAnalysis
 import androidx.camera.core.Preview
-import androidx.camera.lifecycle.ProcessCameraProvider
-import androidx.core.content.ContextCompat
 import androidx.lifecycle.Lifecycle
 import androidx.lifecycle.LifecycleOwner
 import com.amplifyframework.auth.AWSCredentials
 import com.amplifyframework.auth.AWSCredentialsProvider
+import com.amplifyframework.core.Amplify
 import com.amplifyframework.core.Consumer
-import com.amplifyframework.predictions.aws.AWSPredictionsPlugin
 import com.amplifyframework.predictions.aws.exceptions.AccessDeniedException
 import com.amplifyframework.predictions.aws.exceptions.FaceLivenessSessionNotFoundException
 import com.amplifyframework.predictions.aws.exceptions.FaceLivenessSessionTimeoutException
 import com.amplifyframework.predictions.aws.exceptions.FaceLivenessUnsupportedChallengeTypeException
 import com.amplifyframework.predictions.aws.models.ColorChallengeResponse
 import com.amplifyframework.predictions.aws.models.RgbColor
-import com.amplifyframework.predictions.aws.options.AWSFaceLivenessSessionOptions
-import com.amplifyframework.predictions.models.Challenge
-import com.amplifyframework.predictions.models.FaceLivenessSessionInformation
 import com.amplifyframework.predictions.models.VideoEvent
-import com.amplifyframework.ui.liveness.BuildConfig
 import com.amplifyframework.ui.liveness.media.LivenessVideoEncoder
+import com.amplifyframework.ui.liveness.ml.FaceDetectionModel
 import com.amplifyframework.ui.liveness.model.FaceLivenessDetectionException
+import com.amplifyframework.ui.liveness.model.FreshnessFrameStats
 import com.amplifyframework.ui.liveness.model.LivenessCheckState
+import com.amplifyframework.ui.liveness.session.AWSLivenessSessionTransport
+import com.amplifyframework.ui.liveness.session.LivenessSessionTransport
+import com.amplifyframework.ui.liveness.session.SessionPreconnector
+import com.amplifyframework.ui.liveness.session.createSessionInformation
 import com.amplifyframework.ui.liveness.state.AttemptCounter
 import com.amplifyframework.ui.liveness.state.LivenessState
+import com.amplifyframework.ui.liveness.trace.LivenessTraceWriter
+import com.amplifyframework.ui.liveness.trace.TraceRecord
 import com.amplifyframework.ui.liveness.ui.Camera
 import com.amplifyframework.ui.liveness.ui.ChallengeOptions
+import com.amplifyframework.ui.liveness.ui.PerformanceOptions
+import com.amplifyframework.ui.liveness.ui.PerformancePreset
 import com.amplifyframework.ui.liveness.ui.VideoOptions
+import com.amplifyframework.ui.liveness.util.ResourceLedger
 import com.amplifyframework.ui.liveness.util.WebSocketCloseCode
 import java.util.Date
 import java.util.concurrent.Executors
-import kotlin.coroutines.resume
-import kotlin.coroutines.suspendCoroutine
 import kotlinx.coroutines.CoroutineName
 import kotlinx.coroutines.MainScope
 import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.asCoroutineDispatcher
 import kotlinx.coroutines.cancel
 import kotlinx.coroutines.delay
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.plus
+import kotlinx.coroutines.withContext
 
 internal typealias OnMuxedSegment = (bytes: ByteArray, timestamp: Long) -> Unit
 internal typealias OnChallengeComplete = () -> Unit
@@ -82,59 +87,87 @@ internal class LivenessCoordinator(
     private val credentialsProvider: AWSCredentialsProvider<AWSCredentials>?,
     private val disableStartView: Boolean,
     private val challengeOptions: ChallengeOptions,
-    videoOptions: VideoOptions,
+    videoOptions: VideoOptions?,
+    performanceOptions: PerformanceOptions,
     private val onChallengeComplete: OnChallengeComplete,
-    val onChallengeFailed: Consumer<FaceLivenessDetectionException>
+    val onChallengeFailed: Consumer<FaceLivenessDetectionException>,
+    private val sessionTransport: LivenessSessionTransport = AWSLivenessSessionTransport,
+    private val cameraService: CameraService = CameraService.shared,
+    // False when the host does not render with Compose
+    snapshotState: Boolean = true
 ) {
 
+    private val logger = Amplify.Logging.forNamespace("Liveness")
     private val attemptCounter = AttemptCounter()
-    private val analysisExecutor = Executors.newSingleThreadExecutor()
+
+    // Native and threaded resources of the session, released in destroy
+    private val resources = ResourceLedger()
+    private val analysisExecutor = resources.register("analysis executor", Executors.newSingleThreadExecutor()) {
+        it.shutdown()
+    }.value
     private val coordinatorScope = MainScope() + CoroutineName("LivenessCoordinator")
 
+    val performancePreset = performanceOptions.preset.takeUnless { it == PerformancePreset.Auto }
+        ?: DeviceClassifier.classify(context)
+    private val pipelineConfig = PipelineConfig.forPreset(performancePreset)
+
     val livenessState = LivenessState(
         sessionId = sessionId,
         context = context,
         disableStartView = disableStartView,
         onCaptureReady = this::processCaptureReady,
         onSessionError = this::processSessionError,
-        onFinalEventsSent = this::processFinalEventsSent
+        onFinalEventsSent = this::processFinalEventsSent,
+        resources = resources,
+        trace = LivenessTraceWriter.create(sessionId, FaceDetectionModel.DEFAULT.name, disableStartView, resources),
+        snapshotState = snapshotState
+    )
+
+    // Negotiated from the capabilities of the camera most likely to be used, if the camera provider has loaded them.
+    // The bound camera's own settings are applied when it is bound.
+    private var captureSettings = CaptureSettings.select(
+        cameraService.capabilities(CameraBinder.predictCameras(challengeOptions).first())
     )
 
     private val preview = Preview.Builder().apply {
         Camera2Interop.Extender(this).apply {
             setCaptureRequestOption(
                 CaptureRequest.CONTROL_AE_TARGET_FPS_RANGE,
-                Range(TARGET_FPS_MIN, TARGET_FPS_MAX)
+                captureSettings.fpsRange
             )
         }
-        setTargetResolution(TARGET_RESOLUTION_SIZE)
+        setTargetResolution(captureSettings.resolution)
     }.build()
 
-    private val analyzer = FrameAnalyzer(context, livenessState)
+    private val analyzer = FrameAnalyzer(context, livenessState, pipelineConfig, resources)
 
     private val analysis = ImageAnalysis.Builder().apply {
         Camera2Interop.Extender(this).apply {
             setCaptureRequestOption(
                 CaptureRequest.CONTROL_AE_TARGET_FPS_RANGE,
-                Range(TARGET_FPS_MIN, TARGET_FPS_MAX)
+                captureSettings.fpsRange
             )
         }
         setOutputImageFormat(ImageAnalysis.OUTPUT_IMAGE_FORMAT_RGBA_8888)
-        setTargetResolution(TARGET_RESOLUTION_SIZE)
-    }.build().apply {
-        setAnalyzer(analysisExecutor, analyzer)
+        setTargetResolution(Size(pipelineConfig.analysisWidth, pipelineConfig.analysisHeight))
+    }.build()
+
+    private val frameSource: FrameSource = CameraXFrameSource(analysis, analysisExecutor).apply {
+        start(analyzer::analyze)
     }
 
     private val encoder = LivenessVideoEncoder.create(
-        videoCodec = videoOptions.codec,
+        videoCodec = PipelineConfig.videoCodec(performanceOptions.preset, videoOptions),
         cacheDir = context.cacheDir,
         width = TARGET_WIDTH,
         height = TARGET_HEIGHT,
-        bitrate = TARGET_ENCODE_BITRATE,
-        frameRate = TARGET_FPS_MAX,
+        bitrate = pipelineConfig.encoderBitrate(DegradationTier.NONE),
+        frameRate = captureSettings.frameRate,
         keyframeInterval = TARGET_ENCODE_KEYFRAME_INTERVAL,
         onMuxedSegment = { bytes, time ->
-            livenessState.livenessSessionInfo?.sendVideoEvent(VideoEvent(bytes, Date(time)))
+            livenessState.livenessSessionInfo?.let {
+                livenessState.outboundEvents.sendVideoEvent(it, VideoEvent(bytes, Date(time)))
+            }
         },
         onEncoderError = { error ->
             processSessionError(
@@ -151,10 +184,14 @@ internal class LivenessCoordinator(
                 ),
                 true
             )
-        }
-    ) ?: throw IllegalStateException("Failed to start the encoder.")
+        },
+        resources = resources
+    ) ?: run {
+        resources.releaseAll()
+        throw IllegalStateException("Failed to start the encoder.")
+    }
 
-    private val renderer = OpenGLRenderer()
+    private val renderer = resources.register("renderer", OpenGLRenderer()) { it.shutdown() }.value
         .apply {
             attachInputPreview(preview)
             attachOutputSurface(
@@ -162,25 +199,57 @@ internal class LivenessCoordinator(
                 Size(TARGET_WIDTH, TARGET_HEIGHT),
                 0
             )
+            // The preview renders every camera frame, but the encoder only needs its configured frame rate
+            setOutputMaxFrameRate(captureSettings.frameRate)
         }
 
-    val previewTextureView = PreviewTextureView(context, renderer)
+    // Created for the composable, while other hosts attach their own preview
+    private var ownPreview: PreviewTextureView? = null
+    val previewTextureView: PreviewTextureView
+        get() = ownPreview ?: PreviewTextureView(context, renderer).also { ownPreview = it }
+    private var hostPreview: PreviewSurfaceTextureListener? = null
+    private var hostPreviewSurfaceAttached = false
+
+    // A preview surface cannot report frames, so its camera is assumed to be running
+    private val previewStarted
+        get() = ownPreview?.hasReceivedUpdate == true || hostPreview?.hasReceivedUpdate == true ||
+            hostPreviewSurfaceAttached
+
+    private val degradationMonitor = DegradationMonitor(context, ::applyDegradationTier)
+
+    private val cameraBinder = CameraBinder(CameraXBinding())
+
+    @Volatile
+    private var degradationTier = DegradationTier.NONE
 
     private var disconnectEventReceived = false
 
+    // Frame timing of the last freshness color playback
+    var freshnessFrameStats: FreshnessFrameStats? = null
+        private set
+    private val onFreshnessFrameStats = performanceOptions.onFreshnessFrameStats
+
     init {
+        logger.info("Liveness session $sessionId using the $performancePreset performance preset")
+        performanceOptions.onPresetSelected?.accept(performancePreset)
+        livenessState.outboundEvents.onBackpressureChanged = { updateEncoderBitrate() }
+        degradationMonitor.start()
         startLivenessSession()
         if (challengeOptions.hasOneCameraConfigured()) {
             launchCamera(challengeOptions.faceMovementAndLight.camera)
         } else {
             livenessState.loadingCameraPreview = true
+            // Open the likely camera while the session negotiates which one its challenge needs
+            coordinatorScope.launch {
+                cameraBinder.prebind(CameraBinder.predictCameras(challengeOptions))
+            }
         }
     }
 
     private fun launchCamera(camera: Camera) {
         coordinatorScope.launch {
             delay(5_000)
-            if (!previewTextureView.hasReceivedUpdate) {
+            if (!previewStarted) {
                 val faceLivenessException = FaceLivenessDetectionException(
                     "The camera failed to open within the allowed time limit.",
                     "Ensure the camera is available to use and that no other apps are using it."
@@ -189,62 +258,49 @@ internal class LivenessCoordinator(
             }
         }
         coordinatorScope.launch {
-            getCameraProvider(context).apply {
-                if (lifecycleOwner.lifecycle.currentState != Lifecycle.State.DESTROYED) {
-                    unbindAll()
-
-                    val (chosenCamera, orientation) = when (camera) {
-                        Camera.Front -> Pair(CameraSelector.DEFAULT_FRONT_CAMERA, "front")
-                        Camera.Back -> Pair(CameraSelector.DEFAULT_BACK_CAMERA, "back")
-                    }
-
-                    if (this.hasCamera(chosenCamera)) {
-                        bindToLifecycle(
-                            lifecycleOwner,
-                            chosenCamera,
-                            preview,
-                            analysis
-                        )
-                    } else {
-                        livenessState.loadingCameraPreview = false
-                        val faceLivenessException = FaceLivenessDetectionException(
-                            "A $orientation facing camera is required but no $orientation facing camera detected.",
-                            "Enable a $orientation facing camera."
-                        )
-                        processSessionError(faceLivenessException, true)
-                    }
+            if (!cameraBinder.select(camera)) {
+                livenessState.loadingCameraPreview = false
+                val orientation = when (camera) {
+                    Camera.Front -> "front"
+                    Camera.Back -> "back"
                 }
+                val faceLivenessException = FaceLivenessDetectionException(
+                    "A $orientation facing camera is required but no $orientation facing camera detected.",
+                    "Enable a $orientation facing camera."
+                )
+                processSessionError(faceLivenessException, true)
+            } else if (cameraBinder.mispredictions > 0) {
+                logger.info("Rebound the $camera camera after opening the other one while the session negotiated")
             }
         }
     }
 
+    fun attachPreview(textureView: TextureView) {
+        hostPreview = PreviewSurfaceTextureListener(textureView, renderer).apply { attach() }
+    }
+
+    fun attachPreview(surface: Surface, surfaceSize: Size, rotationDegrees: Int) {
+        hostPreviewSurfaceAttached = true
+        renderer.attachPreviewSurface(surface, surfaceSize, rotationDegrees)
+    }
+
+    fun detachPreview() = renderer.detachPreviewSurface()
+
     private fun startLivenessSession() {
         livenessState.livenessCheckState = LivenessCheckState.Initial.withConnectingMessage()
-        attemptCounter.countAttempt()
-
-        val faceLivenessSessionInformation = FaceLivenessSessionInformation(
-            videoWidth = TARGET_WIDTH.toFloat(),
-            videoHeight = TARGET_HEIGHT.toFloat(),
-            challengeVersions = listOf(
-                Challenge.FaceMovementAndLightChallenge("2.0.0"),
-                Challenge.FaceMovementChallenge("1.0.0")
-            ),
-            region = region,
-            preCheckViewEnabled = !disableStartView,
-            attemptCount = attemptCounter.getCount()
-        )
 
-        val faceLivenessSessionOptions = AWSFaceLivenessSessionOptions.builder().apply {
-            this@LivenessCoordinator.credentialsProvider?.let { credentialsProvider(it) }
-        }.build()
+        // A session preconnected through FaceLivenessDetector.preconnect has already counted its attempt and sent
+        // its session information, and delivers its results as soon as they are attached
+        val transport = SessionPreconnector.claim(sessionId, region, credentialsProvider, disableStartView)
+            ?: sessionTransport.also { attemptCounter.countAttempt() }
 
-        AWSPredictionsPlugin.startFaceLivenessSession(
+        transport.startSession(
             sessionId,
-            faceLivenessSessionInformation,
-            faceLivenessSessionOptions,
-            BuildConfig.LIVENESS_VERSION_NAME,
+            createSessionInformation(region, disableStartView, attemptCounter.getCount()),
+            credentialsProvider,
             {
                 livenessState.onLivenessSessionReady(it)
+                CameraBinder.lastChallengeType = it.challengeType
                 if (!challengeOptions.hasOneCameraConfigured()) {
                     val foundChallenge = challengeOptions.getLivenessChallenge(it.challengeType)
                     launchCamera(foundChallenge.camera)
@@ -275,10 +331,22 @@ internal class LivenessCoordinator(
         )
     }
 
-    private fun unbindCamera(context: Context) {
-        coordinatorScope.launch(NonCancellable) {
-            getCameraProvider(context).unbindAll()
+    private fun applyDegradationTier(tier: DegradationTier) {
+        logger.info("Liveness pipeline degradation tier changed to $tier")
+        degradationTier = tier
+        analyzer.setDegradationTier(tier)
+        updateEncoderBitrate()
+    }
+
+    // Called from the main thread for degradation tiers and from the sending threads for outbound backpressure
+    @Synchronized
+    private fun updateEncoderBitrate() {
+        val bitrate = if (livenessState.outboundEvents.backpressure) {
+            MIN_ENCODE_BITRATE
+        } else {
+            pipelineConfig.encoderBitrate(degradationTier)
         }
+        encoder.setBitrate(bitrate)
     }
 
     private fun processCaptureReady() {
@@ -295,7 +363,7 @@ internal class LivenessCoordinator(
             else -> WebSocketCloseCode.RUNTIME_ERROR
         }
         livenessState.onError(stopLivenessSession, webSocketCloseCode)
-        unbindCamera(context)
+        cameraService.unbindAll()
         onChallengeFailed.accept(faceLivenessException)
     }
 
@@ -305,7 +373,8 @@ internal class LivenessCoordinator(
         sequenceNumber: Int,
         colorStartTime: Long
     ) {
-        livenessState.livenessSessionInfo!!.sendChallengeResponseEvent(
+        livenessState.outboundEvents.sendChallengeResponseEvent(
+            livenessState.livenessSessionInfo!!,
             ColorChallengeResponse(
                 livenessState.colorChallenge!!.challengeId,
                 currentColor,
@@ -314,6 +383,22 @@ internal class LivenessCoordinator(
                 sequenceNumber
             )
         )
+        livenessState.trace?.event(
+            TraceRecord.EventType.COLOR,
+            startMillis = colorStartTime,
+            sequenceNumber = sequenceNumber
+        )
+    }
+
+    fun processFreshnessFrameStats(stats: FreshnessFrameStats) {
+        freshnessFrameStats = stats
+        onFreshnessFrameStats?.accept(stats)
+        if (stats.missedFrameCount > 0) {
+            logger.warn(
+                "Freshness playback missed ${stats.missedFrameCount} frames " +
+                    "(per color: ${stats.missedFramesPerScene}), delayed ${stats.compensationMillis}ms"
+            )
+        }
     }
 
     fun processLivenessCheckComplete() {
@@ -325,31 +410,55 @@ internal class LivenessCoordinator(
     }
 
     private fun processFinalEventsSent() {
-        unbindCamera(context)
+        cameraService.unbindAll()
     }
 
     /**
      * This is only called when onDispose is triggered from FaceLivenessDetector view.
      * If we begin calling destroy in other places, we should ensure we are still tracking the proper error code.
      */
-    fun destroy(context: Context) {
+    fun destroy() {
         // Destroy all resources so a new coordinator can safely be created
+        val webSocketCloseCode = if (!disconnectEventReceived) WebSocketCloseCode.DISPOSED else null
+        livenessState.onDestroy(true, webSocketCloseCode)
+        livenessState.outboundEvents.run {
+            logger.info(
+                "Liveness events sent: $sentEvents, peak queue depth $peakDepth events and $peakQueuedBytes bytes"
+            )
+        }
+        cameraService.unbindAll()
+        degradationMonitor.stop()
+        frameSource.stop()
         coordinatorScope.launch(NonCancellable) {
             encoder.stop()
             encoder.destroy()
+            // Closed on the analysis thread, after any frame still being analyzed
+            withContext(analysisExecutor.asCoroutineDispatcher()) { analyzer.close() }
+            resources.releaseAll()
+            resources.checkForLeaks()
         }
-        val webSocketCloseCode = if (!disconnectEventReceived) WebSocketCloseCode.DISPOSED else null
-        livenessState.onDestroy(true, webSocketCloseCode)
-        unbindCamera(context)
-        analysisExecutor.shutdown()
         coordinatorScope.cancel()
     }
 
-    private suspend fun getCameraProvider(context: Context): ProcessCameraProvider = suspendCoroutine { continuation ->
-        ProcessCameraProvider.getInstance(context).also { cameraProvider ->
-            cameraProvider.addListener({
-                continuation.resume(cameraProvider.get())
-            }, ContextCompat.getMainExecutor(context))
+    private inner class CameraXBinding : CameraBinding {
+        override suspend fun hasCamera(camera: Camera): Boolean {
+            cameraService.awaitProvider(context)
+            return cameraService.hasCamera(camera)
+        }
+
+        override fun bind(camera: Camera) {
+            val cameraProvider = cameraService.provider ?: return
+            if (lifecycleOwner.lifecycle.currentState != Lifecycle.State.DESTROYED) {
+                val settings = CaptureSettings.select(cameraService.capabilities(camera))
+                cameraProvider.unbindAll()
+                cameraProvider.bindToLifecycle(lifecycleOwner, camera, settings.fpsRange, preview, analysis)
+                if (settings.frameRate != captureSettings.frameRate) {
+                    logger.info("The $camera camera delivers ${settings.frameRate} frames per second")
+                    renderer.setOutputMaxFrameRate(settings.frameRate)
+                    encoder.setFrameRate(settings.frameRate)
+                }
+                captureSettings = settings
+            }
         }
     }
 
@@ -360,6 +469,9 @@ internal class LivenessCoordinator(
         const val TARGET_HEIGHT = 640
         const val TARGET_ASPECT_RATIO = TARGET_WIDTH.toFloat() / TARGET_HEIGHT
         const val TARGET_ENCODE_BITRATE = (1024 * 1024 * .6).toInt()
+
+        // Lowest bitrate used under thermal pressure, which still keeps the face detail the check needs
+        const val MIN_ENCODE_BITRATE = (1024 * 1024 * .4).toInt()
         const val TARGET_ENCODE_KEYFRAME_INTERVAL = 1 // webm muxer only flushes to file on keyframe
         val TARGET_RESOLUTION_SIZE = Size(TARGET_WIDTH, TARGET_HEIGHT)
     }
@@ -27,6 +27,7 @@ import android.graphics.SurfaceTexture;
 import android.opengl.Matrix;
 import android.os.Handler;
 import android.os.HandlerThread;
+import android.os.Looper;
 import android.os.Process;
 import android.util.Log;
 import android.util.Size;
@@ -34,7 +35,7 @@ import android.view.Surface;
 
 import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
-import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import androidx.annotation.WorkerThread;
 import androidx.camera.core.Preview;
 import androidx.concurrent.futures.CallbackToFutureAdapter;
@@ -43,6 +44,7 @@ import androidx.core.util.Pair;
 
 import com.google.common.util.concurrent.ListenableFuture;
 
+import java.util.Arrays;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.concurrent.Executor;
@@ -53,11 +55,8 @@ final class OpenGLRenderer {
     private static final String TAG = "OpenGLRenderer";
     private static final boolean DEBUG = false;
 
-    static {
-        System.loadLibrary("liveness_opengl_renderer_jni");
-    }
-
     private static final AtomicInteger RENDERER_COUNT = new AtomicInteger(0);
+    private final RenderBackend mBackend;
     private final SingleThreadHandlerExecutor mExecutor =
             new SingleThreadHandlerExecutor(
                     String.format(Locale.US, "GLRenderer-%03d", RENDERER_COUNT.incrementAndGet()),
@@ -73,12 +72,29 @@ final class OpenGLRenderer {
     private static final float[] DIRECTION_UP_ROT_180 = {0f, 1f, 0f, 0f};
     private static final float[] DIRECTION_UP_ROT_270 = {-1f, 0f, 0f, 0f};
 
+    // Latest transform retrieved by SurfaceTexture.getTransformMatrix
+    private final float[] mTextureTransform = new float[16];
+
+    // The input texture is shared by both surfaces, and both contexts share GL state, so the
+    // texture transform, its rotation, the texture transform uniform and the viewport are tracked
+    // once for the renderer. They are only updated when the values they depend on change.
+    private final float[] mCachedTextureTransform = new float[16];
+    private boolean mHasCachedTextureTransform = false;
+    private boolean mTextureTransformDirty = true;
+    private int mTextureRotationDegrees = 0;
+    private final float[] mTempVec = new float[4];
+    private Size mViewPortSize = null;
+
     private long mNativeContext = 0;
     private long mAdditionalContext = 0;
 
     private Transformation mOutputTransformation;
     private Transformation mAdditionalTransformation;
 
+    // Limit the rate frames are rendered to each surface. Only accessed on the renderer thread.
+    private final FrameRateDecimator mOutputFrameRate = new FrameRateDecimator(FrameRateDecimator.UNLIMITED);
+    private final FrameRateDecimator mAdditionalFrameRate = new FrameRateDecimator(FrameRateDecimator.UNLIMITED);
+
     private boolean mIsShutdown = false;
     private int mNumOutstandingSurfaces = 0;
     private Pair<Executor, Consumer<Long>> mFrameUpdateListener;
@@ -88,9 +104,20 @@ final class OpenGLRenderer {
 
     private int lastRendered = 0;
 
+    // Transform work done while rendering, counted for tests. Only accessed on the renderer thread.
+    private int mRotationChecks = 0;
+    private int mMvpUpdates = 0;
+
     private boolean flipVertical = false;
 
-    public OpenGLRenderer() {}
+    public OpenGLRenderer() {
+        this(new JniRenderBackend());
+    }
+
+    @VisibleForTesting
+    OpenGLRenderer(@NonNull RenderBackend backend) {
+        mBackend = backend;
+    }
 
     @MainThread
     public void attachInputPreview(@NonNull Preview preview) {
@@ -102,7 +129,7 @@ final class OpenGLRenderer {
                         return;
                     }
                     if (mNativeContext == 0) {
-                        mNativeContext = initContext();
+                        mNativeContext = mBackend.initContext();
                     }
                     if (mNativeContext == 0) {
                         if (DEBUG) {
@@ -142,7 +169,7 @@ final class OpenGLRenderer {
                             return;
                         }
                         if (mNativeContext == 0) {
-                            mNativeContext = initContext();
+                            mNativeContext = mBackend.initContext();
                         }
                         if (mNativeContext == 0) {
                             if (DEBUG) {
@@ -154,7 +181,8 @@ final class OpenGLRenderer {
                         if (DEBUG) {
                             Log.d(TAG, "!!! setWindowSurface mNativeContext" + mNativeContext);
                         }
-                        if (setWindowSurface(mNativeContext, surface)) {
+                        mViewPortSize = null;
+                        if (mBackend.setWindowSurface(mNativeContext, surface)) {
                             if (surfaceRotationDegrees != mOutputTransformation.mSurfaceRotationDegrees
                                     || !Objects.equals(surfaceSize, mOutputTransformation.mSurfaceSize)) {
                                 mOutputTransformation.mMvpDirty = true;
@@ -182,7 +210,7 @@ final class OpenGLRenderer {
                             return;
                         }
                         if (mAdditionalContext == 0) {
-                            mAdditionalContext = initAdditionalContext(mNativeContext);
+                            mAdditionalContext = mBackend.initAdditionalContext(mNativeContext);
                         }
                         if (mAdditionalContext == 0) {
                             if (DEBUG) {
@@ -194,7 +222,8 @@ final class OpenGLRenderer {
                             Log.d(TAG, "!!! setWindowSurface mAdditionalContext mNativeContext" + mNativeContext);
                         }
                         mAdditionalTransformation = new Transformation();
-                        if (setWindowSurface(mAdditionalContext, surface)) {
+                        mViewPortSize = null;
+                        if (mBackend.setWindowSurface(mAdditionalContext, surface)) {
                             if (surfaceRotationDegrees != mAdditionalTransformation.mSurfaceRotationDegrees
                                     || !Objects.equals(surfaceSize, mAdditionalTransformation.mSurfaceSize)) {
                                 mAdditionalTransformation.mMvpDirty = true;
@@ -288,6 +317,33 @@ final class OpenGLRenderer {
         }
     }
 
+    /**
+     * Limits the rate at which camera frames are rendered to the output surface, independent of
+     * the preview surface. Extra camera frames are not rendered to the output surface.
+     *
+     * @param maxFrameRate Maximum frames per second, or 0 to render every camera frame.
+     */
+    public void setOutputMaxFrameRate(int maxFrameRate) {
+        try {
+            mExecutor.execute(() -> mOutputFrameRate.setMaxFrameRate(maxFrameRate));
+        } catch (RejectedExecutionException e) {
+            // Renderer is shutting down. Ignore.
+        }
+    }
+
+    /**
+     * Limits the rate at which camera frames are rendered to the preview surface.
+     *
+     * @param maxFrameRate Maximum frames per second, or 0 to render every camera frame.
+     */
+    public void setPreviewMaxFrameRate(int maxFrameRate) {
+        try {
+            mExecutor.execute(() -> mAdditionalFrameRate.setMaxFrameRate(maxFrameRate));
+        } catch (RejectedExecutionException e) {
+            // Renderer is shutting down. Ignore.
+        }
+    }
+
     public void setFlipVertical(boolean flip) {
         flipVertical = flip;
     }
@@ -306,7 +362,8 @@ final class OpenGLRenderer {
                 mExecutor.execute(
                         () -> {
                             if (!mIsShutdown) {
-                                setWindowSurface(mNativeContext, null);
+                                mBackend.setWindowSurface(mNativeContext, null);
+                                mViewPortSize = null;
                                 mOutputTransformation.mSurfaceSize = null;
                             }
                             completer.set(null);
@@ -326,7 +383,8 @@ final class OpenGLRenderer {
                         () -> {
                             if (!mIsShutdown) {
                                 if (mAdditionalContext != 0) {
-                                    setWindowSurface(mAdditionalContext, null);
+                                    mBackend.setWindowSurface(mAdditionalContext, null);
+                                    mViewPortSize = null;
                                 } else if (DEBUG) {
                                     Log.d(TAG, "!!! mAdditionalContext null during detachPreviewSurface");
                                 }
@@ -342,16 +400,32 @@ final class OpenGLRenderer {
         });
     }
 
+    @VisibleForTesting
+    int getRotationChecks() {
+        return mRotationChecks;
+    }
+
+    @VisibleForTesting
+    int getMvpUpdates() {
+        return mMvpUpdates;
+    }
+
+    @VisibleForTesting
+    @NonNull
+    Looper getLooper() {
+        return mExecutor.getHandler().getLooper();
+    }
+
     void shutdown() {
         try {
             mExecutor.execute(
                     () -> {
                         if (!mIsShutdown) {
                             if (mNativeContext != 0) {
-                                closeContext(mNativeContext);
+                                mBackend.closeContext(mNativeContext);
                             }
                             if (mAdditionalContext != 0) {
-                                closeAdditionalContext(mAdditionalContext);
+                                mBackend.closeAdditionalContext(mAdditionalContext);
                             }
                             mNativeContext = 0;
                             mAdditionalContext = 0;
@@ -378,7 +452,7 @@ final class OpenGLRenderer {
         if (mPreviewTexture != null) {
             mPreviewTexture.detachFromGLContext();
         }
-        mPreviewTexture = new SurfaceTexture(getTexName(mNativeContext));
+        mPreviewTexture = new SurfaceTexture(mBackend.getTexName(mNativeContext));
         mPreviewTexture.setDefaultBufferSize(size.getWidth(), size.getHeight());
         mPreviewTexture.setOnFrameAvailableListener(
                 surfaceTexture -> {
@@ -386,7 +460,7 @@ final class OpenGLRenderer {
                         if (DEBUG) {
                             Log.d(TAG, "setOnFrameAvailableListener");
                         }
-                        makeCurrent(mNativeContext);
+                        mBackend.makeCurrent(mNativeContext);
                         try {
                             surfaceTexture.updateTexImage();
                             renderLatest();
@@ -396,13 +470,19 @@ final class OpenGLRenderer {
                     }
                 },
                 mExecutor.getHandler());
+        setPreviewSize(size);
+        return mPreviewTexture;
+    }
+
+    @VisibleForTesting
+    @WorkerThread
+    void setPreviewSize(@NonNull Size size) {
         if (!Objects.equals(size, mPreviewSize)) {
             if (mOutputTransformation != null) {
                 mOutputTransformation.mMvpDirty = true;
             }
         }
         mPreviewSize = size;
-        return mPreviewTexture;
     }
 
     @WorkerThread
@@ -413,28 +493,40 @@ final class OpenGLRenderer {
         if (mOutputTransformation == null) {
             return;
         }
-        // Get the timestamp so we can pass it along to the output surface (not strictly necessary)
-        long timestampNs = mPreviewTexture.getTimestamp();
-
         // Get texture transform from surface texture (transform to natural orientation).
         // This will be used to transform texture coordinates in the fragment shader.
-        mPreviewTexture.getTransformMatrix(mOutputTransformation.mTextureTransform);
-        if (mAdditionalTransformation != null) {
-            mPreviewTexture.getTransformMatrix(mAdditionalTransformation.mTextureTransform);
-        }
-        // Check whether the texture's rotation has changed so we can update the MVP matrix.
-        int textureRotationDegrees = getTextureRotationDegrees(mOutputTransformation);
-        if (textureRotationDegrees != mOutputTransformation.mTextureRotationDegrees) {
-            mOutputTransformation.mMvpDirty = true;
-        }
-        mOutputTransformation.mTextureRotationDegrees = textureRotationDegrees;
+        mPreviewTexture.getTransformMatrix(mTextureTransform);
+        // Get the timestamp so we can pass it along to the output surface (not strictly necessary)
+        renderFrame(mPreviewTexture.getTimestamp(), mTextureTransform);
+    }
 
-        if (mAdditionalTransformation != null) {
-            int deg = getTextureRotationDegrees(mAdditionalTransformation);
-            if (deg != mAdditionalTransformation.mTextureRotationDegrees) {
-                mAdditionalTransformation.mMvpDirty = true;
+    /**
+     * Renders the current input texture to the attached surfaces.
+     *
+     * @param timestampNs Timestamp of the input frame, in nanoseconds.
+     * @param textureTransform Transform of the input texture to the device's natural orientation.
+     */
+    @VisibleForTesting
+    @WorkerThread
+    void renderFrame(long timestampNs, @NonNull float[] textureTransform) {
+        if (mOutputTransformation == null) {
+            return;
+        }
+        // The texture transform rarely changes, so only check its rotation when it does.
+        if (!mHasCachedTextureTransform || !Arrays.equals(textureTransform, mCachedTextureTransform)) {
+            System.arraycopy(textureTransform, 0, mCachedTextureTransform, 0, mCachedTextureTransform.length);
+            mHasCachedTextureTransform = true;
+            mTextureTransformDirty = true;
+            // Check whether the texture's rotation has changed so we can update the MVP matrix.
+            mRotationChecks++;
+            int textureRotationDegrees = getTextureRotationDegrees(mCachedTextureTransform);
+            if (textureRotationDegrees != mTextureRotationDegrees) {
+                mTextureRotationDegrees = textureRotationDegrees;
+                mOutputTransformation.mMvpDirty = true;
+                if (mAdditionalTransformation != null) {
+                    mAdditionalTransformation.mMvpDirty = true;
+                }
             }
-            mAdditionalTransformation.mTextureRotationDegrees = deg;
         }
 
         if (mOutputTransformation.mMvpDirty) {
@@ -442,26 +534,31 @@ final class OpenGLRenderer {
         }
 
         boolean success;
-        if (mOutputTransformation.mSurfaceSize != null) {
-            setViewPort(mOutputTransformation.mSurfaceSize.getWidth(), mOutputTransformation.mSurfaceSize.getHeight());
-            success = renderTexture(mNativeContext, timestampNs, mOutputTransformation.mMvpTransform,
-                    (mOutputTransformation.mMvpDirty || lastRendered != 1), mOutputTransformation.mTextureTransform, getTexName(mNativeContext));
+        if (mOutputTransformation.mSurfaceSize != null && mOutputFrameRate.shouldRender(timestampNs)) {
+            updateViewPort(mOutputTransformation.mSurfaceSize);
+            success = mBackend.renderTexture(mNativeContext, timestampNs, mOutputTransformation.mMvpTransform,
+                    (mOutputTransformation.mMvpDirty || lastRendered != 1), mCachedTextureTransform,
+                    mTextureTransformDirty, mBackend.getTexName(mNativeContext));
             mOutputTransformation.mMvpDirty = false;
+            mTextureTransformDirty = false;
             lastRendered = 1;
         } else {
             success = false;
         }
 
-        if (mAdditionalTransformation != null && mAdditionalTransformation.mSurfaceSize != null) {
+        if (mAdditionalTransformation != null && mAdditionalTransformation.mSurfaceSize != null
+                && mAdditionalFrameRate.shouldRender(timestampNs)) {
             if (mAdditionalTransformation.mMvpDirty) {
                 updateMvpTransform(mAdditionalTransformation, true);
             }
-            makeCurrent(mAdditionalContext);
-            setViewPort(mAdditionalTransformation.mSurfaceSize.getWidth(), mAdditionalTransformation.mSurfaceSize.getHeight());
-            renderTexture(mAdditionalContext, timestampNs, mAdditionalTransformation.mMvpTransform,
-                    (mAdditionalTransformation.mMvpDirty || lastRendered != 2), mAdditionalTransformation.mTextureTransform, getTexName(mAdditionalContext));
+            mBackend.makeCurrent(mAdditionalContext);
+            updateViewPort(mAdditionalTransformation.mSurfaceSize);
+            mBackend.renderTexture(mAdditionalContext, timestampNs, mAdditionalTransformation.mMvpTransform,
+                    (mAdditionalTransformation.mMvpDirty || lastRendered != 2), mCachedTextureTransform,
+                    mTextureTransformDirty, mBackend.getTexName(mAdditionalContext));
             lastRendered = 2;
             mAdditionalTransformation.mMvpDirty = false;
+            mTextureTransformDirty = false;
         }
 
         if (success && mFrameUpdateListener != null) {
@@ -482,6 +579,14 @@ final class OpenGLRenderer {
         }
     }
 
+    @WorkerThread
+    private void updateViewPort(@NonNull Size surfaceSize) {
+        if (!surfaceSize.equals(mViewPortSize)) {
+            mBackend.setViewPort(surfaceSize.getWidth(), surfaceSize.getHeight());
+            mViewPortSize = surfaceSize;
+        }
+    }
+
     /**
      * Calculates the rotation of the source texture between the sensor coordinate space and
      * the device's 'natural' orientation.
@@ -528,7 +633,7 @@ final class OpenGLRenderer {
      * matrix, so the calculations avoid the scaling and translation components.
      */
     @WorkerThread
-    private int getTextureRotationDegrees(Transformation transformation) {
+    private int getTextureRotationDegrees(@NonNull float[] textureTransform) {
         // The final output image should have the requested dimensions AFTER applying the
         // transform matrix, but width and height may be swapped. We know that the transform
         // matrix from SurfaceTexture#getTransformMatrix() is an affine transform matrix that
@@ -539,13 +644,13 @@ final class OpenGLRenderer {
         // will ignore the translation component of the matrix. We will only need to check if the
         // 's' component becomes a scaled version of the 't' component and the 't' component
         // becomes 0.
-        Matrix.multiplyMV(transformation.mTempVec, 0, transformation.mTextureTransform, 0, DIRECTION_UP_ROT_0, 0);
+        Matrix.multiplyMV(mTempVec, 0, textureTransform, 0, DIRECTION_UP_ROT_0, 0);
         // Calculate the normalized vector and round to integers so we can do integer comparison.
         // Normalizing the vector removes the effects of the scaling component of the
         // transform matrix. Once normalized, we can round and do integer comparison.
-        float length = Matrix.length(transformation.mTempVec[0], transformation.mTempVec[1], 0);
-        int s = Math.round(transformation.mTempVec[0] / length);
-        int t = Math.round(transformation.mTempVec[1] / length);
+        float length = Matrix.length(mTempVec[0], mTempVec[1], 0);
+        int s = Math.round(mTempVec[0] / length);
+        int t = Math.round(mTempVec[1] / length);
         if (s == 0 && t == 1) {
             //       (0,1)                               (0,1)
             //    +----^----+          0 deg          +----^----+
@@ -629,7 +734,7 @@ final class OpenGLRenderer {
         // device is rotated in a counter-clockwise direction and our world-space coordinates
         // define positive angles in the clockwise direction, we add the two together to get the
         // total angle required.
-        return (transformation.mTextureRotationDegrees + transformation.mSurfaceRotationDegrees) % 360;
+        return (mTextureRotationDegrees + transformation.mSurfaceRotationDegrees) % 360;
     }
 
     /**
@@ -674,7 +779,7 @@ final class OpenGLRenderer {
     private void updateModelTransform(Transformation transformation, boolean isPreview) {
         // Remove the rotation to the device 'natural' orientation so our world space will be in
         // sensor coordinates.
-        Matrix.setRotateM(transformation.mTempMatrix, 0, -transformation.mTextureRotationDegrees, 0.0f, 0.0f, 1.0f);
+        Matrix.setRotateM(transformation.mTempMatrix, 0, -mTextureRotationDegrees, 0.0f, 0.0f, 1.0f);
         Matrix.setIdentityM(transformation.mTempMatrix, 16);
         // Translate to the upper left corner of the quad so we are in buffer space
         Matrix.translateM(transformation.mTempMatrix, 16, mPreviewSize.getWidth() / 2f,
@@ -791,6 +896,7 @@ final class OpenGLRenderer {
      */
     @WorkerThread
     private void updateMvpTransform(Transformation transformation, boolean isPreview) {
+        mMvpUpdates++;
 //        if (mPreviewCropRect == null) {
         extractPreviewCropFromPreviewSizeAndSurface(transformation);
 //        }
@@ -824,37 +930,6 @@ final class OpenGLRenderer {
                 matrix[offset + 3], matrix[offset + 7], matrix[offset + 11], matrix[offset + 15]));
     }
 
-    @WorkerThread
-    private static native long initContext();
-
-    private static native long initAdditionalContext(long nativeContext);
-
-    @WorkerThread
-    private static native boolean setWindowSurface(long nativeContext, @Nullable Surface surface);
-
-    @WorkerThread
-    private static native int getTexName(long nativeContext);
-
-    @WorkerThread
-    private static native boolean makeCurrent(long nativeContext);
-
-    @WorkerThread
-    private static native void setViewPort(int width, int height);
-
-    @WorkerThread
-    private static native boolean renderTexture(
-            long nativeContext,
-            long timestampNs,
-            @NonNull float[] mvpTransform,
-            boolean mvpDirty,
-            @NonNull float[] textureTransform,
-            int texName);
-
-    @WorkerThread
-    private static native void closeContext(long nativeContext);
-    @WorkerThread
-    private static native void closeAdditionalContext(long nativeContext);
-
     private static final class SingleThreadHandlerExecutor implements Executor {
         private final String mThreadName;
         private final HandlerThread mHandlerThread;
@@ -886,10 +961,7 @@ final class OpenGLRenderer {
 
     private final class Transformation {
         RectF mCropRect;
-        int mTextureRotationDegrees;
 
-        // Transform retrieved by SurfaceTexture.getTransformMatrix
-        private final float[] mTextureTransform = new float[16];
         // The Model represent the surface we are drawing on. In 3D, it is a flat rectangle.
         private final float[] mModelTransform = new float[16];
         private final float[] mViewTransform = new float[16];
@@ -900,7 +972,6 @@ final class OpenGLRenderer {
         private Size mSurfaceSize = null;
         private int mSurfaceRotationDegrees = 0;
 
-        private float[] mTempVec = new float[4];
         private float[] mTempMatrix = new float[32]; // 2 concatenated matrices for calculations
     }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import android.app.ActivityManager
+import android.content.Context
+import android.os.Build
+import com.amplifyframework.ui.liveness.camera.LivenessCoordinator.Companion.MIN_ENCODE_BITRATE
+import com.amplifyframework.ui.liveness.camera.LivenessCoordinator.Companion.TARGET_ENCODE_BITRATE
+import com.amplifyframework.ui.liveness.camera.LivenessCoordinator.Companion.TARGET_HEIGHT
+import com.amplifyframework.ui.liveness.camera.LivenessCoordinator.Companion.TARGET_WIDTH
+import com.amplifyframework.ui.liveness.media.VideoCodec
+import com.amplifyframework.ui.liveness.ml.FaceDetectionInterpreter
+import com.amplifyframework.ui.liveness.ui.PerformancePreset
+import com.amplifyframework.ui.liveness.ui.VideoOptions
+import kotlin.math.max
+import kotlin.math.min
+
+/**
+ * The pipeline settings of a [PerformancePreset]. These are the settings for a cool device, and a [DegradationTier]
+ * can lower them further during the check.
+ */
+internal class PipelineConfig(
+    // Frames analyzed per second, or FrameRateDecimator.UNLIMITED to analyze every camera frame
+    val analysisFrameRate: Int,
+    val analysisWidth: Int,
+    val analysisHeight: Int,
+    val interpreterThreads: Int,
+    val codec: VideoCodec,
+    val encoderBitrate: Int
+) {
+    fun analysisFrameRate(tier: DegradationTier) =
+        lowestLimit(analysisFrameRate, tier.analysisFrameRate, FrameRateDecimator.UNLIMITED)
+
+    fun interpreterThreads(tier: DegradationTier) =
+        lowestLimit(interpreterThreads, tier.interpreterThreads, FaceDetectionInterpreter.DEFAULT_THREADS)
+
+    fun encoderBitrate(tier: DegradationTier) =
+        max(MIN_ENCODE_BITRATE, (encoderBitrate * tier.encoderBitrateScale).toInt())
+
+    private fun lowestLimit(first: Int, second: Int, noLimit: Int) = when {
+        first == noLimit -> second
+        second == noLimit -> first
+        else -> min(first, second)
+    }
+
+    companion object {
+        val HIGH = PipelineConfig(
+            analysisFrameRate = FrameRateDecimator.UNLIMITED,
+            analysisWidth = TARGET_WIDTH,
+            analysisHeight = TARGET_HEIGHT,
+            interpreterThreads = FaceDetectionInterpreter.DEFAULT_THREADS,
+            codec = VideoCodec.VP8,
+            encoderBitrate = TARGET_ENCODE_BITRATE
+        )
+        val STANDARD = PipelineConfig(
+            analysisFrameRate = 16,
+            analysisWidth = TARGET_WIDTH,
+            analysisHeight = TARGET_HEIGHT,
+            interpreterThreads = 2,
+            codec = VideoCodec.VP8,
+            encoderBitrate = TARGET_ENCODE_BITRATE
+        )
+
+        // The face detection model input is 128 pixels, so a quarter of the pixels still leaves plenty of detail.
+        // Hardware H.264 encoders are found on far more low end devices than VP8 ones.
+        val LOW = PipelineConfig(
+            analysisFrameRate = 12,
+            analysisWidth = TARGET_WIDTH / 2,
+            analysisHeight = TARGET_HEIGHT / 2,
+            interpreterThreads = 1,
+            codec = VideoCodec.H264,
+            encoderBitrate = (1024 * 1024 * .5).toInt()
+        )
+
+        fun forPreset(preset: PerformancePreset): PipelineConfig = when (preset) {
+            PerformancePreset.Auto -> throw IllegalArgumentException("Resolve the Auto preset for the device first")
+            PerformancePreset.High -> HIGH
+            PerformancePreset.Standard -> STANDARD
+            PerformancePreset.Low -> LOW
+        }
+
+        /**
+         * Passed [videoOptions] always decide the codec. Without them, a preset the integrator chose explicitly
+         * decides it, and a preset chosen by [PerformancePreset.Auto] never changes the default codec.
+         */
+        fun videoCodec(requestedPreset: PerformancePreset, videoOptions: VideoOptions?): VideoCodec = when {
+            videoOptions != null -> videoOptions.codec
+            requestedPreset != PerformancePreset.Auto -> forPreset(requestedPreset).codec
+            else -> VideoOptions().codec
+        }
+    }
+}
+
+/**
+ * Chooses a [PerformancePreset] for the device from its core count, memory and Android version
+ */
+internal object DeviceClassifier {
+
+    fun classify(context: Context): PerformancePreset {
+        val activityManager = context.getSystemService(Context.ACTIVITY_SERVICE) as ActivityManager
+        return classify(
+            cores = Runtime.getRuntime().availableProcessors(),
+            isLowRamDevice = activityManager.isLowRamDevice,
+            memoryClassMb = activityManager.memoryClass,
+            sdkInt = Build.VERSION.SDK_INT
+        )
+    }
+
+    fun classify(cores: Int, isLowRamDevice: Boolean, memoryClassMb: Int, sdkInt: Int): PerformancePreset = when {
+        isLowRamDevice || cores <= LOW_MAX_CORES || memoryClassMb <= LOW_MAX_MEMORY_CLASS_MB ||
+            sdkInt < Build.VERSION_CODES.O -> PerformancePreset.Low
+        cores >= HIGH_MIN_CORES && memoryClassMb >= HIGH_MIN_MEMORY_CLASS_MB &&
+            sdkInt >= Build.VERSION_CODES.Q -> PerformancePreset.High
+        else -> PerformancePreset.Standard
+    }
+
+    private const val LOW_MAX_CORES = 4
+    private const val LOW_MAX_MEMORY_CLASS_MB = 128
+    private const val HIGH_MIN_CORES = 8
+    private const val HIGH_MIN_MEMORY_CLASS_MB = 256
+}
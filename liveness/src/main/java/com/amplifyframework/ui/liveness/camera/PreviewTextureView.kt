@@ -24,60 +24,67 @@ import android.view.TextureView
 import androidx.core.content.ContextCompat
 import com.amplifyframework.ui.liveness.util.rotationDegrees
 
-@SuppressLint("ViewConstructor", "Recycle")
+@SuppressLint("ViewConstructor")
 internal class PreviewTextureView(
     context: Context,
     renderer: OpenGLRenderer
 ) : TextureView(context) {
 
+    private val previewListener = PreviewSurfaceTextureListener(this, renderer)
+
+    internal val hasReceivedUpdate
+        get() = previewListener.hasReceivedUpdate
+
+    init {
+        surfaceTextureListener = previewListener
+    }
+}
+
+/**
+ * Renders the camera preview to the surface texture of a [TextureView]
+ */
+@SuppressLint("Recycle")
+internal class PreviewSurfaceTextureListener(
+    private val textureView: TextureView,
+    private val renderer: OpenGLRenderer
+) : TextureView.SurfaceTextureListener {
+
     private var surface: Surface? = null
     internal var hasReceivedUpdate = false
 
-    init {
-        surfaceTextureListener = object : SurfaceTextureListener {
-            override fun onSurfaceTextureAvailable(
-                surfaceTexture: SurfaceTexture,
-                width: Int,
-                height: Int
-            ) {
-                surface = Surface(surfaceTexture).also {
-                    renderer.attachPreviewSurface(
-                        it,
-                        Size(width, height),
-                        this@PreviewTextureView.display.rotationDegrees()
-                    )
-                }
-            }
+    /**
+     * Renders to [textureView], including a surface texture it already has
+     */
+    fun attach() {
+        textureView.surfaceTextureListener = this
+        textureView.surfaceTexture?.let { onSurfaceTextureAvailable(it, textureView.width, textureView.height) }
+    }
 
-            override fun onSurfaceTextureUpdated(surfaceTexture: SurfaceTexture) {
-                if (!hasReceivedUpdate) {
-                    hasReceivedUpdate = true
-                }
-            }
+    override fun onSurfaceTextureAvailable(surfaceTexture: SurfaceTexture, width: Int, height: Int) {
+        surface = Surface(surfaceTexture).also {
+            renderer.attachPreviewSurface(it, Size(width, height), textureView.display.rotationDegrees())
+        }
+    }
 
-            override fun onSurfaceTextureSizeChanged(
-                surfaceTexture: SurfaceTexture,
-                width: Int,
-                height: Int
-            ) {
-                surface = Surface(surfaceTexture).also {
-                    renderer.attachPreviewSurface(
-                        it,
-                        Size(width, height),
-                        display.rotationDegrees()
-                    )
-                }
-            }
+    override fun onSurfaceTextureUpdated(surfaceTexture: SurfaceTexture) {
+        if (!hasReceivedUpdate) {
+            hasReceivedUpdate = true
+        }
+    }
 
-            override fun onSurfaceTextureDestroyed(surfaceTexture: SurfaceTexture): Boolean {
-                val surfaceToDestroy = surface
-                surface = null
-                renderer.detachPreviewSurface().addListener({
-                    surfaceToDestroy?.release()
-                    surfaceTexture.release()
-                }, ContextCompat.getMainExecutor(context))
-                return false
-            }
+    override fun onSurfaceTextureSizeChanged(surfaceTexture: SurfaceTexture, width: Int, height: Int) {
+        surface = Surface(surfaceTexture).also {
+            renderer.attachPreviewSurface(it, Size(width, height), textureView.display.rotationDegrees())
         }
     }
+
+    override fun onSurfaceTextureDestroyed(surfaceTexture: SurfaceTexture): Boolean {
+        val surfaceToDestroy = surface
+        surface = null
+        renderer.detachPreviewSurface().addListener({
+            surfaceToDestroy?.release()
+            surfaceTexture.release()
+        }, ContextCompat.getMainExecutor(textureView.context))
+        return false
+    }
 }
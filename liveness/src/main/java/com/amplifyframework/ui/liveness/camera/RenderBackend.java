@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera;
+
+import android.view.Surface;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+/**
+ * The GL operations {@link OpenGLRenderer} schedules on its renderer thread. Frame pacing,
+ * transformation and MVP logic live in the renderer; the backend only owns EGL/GL state.
+ *
+ * <p>Contexts are opaque handles. A handle of 0 means the context could not be created.
+ */
+interface RenderBackend {
+    @WorkerThread
+    long initContext();
+
+    @WorkerThread
+    long initAdditionalContext(long nativeContext);
+
+    @WorkerThread
+    boolean setWindowSurface(long nativeContext, @Nullable Surface surface);
+
+    @WorkerThread
+    int getTexName(long nativeContext);
+
+    @WorkerThread
+    boolean makeCurrent(long nativeContext);
+
+    @WorkerThread
+    void setViewPort(int width, int height);
+
+    /**
+     * Draws the input texture to the context's window surface. The transforms are uniforms of a
+     * program shared between contexts, so they are only uploaded when marked dirty.
+     */
+    @WorkerThread
+    boolean renderTexture(
+            long nativeContext,
+            long timestampNs,
+            @NonNull float[] mvpTransform,
+            boolean mvpDirty,
+            @NonNull float[] textureTransform,
+            boolean textureTransformDirty,
+            int texName);
+
+    @WorkerThread
+    void closeContext(long nativeContext);
+
+    @WorkerThread
+    void closeAdditionalContext(long nativeContext);
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import java.io.EOFException
+import java.io.IOException
+import java.io.InputStream
+import java.nio.ByteBuffer
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.locks.LockSupport
+import kotlin.concurrent.thread
+
+/**
+ * Replays recorded frames in place of the camera so the analysis pipeline can run without one. Frames are delivered
+ * at [framesPerSecond], or as fast as the consumer accepts them when it is [AS_FAST_AS_POSSIBLE].
+ */
+internal class ReplayFrameSource(
+    private val frames: List<RgbaFrame>,
+    private val framesPerSecond: Int = AS_FAST_AS_POSSIBLE,
+    private val repeatCount: Int = 1,
+    private val onComplete: () -> Unit = {}
+) : FrameSource {
+
+    @Volatile private var running = false
+    private var replayThread: Thread? = null
+
+    override fun start(onFrame: (RgbaFrame) -> Unit) {
+        stop()
+        running = true
+        replayThread = thread(name = "ReplayFrameSource") {
+            replay(onFrame)
+            if (running) onComplete()
+        }
+    }
+
+    override fun stop() {
+        running = false
+        replayThread?.let {
+            it.interrupt()
+            if (it != Thread.currentThread()) it.join()
+        }
+        replayThread = null
+    }
+
+    /**
+     * Replays the frames on the calling thread and returns the number of frames delivered
+     */
+    fun replay(onFrame: (RgbaFrame) -> Unit): Int {
+        val frameIntervalNanos = if (framesPerSecond > 0) TimeUnit.SECONDS.toNanos(1) / framesPerSecond else 0L
+        val startNanos = System.nanoTime()
+        var delivered = 0
+        repeat(repeatCount) {
+            for (frame in frames) {
+                if (frameIntervalNanos > 0) {
+                    val waitNanos = startNanos + delivered * frameIntervalNanos - System.nanoTime()
+                    if (waitNanos > 0) LockSupport.parkNanos(waitNanos)
+                }
+                if (Thread.currentThread().isInterrupted) return delivered
+                frame.pixels.rewind()
+                onFrame(frame)
+                delivered++
+            }
+        }
+        return delivered
+    }
+
+    companion object {
+        const val AS_FAST_AS_POSSIBLE = 0
+
+        /**
+         * Reads tightly packed RGBA_8888 frames written back to back, such as the output of
+         * `ffmpeg -i video.mp4 -pix_fmt rgba -f rawvideo frames.rgba`
+         */
+        fun readRawFrames(
+            input: InputStream,
+            width: Int,
+            height: Int,
+            rotationDegrees: Int = 0,
+            framesPerSecond: Int = LivenessCoordinator.TARGET_FPS_MAX
+        ): List<RgbaFrame> {
+            val frameIntervalNanos = TimeUnit.SECONDS.toNanos(1) / framesPerSecond
+            val scratch = ByteArray(width * height * BYTES_PER_PIXEL)
+            val frames = mutableListOf<RgbaFrame>()
+            while (true) {
+                val read = input.readFrame(scratch)
+                if (read == 0) break
+                if (read < scratch.size) throw EOFException("Truncated frame ${frames.size}: read $read bytes")
+                val pixels = ByteBuffer.allocateDirect(scratch.size).put(scratch)
+                pixels.rewind()
+                frames += RgbaFrame(width, height, rotationDegrees, frames.size * frameIntervalNanos, pixels)
+            }
+            if (frames.isEmpty()) throw IOException("No frames found")
+            return frames
+        }
+
+        private const val BYTES_PER_PIXEL = 4
+
+        private fun InputStream.readFrame(buffer: ByteArray): Int {
+            var total = 0
+            while (total < buffer.size) {
+                val read = read(buffer, total, buffer.size - total)
+                if (read < 0) break
+                total += read
+            }
+            return total
+        }
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.geometry
+
+import kotlin.math.ceil
+import kotlin.math.exp
+import kotlin.math.max
+import kotlin.math.min
+import kotlin.math.sqrt
+
+/**
+ * Decodes the raw output of a BlazeFace style face detection model into faces, merging overlapping detections with
+ * weighted non-max suppression. Anchors are generated from [anchorConfig] for the model input size and must match
+ * the number of boxes in [outputLayout]. Detections are kept in packed float arrays that are reused between frames,
+ * so decoding does not allocate. Decoded faces are read with [get] using the offsets in the companion, in model input
+ * pixels.
+ */
+internal class FaceDetectionDecoder(
+    private val inputWidth: Int,
+    private val inputHeight: Int,
+    anchorConfig: AnchorConfig,
+    private val outputLayout: OutputLayout
+) {
+    // xCenter, yCenter, height, width for each anchor
+    private val anchors = anchorConfig.generate(inputWidth, inputHeight)
+    private val numBoxes = outputLayout.numBoxes
+
+    private val detections = FloatArray(numBoxes * DETECTION_SIZE)
+    private val faces = FloatArray(numBoxes * DETECTION_SIZE)
+    private var remaining = IntArray(numBoxes)
+    private var remained = IntArray(numBoxes)
+    private val candidates = IntArray(numBoxes)
+
+    init {
+        require(anchors.size == numBoxes * ANCHOR_SIZE) {
+            "Anchor config generates ${anchors.size / ANCHOR_SIZE} anchors but the model outputs $numBoxes boxes"
+        }
+    }
+
+    var faceCount = 0
+        private set
+
+    fun get(face: Int, offset: Int): Float = faces[face * DETECTION_SIZE + offset]
+
+    /**
+     * @return the number of faces found with a score of at least [scoreThreshold]
+     */
+    fun decode(
+        outputBoxes: Array<Array<FloatArray>>,
+        outputScores: Array<Array<FloatArray>>,
+        scoreThreshold: Float
+    ): Int {
+        var detectionCount = 0
+        for (i in 0 until numBoxes) {
+            val score = computeSigmoid(outputScores[0][i][0])
+            if (score < scoreThreshold) {
+                continue
+            }
+
+            val box = outputBoxes[0][i]
+            val anchor = i * ANCHOR_SIZE
+            val anchorX = anchors[anchor]
+            val anchorY = anchors[anchor + 1]
+            val anchorH = anchors[anchor + 2]
+            val anchorW = anchors[anchor + 3]
+
+            val xCenter = box[0] / outputLayout.xScale * anchorW + anchorX
+            val yCenter = box[1] / outputLayout.yScale * anchorH + anchorY
+            val h = box[3] / outputLayout.hScale * anchorH
+            val w = box[2] / outputLayout.wScale * anchorW
+
+            val detection = detectionCount * DETECTION_SIZE
+            detections[detection + LEFT] = xCenter - w / 2.0f
+            detections[detection + TOP] = yCenter - h / 2.0f
+            detections[detection + RIGHT] = xCenter + w / 2.0f
+            detections[detection + BOTTOM] = yCenter + h / 2.0f
+
+            // The model reports the eye and ear on the left of the image first, which is the face's right.
+            // The ears need to be correct with respect to the bounding box for the box to be generated from them.
+            for ((offset, coordinate) in LANDMARK_COORDINATES) {
+                detections[detection + offset] = box[coordinate] / outputLayout.xScale * anchorW + anchorX
+                detections[detection + offset + 1] = box[coordinate + 1] / outputLayout.yScale * anchorH + anchorY
+            }
+            detections[detection + SCORE] = score
+            remaining[detectionCount] = detectionCount
+            detectionCount++
+        }
+
+        sortByScore(detectionCount)
+        faceCount = weightedNonMaxSuppression(detectionCount)
+        return faceCount
+    }
+
+    // Stable insertion sort of the remaining detections by ascending score
+    private fun sortByScore(count: Int) {
+        for (i in 1 until count) {
+            val index = remaining[i]
+            val score = detections[index * DETECTION_SIZE + SCORE]
+            var j = i - 1
+            while (j >= 0 && detections[remaining[j] * DETECTION_SIZE + SCORE] > score) {
+                remaining[j + 1] = remaining[j]
+                j--
+            }
+            remaining[j + 1] = index
+        }
+    }
+
+    private fun weightedNonMaxSuppression(detectionCount: Int): Int {
+        var remainingCount = detectionCount
+        var faceCount = 0
+        while (remainingCount > 0) {
+            val detection = remaining[0] * DETECTION_SIZE
+            var remainedCount = 0
+            // The first detection is always a candidate for itself, even if it has no area
+            candidates[0] = remaining[0]
+            var candidateCount = 1
+            for (r in 1 until remainingCount) {
+                val rest = remaining[r] * DETECTION_SIZE
+                val similarity = FaceGeometry.overlapSimilarity(
+                    detections[rest + LEFT], detections[rest + TOP], detections[rest + RIGHT],
+                    detections[rest + BOTTOM], detections[detection + LEFT], detections[detection + TOP],
+                    detections[detection + RIGHT], detections[detection + BOTTOM]
+                )
+                if (similarity > MIN_SUPPRESSION_THRESHOLD) {
+                    candidates[candidateCount++] = remaining[r]
+                } else {
+                    remained[remainedCount++] = remaining[r]
+                }
+            }
+
+            val face = faceCount * DETECTION_SIZE
+            var totalScore = 0.0f
+            for (c in 0 until candidateCount) {
+                totalScore += detections[candidates[c] * DETECTION_SIZE + SCORE]
+            }
+            for (offset in LEFT until SCORE) {
+                var weighted = 0.0f
+                for (c in 0 until candidateCount) {
+                    val candidate = candidates[c] * DETECTION_SIZE
+                    weighted += detections[candidate + offset] * detections[candidate + SCORE]
+                }
+                val inputSize = if (offset % 2 == 0) inputWidth else inputHeight
+                faces[face + offset] = weighted / totalScore * inputSize
+            }
+            faces[face + SCORE] = detections[detection + SCORE]
+            faceCount++
+
+            val swap = remaining
+            remaining = remained
+            remained = swap
+            remainingCount = remainedCount
+        }
+        return faceCount
+    }
+
+    private fun computeSigmoid(inputValue: Float): Float {
+        var finalInputValue = max(inputValue, -100f)
+        finalInputValue = min(finalInputValue, 100f)
+        finalInputValue *= -1
+        return 1.0f / (1.0f + exp(finalInputValue))
+    }
+
+    /**
+     * SSD anchor options of a model, as in MediaPipe's SsdAnchorsCalculator. Anchors have a fixed unit size, and
+     * layers with the same stride are merged into one feature map.
+     */
+    class AnchorConfig(
+        val strides: IntArray,
+        val offsetX: Float = 0.5f,
+        val offsetY: Float = 0.5f,
+        // One anchor per aspect ratio, plus one interpolated with the next layer's scale
+        val anchorsPerLayer: Int = 2
+    ) {
+        fun generate(inputWidth: Int, inputHeight: Int): FloatArray {
+            val anchors = FloatArray(count(inputWidth, inputHeight) * ANCHOR_SIZE)
+            var anchorCount = 0
+            forEachFeatureMap(inputWidth, inputHeight) { featureMapWidth, featureMapHeight, anchorsPerCell ->
+                for (y in 0 until featureMapHeight) {
+                    for (x in 0 until featureMapWidth) {
+                        repeat(anchorsPerCell) {
+                            val anchor = anchorCount++ * ANCHOR_SIZE
+                            anchors[anchor] = (x + offsetX) * 1.0f / featureMapWidth
+                            anchors[anchor + 1] = (y + offsetY) * 1.0f / featureMapHeight
+                            anchors[anchor + 2] = 1.0f
+                            anchors[anchor + 3] = 1.0f
+                        }
+                    }
+                }
+            }
+            return anchors
+        }
+
+        fun count(inputWidth: Int, inputHeight: Int): Int {
+            var count = 0
+            forEachFeatureMap(inputWidth, inputHeight) { featureMapWidth, featureMapHeight, anchorsPerCell ->
+                count += featureMapWidth * featureMapHeight * anchorsPerCell
+            }
+            return count
+        }
+
+        private inline fun forEachFeatureMap(
+            inputWidth: Int,
+            inputHeight: Int,
+            action: (featureMapWidth: Int, featureMapHeight: Int, anchorsPerCell: Int) -> Unit
+        ) {
+            var layerId = 0
+            while (layerId < strides.size) {
+                // For same strides, we merge the anchors in the same order.
+                var lastSameStrideLayer = layerId
+                while (lastSameStrideLayer < strides.size && strides[lastSameStrideLayer] == strides[layerId]) {
+                    lastSameStrideLayer += 1
+                }
+                val stride = strides[layerId]
+                action(
+                    ceil(1.0f * inputWidth / stride).toInt(),
+                    ceil(1.0f * inputHeight / stride).toInt(),
+                    (lastSameStrideLayer - layerId) * anchorsPerLayer
+                )
+                layerId = lastSameStrideLayer
+            }
+        }
+    }
+
+    /**
+     * Shape of the model outputs: the output tensor indices, the number of boxes, and the scales that box and
+     * landmark coordinates are divided by to make them relative to their anchor. Each box has [NUM_COORDS] values.
+     */
+    class OutputLayout(
+        val numBoxes: Int,
+        val xScale: Float,
+        val yScale: Float,
+        val wScale: Float,
+        val hScale: Float,
+        val boxesIndex: Int = 0,
+        val scoresIndex: Int = 1
+    )
+
+    companion object {
+        /**
+         * Face detection coordinates:
+         * 0, 1, 2, 3 - face bounding box
+         * 4, 5 - left eye
+         * 6, 7 - right eye
+         * 8, 9 - nose
+         * 10, 11 - mouth
+         * 12, 13 - left eye tragion
+         * 14, 15 - right eye tragion
+         */
+        const val NUM_COORDS = 16
+
+        // Offsets of the values of a decoded face
+        const val LEFT = 0
+        const val TOP = 1
+        const val RIGHT = 2
+        const val BOTTOM = 3
+        const val LEFT_EYE_X = 4
+        const val LEFT_EYE_Y = 5
+        const val RIGHT_EYE_X = 6
+        const val RIGHT_EYE_Y = 7
+        const val NOSE_X = 8
+        const val NOSE_Y = 9
+        const val MOUTH_X = 10
+        const val MOUTH_Y = 11
+        const val LEFT_EAR_X = 12
+        const val LEFT_EAR_Y = 13
+        const val RIGHT_EAR_X = 14
+        const val RIGHT_EAR_Y = 15
+        const val SCORE = 16
+        private const val DETECTION_SIZE = 17
+
+        // Decoded landmark offset to raw model coordinate index
+        private val LANDMARK_COORDINATES = arrayOf(
+            LEFT_EYE_X to 6,
+            RIGHT_EYE_X to 4,
+            NOSE_X to 8,
+            MOUTH_X to 10,
+            LEFT_EAR_X to 14,
+            RIGHT_EAR_X to 12
+        )
+
+        private const val MIN_SUPPRESSION_THRESHOLD = 0.3f
+        private const val ANCHOR_SIZE = 4
+    }
+}
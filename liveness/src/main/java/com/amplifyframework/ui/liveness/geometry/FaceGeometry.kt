@@ -0,0 +1,207 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.geometry
+
+import kotlin.math.abs
+import kotlin.math.max
+import kotlin.math.min
+import kotlin.math.sqrt
+
+/**
+ * Face and oval geometry on primitive float rectangles given as left, top, right, bottom. This has no Android
+ * dependencies so it can be exercised and benchmarked on a plain JVM; the ml package adapts it to RectF.
+ */
+internal object FaceGeometry {
+
+    enum class OvalPosition { MATCHED, TOO_FAR_LEFT, TOO_FAR_RIGHT, TOO_CLOSE, TOO_FAR }
+
+    fun intersectionOverUnion(
+        leftA: Float,
+        topA: Float,
+        rightA: Float,
+        bottomA: Float,
+        leftB: Float,
+        topB: Float,
+        rightB: Float,
+        bottomB: Float
+    ): Float {
+        val xA = max(leftA, leftB)
+        val yA = max(topA, topB)
+        val xB = min(rightA, rightB)
+        val yB = min(bottomA, bottomB)
+
+        val intersectionArea = max(0f, xB - xA) * max(0f, yB - yA)
+        if (intersectionArea == 0f) {
+            return 0f
+        }
+
+        val boxAArea = abs((bottomA - topA) * (rightA - leftA))
+        val boxBArea = abs((bottomB - topB) * (rightB - leftB))
+
+        return intersectionArea / (boxAArea + boxBArea - intersectionArea)
+    }
+
+    /**
+     * Intersection over union as used for non-max suppression, where rectangles that only touch do not overlap
+     */
+    fun overlapSimilarity(
+        leftA: Float,
+        topA: Float,
+        rightA: Float,
+        bottomA: Float,
+        leftB: Float,
+        topB: Float,
+        rightB: Float,
+        bottomB: Float
+    ): Float {
+        if (!(leftA < rightB && leftB < rightA && topA < bottomB && topB < bottomA)) {
+            return 0.0f
+        }
+        val intersectionArea = (min(rightA, rightB) - max(leftA, leftB)) * (min(bottomA, bottomB) - max(topA, topB))
+        val normalization = (bottomA - topA) * (rightA - leftA) + (bottomB - topB) * (rightB - leftB) - intersectionArea
+        return if (normalization > 0.0f) {
+            intersectionArea / normalization
+        } else {
+            0.0f
+        }
+    }
+
+    fun ovalPosition(
+        faceLeft: Float,
+        faceTop: Float,
+        faceRight: Float,
+        faceBottom: Float,
+        ovalLeft: Float,
+        ovalTop: Float,
+        ovalRight: Float,
+        ovalBottom: Float,
+        targetIouThreshold: Float,
+        targetIouWidthThreshold: Float,
+        targetIouHeightThreshold: Float,
+        faceIouWidthThreshold: Float,
+        faceIouHeightThreshold: Float
+    ): OvalPosition {
+        val intersection = intersectionOverUnion(
+            faceLeft, faceTop, faceRight, faceBottom,
+            ovalLeft, ovalTop, ovalRight, ovalBottom
+        )
+        val ovalWidth = ovalRight - ovalLeft
+        val ovalHeight = ovalBottom - ovalTop
+        val ovalMatchWidthThreshold = ovalWidth * targetIouWidthThreshold
+        val ovalMatchHeightThreshold = ovalHeight * targetIouHeightThreshold
+        val faceDetectionWidthThreshold = ovalWidth * faceIouWidthThreshold
+        val faceDetectionHeightThreshold = ovalHeight * faceIouHeightThreshold
+
+        return if (intersection > targetIouThreshold &&
+            abs(ovalLeft - faceLeft) < ovalMatchWidthThreshold &&
+            abs(ovalRight - faceRight) < ovalMatchWidthThreshold &&
+            abs(ovalBottom - faceBottom) < ovalMatchHeightThreshold
+        ) {
+            OvalPosition.MATCHED
+        } else if (ovalLeft > faceLeft && ovalRight > faceRight) {
+            OvalPosition.TOO_FAR_LEFT
+        } else if (faceLeft > ovalLeft && faceRight > ovalRight) {
+            OvalPosition.TOO_FAR_RIGHT
+        } else if (ovalTop - faceTop > faceDetectionHeightThreshold ||
+            faceBottom - ovalBottom > faceDetectionHeightThreshold ||
+            (
+                ovalLeft - faceLeft > faceDetectionWidthThreshold &&
+                    faceRight - ovalRight > faceDetectionWidthThreshold
+                )
+        ) {
+            OvalPosition.TOO_CLOSE
+        } else {
+            OvalPosition.TOO_FAR
+        }
+    }
+
+    fun faceMatchPercentage(
+        faceLeft: Float,
+        faceTop: Float,
+        faceRight: Float,
+        faceBottom: Float,
+        ovalLeft: Float,
+        ovalTop: Float,
+        ovalRight: Float,
+        ovalBottom: Float,
+        targetIouThreshold: Float,
+        initialIou: Float
+    ): Float {
+        val currentIou = intersectionOverUnion(
+            faceLeft, faceTop, faceRight, faceBottom,
+            ovalLeft, ovalTop, ovalRight, ovalBottom
+        )
+        return max(
+            min(
+                1f,
+                (0.75f * (currentIou - initialIou)) /
+                    (targetIouThreshold - initialIou) + 0.25f
+            ),
+            0f
+        )
+    }
+
+    // Mirrors an x coordinate horizontally within a view of the given width
+    fun mirrorX(x: Float, fullViewWidth: Int): Float = fullViewWidth - 1 - x
+
+    fun pupilDistance(leftEyeX: Float, leftEyeY: Float, rightEyeX: Float, rightEyeY: Float): Float =
+        distance(leftEyeX, leftEyeY, rightEyeX, rightEyeY)
+
+    fun faceHeight(
+        leftEyeX: Float,
+        leftEyeY: Float,
+        rightEyeX: Float,
+        rightEyeY: Float,
+        mouthX: Float,
+        mouthY: Float
+    ): Float = distance((leftEyeX + rightEyeX) / 2, (leftEyeY + rightEyeY) / 2, mouthX, mouthY)
+
+    fun faceDistance(
+        leftEyeX: Float,
+        leftEyeY: Float,
+        rightEyeX: Float,
+        rightEyeY: Float,
+        mouthX: Float,
+        mouthY: Float,
+        width: Int,
+        height: Int
+    ): Float {
+        val pupilDistance = pupilDistance(leftEyeX, leftEyeY, rightEyeX, rightEyeY)
+        val faceHeight = faceHeight(leftEyeX, leftEyeY, rightEyeX, rightEyeY, mouthX, mouthY)
+
+        val calibratedPupilDistance = (ALPHA * pupilDistance + GAMMA * faceHeight) / 2f / ALPHA
+        val ovalWidth = staticOvalWidth(width.toFloat(), height.toFloat())
+        return calibratedPupilDistance / ovalWidth
+    }
+
+    private fun staticOvalWidth(width: Float, height: Float, enlargeFactor: Int = 1): Float {
+        val r = 0.8f * enlargeFactor
+        var newWidth = width
+        if (width > height) {
+            newWidth = 3f / 4f * height
+        }
+        return r * newWidth
+    }
+
+    private fun distance(x1: Float, y1: Float, x2: Float, y2: Float): Float {
+        val dx = x1 - x2
+        val dy = y1 - y2
+        return sqrt(dx * dx + dy * dy)
+    }
+
+    const val ALPHA = 2.0f
+    const val GAMMA = 1.8f
+}
@@ -33,6 +33,10 @@ import java.io.RandomAccessFile
 import java.nio.ByteBuffer
 
 internal interface LivenessMuxer {
+    /**
+     * Prepares the muxer to receive frames. This may happen before recording begins, so the start time of the
+     * video is taken from the first write.
+     */
     @WorkerThread
     fun start(outputFile: File, mediaFormat: MediaFormat, onMuxedSegment: OnMuxedSegment)
 
@@ -55,7 +59,7 @@ internal class WebMMuxer : LivenessMuxer {
 
     private var muxer: MediaMuxer? = null // set when muxer is started
     private var videoTrack: Int = -1 // set when muxer is started
-    private var currentVideoStartTime = 0L // set at the start of each chunk
+    private var currentVideoStartTime = 0L // set on the first write and at the start of each chunk
     private var currentBytePosition = 0L // random access file position
     private var lastChunkNotificationTimestamp = 0L // start at 0 to be ready to notify
 
@@ -74,7 +78,6 @@ internal class WebMMuxer : LivenessMuxer {
         ).apply {
             videoTrack = addTrack(mediaFormat)
             start()
-            currentVideoStartTime = System.currentTimeMillis()
         }
     }
 
@@ -83,6 +86,10 @@ internal class WebMMuxer : LivenessMuxer {
     Write new frame to muxer
      */
     override fun write(byteBuf: ByteBuffer, bufferInfo: MediaCodec.BufferInfo) {
+        if (currentVideoStartTime == 0L) {
+            // The muxer may be started before recording begins, so the video starts with the first frame
+            currentVideoStartTime = System.currentTimeMillis()
+        }
         if (System.currentTimeMillis() - lastChunkNotificationTimestamp >= MIN_CHUNK_DELAY_MILLIS) {
             if (notifyChunk()) {
                 lastChunkNotificationTimestamp = System.currentTimeMillis()
@@ -169,9 +176,9 @@ internal class Mp4Muxer(private val createMediaMuxer: (outputStream: FileOutputS
     private val logger = Amplify.Logging.forNamespace("Liveness")
 
     private var muxer: Muxer? = null
-    private var videoTrackToken: Int? = null
+    private var videoTrackToken = -1 // set when muxer is started
     private var firstKeyframeReceived = false
-    private var currentVideoStartTime = 0L // set at the start of each chunk
+    private var currentVideoStartTime = 0L // set on the first write and at the start of each chunk
     private var currentBytePosition = 0L // random access file position
 
     private var tempOutputFile: File? = null
@@ -185,17 +192,23 @@ internal class Mp4Muxer(private val createMediaMuxer: (outputStream: FileOutputS
 
         muxer = createMediaMuxer(outputFile.outputStream()).apply {
             videoTrackToken = addTrack(MediaFormatUtil.createFormatFromMediaFormat(mediaFormat))
-            currentVideoStartTime = System.currentTimeMillis()
         }
     }
 
     /*
-    Write new frame to muxer and attempt to notify listener of new chunk available
+    Write new frame to muxer and attempt to notify listener of new chunk available.
+    The media3 BufferInfo is immutable and is held by FragmentedMp4Muxer until the fragment is written,
+    so it is the only per-frame allocation made here.
      */
     override fun write(byteBuf: ByteBuffer, bufferInfo: MediaCodec.BufferInfo) {
+        if (currentVideoStartTime == 0L) {
+            // The muxer may be started before recording begins, so the video starts with the first frame
+            currentVideoStartTime = System.currentTimeMillis()
+        }
         try {
             val muxer = muxer ?: throw IllegalStateException("Muxer not initialized")
-            val trackId = videoTrackToken ?: throw IllegalStateException("Video track not initialized")
+            val trackId = videoTrackToken
+            check(trackId >= 0) { "Video track not initialized" }
             muxer.writeSampleData(trackId, byteBuf, bufferInfo.toMedia3())
         } catch (e: Exception) {
             // writeSampleData can throw for various reasons, such as an empty byte buffer.
@@ -27,6 +27,7 @@ import androidx.annotation.WorkerThread
 import com.amplifyframework.core.Amplify
 import com.amplifyframework.logging.Logger
 import com.amplifyframework.ui.liveness.camera.OnMuxedSegment
+import com.amplifyframework.ui.liveness.util.ResourceLedger
 import com.amplifyframework.ui.liveness.util.isKeyFrame
 import java.io.File
 import kotlin.coroutines.resume
@@ -37,13 +38,14 @@ internal class LivenessVideoEncoder @VisibleForTesting constructor(
     width: Int,
     height: Int,
     bitrate: Int,
-    private val frameRate: Int,
+    frameRate: Int,
     private val keyframeInterval: Int,
     private val outputFile: File,
     private val onMuxedSegment: OnMuxedSegment,
     private val onEncoderError: (MediaCodec.CodecException) -> Unit,
     private val onMuxerError: (Exception) -> Unit,
-    private val muxerFactory: (format: VideoCodec) -> LivenessMuxer = LivenessMuxer::create
+    private val muxerFactory: (format: VideoCodec) -> LivenessMuxer = LivenessMuxer::create,
+    resources: ResourceLedger = ResourceLedger()
 ) {
 
     companion object {
@@ -62,7 +64,8 @@ internal class LivenessVideoEncoder @VisibleForTesting constructor(
             keyframeInterval: Int,
             onMuxedSegment: OnMuxedSegment,
             onEncoderError: (MediaCodec.CodecException) -> Unit,
-            onMuxerError: (Exception) -> Unit
+            onMuxerError: (Exception) -> Unit,
+            resources: ResourceLedger
         ): LivenessVideoEncoder? = try {
             LivenessVideoEncoder(
                 videoCodec,
@@ -74,7 +77,8 @@ internal class LivenessVideoEncoder @VisibleForTesting constructor(
                 createTempOutputFile(cacheDir),
                 onMuxedSegment,
                 onEncoderError,
-                onMuxerError
+                onMuxerError,
+                resources = resources
             )
         } catch (e: Exception) {
             null
@@ -107,16 +111,33 @@ internal class LivenessVideoEncoder @VisibleForTesting constructor(
         setInteger(MediaFormat.KEY_I_FRAME_INTERVAL, keyframeInterval)
     }
 
-    private val encoderHandler = Handler(HandlerThread(TAG).apply { start() }.looper)
+    private val encoderThread = resources.register("video encoder thread", HandlerThread(TAG).apply { start() }) {
+        it.quitSafely()
+    }
+    private val encoderHandler = Handler(encoderThread.value.looper)
     private val logger = Amplify.Logging.forNamespace("Liveness")
 
     private val encoder = MediaCodec.createEncoderByType(videoCodec.mimeType).apply {
         configure(format, null, null, MediaCodec.CONFIGURE_FLAG_ENCODE)
-        setCallback(EncoderCallback(::handleFrame, onEncoderError, logger), encoderHandler)
+        setCallback(EncoderCallback(::handleFrame, ::prepareMuxer, onEncoderError, logger), encoderHandler)
     }
+    private val encoderResource = resources.register("video encoder", encoder) { it.release() }
     val inputSurface = encoder.createInputSurface()
+    private val inputSurfaceResource = resources.register("video encoder input surface", inputSurface) {
+        it.release()
+    }
+
+    // Reused for every sync frame request. MediaCodec copies the parameters synchronously.
+    private val syncFrameRequest = Bundle().apply {
+        putInt(MediaCodec.PARAMETER_KEY_REQUEST_SYNC_FRAME, 0)
+    }
 
     private var encoding = false
+    private var stopped = false
+
+    // Set by start() and cleared by the first keyframe after it. The muxer is prepared before recording starts, so
+    // frames encoded before that keyframe would otherwise begin the video with frames that cannot be decoded.
+    private var awaitingKeyFrame = false
     private var livenessMuxer: LivenessMuxer? = null
     var muxerCreationAttempts = 0
 
@@ -131,10 +152,31 @@ internal class LivenessVideoEncoder @VisibleForTesting constructor(
      */
     var framesSinceSyncRequest = 0
 
+    // Frames per second the camera delivers, which sets how many frames pass between sync frame requests
+    @Volatile
+    private var deliveredFrameRate = frameRate
+
+    /**
+     * Updates the frame rate the camera delivers once it is known. KEY_FRAME_RATE is fixed when the codec is
+     * configured, so this only changes how often sync frames are requested.
+     */
+    fun setFrameRate(frameRate: Int) {
+        deliveredFrameRate = frameRate
+    }
+
+    /*
+    Called for every encoded frame. Nothing on this path should allocate in steady state, as
+    it runs at the full frame rate on the encoder thread.
+     */
     @WorkerThread
     fun handleFrame(outputBufferId: Int, info: MediaCodec.BufferInfo) {
         try {
             encoder.getOutputBuffer(outputBufferId)?.let { byteBuffer ->
+                if (info.isKeyFrame() && shouldCreateMuxer()) {
+                    // The muxer is normally prepared by prepareMuxer. Retry a failed creation on each keyframe.
+                    createMuxer()
+                }
+
                 if (encoding) {
                     if (LOGGING_ENABLED) {
                         Log.d(
@@ -146,9 +188,7 @@ internal class LivenessVideoEncoder @VisibleForTesting constructor(
                     }
 
                     if (info.isKeyFrame()) {
-                        if (livenessMuxer == null) {
-                            createMuxer()
-                        }
+                        awaitingKeyFrame = false
                         framesSinceSyncRequest = 0 // reset keyframe request on keyframe receipt
                     } else {
                         framesSinceSyncRequest += 1
@@ -158,16 +198,14 @@ internal class LivenessVideoEncoder @VisibleForTesting constructor(
                         We manually request a new keyframe when we have processed the expected
                         number of frames before our next expected keyframe.
                          */
-                        if (framesSinceSyncRequest >= (frameRate * keyframeInterval)) {
-                            encoder.setParameters(
-                                Bundle().apply {
-                                    putInt(MediaCodec.PARAMETER_KEY_REQUEST_SYNC_FRAME, 0)
-                                }
-                            )
+                        if (framesSinceSyncRequest >= (deliveredFrameRate * keyframeInterval)) {
+                            encoder.setParameters(syncFrameRequest)
                             framesSinceSyncRequest = 0 // reset keyframe request
                         }
                     }
-                    livenessMuxer?.write(byteBuffer, info)
+                    if (!awaitingKeyFrame) {
+                        livenessMuxer?.write(byteBuffer, info)
+                    }
                 }
             }
             encoder.releaseOutputBuffer(outputBufferId, false)
@@ -176,13 +214,28 @@ internal class LivenessVideoEncoder @VisibleForTesting constructor(
         }
     }
 
+    /*
+    Called as soon as the encoder reports its output format, which happens once the first camera frames
+    are encoded and well before the challenge starts recording. Creating the muxer here keeps file and
+    track setup off the path of the first recorded keyframe, and surfaces creation failures early.
+     */
+    @WorkerThread
+    fun prepareMuxer(mediaFormat: MediaFormat) {
+        if (shouldCreateMuxer()) {
+            createMuxer(mediaFormat)
+        }
+    }
+
+    private fun shouldCreateMuxer() =
+        !stopped && livenessMuxer == null && muxerCreationAttempts < MAX_MUXER_CREATION_ATTEMPTS
+
     @VisibleForTesting()
-    fun createMuxer() {
+    fun createMuxer(mediaFormat: MediaFormat = encoder.outputFormat) {
         muxerCreationAttempts++
         try {
             val muxer = muxerFactory(videoCodec)
+            muxer.start(outputFile, mediaFormat, onMuxedSegment)
             livenessMuxer = muxer
-            muxer.start(outputFile, encoder.outputFormat, onMuxedSegment)
         } catch (e: Exception) {
             // This is likely an unrecoverable error, such as file creation failing.
             // However, if it fails, we will allow multiple attempt at the next keyframe.
@@ -202,20 +255,35 @@ internal class LivenessVideoEncoder @VisibleForTesting constructor(
                     Log.d(TAG, "Starting to encode")
                 }
                 encoding = true
-                encoder.setParameters(
-                    Bundle().apply {
-                        putInt(MediaCodec.PARAMETER_KEY_REQUEST_SYNC_FRAME, 0)
-                    }
-                )
+                awaitingKeyFrame = true
+                encoder.setParameters(syncFrameRequest)
             } else {
                 Log.e(TAG, "Encoding already started")
             }
         }
     }
 
+    /**
+     * Changes the target bitrate of the running encoder, for encoders that support it
+     */
+    fun setBitrate(bitrate: Int) {
+        encoderHandler.post {
+            if (!stopped) {
+                try {
+                    encoder.setParameters(
+                        Bundle().apply { putInt(MediaCodec.PARAMETER_KEY_VIDEO_BITRATE, bitrate) }
+                    )
+                } catch (e: IllegalStateException) {
+                    // may have already been released by destroy()
+                }
+            }
+        }
+    }
+
     suspend fun stop() = suspendCoroutine { continuation ->
         encoderHandler.post {
             encoding = false
+            stopped = true
             livenessMuxer?.stop()
             livenessMuxer = null
             if (LOGGING_ENABLED) {
@@ -230,6 +298,7 @@ internal class LivenessVideoEncoder @VisibleForTesting constructor(
             if (LOGGING_ENABLED) {
                 Log.i(TAG, "Destroying encoder")
             }
+            stopped = true
             try {
                 livenessMuxer?.stop()
                 livenessMuxer = null
@@ -241,15 +310,26 @@ internal class LivenessVideoEncoder @VisibleForTesting constructor(
             } catch (e: Exception) {
                 // may already be stopped
             }
-            encoder.release()
+            encoderResource.release()
+            inputSurfaceResource.release()
 
             continuation.resume(Unit)
+            // The thread finishes this message before it quits
+            encoderThread.release()
         }
     }
 }
 
+/**
+ * Receives encoded output buffers. Used instead of a function type so the buffer index is not boxed on every frame.
+ */
+internal fun interface EncodedFrameHandler {
+    fun handleFrame(outputBufferId: Int, info: MediaCodec.BufferInfo)
+}
+
 internal class EncoderCallback(
-    private val handleFrame: (Int, MediaCodec.BufferInfo) -> Unit,
+    private val frameHandler: EncodedFrameHandler,
+    private val onOutputFormat: (MediaFormat) -> Unit,
     private val onEncoderError: (MediaCodec.CodecException) -> Unit,
     private val logger: Logger
 ) : MediaCodec.Callback() {
@@ -257,10 +337,12 @@ internal class EncoderCallback(
     override fun onInputBufferAvailable(codec: MediaCodec, index: Int) {}
 
     override fun onOutputBufferAvailable(codec: MediaCodec, index: Int, info: MediaCodec.BufferInfo) {
-        handleFrame(index, info)
+        frameHandler.handleFrame(index, info)
     }
 
-    override fun onOutputFormatChanged(codec: MediaCodec, format: MediaFormat) {}
+    override fun onOutputFormatChanged(codec: MediaCodec, format: MediaFormat) {
+        onOutputFormat(format)
+    }
 
     override fun onError(codec: MediaCodec, e: MediaCodec.CodecException) {
         if (!e.isTransient) {
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.ml
+
+import java.nio.ByteBuffer
+import org.tensorflow.lite.DataType
+import org.tensorflow.lite.Interpreter
+
+/**
+ * Runs the face detection model on a preprocessed input image, filling the raw box and score outputs
+ * that [FaceDetector.getBoundingBoxes] decodes
+ */
+internal interface FaceDetectionInterpreter {
+    // The model being run, which defines the input and output shapes
+    val model: FaceDetectionModel
+
+    fun run(input: ByteBuffer, outputLocations: Array<Array<FloatArray>>, outputScores: Array<Array<FloatArray>>)
+
+    // Sets the number of threads used from the next run, or DEFAULT_THREADS to let the runtime decide
+    fun setNumThreads(numThreads: Int) {}
+
+    // Releases the native resources of the model. The interpreter cannot be run afterwards.
+    fun close() {}
+
+    companion object {
+        const val DEFAULT_THREADS = -1
+    }
+}
+
+/**
+ * Runs the model with LiteRT. The interpreter is loaded again with [loadInterpreter] when the number of threads
+ * changes, as it can only be set when the interpreter is created.
+ */
+internal class LiteRtFaceDetectionInterpreter(
+    private val loadInterpreter: (numThreads: Int) -> Interpreter,
+    override val model: FaceDetectionModel,
+    private var numThreads: Int = FaceDetectionInterpreter.DEFAULT_THREADS
+) : FaceDetectionInterpreter {
+
+    private var interpreter = loadInterpreter(numThreads).also { validate(it) }
+
+    override fun setNumThreads(numThreads: Int) {
+        if (numThreads == this.numThreads) return
+        val reloaded = loadInterpreter(numThreads).also { validate(it) }
+        interpreter.close()
+        interpreter = reloaded
+        this.numThreads = numThreads
+    }
+
+    override fun close() {
+        interpreter.close()
+    }
+
+    private fun validate(interpreter: Interpreter) {
+        val input = interpreter.getInputTensor(0)
+        val inputType = if (model.quantized) DataType.UINT8 else DataType.FLOAT32
+        val inputShape = input.shape()
+        val inputMatches = input.dataType() == inputType &&
+            inputShape[1] == model.inputHeight &&
+            inputShape[2] == model.inputWidth
+        require(inputMatches) {
+            "Model $model expects a ${model.inputWidth}x${model.inputHeight} $inputType input but the loaded " +
+                "model takes ${inputShape.contentToString()} ${input.dataType()}"
+        }
+        require(interpreter.getOutputTensor(model.outputLayout.boxesIndex).dataType() == DataType.FLOAT32) {
+            "Model $model must output float boxes and scores"
+        }
+    }
+
+    override fun run(
+        input: ByteBuffer,
+        outputLocations: Array<Array<FloatArray>>,
+        outputScores: Array<Array<FloatArray>>
+    ) {
+        interpreter.runForMultipleInputsOutputs(
+            arrayOf(input),
+            mapOf(model.outputLayout.boxesIndex to outputLocations, model.outputLayout.scoresIndex to outputScores)
+        )
+    }
+}
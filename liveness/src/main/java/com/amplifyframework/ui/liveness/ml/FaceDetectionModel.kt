@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.ml
+
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder.AnchorConfig
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder.OutputLayout
+
+/**
+ * Describes a bundled face detection model: where to load it from, the input it expects, and how to decode its
+ * output. A quantized model takes the resized camera image as UINT8 RGB values, a float model takes them
+ * normalized to [0, 1]. Box and score outputs are float for both.
+ */
+internal class FaceDetectionModel(
+    val name: String,
+    val assetName: String,
+    val inputWidth: Int,
+    val inputHeight: Int,
+    val anchorConfig: AnchorConfig,
+    val outputLayout: OutputLayout,
+    val quantized: Boolean
+) {
+    fun createDecoder() = FaceDetectionDecoder(inputWidth, inputHeight, anchorConfig, outputLayout)
+
+    override fun toString() = name
+
+    companion object {
+        val SHORT_RANGE = FaceDetectionModel(
+            name = "short_range",
+            assetName = "face_detection_short_range.tflite",
+            inputWidth = 128,
+            inputHeight = 128,
+            anchorConfig = AnchorConfig(strides = intArrayOf(8, 16, 16, 16)),
+            outputLayout = OutputLayout(numBoxes = 896, xScale = 128f, yScale = 128f, wScale = 128f, hScale = 128f),
+            quantized = false
+        )
+
+        // The model used unless another is requested
+        val DEFAULT = SHORT_RANGE
+    }
+}
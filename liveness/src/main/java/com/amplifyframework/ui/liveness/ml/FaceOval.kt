@@ -17,6 +17,7 @@ package com.amplifyframework.ui.liveness.ml
 
 import android.graphics.RectF
 import com.amplifyframework.predictions.aws.models.FaceTargetChallenge
+import com.amplifyframework.ui.liveness.geometry.FaceGeometry
 import kotlin.math.max
 
 internal object FaceOval {
@@ -33,8 +34,8 @@ internal object FaceOval {
 
     // Creates a new rectangle that is a mirror of the given rectangle
     fun convertMirroredRectangle(rectangle: RectF, fullViewWidth: Int): RectF {
-        val newLeft = max(0f, fullViewWidth - 1 - rectangle.right)
-        val newRight = fullViewWidth - 1 - rectangle.left
+        val newLeft = max(0f, FaceGeometry.mirrorX(rectangle.right, fullViewWidth))
+        val newRight = FaceGeometry.mirrorX(rectangle.left, fullViewWidth)
         val newTop = rectangle.top
         val newBottom = rectangle.bottom
         return RectF(newLeft, newTop, newRight, newBottom)
@@ -44,7 +45,7 @@ internal object FaceOval {
         landmark: FaceDetector.Landmark,
         fullViewWidth: Int
     ): FaceDetector.Landmark {
-        val newX = max(0f, fullViewWidth - 1 - landmark.x)
+        val newX = max(0f, FaceGeometry.mirrorX(landmark.x, fullViewWidth))
         val newY = landmark.y
         return FaceDetector.Landmark(newX, newY)
     }
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.ml
+
+import java.nio.ByteBuffer
+
+/**
+ * A cheap first check for whether a frame may contain a face, so the face detection model only runs when it can
+ * find something. The frame is sampled on a 32x32 grid and the gate fires when enough samples have a skin tone.
+ * Frames that are too dark or too bright for skin tones to be judged always pass, as do frames following a detected
+ * face and every [safetyNetInterval]th frame, so a missed face is caught within a few frames.
+ */
+internal class FacePresenceGate(private val safetyNetInterval: Int = SAFETY_NET_INTERVAL) {
+
+    private var framesSinceDetection = 0
+
+    // Statistics of the last sampled frame
+    var skinFraction = 0f
+        private set
+    var meanLuma = 0f
+        private set
+
+    /**
+     * @param pixels tightly packed RGBA_8888 pixels, read without changing the buffer position
+     * @return true if the face detector should run on this frame
+     */
+    fun shouldDetect(pixels: ByteBuffer, width: Int, height: Int, faceInPreviousFrame: Boolean): Boolean {
+        val detect = faceInPreviousFrame ||
+            ++framesSinceDetection >= safetyNetInterval ||
+            mayContainFace(pixels, width, height)
+        if (detect) framesSinceDetection = 0
+        return detect
+    }
+
+    fun mayContainFace(pixels: ByteBuffer, width: Int, height: Int): Boolean {
+        var skinSamples = 0
+        var lumaSum = 0
+        for (sampleY in 0 until GRID_SIZE) {
+            val row = (sampleY * height / GRID_SIZE + height / (2 * GRID_SIZE)) * width
+            for (sampleX in 0 until GRID_SIZE) {
+                val index = (row + sampleX * width / GRID_SIZE + width / (2 * GRID_SIZE)) * BYTES_PER_PIXEL
+                val r = pixels.get(index).toInt() and 0xFF
+                val g = pixels.get(index + 1).toInt() and 0xFF
+                val b = pixels.get(index + 2).toInt() and 0xFF
+
+                // BT.601 YCbCr in 8 bit fixed point
+                lumaSum += (77 * r + 150 * g + 29 * b) shr 8
+                val cb = 128 + ((-43 * r - 85 * g + 128 * b) shr 8)
+                val cr = 128 + ((128 * r - 107 * g - 21 * b) shr 8)
+                if (cb in SKIN_CB_MIN..SKIN_CB_MAX && cr in SKIN_CR_MIN..SKIN_CR_MAX) {
+                    skinSamples++
+                }
+            }
+        }
+        skinFraction = skinSamples.toFloat() / SAMPLE_COUNT
+        meanLuma = lumaSum.toFloat() / SAMPLE_COUNT
+        return meanLuma < MIN_RELIABLE_LUMA || meanLuma > MAX_RELIABLE_LUMA || skinFraction >= MIN_SKIN_FRACTION
+    }
+
+    companion object {
+        const val SAFETY_NET_INTERVAL = 8
+        private const val GRID_SIZE = 32
+        private const val SAMPLE_COUNT = GRID_SIZE * GRID_SIZE
+        private const val BYTES_PER_PIXEL = 4
+
+        // A face in position covers far more of the frame than this
+        private const val MIN_SKIN_FRACTION = 0.03f
+
+        // Chrominance range of skin tones across complexions (Chai and Ngan)
+        private const val SKIN_CB_MIN = 77
+        private const val SKIN_CB_MAX = 127
+        private const val SKIN_CR_MIN = 133
+        private const val SKIN_CR_MAX = 173
+
+        private const val MIN_RELIABLE_LUMA = 40f
+        private const val MAX_RELIABLE_LUMA = 235f
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.ml
+
+import com.amplifyframework.ui.liveness.R
+import java.nio.ByteBuffer
+
+/**
+ * Checks the resized model input for frames that are too dark, too bright or too blurry to be worth running the
+ * face detection model on. Luma mean, a luma histogram and the variance of the Laplacian are computed in one pass
+ * over the image, keeping three rows of luma for the Laplacian, into buffers allocated once for the model input
+ * size. Only clearly unusable frames are flagged, so a dim room or a little motion blur still gets detected.
+ */
+internal open class FrameQualityGate(private val width: Int, private val height: Int) {
+
+    constructor(model: FaceDetectionModel) : this(model.inputWidth, model.inputHeight)
+
+    enum class Issue(val instructionStringRes: Int) {
+        TOO_DARK(R.string.amplify_ui_liveness_challenge_instruction_too_dark),
+        TOO_BRIGHT(R.string.amplify_ui_liveness_challenge_instruction_too_bright),
+        BLURRY(R.string.amplify_ui_liveness_challenge_instruction_hold_camera_steady)
+    }
+
+    private val histogram = IntArray(HISTOGRAM_BINS)
+    private val lumaRows = IntArray(width * 3)
+
+    // Statistics of the last checked frame
+    var meanLuma = 0f
+        private set
+    var sharpness = 0f
+        private set
+    var darkFraction = 0f
+        private set
+    var brightFraction = 0f
+        private set
+
+    /**
+     * @param pixels RGB model input, read without changing the buffer position. Float input has values normalized
+     * to [0, 1], as fed to float models.
+     * @return the reason the frame is unusable, or null if the face detector should run on it
+     */
+    open fun check(pixels: ByteBuffer, floatInput: Boolean): Issue? {
+        histogram.fill(0)
+        var lumaSum = 0L
+        var laplacianSum = 0L
+        var laplacianSquareSum = 0L
+        for (y in 0 until height) {
+            val row = (y % 3) * width
+            for (x in 0 until width) {
+                val luma = luma(pixels, y * width + x, floatInput)
+                lumaRows[row + x] = luma
+                lumaSum += luma
+                histogram[luma shr HISTOGRAM_SHIFT]++
+            }
+            // With rows y - 2 and y - 1 stored, the Laplacian of row y - 1 can be computed
+            if (y >= 2) {
+                val above = ((y - 2) % 3) * width
+                val center = ((y - 1) % 3) * width
+                for (x in 1 until width - 1) {
+                    val laplacian = lumaRows[above + x] + lumaRows[row + x] + lumaRows[center + x - 1] +
+                        lumaRows[center + x + 1] - 4 * lumaRows[center + x]
+                    laplacianSum += laplacian
+                    laplacianSquareSum += laplacian * laplacian
+                }
+            }
+        }
+
+        val pixelCount = width * height
+        val laplacianCount = (width - 2) * (height - 2)
+        val laplacianMean = laplacianSum.toFloat() / laplacianCount
+        meanLuma = lumaSum.toFloat() / pixelCount
+        sharpness = laplacianSquareSum.toFloat() / laplacianCount - laplacianMean * laplacianMean
+        darkFraction = histogram[0].toFloat() / pixelCount
+        brightFraction = histogram[HISTOGRAM_BINS - 1].toFloat() / pixelCount
+
+        return when {
+            darkFraction >= MAX_CLIPPED_FRACTION -> Issue.TOO_DARK
+            brightFraction >= MAX_CLIPPED_FRACTION -> Issue.TOO_BRIGHT
+            sharpness < MIN_SHARPNESS -> Issue.BLURRY
+            else -> null
+        }
+    }
+
+    // BT.601 luma in 8 bit fixed point
+    private fun luma(pixels: ByteBuffer, pixel: Int, floatInput: Boolean): Int {
+        val r: Int
+        val g: Int
+        val b: Int
+        if (floatInput) {
+            val index = pixel * 3 * Float.SIZE_BYTES
+            r = (pixels.getFloat(index) * 255 + 0.5f).toInt()
+            g = (pixels.getFloat(index + Float.SIZE_BYTES) * 255 + 0.5f).toInt()
+            b = (pixels.getFloat(index + 2 * Float.SIZE_BYTES) * 255 + 0.5f).toInt()
+        } else {
+            val index = pixel * 3
+            r = pixels.get(index).toInt() and 0xFF
+            g = pixels.get(index + 1).toInt() and 0xFF
+            b = pixels.get(index + 2).toInt() and 0xFF
+        }
+        return ((77 * r + 150 * g + 29 * b) shr 8).coerceIn(0, 255)
+    }
+
+    companion object {
+        // 16 luma levels per bin, so the first and last bins hold crushed shadows and blown highlights
+        private const val HISTOGRAM_BINS = 16
+        private const val HISTOGRAM_SHIFT = 4
+
+        // Most of the frame has to be clipped before it is too dark or bright for the face to be found
+        private const val MAX_CLIPPED_FRACTION = 0.75f
+
+        // A face in focus has a Laplacian variance well above this even at the model input size
+        private const val MIN_SHARPNESS = 6f
+    }
+}
@@ -18,6 +18,7 @@ package com.amplifyframework.ui.liveness.model
 import androidx.compose.ui.graphics.Color
 import com.amplifyframework.predictions.aws.models.ColorDisplayInformation
 import com.amplifyframework.predictions.aws.models.RgbColor
+import com.amplifyframework.ui.liveness.ui.PerformanceOptions
 
 internal fun RgbColor.toComposeColor(alpha: Int) =
     Color(
@@ -32,12 +33,18 @@ internal sealed class SceneType {
     object Flat : SceneType()
 }
 
+/**
+ * A scene in the freshness color script. The colors to draw are resolved when the script is built
+ * so rendering a frame does not need to create any colors.
+ */
 internal data class FreshnessColorScene(
     val startTime: Long,
     val endTime: Long,
     val currentColor: ColorDisplayInformation,
     val previousColor: ColorDisplayInformation?,
-    val sceneType: SceneType
+    val sceneType: SceneType,
+    val currentDisplayColor: Color,
+    val previousDisplayColor: Color?
 )
 
 internal data class FreshnessColorFrame(
@@ -46,3 +53,20 @@ internal data class FreshnessColorFrame(
     val previousColor: Color?,
     val sceneCompletionPercentage: Float
 )
+
+/**
+ * Frame timing for a freshness color playback, passed to [PerformanceOptions.onFreshnessFrameStats] when the colors
+ * have been shown
+ * @param frameCount frames drawn during playback
+ * @param missedFrameCount display frames missed between drawn frames
+ * @param longestFrameIntervalMillis longest time between two drawn frames
+ * @param missedFramesPerScene missed frames for each color in the script
+ * @param compensationMillis total time scenes were delayed to make up for missed frames
+ */
+data class FreshnessFrameStats(
+    val frameCount: Int,
+    val missedFrameCount: Int,
+    val longestFrameIntervalMillis: Long,
+    val missedFramesPerScene: List<Int>,
+    val compensationMillis: Long
+)
@@ -18,6 +18,7 @@ package com.amplifyframework.ui.liveness.model
 import android.graphics.RectF
 import com.amplifyframework.ui.liveness.R
 import com.amplifyframework.ui.liveness.ml.FaceDetector
+import com.amplifyframework.ui.liveness.ml.FrameQualityGate
 
 internal sealed class LivenessCheckState(open val instructionId: Int? = null, open val isActionable: Boolean = true) {
     data class Initial(
@@ -35,6 +36,8 @@ internal sealed class LivenessCheckState(open val instructionId: Int? = null, op
                 Initial(R.string.amplify_ui_liveness_challenge_connecting, false)
             fun withStartViewMessage() =
                 Initial(R.string.amplify_ui_liveness_get_ready_center_face_label)
+            fun withFrameQualityMessage(issue: FrameQualityGate.Issue) =
+                Initial(issue.instructionStringRes)
         }
     }
     data class Running(override val instructionId: Int? = null) : LivenessCheckState(instructionId, true) {
@@ -47,6 +50,8 @@ internal sealed class LivenessCheckState(open val instructionId: Int? = null, op
             )
             fun withFaceOvalPosition(faceOvalPosition: FaceDetector.FaceOvalPosition) =
                 Running(faceOvalPosition.instructionStringRes)
+            fun withFrameQualityMessage(issue: FrameQualityGate.Issue) =
+                Running(issue.instructionStringRes)
         }
     }
     object Error : LivenessCheckState(isActionable = false)
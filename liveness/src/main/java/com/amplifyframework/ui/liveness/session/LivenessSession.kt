@@ -0,0 +1,343 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.session
+
+import android.content.Context
+import android.graphics.RectF
+import android.hardware.display.DisplayManager
+import android.os.Handler
+import android.os.Looper
+import android.util.Size
+import android.view.Display
+import android.view.Surface
+import android.view.TextureView
+import androidx.annotation.MainThread
+import androidx.annotation.StringRes
+import androidx.lifecycle.Lifecycle
+import androidx.lifecycle.LifecycleEventObserver
+import androidx.lifecycle.LifecycleOwner
+import com.amplifyframework.auth.AWSCredentials
+import com.amplifyframework.auth.AWSCredentialsProvider
+import com.amplifyframework.core.Action
+import com.amplifyframework.core.Consumer
+import com.amplifyframework.predictions.models.FaceLivenessChallengeType
+import com.amplifyframework.ui.liveness.R
+import com.amplifyframework.ui.liveness.camera.LivenessCoordinator
+import com.amplifyframework.ui.liveness.model.FaceLivenessDetectionException
+import com.amplifyframework.ui.liveness.model.LivenessCheckState
+import com.amplifyframework.ui.liveness.state.FreshnessFrameTimer
+import com.amplifyframework.ui.liveness.state.FreshnessPlayback
+import com.amplifyframework.ui.liveness.state.FreshnessState
+import com.amplifyframework.ui.liveness.ui.ChallengeOptions
+import com.amplifyframework.ui.liveness.ui.PerformanceOptions
+import com.amplifyframework.ui.liveness.ui.VideoOptions
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+
+/**
+ * Runs a face liveness check for hosts that draw their own UI, such as View based screens and automated tests. The
+ * camera is bound to [lifecycleOwner] and the session is destroyed with it. Must be created and used on the main
+ * thread.
+ *
+ * The host shows the camera preview on a surface passed to [attachPreview], renders [state], and for Face Movement
+ * and Light challenges fills the screen with the colors passed to [onFreshnessColor] while they play. The session
+ * holds its state in plain fields and never writes Compose snapshot state, but the library still depends on the
+ * Compose runtime.
+ *
+ * @param sessionId of challenge
+ * @param region AWS region to stream the video to
+ * @param onComplete callback notifying a completed challenge
+ * @param onError callback containing exception for cause
+ * @param credentialsProvider to provide custom CredentialsProvider for authentication. Default uses initialized
+ * Amplify.Auth CredentialsProvider
+ * @param disableStartView to start the check without waiting for [beginCheck]
+ * @param videoOptions of the recorded video. When null, a preset chosen in [performanceOptions] selects the codec
+ * @param onFreshnessColor receives every display frame of the freshness colors
+ */
+class LivenessSession internal constructor(
+    context: Context,
+    private val lifecycleOwner: LifecycleOwner,
+    sessionId: String,
+    region: String,
+    onComplete: Action,
+    onError: Consumer<FaceLivenessDetectionException>,
+    credentialsProvider: AWSCredentialsProvider<AWSCredentials>?,
+    disableStartView: Boolean,
+    challengeOptions: ChallengeOptions,
+    videoOptions: VideoOptions?,
+    performanceOptions: PerformanceOptions,
+    private val onFreshnessColor: FreshnessColorListener?,
+    // False when FaceLivenessDetector plays the challenge from Compose state
+    private val playsChallenge: Boolean
+) {
+
+    @JvmOverloads
+    constructor(
+        context: Context,
+        lifecycleOwner: LifecycleOwner,
+        sessionId: String,
+        region: String,
+        onComplete: Action,
+        onError: Consumer<FaceLivenessDetectionException>,
+        credentialsProvider: AWSCredentialsProvider<AWSCredentials>? = null,
+        disableStartView: Boolean = false,
+        challengeOptions: ChallengeOptions = ChallengeOptions(),
+        videoOptions: VideoOptions? = null,
+        performanceOptions: PerformanceOptions = PerformanceOptions(),
+        onFreshnessColor: FreshnessColorListener? = null
+    ) : this(
+        context,
+        lifecycleOwner,
+        sessionId,
+        region,
+        onComplete,
+        onError,
+        credentialsProvider,
+        disableStartView,
+        challengeOptions,
+        videoOptions,
+        performanceOptions,
+        onFreshnessColor,
+        playsChallenge = true
+    )
+
+    private val mainHandler = Handler(Looper.getMainLooper())
+    private var finished = false
+    private var destroyed = false
+    private var challengeStarted = false
+    private var freshnessPlayback: FreshnessPlayback? = null
+    private val refreshRate = context.getSystemService(DisplayManager::class.java)
+        ?.getDisplay(Display.DEFAULT_DISPLAY)?.refreshRate?.takeIf { it > 0 } ?: DEFAULT_REFRESH_RATE
+
+    private val mutableState = MutableStateFlow(LivenessSessionState())
+
+    /**
+     * What the host shows for the check. Not updated when the session is shown by FaceLivenessDetector.
+     */
+    val state: StateFlow<LivenessSessionState> = mutableState.asStateFlow()
+
+    internal val coordinator: LivenessCoordinator? = try {
+        LivenessCoordinator(
+            context,
+            lifecycleOwner,
+            sessionId,
+            region,
+            credentialsProvider,
+            disableStartView,
+            challengeOptions,
+            videoOptions = videoOptions,
+            performanceOptions = performanceOptions,
+            onChallengeComplete = { finish { onComplete.call() } },
+            onChallengeFailed = { finish { onError.accept(it) } },
+            snapshotState = !playsChallenge
+        )
+    } catch (e: Exception) {
+        finish {
+            onError.accept(
+                FaceLivenessDetectionException(
+                    message = "Failed to initialize video components required for Liveness check.",
+                    throwable = e
+                )
+            )
+        }
+        null
+    }
+
+    private val lifecycleObserver = LifecycleEventObserver { _, event ->
+        if (event == Lifecycle.Event.ON_DESTROY) destroy()
+    }
+
+    init {
+        lifecycleOwner.lifecycle.addObserver(lifecycleObserver)
+        if (playsChallenge) {
+            coordinator?.livenessState?.onStateChanged = ::onStateChanged
+            onStateChanged()
+        }
+    }
+
+    /**
+     * Shows the camera preview on [textureView]
+     */
+    @MainThread
+    fun attachPreview(textureView: TextureView) {
+        coordinator?.attachPreview(textureView)
+    }
+
+    /**
+     * Shows the camera preview on [surface]
+     * @param rotationDegrees of the display the surface is shown on
+     */
+    @MainThread
+    fun attachPreview(surface: Surface, width: Int, height: Int, rotationDegrees: Int) {
+        coordinator?.attachPreview(surface, Size(width, height), rotationDegrees)
+    }
+
+    /**
+     * Stops showing the camera preview. The surface passed to [attachPreview] can be released once this completes.
+     */
+    @MainThread
+    fun detachPreview() {
+        coordinator?.detachPreview()
+    }
+
+    /**
+     * Starts the check once the user is ready, when the start view is not disabled
+     */
+    @MainThread
+    fun beginCheck() {
+        coordinator?.livenessState?.onStartViewComplete()
+    }
+
+    /**
+     * Cancels the check, which fails with a UserCancelledException
+     */
+    @MainThread
+    fun cancel() {
+        coordinator?.processSessionError(FaceLivenessDetectionException.UserCancelledException(), true)
+    }
+
+    /**
+     * Releases the camera, encoder and connection of the session. Called when [lifecycleOwner] is destroyed.
+     */
+    @MainThread
+    fun destroy() {
+        if (destroyed) return
+        destroyed = true
+        lifecycleOwner.lifecycle.removeObserver(lifecycleObserver)
+        freshnessPlayback?.stop()
+        coordinator?.livenessState?.onStateChanged = null
+        coordinator?.destroy()
+    }
+
+    // Called on the thread that changed the state
+    private fun onStateChanged() {
+        val livenessState = coordinator?.livenessState ?: return
+        val checkState = livenessState.livenessCheckState
+        mutableState.value = LivenessSessionState(
+            status = when (checkState) {
+                is LivenessCheckState.Initial -> LivenessSessionState.Status.INITIAL
+                is LivenessCheckState.Running -> LivenessSessionState.Status.RUNNING
+                is LivenessCheckState.Success -> LivenessSessionState.Status.VERIFYING
+                LivenessCheckState.Error -> LivenessSessionState.Status.ERROR
+            },
+            instructionId = if (livenessState.showingStartView) {
+                R.string.amplify_ui_liveness_get_ready_center_face_label
+            } else {
+                checkState.instructionId
+            },
+            showingStartView = livenessState.showingStartView,
+            loadingCameraPreview = livenessState.loadingCameraPreview,
+            challengeType = livenessState.livenessSessionInfo?.challengeType,
+            faceGuideRect = livenessState.faceGuideRect?.let(::RectF),
+            faceMatched = livenessState.faceMatched,
+            faceMatchPercentage = livenessState.faceMatchPercentage
+        )
+        if (livenessState.faceMatched) {
+            mainHandler.post(::startChallenge)
+        }
+    }
+
+    @MainThread
+    private fun startChallenge() {
+        val coordinator = coordinator ?: return
+        if (challengeStarted || destroyed) return
+        challengeStarted = true
+        val livenessState = coordinator.livenessState
+        val colorChallenge = livenessState.colorChallenge
+        if (livenessState.livenessSessionInfo?.challengeType ==
+            FaceLivenessChallengeType.FaceMovementAndLightChallenge &&
+            colorChallenge != null
+        ) {
+            val freshnessState = FreshnessState(
+                colorChallenge.challengeColors,
+                onColorDisplayed = coordinator::processColorDisplayed,
+                onComplete = coordinator::processLivenessCheckComplete
+            )
+            freshnessPlayback = FreshnessPlayback(
+                freshnessState,
+                FreshnessFrameTimer(frameIntervalNanos = (NANOS_PER_SECOND / refreshRate).toLong()),
+                onFreshnessColor ?: FreshnessColorListener { _, _, _ -> },
+                coordinator::processFreshnessFrameStats
+            ).apply { start() }
+        } else {
+            coordinator.processLivenessCheckComplete()
+        }
+    }
+
+    private fun finish(result: () -> Unit) {
+        if (!playsChallenge) {
+            // FaceLivenessDetector handles results the way it did before sessions existed
+            result()
+            return
+        }
+        mainHandler.post {
+            // The first result is the only one reported
+            if (!finished) {
+                finished = true
+                result()
+            }
+        }
+    }
+
+    private companion object {
+        const val DEFAULT_REFRESH_RATE = 60f
+        const val NANOS_PER_SECOND = 1_000_000_000f
+    }
+}
+
+/**
+ * What a host shows for a [LivenessSession]
+ * @param status of the check
+ * @param instructionId string resource of the instruction to show, if any
+ * @param showingStartView true until [LivenessSession.beginCheck] is called, unless the start view is disabled
+ * @param loadingCameraPreview true while the camera for a challenge is chosen, when challenges use different cameras
+ * @param challengeType of the session, once it has started
+ * @param faceGuideRect oval the face should fill while the check runs, in the coordinates of the 480x640 video
+ * @param faceMatched true once the face fills the oval
+ * @param faceMatchPercentage how close the face is to filling the oval, from 0 to 1
+ */
+data class LivenessSessionState(
+    val status: Status = Status.INITIAL,
+    @StringRes val instructionId: Int? = null,
+    val showingStartView: Boolean = false,
+    val loadingCameraPreview: Boolean = false,
+    val challengeType: FaceLivenessChallengeType? = null,
+    val faceGuideRect: RectF? = null,
+    val faceMatched: Boolean = false,
+    val faceMatchPercentage: Float = 0f
+) {
+    enum class Status {
+        INITIAL,
+        RUNNING,
+        VERIFYING,
+        ERROR
+    }
+}
+
+/**
+ * Receives each display frame of the freshness colors of a Face Movement and Light challenge, on the main thread.
+ * The host fills the screen with [onColorFrame]'s colors in the same frame.
+ */
+fun interface FreshnessColorListener {
+
+    /**
+     * @param currentColor ARGB color that fills the screen from the top down to [scrollFraction] of its height
+     * @param previousColor ARGB color that fills the rest of the screen
+     * @param scrollFraction from 0 to 1, and 1 for colors that do not scroll
+     */
+    fun onColorFrame(currentColor: Int, previousColor: Int, scrollFraction: Float)
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.session
+
+import com.amplifyframework.auth.AWSCredentials
+import com.amplifyframework.auth.AWSCredentialsProvider
+import com.amplifyframework.core.Action
+import com.amplifyframework.core.Consumer
+import com.amplifyframework.predictions.PredictionsException
+import com.amplifyframework.predictions.aws.AWSPredictionsPlugin
+import com.amplifyframework.predictions.aws.options.AWSFaceLivenessSessionOptions
+import com.amplifyframework.predictions.models.Challenge
+import com.amplifyframework.predictions.models.FaceLivenessSession
+import com.amplifyframework.predictions.models.FaceLivenessSessionInformation
+import com.amplifyframework.ui.liveness.BuildConfig
+import com.amplifyframework.ui.liveness.camera.LivenessCoordinator
+
+/**
+ * Connects a liveness check to the service that issues its challenges and receives its video and
+ * challenge response events. Events are sent through the [FaceLivenessSession] delivered to
+ * onSessionStarted.
+ */
+internal interface LivenessSessionTransport {
+    fun startSession(
+        sessionId: String,
+        sessionInformation: FaceLivenessSessionInformation,
+        credentialsProvider: AWSCredentialsProvider<AWSCredentials>?,
+        onSessionStarted: Consumer<FaceLivenessSession>,
+        onComplete: Action,
+        onError: Consumer<PredictionsException>
+    )
+}
+
+/**
+ * Streams the session to Amazon Rekognition through the Amplify Predictions plugin
+ */
+internal object AWSLivenessSessionTransport : LivenessSessionTransport {
+    override fun startSession(
+        sessionId: String,
+        sessionInformation: FaceLivenessSessionInformation,
+        credentialsProvider: AWSCredentialsProvider<AWSCredentials>?,
+        onSessionStarted: Consumer<FaceLivenessSession>,
+        onComplete: Action,
+        onError: Consumer<PredictionsException>
+    ) {
+        val sessionOptions = AWSFaceLivenessSessionOptions.builder().apply {
+            credentialsProvider?.let { credentialsProvider(it) }
+        }.build()
+
+        AWSPredictionsPlugin.startFaceLivenessSession(
+            sessionId,
+            sessionInformation,
+            sessionOptions,
+            BuildConfig.LIVENESS_VERSION_NAME,
+            onSessionStarted,
+            onComplete,
+            onError
+        )
+    }
+}
+
+/**
+ * Describes the video and challenges this client supports to the service when a session starts
+ */
+internal fun createSessionInformation(region: String, disableStartView: Boolean, attemptCount: Int) =
+    FaceLivenessSessionInformation(
+        videoWidth = LivenessCoordinator.TARGET_WIDTH.toFloat(),
+        videoHeight = LivenessCoordinator.TARGET_HEIGHT.toFloat(),
+        challengeVersions = listOf(
+            Challenge.FaceMovementAndLightChallenge("2.0.0"),
+            Challenge.FaceMovementChallenge("1.0.0")
+        ),
+        region = region,
+        preCheckViewEnabled = !disableStartView,
+        attemptCount = attemptCount
+    )
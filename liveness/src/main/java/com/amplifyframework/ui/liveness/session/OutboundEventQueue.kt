@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.session
+
+import com.amplifyframework.core.Amplify
+import com.amplifyframework.predictions.models.ChallengeResponseEvent
+import com.amplifyframework.predictions.models.FaceLivenessSession
+import com.amplifyframework.predictions.models.VideoEvent
+import com.amplifyframework.ui.liveness.util.ResourceLedger
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.concurrent.RejectedExecutionException
+import kotlin.math.max
+
+/**
+ * Sends the video and challenge response events of a liveness session in order on its own thread, so a slow socket
+ * write never stalls frame analysis, encoding or the main thread. Callers only enqueue.
+ *
+ * Queued video bytes count against [maxQueuedBytes]. Video segments continue a single stream and cannot be dropped,
+ * so the budget is enforced by signalling backpressure once it is exceeded, for the encoder to lower its bitrate, and
+ * lifting it once the queue has drained to half the budget.
+ */
+internal class OutboundEventQueue(
+    private val executor: Executor,
+    private val maxQueuedBytes: Int = MAX_QUEUED_BYTES
+) {
+    private val logger = Amplify.Logging.forNamespace("Liveness")
+    private val lock = Any()
+
+    // Called with true when the queue goes over budget and false once it has drained. It is called on the thread
+    // that changed the queue while the queue is locked, so it must not block.
+    @Volatile
+    var onBackpressureChanged: ((Boolean) -> Unit)? = null
+
+    @Volatile
+    var backpressure = false
+        private set
+
+    // Events and video bytes waiting to be sent, their peaks over the session, and the events sent so far
+    @Volatile
+    var depth = 0
+        private set
+
+    @Volatile
+    var queuedBytes = 0
+        private set
+
+    @Volatile
+    var peakDepth = 0
+        private set
+
+    @Volatile
+    var peakQueuedBytes = 0
+        private set
+
+    @Volatile
+    var sentEvents = 0
+        private set
+
+    fun sendVideoEvent(session: FaceLivenessSession, event: VideoEvent) {
+        enqueue(event.bytes.size) { session.sendVideoEvent(event) }
+    }
+
+    fun sendChallengeResponseEvent(session: FaceLivenessSession, event: ChallengeResponseEvent) {
+        enqueue(0) { session.sendChallengeResponseEvent(event) }
+    }
+
+    /**
+     * Stops the session after the events queued before it have been sent, so the socket is not closed under them
+     */
+    fun stopSession(session: FaceLivenessSession, closeCode: Int?) {
+        enqueue(0) { session.stopSession(closeCode) }
+    }
+
+    private fun enqueue(bytes: Int, send: () -> Unit) {
+        synchronized(lock) {
+            depth++
+            queuedBytes += bytes
+            peakDepth = max(peakDepth, depth)
+            peakQueuedBytes = max(peakQueuedBytes, queuedBytes)
+            updateBackpressure()
+        }
+        try {
+            executor.execute { deliver(bytes, send) }
+        } catch (e: RejectedExecutionException) {
+            // The session has already been destroyed
+            dequeue(bytes, sent = false)
+        }
+    }
+
+    private fun deliver(bytes: Int, send: () -> Unit) {
+        var sent = false
+        try {
+            send()
+            sent = true
+        } catch (e: Exception) {
+            logger.error("Failed to send liveness event", e)
+        }
+        dequeue(bytes, sent)
+    }
+
+    private fun dequeue(bytes: Int, sent: Boolean) {
+        synchronized(lock) {
+            depth--
+            queuedBytes -= bytes
+            if (sent) sentEvents++
+            updateBackpressure()
+        }
+    }
+
+    private fun updateBackpressure() {
+        val newBackpressure = when {
+            queuedBytes > maxQueuedBytes -> true
+            queuedBytes <= maxQueuedBytes / 2 -> false
+            else -> backpressure
+        }
+        if (newBackpressure != backpressure) {
+            backpressure = newBackpressure
+            onBackpressureChanged?.invoke(newBackpressure)
+        }
+    }
+
+    companion object {
+        // About three seconds of video at the target bitrate
+        const val MAX_QUEUED_BYTES = 256 * 1024
+        private const val THREAD_NAME = "LivenessOutboundEvents"
+
+        fun create(resources: ResourceLedger) = OutboundEventQueue(
+            resources.register(
+                "outbound event thread",
+                Executors.newSingleThreadExecutor { Thread(it, THREAD_NAME) }
+            ) { it.shutdown() }.value
+        )
+    }
+}
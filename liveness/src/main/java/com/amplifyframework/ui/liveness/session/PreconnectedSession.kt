@@ -0,0 +1,214 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.session
+
+import android.content.Context
+import android.os.Handler
+import android.os.Looper
+import android.os.SystemClock
+import com.amplifyframework.auth.AWSCredentials
+import com.amplifyframework.auth.AWSCredentialsProvider
+import com.amplifyframework.core.Action
+import com.amplifyframework.core.Amplify
+import com.amplifyframework.core.Consumer
+import com.amplifyframework.predictions.PredictionsException
+import com.amplifyframework.predictions.models.FaceLivenessSession
+import com.amplifyframework.predictions.models.FaceLivenessSessionInformation
+import com.amplifyframework.ui.liveness.camera.CameraService
+import com.amplifyframework.ui.liveness.state.AttemptCounter
+import com.amplifyframework.ui.liveness.util.WebSocketCloseCode
+
+/**
+ * A liveness session started before its detector is shown. Results that arrive before the detector attaches through
+ * [startSession] are held and delivered when it does. The session information was sent when the session was
+ * preconnected, so the one passed to [startSession] is not used.
+ */
+internal class PreconnectedSession(
+    val sessionId: String,
+    val region: String,
+    val credentialsProvider: AWSCredentialsProvider<AWSCredentials>?,
+    val disableStartView: Boolean,
+    private val startedAtMillis: Long = SystemClock.elapsedRealtime()
+) : LivenessSessionTransport {
+
+    private var session: FaceLivenessSession? = null
+    private var error: PredictionsException? = null
+    private var completed = false
+    private var closed = false
+    private var onSessionStarted: Consumer<FaceLivenessSession>? = null
+    private var onComplete: Action? = null
+    private var onError: Consumer<PredictionsException>? = null
+
+    val failed: Boolean
+        get() = synchronized(this) { error != null }
+
+    // The service ended the session, so its socket is closed
+    val finished: Boolean
+        get() = synchronized(this) { completed }
+
+    fun ageMillis(nowMillis: Long = SystemClock.elapsedRealtime()) = nowMillis - startedAtMillis
+
+    fun matches(
+        sessionId: String,
+        region: String,
+        credentialsProvider: AWSCredentialsProvider<AWSCredentials>?,
+        disableStartView: Boolean
+    ) = this.sessionId == sessionId && this.region == region &&
+        this.credentialsProvider == credentialsProvider && this.disableStartView == disableStartView
+
+    fun connect(transport: LivenessSessionTransport, sessionInformation: FaceLivenessSessionInformation) {
+        transport.startSession(
+            sessionId,
+            sessionInformation,
+            credentialsProvider,
+            { session ->
+                val (listener, closedBeforeStart) = synchronized(this) {
+                    this.session = session
+                    onSessionStarted to closed
+                }
+                if (closedBeforeStart) {
+                    // Closed while the session was negotiated, so nothing else will stop it
+                    session.stopSession(WebSocketCloseCode.DISPOSED.code)
+                } else {
+                    listener?.accept(session)
+                }
+            },
+            {
+                val listener = synchronized(this) {
+                    completed = true
+                    onComplete
+                }
+                listener?.call()
+            },
+            { error ->
+                val listener = synchronized(this) {
+                    this.error = error
+                    onError
+                }
+                listener?.accept(error)
+            }
+        )
+    }
+
+    /**
+     * Closes a session that was never attached. A session that is still being negotiated is closed once it starts.
+     */
+    fun close() {
+        synchronized(this) {
+            closed = true
+            session
+        }?.stopSession(WebSocketCloseCode.DISPOSED.code)
+    }
+
+    override fun startSession(
+        sessionId: String,
+        sessionInformation: FaceLivenessSessionInformation,
+        credentialsProvider: AWSCredentialsProvider<AWSCredentials>?,
+        onSessionStarted: Consumer<FaceLivenessSession>,
+        onComplete: Action,
+        onError: Consumer<PredictionsException>
+    ) {
+        val (session, error, completed) = synchronized(this) {
+            this.onSessionStarted = onSessionStarted
+            this.onComplete = onComplete
+            this.onError = onError
+            Triple(this.session, this.error, this.completed)
+        }
+        session?.let { onSessionStarted.accept(it) }
+        error?.let { onError.accept(it) }
+        if (completed) onComplete.call()
+    }
+}
+
+/**
+ * Holds the session started by FaceLivenessDetector.preconnect until a detector for the same session claims it
+ */
+internal object SessionPreconnector {
+
+    private val logger = Amplify.Logging.forNamespace("Liveness")
+    private var preconnected: PreconnectedSession? = null
+    private val expiryHandler by lazy { Handler(Looper.getMainLooper()) }
+
+    // The service stops waiting for video from a session after a while, so older sessions are started again
+    const val MAX_PRECONNECT_AGE_MILLIS = 30_000L
+
+    fun preconnect(
+        context: Context,
+        sessionId: String,
+        region: String,
+        credentialsProvider: AWSCredentialsProvider<AWSCredentials>?,
+        disableStartView: Boolean,
+        transport: LivenessSessionTransport = AWSLivenessSessionTransport
+    ) {
+        // Camera initialization is slow, and the provider is shared, so it is started alongside the session
+        CameraService.shared.prefetch(context)
+
+        val attemptCounter = AttemptCounter().apply { countAttempt() }
+        connect(
+            PreconnectedSession(sessionId, region, credentialsProvider, disableStartView),
+            transport,
+            createSessionInformation(region, disableStartView, attemptCounter.getCount())
+        )
+    }
+
+    fun connect(
+        session: PreconnectedSession,
+        transport: LivenessSessionTransport,
+        sessionInformation: FaceLivenessSessionInformation
+    ) {
+        synchronized(this) {
+            preconnected.also { preconnected = session }
+        }?.close()
+        session.connect(transport, sessionInformation)
+        // A session that is never claimed is closed once it is too old to be used
+        expiryHandler.postDelayed(
+            { expire(session) },
+            (MAX_PRECONNECT_AGE_MILLIS - session.ageMillis()).coerceAtLeast(0)
+        )
+    }
+
+    private fun expire(session: PreconnectedSession) {
+        val expired = synchronized(this) {
+            (preconnected === session).also { if (it) preconnected = null }
+        }
+        if (expired) {
+            logger.info("Closing the preconnected liveness session, which was not claimed in time")
+            session.close()
+        }
+    }
+
+    /**
+     * @return the preconnected session if it matches the detector and can still be used, or null to start a new one
+     */
+    fun claim(
+        sessionId: String,
+        region: String,
+        credentialsProvider: AWSCredentialsProvider<AWSCredentials>?,
+        disableStartView: Boolean
+    ): PreconnectedSession? {
+        val session = synchronized(this) {
+            preconnected.also { preconnected = null }
+        } ?: return null
+        val usable = session.matches(sessionId, region, credentialsProvider, disableStartView) &&
+            !session.failed && !session.finished && session.ageMillis() <= MAX_PRECONNECT_AGE_MILLIS
+        if (!usable) {
+            logger.info("Starting a new liveness session instead of the preconnected one")
+            session.close()
+            return null
+        }
+        return session
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.state
+
+import com.amplifyframework.ui.liveness.model.FreshnessFrameStats
+import kotlin.math.max
+
+/**
+ * Estimates when each freshness frame reaches the display and detects frames missed between them.
+ *
+ * Frame times are Choreographer vsync timestamps in the [System.nanoTime] time base, as provided by
+ * the Compose frame clock. A frame started at a vsync is presented at a later vsync, so the present
+ * time is estimated as [PRESENT_LATENCY_FRAMES] frame intervals after the frame time and converted
+ * to wall clock time so it can be reported to the liveness service.
+ */
+internal class FreshnessFrameTimer(
+    val frameIntervalNanos: Long,
+    private val epochOffsetMillis: Long = System.currentTimeMillis() - System.nanoTime() / NANOS_PER_MILLI
+) {
+    init {
+        require(frameIntervalNanos > 0) { "Frame interval must be positive" }
+    }
+
+    val frameIntervalMillis = max(1, frameIntervalNanos / NANOS_PER_MILLI)
+
+    private var lastFrameTimeNanos = NO_FRAME
+
+    /** Estimated wall clock time, in milliseconds, that the latest frame was presented */
+    var presentTimeMillis = 0L
+        private set
+
+    /** Number of display frames missed between the previous frame and the latest frame */
+    var missedFrames = 0
+        private set
+
+    var frameCount = 0
+        private set
+    var missedFrameCount = 0
+        private set
+    var longestFrameIntervalNanos = 0L
+        private set
+
+    fun onFrame(frameTimeNanos: Long) {
+        missedFrames = if (lastFrameTimeNanos == NO_FRAME) {
+            0
+        } else {
+            val interval = frameTimeNanos - lastFrameTimeNanos
+            longestFrameIntervalNanos = max(longestFrameIntervalNanos, interval)
+            // Every vsync that passed without a frame is a missed frame. Round to the nearest
+            // vsync so jitter in frame times is not counted.
+            val vsyncs = (interval + frameIntervalNanos / 2) / frameIntervalNanos
+            max(0, vsyncs - 1).toInt()
+        }
+        missedFrameCount += missedFrames
+        frameCount++
+        lastFrameTimeNanos = frameTimeNanos
+        presentTimeMillis =
+            (frameTimeNanos + frameIntervalNanos * PRESENT_LATENCY_FRAMES) / NANOS_PER_MILLI + epochOffsetMillis
+    }
+
+    fun stats(freshnessState: FreshnessState) = FreshnessFrameStats(
+        frameCount = frameCount,
+        missedFrameCount = missedFrameCount,
+        longestFrameIntervalMillis = longestFrameIntervalNanos / NANOS_PER_MILLI,
+        missedFramesPerScene = freshnessState.missedFramesPerScene(),
+        compensationMillis = freshnessState.compensationMillis
+    )
+
+    companion object {
+        const val PRESENT_LATENCY_FRAMES = 1
+        private const val NANOS_PER_MILLI = 1_000_000L
+        private const val NO_FRAME = Long.MIN_VALUE
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.state
+
+import android.view.Choreographer
+import androidx.compose.ui.graphics.toArgb
+import com.amplifyframework.ui.liveness.model.FreshnessFrameStats
+import com.amplifyframework.ui.liveness.model.SceneType
+import com.amplifyframework.ui.liveness.session.FreshnessColorListener
+
+/**
+ * Plays the freshness colors on the Choreographer for hosts that draw them without Compose, the way
+ * FreshnessChallenge does with the Compose frame clock. Must be started and stopped on the main thread.
+ */
+internal class FreshnessPlayback(
+    private val freshnessState: FreshnessState,
+    private val frameTimer: FreshnessFrameTimer,
+    private val listener: FreshnessColorListener,
+    private val onFrameStats: (FreshnessFrameStats) -> Unit
+) : Choreographer.FrameCallback {
+
+    private var playing = false
+
+    fun start() {
+        if (playing) return
+        playing = true
+        Choreographer.getInstance().postFrameCallback(this)
+    }
+
+    fun stop() {
+        playing = false
+        Choreographer.getInstance().removeFrameCallback(this)
+    }
+
+    override fun doFrame(frameTimeNanos: Long) {
+        if (!playing) return
+        frameTimer.onFrame(frameTimeNanos)
+        val scene = if (
+            freshnessState.advanceTo(
+                currentTime = frameTimer.presentTimeMillis,
+                frameIntervalMillis = frameTimer.frameIntervalMillis,
+                missedFrames = frameTimer.missedFrames
+            )
+        ) {
+            freshnessState.currentScene
+        } else {
+            null
+        }
+        if (scene == null) {
+            playing = false
+            onFrameStats(frameTimer.stats(freshnessState))
+            return
+        }
+        val currentColor = scene.currentDisplayColor.toArgb()
+        if (scene.sceneType is SceneType.DownScroll) {
+            listener.onColorFrame(
+                currentColor,
+                (scene.previousDisplayColor ?: scene.currentDisplayColor).toArgb(),
+                freshnessState.sceneCompletionPercentage
+            )
+        } else {
+            listener.onColorFrame(currentColor, currentColor, 1f)
+        }
+        Choreographer.getInstance().postFrameCallback(this)
+    }
+}
@@ -42,8 +42,62 @@ internal data class FreshnessState(
     private var lastDisplayedSceneIndex = -1 // used to track onColorDisplayed callback
     var playbackEnded = false
 
-    fun nextFrame(currentTime: Long): FreshnessColorFrame? {
-        if (playbackEnded) return null
+    /**
+     * The scene to draw for the last time playback was advanced to, or null if playback has
+     * not started or has ended
+     */
+    var currentScene: FreshnessColorScene? = null
+        private set
+
+    /**
+     * How far through [currentScene] playback is, from 0 to 1 for scrolling scenes
+     */
+    var sceneCompletionPercentage = 0f
+        private set
+
+    /**
+     * Total time, in milliseconds, that scenes were delayed to make up for missed frames
+     */
+    var compensationMillis = 0L
+        private set
+
+    private val sceneMissedFrames = IntArray(freshnessColors.size)
+
+    fun nextFrame(
+        currentTime: Long,
+        frameIntervalMillis: Long = DEFAULT_FRAME_INTERVAL_MILLIS,
+        missedFrames: Int = 0
+    ): FreshnessColorFrame? {
+        if (!advanceTo(currentTime, frameIntervalMillis, missedFrames)) return null
+
+        return freshnessColorScript[currentSceneIndex].let {
+            FreshnessColorFrame(
+                sceneType = it.sceneType,
+                currentColor = it.currentDisplayColor,
+                previousColor = it.previousDisplayColor,
+                sceneCompletionPercentage = sceneCompletionPercentage
+            )
+        }
+    }
+
+    /**
+     * Advances playback to [currentTime], updating [currentScene] and [sceneCompletionPercentage]
+     * without allocating. Called once per displayed frame.
+     *
+     * Playback moves forward at most one scene per frame. If missed frames carry playback more
+     * than [frameIntervalMillis] past the start of the next scene, the remaining script is
+     * delayed so that scene is still shown for its full duration from the frame it first appears.
+     * @param currentTime time the frame is displayed, in milliseconds
+     * @param frameIntervalMillis time between display frames
+     * @param missedFrames display frames missed since the previous frame
+     * @return false once playback has ended
+     */
+    fun advanceTo(
+        currentTime: Long,
+        frameIntervalMillis: Long = DEFAULT_FRAME_INTERVAL_MILLIS,
+        missedFrames: Int = 0
+    ): Boolean {
+        if (playbackEnded) return false
 
         if (playbackStarted == -1L) {
             // start playback if not yet started
@@ -51,55 +105,53 @@ internal data class FreshnessState(
         }
 
         // get current relative start time for player
-        val playbackTime = currentTime - playbackStarted
+        var playbackTime = currentTime - playbackStarted
 
-        while (playbackTime > freshnessColorScript[currentSceneIndex].endTime) {
-            // increase scene index until finding non-expired scene
+        if (playbackTime > freshnessColorScript[currentSceneIndex].endTime) {
             currentSceneIndex += 1
 
             // End Playback if all colors have expired
             if (currentSceneIndex >= freshnessColors.size) {
                 playbackEnded = true
+                currentScene = null
                 onComplete()
-                return null
+                return false
             }
-        }
 
-        return freshnessColorScript[currentSceneIndex].let {
-            val scenePlaybackTime = playbackTime - it.startTime
-            val sceneDuration = it.endTime - it.startTime
-            val sceneCompletionPercentage = scenePlaybackTime.toFloat() / sceneDuration
-
-            val currentFreshnessColor = it.currentColor.color
-            val previousFreshnessColor = it.previousColor?.color
-
-            if (lastDisplayedSceneIndex != currentSceneIndex) {
-                onColorDisplayed(
-                    currentFreshnessColor,
-                    previousFreshnessColor ?: currentFreshnessColor,
-                    currentSceneIndex,
-                    currentTime
-                )
-                lastDisplayedSceneIndex = currentSceneIndex
+            val lateness = playbackTime - freshnessColorScript[currentSceneIndex].startTime
+            if (lateness > frameIntervalMillis) {
+                playbackStarted += lateness
+                compensationMillis += lateness
+                playbackTime -= lateness
             }
+        }
+        sceneMissedFrames[currentSceneIndex] += missedFrames
+
+        val scene = freshnessColorScript[currentSceneIndex]
+        currentScene = scene
+        sceneCompletionPercentage = if (scene.sceneType is SceneType.DownScroll) {
+            val scenePlaybackTime = playbackTime - scene.startTime
+            val sceneDuration = scene.endTime - scene.startTime
+            scenePlaybackTime.toFloat() / sceneDuration
+        } else {
+            100f
+        }
 
-            FreshnessColorFrame(
-                sceneType = it.sceneType,
-                currentColor = currentFreshnessColor.toComposeColor(
-                    if (currentSceneIndex == 0) FIRST_SCENE_ALPHA else REMAINING_SCENE_ALPHA
-                ),
-                previousColor = previousFreshnessColor?.toComposeColor(
-                    if (currentSceneIndex == 1) FIRST_SCENE_ALPHA else REMAINING_SCENE_ALPHA
-                ),
-                sceneCompletionPercentage = if (it.sceneType is SceneType.DownScroll) {
-                    sceneCompletionPercentage
-                } else {
-                    100f
-                }
+        if (lastDisplayedSceneIndex != currentSceneIndex) {
+            val currentFreshnessColor = scene.currentColor.color
+            onColorDisplayed(
+                currentFreshnessColor,
+                scene.previousColor?.color ?: currentFreshnessColor,
+                currentSceneIndex,
+                currentTime
             )
+            lastDisplayedSceneIndex = currentSceneIndex
         }
+        return true
     }
 
+    fun missedFramesPerScene() = sceneMissedFrames.toList()
+
     init {
         var accumulator = 0L
         freshnessColorScript = freshnessColors.mapIndexed { index, color ->
@@ -107,12 +159,19 @@ internal data class FreshnessState(
             val startTime = accumulator
             val duration = color.duration.toLong()
             val endTime = startTime + duration
+            val previousColor = freshnessColors.getOrNull(index - 1)
             FreshnessColorScene(
                 startTime = startTime,
                 endTime = endTime,
                 currentColor = color,
-                previousColor = freshnessColors.getOrNull(index - 1),
-                sceneType = sceneType
+                previousColor = previousColor,
+                sceneType = sceneType,
+                currentDisplayColor = color.color.toComposeColor(
+                    if (index == 0) FIRST_SCENE_ALPHA else REMAINING_SCENE_ALPHA
+                ),
+                previousDisplayColor = previousColor?.color?.toComposeColor(
+                    if (index == 1) FIRST_SCENE_ALPHA else REMAINING_SCENE_ALPHA
+                )
             ).also {
                 accumulator = endTime
             }
@@ -122,5 +181,6 @@ internal data class FreshnessState(
     companion object {
         const val FIRST_SCENE_ALPHA = (255 * .90).toInt()
         const val REMAINING_SCENE_ALPHA = (255f * .75).toInt()
+        const val DEFAULT_FRAME_INTERVAL_MILLIS = 16L
     }
 }
@@ -18,9 +18,8 @@ package com.amplifyframework.ui.liveness.state
 import android.content.Context
 import android.graphics.RectF
 import androidx.annotation.VisibleForTesting
-import androidx.compose.runtime.getValue
+import androidx.compose.runtime.MutableState
 import androidx.compose.runtime.mutableStateOf
-import androidx.compose.runtime.setValue
 import com.amplifyframework.predictions.aws.models.ColorChallenge
 import com.amplifyframework.predictions.aws.models.FaceTargetChallenge
 import com.amplifyframework.predictions.aws.models.FaceTargetChallengeResponse
@@ -30,14 +29,21 @@ import com.amplifyframework.predictions.models.VideoEvent
 import com.amplifyframework.ui.liveness.camera.LivenessCoordinator
 import com.amplifyframework.ui.liveness.ml.FaceDetector
 import com.amplifyframework.ui.liveness.ml.FaceOval
+import com.amplifyframework.ui.liveness.ml.FrameQualityGate
 import com.amplifyframework.ui.liveness.model.FaceLivenessDetectionException
 import com.amplifyframework.ui.liveness.model.LivenessCheckState
+import com.amplifyframework.ui.liveness.session.OutboundEventQueue
+import com.amplifyframework.ui.liveness.trace.LivenessTraceWriter
+import com.amplifyframework.ui.liveness.trace.TraceRecord
 import com.amplifyframework.ui.liveness.ui.helper.VideoViewportSize
+import com.amplifyframework.ui.liveness.util.ResourceLedger
 import com.amplifyframework.ui.liveness.util.WebSocketCloseCode
 import java.util.Date
 import java.util.Timer
 import java.util.TimerTask
 import kotlin.concurrent.schedule
+import kotlin.properties.ReadWriteProperty
+import kotlin.reflect.KProperty
 
 internal data class InitialStreamFace(val faceRect: RectF, val timestamp: Long)
 
@@ -48,19 +54,32 @@ internal data class LivenessState(
     val onCaptureReady: () -> Unit,
     val onSessionError: (FaceLivenessDetectionException, Boolean) -> Unit,
     val onFinalEventsSent: () -> Unit,
+    val resources: ResourceLedger = ResourceLedger(),
+    val outboundEvents: OutboundEventQueue = OutboundEventQueue.create(resources),
+    // Records the session when it is traced
+    val trace: LivenessTraceWriter? = null,
+    val currentTimeMillis: () -> Long = System::currentTimeMillis,
+    // False for hosts that do not render with Compose, so the state is held in plain fields rather than written to
+    // Compose snapshot state on every frame
+    val snapshotState: Boolean = true
 ) {
-    var videoViewportSize: VideoViewportSize? by mutableStateOf(null)
-    var livenessCheckState by mutableStateOf<LivenessCheckState>(
-        LivenessCheckState.Initial()
-    )
-    var faceMatched by mutableStateOf(false)
-    var faceGuideRect: RectF? by mutableStateOf(null)
-    var faceMatchPercentage: Float by mutableStateOf(0.25f)
-    var initialFaceDistanceCheckPassed by mutableStateOf(false)
-    var initialLocalFaceFound by mutableStateOf(false)
-
-    var showingStartView by mutableStateOf(!disableStartView)
-    var loadingCameraPreview by mutableStateOf(false)
+    /**
+     * Called after any state a host renders changes, for hosts that do not observe Compose state.
+     * May be called on any thread.
+     */
+    @Volatile
+    var onStateChanged: (() -> Unit)? = null
+
+    var videoViewportSize: VideoViewportSize? by stateOf(null)
+    var livenessCheckState: LivenessCheckState by renderedStateOf(LivenessCheckState.Initial())
+    var faceMatched by renderedStateOf(false)
+    var faceGuideRect: RectF? by renderedStateOf(null)
+    var faceMatchPercentage: Float by renderedStateOf(0.25f)
+    var initialFaceDistanceCheckPassed by stateOf(false)
+    var initialLocalFaceFound by stateOf(false)
+
+    var showingStartView by renderedStateOf(!disableStartView)
+    var loadingCameraPreview by renderedStateOf(false)
 
     private var initialStreamFace: InitialStreamFace? = null
     @VisibleForTesting
@@ -69,6 +88,9 @@ internal data class LivenessState(
     var faceMatchOvalEnd: Long? = null
     private var initialFaceOvalIou = -1f
     private var faceOvalMatchTimer: TimerTask? = null
+
+    // One timer thread for the session, created when first needed
+    private var timer: ResourceLedger.Resource<Timer>? = null
     private var detectedFaceMatchedOval = false
 
     @VisibleForTesting
@@ -77,8 +99,8 @@ internal data class LivenessState(
     @VisibleForTesting
     var readyToSendFinalEvents = false
 
-    var livenessSessionInfo: FaceLivenessSession? by mutableStateOf(null)
-    var faceTargetChallenge: FaceTargetChallenge? by mutableStateOf(null)
+    var livenessSessionInfo: FaceLivenessSession? by renderedStateOf(null)
+    var faceTargetChallenge: FaceTargetChallenge? by stateOf(null)
     var colorChallenge: ColorChallenge? = null
 
     fun updateVideoViewportSize(newVideoViewportSize: VideoViewportSize) {
@@ -88,6 +110,7 @@ internal data class LivenessState(
     }
 
     fun onError(stopLivenessSession: Boolean, webSocketCloseCode: WebSocketCloseCode) {
+        trace?.sessionError(webSocketCloseCode)
         livenessCheckState = LivenessCheckState.Error
         onDestroy(stopLivenessSession, webSocketCloseCode)
     }
@@ -95,13 +118,16 @@ internal data class LivenessState(
     // Cleans up state when challenge is completed or cancelled.
     // We only send webSocketCloseCode if error encountered.
     fun onDestroy(stopLivenessSession: Boolean, webSocketCloseCode: WebSocketCloseCode? = null) {
+        trace?.destroy(webSocketCloseCode)
         livenessCheckState = LivenessCheckState.Error
         faceOvalMatchTimer?.cancel()
+        timer?.release()
+        timer = null
         readyForOval = false
         faceGuideRect = null
         faceMatched = false
         if (stopLivenessSession) {
-            livenessSessionInfo?.stopSession(webSocketCloseCode?.code)
+            livenessSessionInfo?.let { outboundEvents.stopSession(it, webSocketCloseCode?.code) }
         }
     }
 
@@ -112,19 +138,22 @@ internal data class LivenessState(
         colorChallenge = faceLivenessSession.challenges
             .filterIsInstance<ColorChallenge>().firstOrNull()
         readyForOval = true
+        trace?.sessionReady(faceLivenessSession, faceTargetChallenge)
     }
 
     fun onFullChallengeComplete() {
+        trace?.finalEventsReady()
         readyToSendFinalEvents = true
     }
 
     fun onLivenessChallengeComplete() {
+        trace?.challengeComplete()
         val faceGuideRect = this.faceGuideRect
         readyForOval = false
         this.faceGuideRect = null
         faceMatched = false
         if (faceMatchOvalEnd == null) {
-            faceMatchOvalEnd = Date().time
+            faceMatchOvalEnd = currentTimeMillis()
         }
 
         livenessCheckState = if (faceGuideRect != null) {
@@ -150,7 +179,7 @@ internal data class LivenessState(
                  * in process.
                  */
                 if (!faceMatched &&
-                    faceMatchOvalStart?.let { (Date().time - it) > 1000 } == true
+                    faceMatchOvalStart?.let { (currentTimeMillis() - it) > 1000 } == true
                 ) {
                     faceMatched = true
                 }
@@ -160,17 +189,27 @@ internal data class LivenessState(
                 if (readyToSendFinalEvents) {
                     readyToSendFinalEvents = false
 
-                    livenessSessionInfo!!.sendChallengeResponseEvent(
+                    val session = livenessSessionInfo!!
+                    outboundEvents.sendChallengeResponseEvent(
+                        session,
                         FaceTargetChallengeResponse(
-                            livenessSessionInfo!!.challengeId,
+                            session.challengeId,
                             livenessCheckState.faceGuideRect,
                             Date(faceMatchOvalStart!!),
                             Date(faceMatchOvalEnd!!)
                         )
                     )
+                    trace?.event(
+                        TraceRecord.EventType.FACE_TARGET,
+                        livenessCheckState.faceGuideRect,
+                        faceMatchOvalStart!!,
+                        faceMatchOvalEnd!!
+                    )
 
                     // Send empty video event to signal we're done sending video
-                    livenessSessionInfo!!.sendVideoEvent(VideoEvent(ByteArray(0), Date()))
+                    val videoEndMillis = currentTimeMillis()
+                    outboundEvents.sendVideoEvent(session, VideoEvent(ByteArray(0), Date(videoEndMillis)))
+                    trace?.event(TraceRecord.EventType.VIDEO_END, startMillis = videoEndMillis)
                     onFinalEventsSent()
                 }
                 false
@@ -205,6 +244,21 @@ internal data class LivenessState(
         }
     }
 
+    /**
+     * returns true if the frame quality issue is shown, false if the frame is still needed for the challenge
+     */
+    fun onFrameQualityIssue(issue: FrameQualityGate.Issue): Boolean {
+        if (detectedFaceMatchedOval) {
+            return false
+        }
+        if (!initialLocalFaceFound || livenessCheckState is LivenessCheckState.Initial) {
+            livenessCheckState = LivenessCheckState.Initial.withFrameQualityMessage(issue)
+        } else if (livenessCheckState is LivenessCheckState.Running) {
+            livenessCheckState = LivenessCheckState.Running.withFrameQualityMessage(issue)
+        }
+        return true
+    }
+
     /**
      * returns true if face update inspect, false if thrown away
      */
@@ -233,15 +287,18 @@ internal data class LivenessState(
 
         if (readyForOval && initialFaceDistanceCheckPassed) {
             if (initialStreamFace == null) {
-                val face = InitialStreamFace(faceRect, System.currentTimeMillis())
+                val face = InitialStreamFace(faceRect, currentTimeMillis())
                 onCaptureReady()
-                livenessSessionInfo!!.sendChallengeResponseEvent(
+                val session = livenessSessionInfo!!
+                outboundEvents.sendChallengeResponseEvent(
+                    session,
                     InitialFaceDetected(
-                        livenessSessionInfo!!.challengeId,
+                        session.challengeId,
                         face.faceRect,
                         Date(face.timestamp)
                     )
                 )
+                trace?.event(TraceRecord.EventType.INITIAL_FACE_DETECTED, face.faceRect, face.timestamp)
 
                 this.initialStreamFace = face
             }
@@ -285,18 +342,18 @@ internal data class LivenessState(
             }
 
             if (detectedFaceMatchedOval && faceMatchOvalStart == null) {
-                faceMatchOvalStart = Date().time
+                faceMatchOvalStart = currentTimeMillis()
             } else if (!detectedFaceMatchedOval && faceMatchOvalStart != null &&
                 faceMatchOvalEnd == null
             ) {
-                faceMatchOvalEnd = Date().time
+                faceMatchOvalEnd = currentTimeMillis()
             }
 
             // Start timer and then timeout if the detected face doesn't match
             // the oval after a period of time
             if (!detectedFaceMatchedOval && faceOvalMatchTimer == null) {
                 faceOvalMatchTimer =
-                    Timer().schedule(faceTargetChallenge!!.faceTargetMatching.ovalFitTimeout.toLong()) {
+                    sessionTimer().schedule(faceTargetChallenge!!.faceTargetMatching.ovalFitTimeout.toLong()) {
                         if (!detectedFaceMatchedOval && faceGuideRect != null) {
                             readyForOval = false
                             val timeoutError =
@@ -311,6 +368,58 @@ internal data class LivenessState(
     }
 
     fun onStartViewComplete() {
+        trace?.startViewComplete()
         showingStartView = false
     }
+
+    private fun <T> renderedStateOf(value: T) = object : ReadWriteProperty<Any?, T> {
+        private val state = stateOf(value)
+
+        override fun getValue(thisRef: Any?, property: KProperty<*>) = state.getValue(thisRef, property)
+
+        override fun setValue(thisRef: Any?, property: KProperty<*>, value: T) {
+            if (state.getValue(thisRef, property) != value) {
+                state.setValue(thisRef, property, value)
+                trace?.state(describe(livenessCheckState), faceMatched)
+                onStateChanged?.invoke()
+            }
+        }
+    }
+
+    private fun <T> stateOf(value: T): ReadWriteProperty<Any?, T> = if (snapshotState) {
+        SnapshotStateHolder(mutableStateOf(value))
+    } else {
+        FieldStateHolder(value)
+    }
+
+    private class SnapshotStateHolder<T>(private val state: MutableState<T>) : ReadWriteProperty<Any?, T> {
+        override fun getValue(thisRef: Any?, property: KProperty<*>) = state.value
+
+        override fun setValue(thisRef: Any?, property: KProperty<*>, value: T) {
+            state.value = value
+        }
+    }
+
+    // Written from the analysis and timer threads and read on the main thread
+    private class FieldStateHolder<T>(@Volatile private var value: T) : ReadWriteProperty<Any?, T> {
+        override fun getValue(thisRef: Any?, property: KProperty<*>) = value
+
+        override fun setValue(thisRef: Any?, property: KProperty<*>, value: T) {
+            this.value = value
+        }
+    }
+
+    // Names the state and its instruction the same way in every build, for traces
+    private fun describe(checkState: LivenessCheckState): String {
+        val instruction = checkState.instructionId?.let { context.resources.getResourceEntryName(it) }
+        return "${checkState::class.simpleName}${instruction?.let { "($it)" } ?: ""}"
+    }
+
+    private fun sessionTimer(): Timer = timer?.value
+        ?: resources.register("liveness state timer", Timer(TIMER_NAME, true)) { it.cancel() }
+            .also { timer = it }.value
+
+    companion object {
+        private const val TIMER_NAME = "LivenessStateTimer"
+    }
 }
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.trace
+
+import android.graphics.RectF
+import com.amplifyframework.predictions.aws.models.FaceTargetChallenge
+import com.amplifyframework.predictions.aws.models.FaceTargetMatchingParameters
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder
+import com.amplifyframework.ui.liveness.ml.FrameQualityGate
+import com.amplifyframework.ui.liveness.util.WebSocketCloseCode
+import java.io.BufferedInputStream
+import java.io.DataInputStream
+import java.io.EOFException
+import java.io.IOException
+import java.io.InputStream
+
+/**
+ * A recorded liveness session: the oval challenge, the model outputs of every analyzed frame, and the inputs, state
+ * transitions and challenge events of [com.amplifyframework.ui.liveness.state.LivenessState] in the order they
+ * happened. Written by [LivenessTraceWriter] and re-run by [LivenessTraceReplay].
+ *
+ * Traces hold model outputs instead of frames, so they stay small and hold no images of the user's face.
+ */
+internal class LivenessTrace(
+    val sessionId: String,
+    val modelName: String,
+    val disableStartView: Boolean,
+    val startMillis: Long,
+    val records: List<TraceRecord>
+) {
+    val states get() = records.filterIsInstance<TraceRecord.State>()
+    val events get() = records.filterIsInstance<TraceRecord.Event>()
+
+    companion object {
+        internal const val MAGIC = 0x4c565452 // LVTR
+        internal const val VERSION = 1
+
+        internal const val SESSION_READY = 1
+        internal const val START_VIEW_COMPLETE = 2
+        internal const val FRAME = 3
+        internal const val SESSION_ERROR = 4
+        internal const val CHALLENGE_COMPLETE = 5
+        internal const val FINAL_EVENTS_READY = 6
+        internal const val DESTROY = 7
+        internal const val STATE = 8
+        internal const val EVENT = 9
+
+        internal const val NONE = -1
+
+        /**
+         * Reads a trace. A trace cut short, as when the app was killed during the session, is read up to its last
+         * complete record.
+         */
+        fun read(input: InputStream): LivenessTrace {
+            val data = DataInputStream(BufferedInputStream(input))
+            if (data.readInt() != MAGIC) throw IOException("Not a liveness trace")
+            val version = data.readShort().toInt()
+            if (version != VERSION) throw IOException("Unsupported liveness trace version $version")
+            val sessionId = data.readUTF()
+            val modelName = data.readUTF()
+            val disableStartView = data.readBoolean()
+            val startMillis = data.readLong()
+            val records = mutableListOf<TraceRecord>()
+            try {
+                while (true) {
+                    val tag = data.read()
+                    if (tag < 0) break
+                    records += data.readRecord(tag, startMillis + data.readInt())
+                }
+            } catch (e: EOFException) {
+                // The last record was not completely written
+            }
+            return LivenessTrace(sessionId, modelName, disableStartView, startMillis, records)
+        }
+
+        private fun DataInputStream.readRecord(tag: Int, timeMillis: Long): TraceRecord = when (tag) {
+            SESSION_READY -> TraceRecord.SessionReady(
+                timeMillis,
+                readUTF(),
+                readBoolean(),
+                if (readBoolean()) readFaceTarget() else null
+            )
+            START_VIEW_COMPLETE -> TraceRecord.StartViewComplete(timeMillis)
+            FRAME -> {
+                val outcome = TraceRecord.FrameOutcome.entries[readByte().toInt()]
+                val issue = readByte().toInt().takeIf { it != NONE }?.let { FrameQualityGate.Issue.entries[it] }
+                val outputs = if (outcome == TraceRecord.FrameOutcome.DETECTED) readModelOutputs() else null
+                TraceRecord.Frame(timeMillis, outcome, issue, outputs)
+            }
+            SESSION_ERROR -> TraceRecord.SessionError(timeMillis, readCloseCode())
+            CHALLENGE_COMPLETE -> TraceRecord.ChallengeComplete(timeMillis)
+            FINAL_EVENTS_READY -> TraceRecord.FinalEventsReady(timeMillis)
+            DESTROY -> TraceRecord.Destroy(timeMillis, readCloseCode())
+            STATE -> TraceRecord.State(timeMillis, readUTF(), readBoolean())
+            EVENT -> TraceRecord.Event(
+                timeMillis,
+                TraceRecord.EventType.entries[readByte().toInt()],
+                if (readBoolean()) RectF(readFloat(), readFloat(), readFloat(), readFloat()) else null,
+                readLong(),
+                readLong(),
+                readInt()
+            )
+            else -> throw IOException("Unknown liveness trace record $tag")
+        }
+
+        private fun DataInputStream.readFaceTarget() = FaceTargetParameters(
+            targetCenterX = readFloat(),
+            targetCenterY = readFloat(),
+            targetWidth = readFloat(),
+            targetHeight = readFloat(),
+            targetIouThreshold = readFloat(),
+            targetIouWidthThreshold = readFloat(),
+            targetIouHeightThreshold = readFloat(),
+            targetHeightWidthRatio = readFloat(),
+            faceDetectionThreshold = readFloat(),
+            faceIouWidthThreshold = readFloat(),
+            faceIouHeightThreshold = readFloat(),
+            faceDistanceThreshold = readFloat(),
+            faceDistanceThresholdMin = readFloat(),
+            ovalFitTimeout = readInt()
+        )
+
+        private fun DataInputStream.readModelOutputs(): ModelOutputs {
+            val count = readShort().toInt()
+            val indices = IntArray(count)
+            val scores = FloatArray(count)
+            val boxes = FloatArray(count * FaceDetectionDecoder.NUM_COORDS)
+            for (i in 0 until count) {
+                indices[i] = readShort().toInt()
+                scores[i] = readFloat()
+                for (coordinate in 0 until FaceDetectionDecoder.NUM_COORDS) {
+                    boxes[i * FaceDetectionDecoder.NUM_COORDS + coordinate] = readFloat()
+                }
+            }
+            return ModelOutputs(indices, scores, boxes)
+        }
+
+        private fun DataInputStream.readCloseCode() =
+            readByte().toInt().takeIf { it != NONE }?.let { WebSocketCloseCode.entries[it] }
+    }
+}
+
+internal sealed class TraceRecord {
+    // Wall clock time of the record, in milliseconds
+    abstract val timeMillis: Long
+
+    data class SessionReady(
+        override val timeMillis: Long,
+        val challengeId: String,
+        val faceMovementAndLight: Boolean,
+        val faceTarget: FaceTargetParameters?
+    ) : TraceRecord()
+
+    data class StartViewComplete(override val timeMillis: Long) : TraceRecord()
+
+    // Time is when the frame started to be analyzed
+    class Frame(
+        override val timeMillis: Long,
+        val outcome: FrameOutcome,
+        val qualityIssue: FrameQualityGate.Issue?,
+        val outputs: ModelOutputs?
+    ) : TraceRecord()
+
+    data class SessionError(override val timeMillis: Long, val closeCode: WebSocketCloseCode?) : TraceRecord()
+
+    data class ChallengeComplete(override val timeMillis: Long) : TraceRecord()
+
+    data class FinalEventsReady(override val timeMillis: Long) : TraceRecord()
+
+    data class Destroy(override val timeMillis: Long, val closeCode: WebSocketCloseCode?) : TraceRecord()
+
+    // Names the check state and its instruction, such as Running(amplify_ui_liveness_challenge_instruction_...)
+    data class State(override val timeMillis: Long, val checkState: String, val faceMatched: Boolean) : TraceRecord()
+
+    data class Event(
+        override val timeMillis: Long,
+        val type: EventType,
+        val faceRect: RectF?,
+        val startMillis: Long,
+        val endMillis: Long,
+        val sequenceNumber: Int
+    ) : TraceRecord()
+
+    enum class FrameOutcome {
+        // The state did not need the frame
+        SKIPPED,
+
+        // Dropped to keep to the analysis frame rate
+        DECIMATED,
+
+        // The face presence gate found no face, and the detector did not run
+        NO_FACE,
+
+        // Too dark, bright or blurry, and the issue was shown
+        UNUSABLE,
+
+        // The detector ran, after any quality issue that was not shown
+        DETECTED
+    }
+
+    enum class EventType {
+        INITIAL_FACE_DETECTED,
+        FACE_TARGET,
+        COLOR,
+        VIDEO_END
+    }
+}
+
+/**
+ * The oval of a FaceTargetChallenge and the thresholds it is matched with
+ */
+internal data class FaceTargetParameters(
+    val targetCenterX: Float,
+    val targetCenterY: Float,
+    val targetWidth: Float,
+    val targetHeight: Float,
+    val targetIouThreshold: Float,
+    val targetIouWidthThreshold: Float,
+    val targetIouHeightThreshold: Float,
+    val targetHeightWidthRatio: Float,
+    val faceDetectionThreshold: Float,
+    val faceIouWidthThreshold: Float,
+    val faceIouHeightThreshold: Float,
+    val faceDistanceThreshold: Float,
+    val faceDistanceThresholdMin: Float,
+    val ovalFitTimeout: Int
+) {
+    fun toChallenge() = FaceTargetChallenge(
+        targetWidth = targetWidth,
+        targetHeight = targetHeight,
+        targetCenterX = targetCenterX,
+        targetCenterY = targetCenterY,
+        faceTargetMatching = FaceTargetMatchingParameters(
+            targetIouThreshold = targetIouThreshold,
+            targetIouWidthThreshold = targetIouWidthThreshold,
+            targetIouHeightThreshold = targetIouHeightThreshold,
+            targetHeightWidthRatio = targetHeightWidthRatio,
+            faceDetectionThreshold = faceDetectionThreshold,
+            faceIouWidthThreshold = faceIouWidthThreshold,
+            faceIouHeightThreshold = faceIouHeightThreshold,
+            faceDistanceThreshold = faceDistanceThreshold,
+            faceDistanceThresholdMin = faceDistanceThresholdMin,
+            ovalFitTimeout = ovalFitTimeout
+        )
+    )
+
+    companion object {
+        fun from(challenge: FaceTargetChallenge) = challenge.faceTargetMatching.let {
+            FaceTargetParameters(
+                targetCenterX = challenge.targetCenterX,
+                targetCenterY = challenge.targetCenterY,
+                targetWidth = challenge.targetWidth,
+                targetHeight = challenge.targetHeight,
+                targetIouThreshold = it.targetIouThreshold,
+                targetIouWidthThreshold = it.targetIouWidthThreshold,
+                targetIouHeightThreshold = it.targetIouHeightThreshold,
+                targetHeightWidthRatio = it.targetHeightWidthRatio,
+                faceDetectionThreshold = it.faceDetectionThreshold,
+                faceIouWidthThreshold = it.faceIouWidthThreshold,
+                faceIouHeightThreshold = it.faceIouHeightThreshold,
+                faceDistanceThreshold = it.faceDistanceThreshold,
+                faceDistanceThresholdMin = it.faceDistanceThresholdMin,
+                ovalFitTimeout = it.ovalFitTimeout
+            )
+        }
+    }
+}
+
+/**
+ * The boxes of a detector run that scored at least [LivenessTraceWriter.MIN_RECORDED_SCORE]. Boxes are identified by
+ * their anchor index and hold the raw model outputs.
+ */
+internal class ModelOutputs(val indices: IntArray, val scores: FloatArray, val boxes: FloatArray) {
+
+    /**
+     * Restores the outputs of the run, with every box that was not recorded scoring zero
+     */
+    fun copyInto(outputBoxes: Array<Array<FloatArray>>, outputScores: Array<Array<FloatArray>>) {
+        for (scores in outputScores[0]) scores[0] = UNRECORDED_SCORE
+        for (i in indices.indices) {
+            outputScores[0][indices[i]][0] = scores[i]
+            System.arraycopy(
+                boxes,
+                i * FaceDetectionDecoder.NUM_COORDS,
+                outputBoxes[0][indices[i]],
+                0,
+                FaceDetectionDecoder.NUM_COORDS
+            )
+        }
+    }
+
+    private companion object {
+        // Raw score the decoder's sigmoid clamps to zero
+        const val UNRECORDED_SCORE = -100f
+    }
+}
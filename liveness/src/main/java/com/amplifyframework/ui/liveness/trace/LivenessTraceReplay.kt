@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.trace
+
+import android.content.Context
+import com.amplifyframework.predictions.models.FaceLivenessChallengeType
+import com.amplifyframework.predictions.models.FaceLivenessSession
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder
+import com.amplifyframework.ui.liveness.ml.FaceDetectionModel
+import com.amplifyframework.ui.liveness.ml.FaceDetector
+import com.amplifyframework.ui.liveness.session.OutboundEventQueue
+import com.amplifyframework.ui.liveness.state.LivenessState
+import com.amplifyframework.ui.liveness.util.ResourceLedger
+import com.amplifyframework.ui.liveness.util.WebSocketCloseCode
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+
+/**
+ * Re-runs the model outputs and inputs of a [LivenessTrace] through [FaceDetector] and [LivenessState], so changes to
+ * either can be checked against recorded sessions. The state reads the time of the record being replayed, so a trace
+ * always replays the same way.
+ *
+ * The recorded session's decisions outside the state are replayed as they were: which frames were decimated, gated or
+ * too poor to use, and session errors such as the oval fit timeout, which the replayed state does not schedule.
+ */
+internal class LivenessTraceReplay(
+    private val context: Context,
+    private val model: FaceDetectionModel = FaceDetectionModel.DEFAULT
+) {
+
+    fun run(trace: LivenessTrace): Result {
+        require(trace.modelName == model.name) { "Trace of model ${trace.modelName} cannot be replayed with $model" }
+
+        var now = trace.startMillis
+        val output = ByteArrayOutputStream()
+        val writer = LivenessTraceWriter(output, trace.sessionId, trace.modelName, trace.disableStartView) { now }
+        val resources = ResourceLedger(failOnLeak = false)
+        val livenessState = LivenessState(
+            trace.sessionId,
+            context,
+            trace.disableStartView,
+            onCaptureReady = { },
+            onSessionError = { _, _ -> },
+            onFinalEventsSent = { },
+            resources = resources,
+            outboundEvents = OutboundEventQueue(Runnable::run),
+            trace = writer,
+            currentTimeMillis = { now },
+            snapshotState = false
+        )
+        val faceDetector = FaceDetector(livenessState, model)
+        val outputBoxes = arrayOf(Array(model.outputLayout.numBoxes) { FloatArray(FaceDetectionDecoder.NUM_COORDS) })
+        val outputScores = arrayOf(Array(model.outputLayout.numBoxes) { FloatArray(1) })
+        var detectorRuns = 0
+        var detectorNanos = 0L
+        var framesWithoutOutputs = 0
+
+        for (record in trace.records) {
+            now = record.timeMillis
+            when (record) {
+                is TraceRecord.SessionReady -> livenessState.onLivenessSessionReady(record.toSession())
+                is TraceRecord.StartViewComplete -> livenessState.onStartViewComplete()
+                is TraceRecord.Frame -> {
+                    if (!livenessState.onFrameAvailable()) continue
+                    when (record.outcome) {
+                        TraceRecord.FrameOutcome.DECIMATED, TraceRecord.FrameOutcome.NO_FACE -> Unit
+                        else -> {
+                            val issue = record.qualityIssue
+                            if (issue != null && livenessState.onFrameQualityIssue(issue)) continue
+                            // The recorded session did not run the detector on a frame the replayed state needs
+                            val outputs = record.outputs
+                            if (outputs == null) {
+                                framesWithoutOutputs++
+                                continue
+                            }
+                            outputs.copyInto(outputBoxes, outputScores)
+                            val startNanos = System.nanoTime()
+                            faceDetector.reportFaces(outputBoxes, outputScores)
+                            detectorNanos += System.nanoTime() - startNanos
+                            detectorRuns++
+                        }
+                    }
+                }
+                is TraceRecord.SessionError ->
+                    livenessState.onError(false, record.closeCode ?: WebSocketCloseCode.RUNTIME_ERROR)
+                is TraceRecord.ChallengeComplete -> livenessState.onLivenessChallengeComplete()
+                is TraceRecord.FinalEventsReady -> livenessState.onFullChallengeComplete()
+                is TraceRecord.Destroy -> livenessState.onDestroy(false, record.closeCode)
+                // Outputs of the recorded session, compared once the replay is done
+                is TraceRecord.State, is TraceRecord.Event -> Unit
+            }
+        }
+        // Cancels any timer the state started, as a trace cut short may not end with the session destroyed
+        resources.releaseAll()
+        writer.close()
+
+        val replayed = LivenessTrace.read(ByteArrayInputStream(output.toByteArray()))
+        return Result(
+            states = replayed.states,
+            events = replayed.events,
+            recordedStates = trace.states,
+            // Colors are played by the UI, not the state
+            recordedEvents = trace.events.filter { it.type != TraceRecord.EventType.COLOR },
+            detectorRuns = detectorRuns,
+            detectorNanos = detectorNanos,
+            framesWithoutOutputs = framesWithoutOutputs
+        )
+    }
+
+    private fun TraceRecord.SessionReady.toSession() = FaceLivenessSession(
+        challengeId = challengeId,
+        challengeType = if (faceMovementAndLight) {
+            FaceLivenessChallengeType.FaceMovementAndLightChallenge
+        } else {
+            FaceLivenessChallengeType.FaceMovementChallenge
+        },
+        // The replayed state never times out on its own, as the recorded timeout is replayed as a session error
+        challenges = listOfNotNull(faceTarget?.copy(ovalFitTimeout = Int.MAX_VALUE)?.toChallenge()),
+        onVideoEvent = { },
+        onChallengeResponseEvent = { },
+        stopLivenessSession = { }
+    )
+
+    /**
+     * @param states and [events] of the replay, after the recorded [recordedStates] and [recordedEvents]
+     * @param detectorNanos spent decoding and matching faces over the [detectorRuns] frames the detector ran on
+     * @param framesWithoutOutputs frames the replayed state needed that the recorded session did not run the detector
+     * on, which show the replay diverged from the recording
+     */
+    data class Result(
+        val states: List<TraceRecord.State>,
+        val events: List<TraceRecord.Event>,
+        val recordedStates: List<TraceRecord.State>,
+        val recordedEvents: List<TraceRecord.Event>,
+        val detectorRuns: Int,
+        val detectorNanos: Long,
+        val framesWithoutOutputs: Int
+    ) {
+        /**
+         * True if the replay went through the same states and sent the same events as the recorded session. Times
+         * are not compared, as the recording reads the clock partway through each frame and the replay at its start.
+         */
+        val matchesRecording: Boolean
+            get() = states.map { it.checkState to it.faceMatched } ==
+                recordedStates.map { it.checkState to it.faceMatched } &&
+                events.map { Triple(it.type, it.faceRect, it.sequenceNumber) } ==
+                recordedEvents.map { Triple(it.type, it.faceRect, it.sequenceNumber) }
+    }
+}
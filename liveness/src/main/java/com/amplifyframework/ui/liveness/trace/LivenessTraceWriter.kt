@@ -0,0 +1,248 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.trace
+
+import android.graphics.RectF
+import com.amplifyframework.core.Amplify
+import com.amplifyframework.predictions.aws.models.FaceTargetChallenge
+import com.amplifyframework.predictions.models.FaceLivenessChallengeType
+import com.amplifyframework.predictions.models.FaceLivenessSession
+import com.amplifyframework.ui.liveness.BuildConfig
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder
+import com.amplifyframework.ui.liveness.ml.FrameQualityGate
+import com.amplifyframework.ui.liveness.util.ResourceLedger
+import com.amplifyframework.ui.liveness.util.WebSocketCloseCode
+import java.io.BufferedOutputStream
+import java.io.Closeable
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileOutputStream
+import java.io.IOException
+import java.io.OutputStream
+import java.util.concurrent.atomic.AtomicReference
+import kotlin.math.ln
+
+/**
+ * Streams a [LivenessTrace] of a session to [output] as the session runs. Records may be written from any thread.
+ * A write that fails stops the trace without affecting the session.
+ */
+internal class LivenessTraceWriter(
+    output: OutputStream,
+    sessionId: String,
+    modelName: String,
+    disableStartView: Boolean,
+    private val clock: () -> Long = System::currentTimeMillis
+) : Closeable {
+
+    private val logger = Amplify.Logging.forNamespace("Liveness")
+    private val data = DataOutputStream(BufferedOutputStream(output))
+    private val startMillis = clock()
+    private var closed = false
+
+    // States are recorded when they change
+    private var lastCheckState: String? = null
+    private var lastFaceMatched = false
+
+    init {
+        write {
+            writeInt(LivenessTrace.MAGIC)
+            writeShort(LivenessTrace.VERSION)
+            writeUTF(sessionId)
+            writeUTF(modelName)
+            writeBoolean(disableStartView)
+            writeLong(startMillis)
+        }
+    }
+
+    fun now() = clock()
+
+    @Synchronized
+    fun sessionReady(session: FaceLivenessSession, faceTargetChallenge: FaceTargetChallenge?) = record(
+        LivenessTrace.SESSION_READY
+    ) {
+        writeUTF(session.challengeId)
+        writeBoolean(
+            when (session.challengeType) {
+                FaceLivenessChallengeType.FaceMovementAndLightChallenge -> true
+                FaceLivenessChallengeType.FaceMovementChallenge -> false
+            }
+        )
+        writeBoolean(faceTargetChallenge != null)
+        faceTargetChallenge?.let { FaceTargetParameters.from(it) }?.run {
+            floatArrayOf(
+                targetCenterX, targetCenterY, targetWidth, targetHeight,
+                targetIouThreshold, targetIouWidthThreshold, targetIouHeightThreshold, targetHeightWidthRatio,
+                faceDetectionThreshold, faceIouWidthThreshold, faceIouHeightThreshold,
+                faceDistanceThreshold, faceDistanceThresholdMin
+            ).forEach { writeFloat(it) }
+            writeInt(ovalFitTimeout)
+        }
+    }
+
+    @Synchronized
+    fun startViewComplete() = record(LivenessTrace.START_VIEW_COMPLETE) { }
+
+    /**
+     * Records a frame that started to be analyzed at [timeMillis], with the outputs of the detector if it ran
+     */
+    @Synchronized
+    fun frame(
+        timeMillis: Long,
+        outcome: TraceRecord.FrameOutcome,
+        qualityIssue: FrameQualityGate.Issue? = null,
+        outputBoxes: Array<Array<FloatArray>>? = null,
+        outputScores: Array<Array<FloatArray>>? = null
+    ) = record(LivenessTrace.FRAME, timeMillis) {
+        writeByte(outcome.ordinal)
+        writeByte(qualityIssue?.ordinal ?: LivenessTrace.NONE)
+        if (outcome == TraceRecord.FrameOutcome.DETECTED) {
+            val boxes = outputBoxes!![0]
+            val scores = outputScores!![0]
+            writeShort(scores.count { it[0] >= MIN_RECORDED_LOGIT })
+            for (i in scores.indices) {
+                if (scores[i][0] < MIN_RECORDED_LOGIT) continue
+                writeShort(i)
+                writeFloat(scores[i][0])
+                for (coordinate in 0 until FaceDetectionDecoder.NUM_COORDS) writeFloat(boxes[i][coordinate])
+            }
+        }
+    }
+
+    @Synchronized
+    fun sessionError(closeCode: WebSocketCloseCode?) = record(LivenessTrace.SESSION_ERROR) {
+        writeByte(closeCode?.ordinal ?: LivenessTrace.NONE)
+    }
+
+    @Synchronized
+    fun challengeComplete() = record(LivenessTrace.CHALLENGE_COMPLETE) { }
+
+    @Synchronized
+    fun finalEventsReady() = record(LivenessTrace.FINAL_EVENTS_READY) { }
+
+    @Synchronized
+    fun destroy(closeCode: WebSocketCloseCode?) = record(LivenessTrace.DESTROY) {
+        writeByte(closeCode?.ordinal ?: LivenessTrace.NONE)
+    }
+
+    @Synchronized
+    fun state(checkState: String, faceMatched: Boolean) {
+        if (checkState == lastCheckState && faceMatched == lastFaceMatched) return
+        lastCheckState = checkState
+        lastFaceMatched = faceMatched
+        record(LivenessTrace.STATE) {
+            writeUTF(checkState)
+            writeBoolean(faceMatched)
+        }
+    }
+
+    @Synchronized
+    fun event(
+        type: TraceRecord.EventType,
+        faceRect: RectF? = null,
+        startMillis: Long = 0,
+        endMillis: Long = 0,
+        sequenceNumber: Int = 0
+    ) = record(LivenessTrace.EVENT) {
+        writeByte(type.ordinal)
+        writeBoolean(faceRect != null)
+        faceRect?.run {
+            writeFloat(left)
+            writeFloat(top)
+            writeFloat(right)
+            writeFloat(bottom)
+        }
+        writeLong(startMillis)
+        writeLong(endMillis)
+        writeInt(sequenceNumber)
+    }
+
+    @Synchronized
+    override fun close() {
+        if (closed) return
+        closed = true
+        try {
+            data.close()
+        } catch (e: IOException) {
+            logger.warn("Failed to close liveness trace", e)
+        }
+    }
+
+    private inline fun record(tag: Int, timeMillis: Long = clock(), body: DataOutputStream.() -> Unit) = write {
+        writeByte(tag)
+        writeInt((timeMillis - startMillis).toInt())
+        body()
+    }
+
+    private inline fun write(body: DataOutputStream.() -> Unit) {
+        if (closed) return
+        try {
+            data.body()
+        } catch (e: IOException) {
+            logger.warn("Failed to write liveness trace, stopping it", e)
+            close()
+        }
+    }
+
+    companion object {
+        const val FILE_EXTENSION = "lvtrace"
+
+        // Boxes scoring lower are not recorded. Sessions detect faces at far higher scores, so replays still decode
+        // every face the session could have found.
+        const val MIN_RECORDED_SCORE = 0.1f
+        private val MIN_RECORDED_LOGIT = ln(MIN_RECORDED_SCORE / (1 - MIN_RECORDED_SCORE))
+
+        // The next session is recorded to this directory. It is cleared once a session takes it, so a recording
+        // requested once never carries on into later sessions.
+        private val nextSessionDirectory = AtomicReference<File?>(null)
+
+        /**
+         * Records the next session started to [directory], or cancels a pending recording when it is null. Only debug
+         * builds of the library record sessions, unless [enabled] says otherwise.
+         * @return true if the next session will be recorded
+         */
+        fun recordNextSession(directory: File?, enabled: Boolean = BuildConfig.DEBUG): Boolean {
+            if (directory != null && !enabled) {
+                Amplify.Logging.forNamespace("Liveness").warn("Liveness traces are only recorded in debug builds")
+                nextSessionDirectory.set(null)
+                return false
+            }
+            nextSessionDirectory.set(directory)
+            return directory != null
+        }
+
+        /**
+         * @return a writer for a trace of the session, released with [resources], or null if the session is not
+         * being recorded
+         */
+        fun create(
+            sessionId: String,
+            modelName: String,
+            disableStartView: Boolean,
+            resources: ResourceLedger
+        ): LivenessTraceWriter? {
+            val directory = nextSessionDirectory.getAndSet(null) ?: return null
+            return try {
+                directory.mkdirs()
+                val file = File(directory, "$sessionId-${System.currentTimeMillis()}.$FILE_EXTENSION")
+                val writer = LivenessTraceWriter(FileOutputStream(file), sessionId, modelName, disableStartView)
+                resources.register("liveness trace", writer) { it.close() }.value
+            } catch (e: IOException) {
+                Amplify.Logging.forNamespace("Liveness").warn("Failed to create liveness trace", e)
+                null
+            }
+        }
+    }
+}
@@ -16,20 +16,23 @@
 package com.amplifyframework.ui.liveness.ui
 
 import android.graphics.RectF
-import androidx.compose.foundation.Canvas
 import androidx.compose.foundation.background
 import androidx.compose.foundation.layout.Box
+import androidx.compose.foundation.layout.Spacer
 import androidx.compose.foundation.layout.fillMaxSize
 import androidx.compose.foundation.layout.size
 import androidx.compose.runtime.Composable
+import androidx.compose.runtime.remember
 import androidx.compose.ui.Modifier
+import androidx.compose.ui.draw.drawWithCache
 import androidx.compose.ui.geometry.Offset
+import androidx.compose.ui.geometry.Rect
 import androidx.compose.ui.geometry.Size
-import androidx.compose.ui.graphics.BlendMode
 import androidx.compose.ui.graphics.Color
-import androidx.compose.ui.graphics.drawscope.Fill
+import androidx.compose.ui.graphics.Path
+import androidx.compose.ui.graphics.PathFillType
+import androidx.compose.ui.graphics.drawscope.DrawScope
 import androidx.compose.ui.graphics.drawscope.Stroke
-import androidx.compose.ui.graphics.graphicsLayer
 import androidx.compose.ui.tooling.preview.Preview
 import androidx.compose.ui.unit.DpSize
 import androidx.compose.ui.unit.IntSize
@@ -43,54 +46,81 @@ internal fun FaceGuide(
     videoViewportSize: VideoViewportSize,
     backgroundColor: Color = Color.White
 ) {
+    faceGuideRect ?: return
 
-    val scaledBoundingRect = faceGuideRect?.let {
-        videoViewportSize.getScaledBoundingRect(it)
-    } ?: return
-
-    Canvas(modifier.graphicsLayer(alpha = 0.99f)) {
-
-        drawRect(
-            color = backgroundColor,
-            size = size
-        )
-
-        // Calculate topLeft of viewport for centering inside full sized canvas
-        val viewportTopLeft = Offset(
-            x = (size.width - videoViewportSize.viewportPixelSize.width) / 2,
-            y = (size.height - videoViewportSize.viewportPixelSize.height) / 2
-        )
+    val scaledBoundingRect = remember(faceGuideRect, videoViewportSize) {
+        videoViewportSize.getScaledBoundingRect(faceGuideRect)
+    }
 
-        // Calculate oval topLeft, taking into viewport topLeft
-        val ovalTopLeft = Offset(
-            x = viewportTopLeft.x + scaledBoundingRect.left,
-            y = viewportTopLeft.y + scaledBoundingRect.top
-        )
+    // The mask is only rebuilt when the oval, viewport or canvas size change, not when the
+    // freshness colors behind it do
+    Spacer(
+        modifier.drawWithCache {
+            val mask = FaceGuideMask(
+                canvasSize = size,
+                viewportPixelSize = videoViewportSize.viewportPixelSize,
+                scaledBoundingRect = scaledBoundingRect,
+                strokeWidth = OVAL_STROKE_WIDTH.toPx()
+            )
+            onDrawBehind {
+                drawFaceGuideMask(mask, backgroundColor)
+            }
+        }
+    )
+}
 
-        val ovalSize = Size(
+/**
+ * The geometry of the face guide: a background with an oval cut out of it and a stroke around the
+ * outside of the oval.
+ *
+ * The cutout is an even-odd path rather than a [androidx.compose.ui.graphics.BlendMode.SrcOut]
+ * oval, so drawing it does not need an offscreen layer.
+ */
+internal class FaceGuideMask(
+    canvasSize: Size,
+    viewportPixelSize: IntSize,
+    scaledBoundingRect: RectF,
+    strokeWidth: Float
+) {
+    // Calculate topLeft of viewport for centering inside full sized canvas, then the oval within it
+    private val ovalRect = Rect(
+        offset = Offset(
+            x = (canvasSize.width - viewportPixelSize.width) / 2 + scaledBoundingRect.left,
+            y = (canvasSize.height - viewportPixelSize.height) / 2 + scaledBoundingRect.top
+        ),
+        size = Size(
             width = scaledBoundingRect.right - scaledBoundingRect.left,
             height = scaledBoundingRect.bottom - scaledBoundingRect.top
         )
+    )
 
-        // Draw oval stroke
-        drawOval(
-            color = Color(0xFFAEB3B7),
-            style = Stroke(4.dp.toPx()),
-            topLeft = ovalTopLeft,
-            size = ovalSize
-        )
-
-        // Cut out oval, removing the drawn freshness and overlay color
-        drawOval(
-            color = Color.Transparent,
-            style = Fill,
-            topLeft = ovalTopLeft,
-            size = ovalSize,
-            blendMode = BlendMode.SrcOut
-        )
+    val background = Path().apply {
+        fillType = PathFillType.EvenOdd
+        addRect(Rect(Offset.Zero, canvasSize))
+        addOval(ovalRect)
     }
+
+    // Only the outer half of a stroke centered on the oval edge is visible outside the cutout, so
+    // draw just that half: half the width, outset by a quarter of the width.
+    val stroke = Stroke(strokeWidth / 2)
+    private val strokeRect = ovalRect.inflate(strokeWidth / 4)
+    val strokeTopLeft = strokeRect.topLeft
+    val strokeSize = strokeRect.size
+}
+
+internal fun DrawScope.drawFaceGuideMask(mask: FaceGuideMask, backgroundColor: Color) {
+    drawPath(mask.background, backgroundColor)
+    drawOval(
+        color = OVAL_STROKE_COLOR,
+        topLeft = mask.strokeTopLeft,
+        size = mask.strokeSize,
+        style = mask.stroke
+    )
 }
 
+private val OVAL_STROKE_COLOR = Color(0xFFAEB3B7)
+private val OVAL_STROKE_WIDTH = 4.dp
+
 @Preview
 @Composable
 internal fun FaceGuidePreview() {
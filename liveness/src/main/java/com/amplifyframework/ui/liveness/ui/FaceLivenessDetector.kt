@@ -15,6 +15,7 @@
 
 package com.amplifyframework.ui.liveness.ui
 
+import android.content.Context
 import android.graphics.RectF
 import androidx.compose.foundation.background
 import androidx.compose.foundation.layout.Arrangement
@@ -59,14 +60,18 @@ import com.amplifyframework.core.Consumer
 import com.amplifyframework.predictions.models.FaceLivenessChallengeType
 import com.amplifyframework.predictions.models.FaceLivenessSession
 import com.amplifyframework.ui.liveness.R
-import com.amplifyframework.ui.liveness.camera.LivenessCoordinator
 import com.amplifyframework.ui.liveness.camera.OnChallengeComplete
 import com.amplifyframework.ui.liveness.media.VideoCodec
 import com.amplifyframework.ui.liveness.ml.FaceDetector
 import com.amplifyframework.ui.liveness.model.FaceLivenessDetectionException
+import com.amplifyframework.ui.liveness.model.FreshnessFrameStats
 import com.amplifyframework.ui.liveness.model.LivenessCheckState
+import com.amplifyframework.ui.liveness.session.LivenessSession
+import com.amplifyframework.ui.liveness.session.SessionPreconnector
+import com.amplifyframework.ui.liveness.trace.LivenessTraceWriter
 import com.amplifyframework.ui.liveness.ui.helper.VideoViewportSize
 import com.amplifyframework.ui.liveness.util.hasCameraPermission
+import java.io.File
 import kotlinx.coroutines.launch
 
 /**
@@ -115,9 +120,43 @@ fun FaceLivenessDetector(
     onError: Consumer<FaceLivenessDetectionException>,
     challengeOptions: ChallengeOptions = ChallengeOptions(),
     videoOptions: VideoOptions = VideoOptions()
+) = FaceLivenessDetector(
+    sessionId,
+    region,
+    credentialsProvider,
+    disableStartView,
+    onComplete,
+    onError,
+    challengeOptions,
+    videoOptions,
+    PerformanceOptions()
+)
+
+/**
+ * @param sessionId of challenge
+ * @param region AWS region to stream the video to. Current supported regions are listed in [add link here]
+ * @param credentialsProvider to provide custom CredentialsProvider for authentication. Default uses initialized Amplify.Auth CredentialsProvider
+ * @param disableStartView to bypass warmup screen.
+ * @param challengeOptions is the list of ChallengeOptions that are to be overridden from the default configuration
+ * @param videoOptions of the recorded video. When null, an explicitly chosen [PerformancePreset] selects the codec
+ * @param performanceOptions selects the camera analysis, face detection and video encoding settings
+ * @param onComplete callback notifying a completed challenge
+ * @param onError callback containing exception for cause
+ */
+@Composable
+fun FaceLivenessDetector(
+    sessionId: String,
+    region: String,
+    credentialsProvider: AWSCredentialsProvider<AWSCredentials>? = null,
+    disableStartView: Boolean = false,
+    onComplete: Action,
+    onError: Consumer<FaceLivenessDetectionException>,
+    challengeOptions: ChallengeOptions = ChallengeOptions(),
+    videoOptions: VideoOptions? = null,
+    performanceOptions: PerformanceOptions
 ) {
     val scope = rememberCoroutineScope()
-    val key = DetectorStateKey(sessionId, region, credentialsProvider, videoOptions)
+    val key = DetectorStateKey(sessionId, region, credentialsProvider, videoOptions, performanceOptions.preset)
     var isFinished by remember(key) { mutableStateOf(false) }
     val currentOnComplete by rememberUpdatedState(onComplete)
     val currentOnError by rememberUpdatedState(onError)
@@ -158,6 +197,7 @@ fun FaceLivenessDetector(
                 disableStartView,
                 challengeOptions = challengeOptions,
                 videoOptions = videoOptions,
+                performanceOptions = performanceOptions,
                 onChallengeComplete = {
                     scope.launch {
                         // if we are already finished, we already provided a result in complete or failed
@@ -191,47 +231,42 @@ internal fun ChallengeView(
     credentialsProvider: AWSCredentialsProvider<AWSCredentials>?,
     disableStartView: Boolean,
     challengeOptions: ChallengeOptions,
-    videoOptions: VideoOptions,
+    videoOptions: VideoOptions?,
+    performanceOptions: PerformanceOptions,
     onChallengeComplete: OnChallengeComplete,
     onChallengeFailed: Consumer<FaceLivenessDetectionException>
 ) {
     val context = LocalContext.current
     val lifecycleOwner = LocalLifecycleOwner.current
 
-    var coordinator by remember { mutableStateOf<LivenessCoordinator?>(null) }
+    var session by remember { mutableStateOf<LivenessSession?>(null) }
     val currentOnChallengeComplete by rememberUpdatedState(onChallengeComplete)
     val currentOnChallengeFailed by rememberUpdatedState(onChallengeFailed)
     val showPhotosensitivityAlert = remember { mutableStateOf(false) }
 
     DisposableEffect(key) {
-        try {
-            coordinator = LivenessCoordinator(
-                context,
-                lifecycleOwner,
-                sessionId,
-                region,
-                credentialsProvider,
-                disableStartView,
-                challengeOptions,
-                videoOptions = videoOptions,
-                onChallengeComplete = { currentOnChallengeComplete() },
-                onChallengeFailed = { currentOnChallengeFailed.accept(it) }
-            )
-        } catch (e: Exception) {
-            currentOnChallengeFailed.accept(
-                FaceLivenessDetectionException(
-                    message = "Failed to initialize video components required for Liveness check.",
-                    throwable = e
-                )
-            )
-        }
+        session = LivenessSession(
+            context,
+            lifecycleOwner,
+            sessionId,
+            region,
+            onComplete = { currentOnChallengeComplete() },
+            onError = { currentOnChallengeFailed.accept(it) },
+            credentialsProvider = credentialsProvider,
+            disableStartView = disableStartView,
+            challengeOptions = challengeOptions,
+            videoOptions = videoOptions,
+            performanceOptions = performanceOptions,
+            onFreshnessColor = null,
+            playsChallenge = false
+        )
 
         onDispose {
-            coordinator?.destroy(context)
+            session?.destroy()
         }
     }
 
-    val livenessCoordinator = coordinator ?: return
+    val livenessCoordinator = session?.coordinator ?: return
     val livenessState = livenessCoordinator.livenessState
 
     val localDensity = LocalDensity.current
@@ -354,7 +389,8 @@ internal fun ChallengeView(
                             },
                             onComplete = {
                                 livenessCoordinator.processLivenessCheckComplete()
-                            }
+                            },
+                            onFrameStats = livenessCoordinator::processFreshnessFrameStats
                         )
                     } else {
                         LaunchedEffect(key) {
@@ -449,11 +485,52 @@ internal fun ChallengeView(
     }
 }
 
+object FaceLivenessDetector {
+
+    /**
+     * Starts the liveness session and camera initialization before the FaceLivenessDetector is shown, for example
+     * while the user reads the instructions that precede the check. A FaceLivenessDetector shown with the same
+     * sessionId, region, credentialsProvider and disableStartView attaches to the started session instead of
+     * starting a new one. A session that failed or was not attached within 30 seconds is discarded and started again.
+     * @param context used to initialize the camera
+     * @param sessionId of challenge
+     * @param region AWS region to stream the video to
+     * @param credentialsProvider to provide custom CredentialsProvider for authentication
+     * @param disableStartView must match the value passed to the FaceLivenessDetector
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun preconnect(
+        context: Context,
+        sessionId: String,
+        region: String,
+        credentialsProvider: AWSCredentialsProvider<AWSCredentials>? = null,
+        disableStartView: Boolean = false
+    ) {
+        SessionPreconnector.preconnect(context, sessionId, region, credentialsProvider, disableStartView)
+    }
+
+    /**
+     * Records a trace of the next session started to a new file in [directory], so a failed check can be reproduced
+     * offline, or cancels a pending recording when it is null. Only debug builds of this library record traces;
+     * release builds log a warning and record nothing. Each call records one session.
+     *
+     * A trace holds the session id and challenge parameters, including the oval position and challenge colors, the
+     * time of each frame with the face detector boxes, landmarks and scores, frame quality issues, the liveness state
+     * changes and the challenge events sent. It holds no camera frames or video, but face positions are personal
+     * data: the file is not encrypted, and deleting it is up to the caller.
+     * @return true if the next session will be recorded
+     */
+    @JvmStatic
+    fun recordNextSessionTrace(directory: File?): Boolean = LivenessTraceWriter.recordNextSession(directory)
+}
+
 internal data class DetectorStateKey(
     val sessionId: String,
     val region: String,
     val credentialsProvider: AWSCredentialsProvider<AWSCredentials>?,
-    val videoOptions: VideoOptions
+    val videoOptions: VideoOptions?,
+    val performancePreset: PerformancePreset
 )
 
 data class ChallengeOptions(
@@ -476,10 +553,52 @@ data class ChallengeOptions(
         ).all { it.camera == faceMovementAndLight.camera }
 }
 
+/**
+ * @param codec of the recorded video. Passed VideoOptions always decide the codec, even when they hold the default.
+ */
 data class VideoOptions(
     val codec: VideoCodec = VideoCodec.VP8
 )
 
+/**
+ * @param preset of the camera analysis, face detection and video encoding settings. [PerformancePreset.Auto] chooses
+ * one from the core count, memory and Android version of the device
+ * @param onPresetSelected callback with the preset used for the check, for example to report it with the result
+ * @param onFreshnessFrameStats callback with the frame timing of the freshness colors, for example to report missed
+ * frames on a device
+ */
+data class PerformanceOptions(
+    val preset: PerformancePreset = PerformancePreset.Auto,
+    val onPresetSelected: Consumer<PerformancePreset>? = null,
+    val onFreshnessFrameStats: Consumer<FreshnessFrameStats>? = null
+)
+
+sealed class PerformancePreset {
+    /**
+     * Chooses [High], [Standard] or [Low] for the device. The preset chosen never changes the video codec.
+     *
+     * A preset other than Auto that has its own codec, such as [Low], selects that codec only when no
+     * [VideoOptions] are passed. Passed VideoOptions always decide the codec, even when they hold the default.
+     */
+    data object Auto : PerformancePreset()
+
+    /**
+     * Analyzes every frame at full resolution
+     */
+    data object High : PerformancePreset()
+
+    /**
+     * Analyzes 16 frames per second on two threads
+     */
+    data object Standard : PerformancePreset()
+
+    /**
+     * Analyzes 12 frames per second at half resolution on one thread. When chosen explicitly, it also encodes H.264
+     * unless [VideoOptions] are passed
+     */
+    data object Low : PerformancePreset()
+}
+
 sealed class LivenessChallenge(
     open val camera: Camera = Camera.Front
 ) {
@@ -15,41 +15,32 @@
 
 package com.amplifyframework.ui.liveness.ui
 
-import androidx.compose.foundation.Canvas
+import androidx.compose.foundation.layout.Spacer
 import androidx.compose.runtime.Composable
-import androidx.compose.runtime.LaunchedEffect
-import androidx.compose.runtime.State
-import androidx.compose.runtime.derivedStateOf
 import androidx.compose.runtime.getValue
-import androidx.compose.runtime.mutableStateOf
 import androidx.compose.runtime.remember
 import androidx.compose.runtime.rememberUpdatedState
-import androidx.compose.runtime.withFrameMillis
+import androidx.compose.runtime.withFrameNanos
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.geometry.Offset
 import androidx.compose.ui.geometry.Size
+import androidx.compose.ui.graphics.drawscope.ContentDrawScope
+import androidx.compose.ui.node.CompositionLocalConsumerModifierNode
+import androidx.compose.ui.node.DrawModifierNode
+import androidx.compose.ui.node.ModifierNodeElement
+import androidx.compose.ui.node.currentValueOf
+import androidx.compose.ui.node.invalidateDraw
 import androidx.compose.ui.platform.LocalLifecycleOwner
+import androidx.compose.ui.platform.LocalView
 import androidx.lifecycle.whenStarted
 import com.amplifyframework.predictions.aws.models.ColorDisplayInformation
 import com.amplifyframework.ui.liveness.camera.OnFreshnessColorDisplayed
+import com.amplifyframework.ui.liveness.model.FreshnessFrameStats
 import com.amplifyframework.ui.liveness.model.SceneType
+import com.amplifyframework.ui.liveness.state.FreshnessFrameTimer
 import com.amplifyframework.ui.liveness.state.FreshnessState
-
-@Composable
-internal fun nextFrameMillis(): State<Long> {
-    val millisState = remember { mutableStateOf(System.currentTimeMillis()) }
-    val lifecycleOwner = LocalLifecycleOwner.current
-    LaunchedEffect(Unit) {
-        lifecycleOwner.whenStarted {
-            while (true) {
-                millisState.value = withFrameMillis {
-                    System.currentTimeMillis()
-                }
-            }
-        }
-    }
-    return millisState
-}
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.launch
 
 @Composable
 internal fun FreshnessChallenge(
@@ -57,7 +48,8 @@ internal fun FreshnessChallenge(
     modifier: Modifier,
     colors: List<ColorDisplayInformation>,
     onColorDisplayed: OnFreshnessColorDisplayed,
-    onComplete: () -> Unit
+    onComplete: () -> Unit,
+    onFrameStats: (FreshnessFrameStats) -> Unit = {}
 ) {
     val currentOnColorDisplayed by rememberUpdatedState(onColorDisplayed)
     val currentOnComplete by rememberUpdatedState(onComplete)
@@ -66,45 +58,105 @@ internal fun FreshnessChallenge(
         FreshnessState(colors, currentOnColorDisplayed, currentOnComplete)
     }
 
-    if (freshnessState.playbackEnded) {
-        return
+    // Playback is driven by the frame clock inside the modifier node, which only invalidates
+    // drawing. Nothing here reads per-frame state, so playback never recomposes.
+    Spacer(modifier = modifier.then(FreshnessColorsElement(freshnessState, onFrameStats)))
+}
+
+private class FreshnessColorsElement(
+    private val freshnessState: FreshnessState,
+    private val onFrameStats: (FreshnessFrameStats) -> Unit
+) : ModifierNodeElement<FreshnessColorsNode>() {
+    override fun create() = FreshnessColorsNode(freshnessState, onFrameStats)
+
+    // FreshnessState is a data class, but each remembered instance is a separate playback
+    override fun equals(other: Any?) = other is FreshnessColorsElement &&
+        other.freshnessState === freshnessState &&
+        other.onFrameStats == onFrameStats
+
+    override fun hashCode() = 31 * System.identityHashCode(freshnessState) + onFrameStats.hashCode()
+
+    override fun update(node: FreshnessColorsNode) {
+        node.update(freshnessState, onFrameStats)
     }
+}
 
-    val nextFrameMillis = nextFrameMillis()
+private class FreshnessColorsNode(
+    private var freshnessState: FreshnessState,
+    private var onFrameStats: (FreshnessFrameStats) -> Unit
+) : Modifier.Node(), DrawModifierNode, CompositionLocalConsumerModifierNode {
+    private var playback: Job? = null
 
-    val currentFrame by remember(key) {
-        derivedStateOf {
-            freshnessState.nextFrame(nextFrameMillis.value)
+    fun update(freshnessState: FreshnessState, onFrameStats: (FreshnessFrameStats) -> Unit) {
+        this.onFrameStats = onFrameStats
+        if (freshnessState === this.freshnessState) return
+        this.freshnessState = freshnessState
+        if (isAttached) {
+            startPlayback()
+            invalidateDraw()
         }
     }
 
-    Canvas(modifier = modifier) {
-        currentFrame?.let { frame ->
-            when (frame.sceneType) {
-                is SceneType.DownScroll -> {
-                    // This is the point on the y axis where current color should be above and
-                    // the previous color should be below
-                    val yAxisCompletion = size.height * frame.sceneCompletionPercentage
-
-                    // Draw current color to the top of screen based on completion
-                    drawRect(
-                        color = frame.currentColor,
-                        size = Size(size.width, yAxisCompletion)
-                    )
+    override fun onAttach() {
+        startPlayback()
+    }
 
-                    frame.previousColor?.let {
-                        // Draw previous color to the bottom of the screen based on completion
-                        drawRect(
-                            color = frame.previousColor,
-                            topLeft = Offset(0f, yAxisCompletion),
-                            size = Size(size.width, size.height - yAxisCompletion.toInt())
+    private fun startPlayback() {
+        playback?.cancel()
+        val state = freshnessState
+        val lifecycleOwner = currentValueOf(LocalLifecycleOwner)
+        val refreshRate = currentValueOf(LocalView).display?.refreshRate?.takeIf { it > 0 } ?: DEFAULT_REFRESH_RATE
+        val frameTimer = FreshnessFrameTimer(frameIntervalNanos = (NANOS_PER_SECOND / refreshRate).toLong())
+        playback = coroutineScope.launch {
+            lifecycleOwner.whenStarted {
+                var playing = true
+                while (playing) {
+                    // The frame time is the vsync timestamp the frame was started for
+                    playing = withFrameNanos { frameTimeNanos ->
+                        frameTimer.onFrame(frameTimeNanos)
+                        state.advanceTo(
+                            currentTime = frameTimer.presentTimeMillis,
+                            frameIntervalMillis = frameTimer.frameIntervalMillis,
+                            missedFrames = frameTimer.missedFrames
                         )
                     }
+                    invalidateDraw()
                 }
-                is SceneType.Flat -> {
-                    drawRect(frame.currentColor)
+                onFrameStats(frameTimer.stats(state))
+            }
+        }
+    }
+
+    override fun ContentDrawScope.draw() {
+        drawContent()
+        val scene = freshnessState.currentScene ?: return
+        when (scene.sceneType) {
+            is SceneType.DownScroll -> {
+                // This is the point on the y axis where current color should be above and
+                // the previous color should be below
+                val yAxisCompletion = size.height * freshnessState.sceneCompletionPercentage
+
+                // Draw current color to the top of screen based on completion
+                drawRect(
+                    color = scene.currentDisplayColor,
+                    size = Size(size.width, yAxisCompletion)
+                )
+
+                scene.previousDisplayColor?.let {
+                    // Draw previous color to the bottom of the screen based on completion
+                    drawRect(
+                        color = it,
+                        topLeft = Offset(0f, yAxisCompletion),
+                        size = Size(size.width, size.height - yAxisCompletion.toInt())
+                    )
                 }
             }
+            is SceneType.Flat -> {
+                drawRect(scene.currentDisplayColor)
+            }
         }
     }
 }
+
+private const val DEFAULT_REFRESH_RATE = 60f
+private const val NANOS_PER_SECOND = 1_000_000_000f
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.util
+
+import com.amplifyframework.core.Amplify
+import com.amplifyframework.ui.liveness.BuildConfig
+
+/**
+ * Tracks the native and threaded resources of a liveness session, so everything the session created is released when
+ * it is destroyed. Owners may release their resources early, and [releaseAll] releases whatever is left in reverse
+ * order of registration. Resources registered after [releaseAll] are released right away and reported as leaks, as
+ * they show work that kept running after the session was destroyed.
+ */
+internal class ResourceLedger(private val failOnLeak: Boolean = BuildConfig.DEBUG) {
+
+    private val logger = Amplify.Logging.forNamespace("Liveness")
+    private val resources = mutableListOf<Resource<*>>()
+    private val leaks = mutableListOf<String>()
+    private var released = false
+
+    inner class Resource<T> internal constructor(
+        val name: String,
+        val value: T,
+        private val release: (T) -> Unit
+    ) {
+        /**
+         * Releases the resource if it has not been released yet
+         */
+        fun release() {
+            val registered = synchronized(resources) { resources.remove(this) }
+            if (registered) releaseSafely()
+        }
+
+        internal fun releaseSafely() {
+            try {
+                release(value)
+            } catch (e: Exception) {
+                logger.error("Failed to release $name", e)
+                synchronized(resources) { leaks += name }
+            }
+        }
+    }
+
+    val liveResources: List<String>
+        get() = synchronized(resources) { resources.map { it.name } }
+
+    fun <T> register(name: String, value: T, release: (T) -> Unit): Resource<T> {
+        val resource = Resource(name, value, release)
+        val registered = synchronized(resources) {
+            if (released) {
+                leaks += "$name (registered after release)"
+            } else {
+                resources += resource
+            }
+            !released
+        }
+        if (!registered) resource.releaseSafely()
+        return resource
+    }
+
+    fun releaseAll() {
+        val remaining = synchronized(resources) {
+            released = true
+            resources.asReversed().toList().also { resources.clear() }
+        }
+        remaining.forEach { it.releaseSafely() }
+    }
+
+    /**
+     * Reports resources that are still live, failed to release or were registered after [releaseAll]. Debug builds
+     * and tests fail with an [IllegalStateException] so leaks are caught before release.
+     */
+    fun checkForLeaks() {
+        val leaked = synchronized(resources) { leaks + resources.map { it.name } }
+        if (leaked.isEmpty()) return
+        val message = "Liveness session leaked ${leaked.joinToString()}"
+        if (failOnLeak) throw IllegalStateException(message)
+        logger.warn(message)
+    }
+}
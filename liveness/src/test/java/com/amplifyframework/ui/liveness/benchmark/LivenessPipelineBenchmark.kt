@@ -0,0 +1,446 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.benchmark
+
+import android.content.Context
+import android.media.MediaCodec
+import android.media.MediaFormat
+import com.amplifyframework.predictions.aws.models.ColorChallenge
+import com.amplifyframework.predictions.aws.models.ColorChallengeResponse
+import com.amplifyframework.predictions.aws.models.ColorDisplayInformation
+import com.amplifyframework.predictions.aws.models.FaceTargetChallenge
+import com.amplifyframework.predictions.aws.models.RgbColor
+import com.amplifyframework.predictions.models.FaceLivenessChallengeType
+import com.amplifyframework.predictions.models.FaceLivenessSession
+import com.amplifyframework.predictions.models.VideoEvent
+import com.amplifyframework.ui.liveness.camera.CameraBinder
+import com.amplifyframework.ui.liveness.camera.CameraBinding
+import com.amplifyframework.ui.liveness.camera.FrameAnalyzer
+import com.amplifyframework.ui.liveness.camera.LivenessCoordinator
+import com.amplifyframework.ui.liveness.camera.ReplayFrameSource
+import com.amplifyframework.ui.liveness.camera.RgbaFrame
+import com.amplifyframework.ui.liveness.media.LivenessMuxer
+import com.amplifyframework.ui.liveness.ml.FaceDetectionInterpreter
+import com.amplifyframework.ui.liveness.ml.FacePresenceGate
+import com.amplifyframework.ui.liveness.ml.FaceDetectionModel
+import com.amplifyframework.ui.liveness.ml.FrameQualityGate
+import com.amplifyframework.ui.liveness.state.FreshnessState
+import com.amplifyframework.ui.liveness.state.LivenessState
+import com.amplifyframework.ui.liveness.testUtil.FakeLivenessSessionTransport
+import com.amplifyframework.ui.liveness.testUtil.ScriptedFaceDetectionInterpreter
+import com.amplifyframework.ui.liveness.testUtil.ThreadAllocations
+import com.amplifyframework.ui.liveness.ui.Camera
+import com.amplifyframework.ui.liveness.ui.ChallengeOptions
+import com.amplifyframework.ui.liveness.ui.LivenessChallenge
+import com.amplifyframework.ui.liveness.util.ResourceLedger
+import io.mockk.every
+import io.mockk.mockk
+import java.io.File
+import java.nio.ByteBuffer
+import java.util.Date
+import java.util.Locale
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.asCoroutineDispatcher
+import kotlinx.coroutines.launch
+
+/**
+ * Runs a simulated Face Movement and Light challenge through the headless pipeline: replayed camera frames go through
+ * the [FrameAnalyzer], [com.amplifyframework.ui.liveness.ml.FaceDetector] and [LivenessState], the freshness colors
+ * are played back on the same timeline, and fake encoder output is muxed and streamed to a
+ * [FakeLivenessSessionTransport] through the outbound event queue. Everything except event delivery runs on the
+ * calling thread so per-frame allocations can be attributed to the pipeline.
+ *
+ * Inference is scripted, so the timings cover the work around the model rather than the model itself. Frames that
+ * [faceCount] marks as empty show a bare wall, so with [presenceGate] set the face presence gate can skip them, and its
+ * savings show in the inference runs and analyzer frame rate. The gate is off by default, as in sessions. The time
+ * from start to preview is measured separately, with simulated session negotiation and camera open latencies.
+ */
+internal class LivenessPipelineBenchmark(
+    private val context: Context,
+    private val name: String,
+    private val createMuxer: () -> LivenessMuxer,
+    private val mediaFormat: MediaFormat,
+    private val outputFile: File,
+    private val warmupFrames: Int = FRAME_RATE * 2,
+    private val measuredFrames: Int = FRAME_RATE * 10,
+    private val faceCount: (frame: Int) -> Int = { if (it % FRAME_RATE < FRAME_RATE / 4) 0 else 1 },
+    private val presenceGate: Boolean = false
+) {
+
+    class Result(
+        val name: String,
+        val presenceGate: Boolean,
+        val frames: Int,
+        val framesPerSecond: Double,
+        val analyzerFramesPerSecond: Double,
+        val allocatedBytesPerFrame: Long,
+        val inferenceRuns: Int,
+        val gatedFrames: Int,
+        val unusableFrames: Int,
+        val colorsDisplayed: Int,
+        val videoEvents: Int,
+        val bytesSent: Long,
+        val peakQueueDepth: Int,
+        val startToPreviewMillis: Long,
+        val stages: Map<String, StageTimings>
+    ) {
+        fun toJson() = buildString {
+            append("{\"name\":\"").append(name).append("\",")
+            append("\"presenceGate\":").append(presenceGate).append(',')
+            append("\"frames\":").append(frames).append(',')
+            append("\"framesPerSecond\":").append(String.format(Locale.ROOT, "%.1f", framesPerSecond))
+            append(',')
+            append("\"analyzerFramesPerSecond\":")
+            append(String.format(Locale.ROOT, "%.1f", analyzerFramesPerSecond)).append(',')
+            append("\"allocatedBytesPerFrame\":").append(allocatedBytesPerFrame).append(',')
+            append("\"inferenceRuns\":").append(inferenceRuns).append(',')
+            append("\"gatedFrames\":").append(gatedFrames).append(',')
+            append("\"unusableFrames\":").append(unusableFrames).append(',')
+            append("\"colorsDisplayed\":").append(colorsDisplayed).append(',')
+            append("\"videoEvents\":").append(videoEvents).append(',')
+            append("\"bytesSent\":").append(bytesSent).append(',')
+            append("\"peakQueueDepth\":").append(peakQueueDepth).append(',')
+            append("\"startToPreviewMillis\":").append(startToPreviewMillis).append(',')
+            append("\"stages\":{")
+            stages.entries.joinTo(this, ",") { (stage, timings) -> "\"$stage\":${timings.toJson()}" }
+            append("}}")
+        }
+    }
+
+    private val faceTargetChallenge = mockk<FaceTargetChallenge>(relaxed = true) {
+        every { faceTargetMatching.faceDetectionThreshold } returns 0.7f
+    }
+    private val colorChallenge = mockk<ColorChallenge>(relaxed = true) {
+        every { challengeId } returns "colorChallengeId"
+        every { challengeColors } returns FRESHNESS_COLORS
+    }
+
+    fun run(): Result {
+        val transport = FakeLivenessSessionTransport(
+            FakeLivenessSessionTransport.Script(
+                challengeType = FaceLivenessChallengeType.FaceMovementAndLightChallenge,
+                challenges = listOf(faceTargetChallenge, colorChallenge)
+            )
+        )
+        try {
+            return run(transport)
+        } finally {
+            transport.shutdown()
+        }
+    }
+
+    private fun run(transport: FakeLivenessSessionTransport): Result {
+        val session = CompletableFuture<FaceLivenessSession>()
+        val streamEnded = CompletableFuture<Unit>()
+        transport.startSession(
+            "sessionId",
+            mockk(),
+            null,
+            { session.complete(it) },
+            { streamEnded.complete(Unit) },
+            { throw it }
+        )
+        val livenessSession = session.get(1, TimeUnit.SECONDS)
+        val resources = ResourceLedger()
+        val livenessState = LivenessState("sessionId", context, true, { }, { _, _ -> }, { }, resources)
+        livenessState.onLivenessSessionReady(livenessSession)
+        val outboundEvents = livenessState.outboundEvents
+
+        val stages = STAGES.associateWith { StageTimings(measuredFrames) }
+        var facesInFrame = 0
+        val interpreter = TimedInterpreter(ScriptedFaceDetectionInterpreter { facesInFrame })
+        val qualityGate = TimedQualityGate(interpreter.model)
+        val analyzer = FrameAnalyzer(
+            livenessState,
+            interpreter,
+            presenceGate = if (presenceGate) FacePresenceGate() else null,
+            qualityGate = qualityGate
+        )
+
+        var colorsDisplayed = 0
+        val freshness = FreshnessState(
+            colorChallenge.challengeColors,
+            onColorDisplayed = { current, previous, sequenceNumber, startTime ->
+                colorsDisplayed++
+                outboundEvents.sendChallengeResponseEvent(
+                    livenessSession,
+                    ColorChallengeResponse(
+                        colorChallenge.challengeId,
+                        current,
+                        previous,
+                        Date(startTime),
+                        sequenceNumber
+                    )
+                )
+            },
+            onComplete = { }
+        )
+
+        val muxer = createMuxer()
+        muxer.start(outputFile, mediaFormat) { bytes, time ->
+            outboundEvents.sendVideoEvent(livenessSession, VideoEvent(bytes, Date(time)))
+        }
+        val encodedSample = ByteBuffer.allocate(KEYFRAME_SIZE)
+        val bufferInfo = MediaCodec.BufferInfo()
+
+        val faceFrames = List(DISTINCT_FRAMES) { syntheticFrame(it, withFace = true) }
+        val emptyFrames = List(DISTINCT_FRAMES) { syntheticFrame(it, withFace = false) }
+        val totalFrames = warmupFrames + measuredFrames
+        val frames = ReplayFrameSource(
+            List(totalFrames) { (if (faceCount(it) > 0) faceFrames else emptyFrames)[it % DISTINCT_FRAMES] }
+        )
+
+        var frameIndex = 0
+        var allocatedBytes = 0L
+        var analyzerNanos = 0L
+        var measureStart = 0L
+        frames.replay { frame ->
+            val measured = frameIndex >= warmupFrames
+            if (frameIndex == warmupFrames) measureStart = System.nanoTime()
+            val allocationStart = ThreadAllocations.allocatedBytes()
+            val frameStart = System.nanoTime()
+
+            // Analysis
+            facesInFrame = faceCount(frameIndex)
+            analyzer.analyze(frame)
+            val analyzed = System.nanoTime()
+            if (measured) {
+                analyzerNanos += analyzed - frameStart
+                stages.getValue(STAGE_ANALYSIS).record(analyzed - frameStart)
+                if (qualityGate.ran) {
+                    stages.getValue(STAGE_QUALITY).record(qualityGate.nanos)
+                }
+                if (interpreter.ran) {
+                    stages.getValue(STAGE_PREPROCESS).record(interpreter.startNanos - frameStart - qualityGate.nanos)
+                    stages.getValue(STAGE_INFERENCE).record(interpreter.endNanos - interpreter.startNanos)
+                    stages.getValue(STAGE_DETECTION).record(analyzed - interpreter.endNanos)
+                }
+            }
+            interpreter.ran = false
+            qualityGate.ran = false
+
+            // Freshness playback on the simulated display timeline, starting a second into the measured frames
+            val frameTimeMillis = frameIndex * 1_000L / FRAME_RATE
+            if (frameIndex >= warmupFrames + FRAME_RATE && !freshness.playbackEnded) {
+                val start = System.nanoTime()
+                freshness.advanceTo(frameTimeMillis)
+                if (measured) stages.getValue(STAGE_FRESHNESS).record(System.nanoTime() - start)
+            }
+
+            // Encoder output
+            val isKeyFrame = frameIndex % FRAME_RATE == 0
+            val sampleSize = if (isKeyFrame) KEYFRAME_SIZE else DELTA_FRAME_SIZE
+            encodedSample.clear().limit(sampleSize)
+            bufferInfo.set(
+                0,
+                sampleSize,
+                frameTimeMillis * 1_000,
+                if (isKeyFrame) MediaCodec.BUFFER_FLAG_KEY_FRAME else 0
+            )
+            val muxStart = System.nanoTime()
+            muxer.write(encodedSample, bufferInfo)
+            val frameEnd = System.nanoTime()
+
+            if (measured) {
+                stages.getValue(STAGE_MUX).record(frameEnd - muxStart)
+                stages.getValue(STAGE_FRAME).record(frameEnd - frameStart)
+                allocatedBytes += ThreadAllocations.allocatedBytes() - allocationStart
+            }
+            frameIndex++
+        }
+        val elapsedNanos = System.nanoTime() - measureStart
+
+        muxer.stop()
+        outboundEvents.sendVideoEvent(livenessSession, VideoEvent(ByteArray(0), Date()))
+        streamEnded.get(10, TimeUnit.SECONDS)
+        resources.releaseAll()
+
+        val transportTimings = stages.getValue(STAGE_TRANSPORT)
+        transport.videoEvents.forEach { transportTimings.record(it.receivedAtNanos - it.sentAtNanos) }
+
+        return Result(
+            name = name,
+            presenceGate = presenceGate,
+            frames = measuredFrames,
+            framesPerSecond = measuredFrames * NANOS_PER_SECOND / elapsedNanos,
+            analyzerFramesPerSecond = measuredFrames * NANOS_PER_SECOND / analyzerNanos,
+            allocatedBytesPerFrame = allocatedBytes / measuredFrames,
+            inferenceRuns = interpreter.runs,
+            gatedFrames = analyzer.gatedFrames,
+            unusableFrames = analyzer.unusableFrames,
+            colorsDisplayed = colorsDisplayed,
+            videoEvents = transport.videoEvents.size,
+            bytesSent = transport.bytesReceived,
+            peakQueueDepth = outboundEvents.peakDepth,
+            startToPreviewMillis = measureStartToPreview(),
+            stages = stages
+        )
+    }
+
+    /**
+     * Starts a session whose challenges use different cameras the way [LivenessCoordinator] does, with simulated
+     * session negotiation and camera open latencies, and measures the time until the challenge's camera is bound
+     */
+    private fun measureStartToPreview(): Long {
+        val transport = FakeLivenessSessionTransport(
+            FakeLivenessSessionTransport.Script(
+                challengeType = FaceLivenessChallengeType.FaceMovementAndLightChallenge,
+                sessionReadyDelayMillis = SESSION_NEGOTIATION_MILLIS
+            )
+        )
+        // Stands in for the main thread the coordinator binds the camera on
+        val mainDispatcher = Executors.newSingleThreadExecutor().asCoroutineDispatcher()
+        try {
+            val scope = CoroutineScope(mainDispatcher)
+            // No earlier session to predict the camera from, as on the first check after launch
+            CameraBinder.lastChallengeType = null
+            val binder = CameraBinder(SimulatedCameras())
+            val previewStarted = CompletableFuture<Long>()
+            val start = System.nanoTime()
+            scope.launch { binder.prebind(CameraBinder.predictCameras(DUAL_CAMERA_OPTIONS)) }
+            transport.startSession(
+                "sessionId",
+                mockk(),
+                null,
+                { session ->
+                    scope.launch {
+                        binder.select(DUAL_CAMERA_OPTIONS.getLivenessChallenge(session.challengeType).camera)
+                        previewStarted.complete(System.nanoTime() - start)
+                    }
+                },
+                { },
+                { throw it }
+            )
+            return TimeUnit.NANOSECONDS.toMillis(previewStarted.get(5, TimeUnit.SECONDS))
+        } finally {
+            transport.shutdown()
+            mainDispatcher.close()
+        }
+    }
+
+    private class SimulatedCameras : CameraBinding {
+        override suspend fun hasCamera(camera: Camera) = true
+
+        override fun bind(camera: Camera) {
+            Thread.sleep(CAMERA_OPEN_MILLIS)
+        }
+    }
+
+    // A front camera frame of a grey wall with a little per frame noise, optionally with a skin toned face ellipse
+    private fun syntheticFrame(index: Int, withFace: Boolean): RgbaFrame {
+        val width = LivenessCoordinator.TARGET_HEIGHT
+        val height = LivenessCoordinator.TARGET_WIDTH
+        val pixels = ByteBuffer.allocateDirect(width * height * 4)
+        val centerX = width / 2f + index
+        val centerY = height / 2f
+        val radiusX = width / 5f
+        val radiusY = height / 3f
+        for (y in 0 until height) {
+            for (x in 0 until width) {
+                val dx = (x - centerX) / radiusX
+                val dy = (y - centerY) / radiusY
+                if (withFace && dx * dx + dy * dy <= 1f) {
+                    pixels.put(SKIN_R).put(SKIN_G).put(SKIN_B).put(-1)
+                } else {
+                    val grey = (WALL_GREY + (x + y + index) % 8).toByte()
+                    pixels.put(grey).put(grey).put(grey).put(-1)
+                }
+            }
+        }
+        pixels.rewind()
+        return RgbaFrame(width, height, 270, index.toLong(), pixels)
+    }
+
+    private class TimedInterpreter(private val delegate: ScriptedFaceDetectionInterpreter) :
+        FaceDetectionInterpreter by delegate {
+        var ran = false
+        var startNanos = 0L
+        var endNanos = 0L
+        val runs get() = delegate.runs
+
+        override fun run(
+            input: ByteBuffer,
+            outputLocations: Array<Array<FloatArray>>,
+            outputScores: Array<Array<FloatArray>>
+        ) {
+            startNanos = System.nanoTime()
+            delegate.run(input, outputLocations, outputScores)
+            endNanos = System.nanoTime()
+            ran = true
+        }
+    }
+
+    private class TimedQualityGate(model: FaceDetectionModel) : FrameQualityGate(model) {
+        var ran = false
+        var nanos = 0L
+
+        override fun check(pixels: ByteBuffer, floatInput: Boolean): FrameQualityGate.Issue? {
+            val start = System.nanoTime()
+            val issue = super.check(pixels, floatInput)
+            nanos = System.nanoTime() - start
+            ran = true
+            return issue
+        }
+    }
+
+    companion object {
+        const val STAGE_FRAME = "frame"
+        const val STAGE_ANALYSIS = "analysis"
+        const val STAGE_PREPROCESS = "preprocess"
+        const val STAGE_QUALITY = "quality"
+        const val STAGE_INFERENCE = "inference"
+        const val STAGE_DETECTION = "detection"
+        const val STAGE_FRESHNESS = "freshness"
+        const val STAGE_MUX = "mux"
+        const val STAGE_TRANSPORT = "transport"
+        private val STAGES = listOf(
+            STAGE_FRAME,
+            STAGE_ANALYSIS,
+            STAGE_PREPROCESS,
+            STAGE_QUALITY,
+            STAGE_INFERENCE,
+            STAGE_DETECTION,
+            STAGE_FRESHNESS,
+            STAGE_MUX,
+            STAGE_TRANSPORT
+        )
+
+        const val SESSION_NEGOTIATION_MILLIS = 150L
+        const val CAMERA_OPEN_MILLIS = 200L
+        private val DUAL_CAMERA_OPTIONS = ChallengeOptions(faceMovement = LivenessChallenge.FaceMovement(Camera.Back))
+
+        private const val FRAME_RATE = LivenessCoordinator.TARGET_FPS_MAX
+        private const val DISTINCT_FRAMES = 8
+        private const val WALL_GREY = 120
+        private const val SKIN_R = 224.toByte()
+        private const val SKIN_G = 172.toByte()
+        private const val SKIN_B = 140.toByte()
+        private const val KEYFRAME_SIZE = 24_000
+        private const val DELTA_FRAME_SIZE = 4_000
+        private const val NANOS_PER_SECOND = 1_000_000_000.0
+
+        private val FRESHNESS_COLORS = listOf(475f, 475f, 75f, 475f, 75f, 475f, 75f, 475f).mapIndexed { i, duration ->
+            mockk<ColorDisplayInformation> {
+                every { color } returns RgbColor(i * 30, 255 - i * 30, i * 10)
+                every { this@mockk.duration } returns duration
+                every { shouldScroll } returns (i % 2 == 1)
+            }
+        }
+    }
+}
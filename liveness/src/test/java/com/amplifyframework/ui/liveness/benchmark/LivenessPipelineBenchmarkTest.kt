@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.benchmark
+
+import android.media.MediaFormat
+import androidx.media3.common.util.MediaFormatUtil
+import androidx.test.core.app.ApplicationProvider
+import com.amplifyframework.ui.liveness.media.LivenessMuxer
+import com.amplifyframework.ui.liveness.media.Mp4Muxer
+import com.amplifyframework.ui.liveness.media.WebMMuxer
+import com.amplifyframework.ui.liveness.testUtil.TestMuxer
+import io.kotest.matchers.ints.shouldBeGreaterThan
+import io.kotest.matchers.ints.shouldBeLessThan
+import io.kotest.matchers.longs.shouldBeGreaterThan
+import io.kotest.matchers.longs.shouldBeLessThan
+import io.kotest.matchers.shouldBe
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.mockkStatic
+import io.mockk.unmockkStatic
+import java.io.File
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * Runs the headless pipeline benchmark with each muxer and writes the results as JSON to the path in the
+ * `liveness.benchmark.output` system property, or build/benchmarks/liveness-pipeline.json, so they can be tracked
+ * per commit. Robolectric stands in for the framework, so the numbers are only comparable between runs on the
+ * same machine.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [28], manifest = Config.NONE)
+class LivenessPipelineBenchmarkTest {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    @Before
+    fun setup() {
+        mockkStatic(MediaFormatUtil::class)
+        every { MediaFormatUtil.createFormatFromMediaFormat(any()) } returns mockk()
+    }
+
+    @After
+    fun teardown() {
+        unmockkStatic(MediaFormatUtil::class)
+    }
+
+    @Test
+    fun `pipeline benchmark`() {
+        val mp4 = benchmark("mp4") { Mp4Muxer(createMediaMuxer = { stream -> TestMuxer(stream) }) }
+        val webm = benchmark("webm") { WebMMuxer() }
+        val gated = benchmark("mp4-presence-gate", presenceGate = true) {
+            Mp4Muxer(createMediaMuxer = { stream -> TestMuxer(stream) })
+        }
+        val results = listOf(mp4, webm, gated)
+
+        results.forEach { result ->
+            result.inferenceRuns shouldBeGreaterThan 0
+            result.colorsDisplayed shouldBe 8
+            result.bytesSent shouldBeGreaterThan 0L
+            // The final empty event ends the stream
+            result.videoEvents shouldBeGreaterThan 1
+            // The predicted camera opens while the session negotiates
+            result.startToPreviewMillis shouldBeLessThan
+                LivenessPipelineBenchmark.SESSION_NEGOTIATION_MILLIS + LivenessPipelineBenchmark.CAMERA_OPEN_MILLIS
+        }
+
+        // Without the gate every analyzed frame runs the model. With it, frames showing only the wall skip it.
+        mp4.gatedFrames shouldBe 0
+        webm.gatedFrames shouldBe 0
+        gated.gatedFrames shouldBeGreaterThan 0
+        gated.inferenceRuns shouldBeLessThan mp4.inferenceRuns
+
+        val json = "{\"commit\":${System.getenv("GITHUB_SHA")?.let { "\"$it\"" }}," +
+            "\"results\":[${results.joinToString(",") { it.toJson() }}]}"
+        val output = File(System.getProperty("liveness.benchmark.output") ?: "build/benchmarks/liveness-pipeline.json")
+        output.parentFile?.mkdirs()
+        output.writeText(json)
+    }
+
+    private fun benchmark(name: String, presenceGate: Boolean = false, createMuxer: () -> LivenessMuxer) =
+        LivenessPipelineBenchmark(
+            context = ApplicationProvider.getApplicationContext(),
+            name = name,
+            createMuxer = createMuxer,
+            mediaFormat = MediaFormat.createVideoFormat(MediaFormat.MIMETYPE_VIDEO_VP8, 480, 640),
+            outputFile = folder.newFile(),
+            presenceGate = presenceGate
+        ).run()
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.benchmark
+
+/**
+ * Latency samples for one stage of the pipeline, in nanoseconds
+ */
+internal class StageTimings(capacity: Int) {
+    private var samples = LongArray(capacity)
+
+    var count = 0
+        private set
+
+    fun record(nanos: Long) {
+        if (count == samples.size) samples = samples.copyOf(samples.size * 2)
+        samples[count++] = nanos
+    }
+
+    inline fun <T> time(block: () -> T): T {
+        val start = System.nanoTime()
+        return block().also { record(System.nanoTime() - start) }
+    }
+
+    /**
+     * Nearest-rank percentile of the recorded samples
+     */
+    fun percentile(percent: Int): Long {
+        if (count == 0) return 0
+        val sorted = samples.copyOf(count).apply { sort() }
+        val rank = (percent * count + 99) / 100
+        return sorted[(rank - 1).coerceIn(0, count - 1)]
+    }
+
+    fun toJson() = "{\"count\":$count,\"p50Nanos\":${percentile(50)},\"p95Nanos\":${percentile(95)}," +
+        "\"p99Nanos\":${percentile(99)}}"
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import com.amplifyframework.predictions.models.FaceLivenessChallengeType
+import com.amplifyframework.ui.liveness.ui.Camera
+import com.amplifyframework.ui.liveness.ui.ChallengeOptions
+import com.amplifyframework.ui.liveness.ui.LivenessChallenge
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.shouldBe
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.yield
+import org.junit.After
+import org.junit.Test
+
+class CameraBinderTest {
+
+    private val dualCameraOptions = ChallengeOptions(faceMovement = LivenessChallenge.FaceMovement(Camera.Back))
+
+    @After
+    fun tearDown() {
+        CameraBinder.lastChallengeType = null
+    }
+
+    @Test
+    fun `correctly predicted camera is not rebound`() = runBlocking {
+        val cameras = FakeCameras()
+        val binder = CameraBinder(cameras)
+
+        binder.prebind(CameraBinder.predictCameras(dualCameraOptions))
+        binder.select(Camera.Front) shouldBe true
+
+        cameras.bound shouldContainExactly listOf(Camera.Front)
+        binder.mispredictions shouldBe 0
+    }
+
+    @Test
+    fun `wrongly predicted camera is rebound`() = runBlocking {
+        val cameras = FakeCameras()
+        val binder = CameraBinder(cameras)
+
+        binder.prebind(CameraBinder.predictCameras(dualCameraOptions))
+        binder.select(Camera.Back) shouldBe true
+
+        cameras.bound shouldContainExactly listOf(Camera.Front, Camera.Back)
+        binder.boundCamera shouldBe Camera.Back
+        binder.mispredictions shouldBe 1
+    }
+
+    @Test
+    fun `unavailable predicted camera falls back to the other camera`() = runBlocking {
+        val cameras = FakeCameras(available = setOf(Camera.Back))
+        val binder = CameraBinder(cameras)
+
+        binder.prebind(CameraBinder.predictCameras(dualCameraOptions))
+
+        cameras.bound shouldContainExactly listOf(Camera.Back)
+    }
+
+    @Test
+    fun `selecting an unavailable camera fails`() = runBlocking {
+        val binder = CameraBinder(FakeCameras(available = setOf(Camera.Front)))
+
+        binder.select(Camera.Back) shouldBe false
+    }
+
+    @Test
+    fun `challenge type arriving while the camera provider loads skips the speculative bind`() = runBlocking {
+        val cameras = FakeCameras(providerReady = CompletableDeferred())
+        val binder = CameraBinder(cameras)
+
+        val prebind = launch { binder.prebind(CameraBinder.predictCameras(dualCameraOptions)) }
+        val select = launch { binder.select(Camera.Back) }
+        yield()
+        cameras.providerReady.complete(Unit)
+        prebind.join()
+        select.join()
+
+        cameras.bound shouldContainExactly listOf(Camera.Back)
+    }
+
+    @Test
+    fun `prediction follows the challenge type of the last session`() {
+        CameraBinder.predictCameras(dualCameraOptions) shouldContainExactly listOf(Camera.Front, Camera.Back)
+
+        CameraBinder.lastChallengeType = FaceLivenessChallengeType.FaceMovementChallenge
+
+        CameraBinder.predictCameras(dualCameraOptions) shouldContainExactly listOf(Camera.Back, Camera.Front)
+    }
+
+    private class FakeCameras(
+        private val available: Set<Camera> = setOf(Camera.Front, Camera.Back),
+        val providerReady: CompletableDeferred<Unit> = CompletableDeferred(Unit)
+    ) : CameraBinding {
+        val bound = mutableListOf<Camera>()
+
+        override suspend fun hasCamera(camera: Camera): Boolean {
+            providerReady.await()
+            return camera in available
+        }
+
+        override fun bind(camera: Camera) {
+            bound += camera
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import android.content.Context
+import android.util.Range
+import android.util.Size
+import androidx.camera.core.UseCase
+import androidx.concurrent.futures.CallbackToFutureAdapter
+import androidx.lifecycle.LifecycleOwner
+import androidx.test.core.app.ApplicationProvider
+import com.amplifyframework.ui.liveness.ui.Camera
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import kotlinx.coroutines.runBlocking
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class CameraServiceTest {
+
+    private val context = ApplicationProvider.getApplicationContext<Context>()
+    private val provider = FakeCameraProvider(setOf(Camera.Front))
+    private var loads = 0
+    private val service = CameraService(
+        loadProvider = {
+            loads++
+            CallbackToFutureAdapter.getFuture<LivenessCameraProvider> { completer ->
+                completer.set(provider)
+                "FakeCameraProvider"
+            }
+        },
+        mainExecutor = Runnable::run
+    )
+
+    @Test
+    fun `provider is loaded once`() = runBlocking {
+        service.prefetch(context)
+
+        service.awaitProvider(context) shouldBeSameInstanceAs provider
+        service.awaitProvider(context) shouldBeSameInstanceAs provider
+        loads shouldBe 1
+    }
+
+    @Test
+    fun `failed load is retried`() = runBlocking {
+        var attempts = 0
+        val service = CameraService(
+            loadProvider = {
+                CallbackToFutureAdapter.getFuture<LivenessCameraProvider> { completer ->
+                    if (attempts++ == 0) completer.setException(IllegalStateException()) else completer.set(provider)
+                    "FakeCameraProvider"
+                }
+            }
+        )
+
+        service.prefetch(context)
+
+        service.awaitProvider(context) shouldBeSameInstanceAs provider
+        attempts shouldBe 2
+    }
+
+    @Test
+    fun `camera availability and capabilities are looked up once`() = runBlocking {
+        service.awaitProvider(context)
+
+        repeat(3) {
+            service.hasCamera(Camera.Front) shouldBe true
+            service.hasCamera(Camera.Back) shouldBe false
+            service.capabilities(Camera.Front)?.fpsRanges shouldBe listOf(Range(15, 30))
+            service.capabilities(Camera.Back).shouldBeNull()
+        }
+
+        service.availableCameras shouldContainExactly listOf(Camera.Front)
+        provider.hasCameraCalls shouldBe 2
+        provider.capabilitiesCalls shouldBe 1
+    }
+
+    @Test
+    fun `nothing is known about cameras before the provider loads`() {
+        service.hasCamera(Camera.Front) shouldBe false
+        service.capabilities(Camera.Front).shouldBeNull()
+    }
+
+    @Test
+    fun `unbind does not load the provider`() {
+        service.unbindAll()
+
+        loads shouldBe 0
+        provider.unbinds shouldBe 0
+    }
+
+    @Test
+    fun `unbind uses the loaded provider`() = runBlocking {
+        service.awaitProvider(context)
+
+        service.unbindAll()
+        service.unbindAll()
+
+        loads shouldBe 1
+        provider.unbinds shouldBe 2
+    }
+
+    private class FakeCameraProvider(private val cameras: Set<Camera>) : LivenessCameraProvider {
+        var hasCameraCalls = 0
+        var capabilitiesCalls = 0
+        var unbinds = 0
+
+        override fun hasCamera(camera: Camera): Boolean {
+            hasCameraCalls++
+            return camera in cameras
+        }
+
+        override fun capabilities(camera: Camera): CameraCapabilities {
+            capabilitiesCalls++
+            return CameraCapabilities(listOf(Range(15, 30)), listOf(Size(640, 480)))
+        }
+
+        override fun bindToLifecycle(
+            lifecycleOwner: LifecycleOwner,
+            camera: Camera,
+            fpsRange: Range<Int>,
+            vararg useCases: UseCase
+        ) = Unit
+
+        override fun unbindAll() {
+            unbinds++
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import android.util.Range
+import android.util.Size
+import io.kotest.assertions.withClue
+import io.kotest.matchers.shouldBe
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class CaptureSettingsTest {
+
+    /**
+     * AE target FPS ranges and SurfaceTexture output sizes as camera HALs report them, with the settings expected
+     * for a 24 fps, 480x640 capture
+     */
+    private class Device(
+        val name: String,
+        val fpsRanges: List<Range<Int>>,
+        val resolutions: List<Size>,
+        val expected: CaptureSettings
+    )
+
+    private val fourByThreeSizes = listOf(
+        Size(4032, 3024),
+        Size(1920, 1080),
+        Size(1440, 1080),
+        Size(1280, 960),
+        Size(1280, 720),
+        Size(800, 600),
+        Size(640, 480),
+        Size(352, 288),
+        Size(320, 240)
+    )
+
+    private val devices = listOf(
+        Device(
+            name = "full hardware level front camera with a fixed 24 fps range",
+            fpsRanges = listOf(Range(15, 15), Range(24, 24), Range(15, 30), Range(30, 30)),
+            resolutions = fourByThreeSizes,
+            expected = CaptureSettings(Range(24, 24), Size(480, 640), 24)
+        ),
+        Device(
+            name = "front camera with variable ranges starting below 24",
+            fpsRanges = listOf(Range(7, 15), Range(15, 15), Range(10, 30), Range(15, 30), Range(30, 30)),
+            resolutions = fourByThreeSizes,
+            expected = CaptureSettings(Range(15, 30), Size(480, 640), 24)
+        ),
+        Device(
+            name = "camera with only fixed ranges around 24",
+            fpsRanges = listOf(Range(15, 15), Range(20, 20), Range(30, 30)),
+            resolutions = fourByThreeSizes,
+            expected = CaptureSettings(Range(20, 20), Size(480, 640), 20)
+        ),
+        Device(
+            name = "camera with only a fixed 30 fps range",
+            fpsRanges = listOf(Range(30, 30)),
+            resolutions = fourByThreeSizes,
+            expected = CaptureSettings(Range(30, 30), Size(480, 640), 24)
+        ),
+        Device(
+            name = "legacy camera reporting ranges in thousandths of a frame",
+            fpsRanges = listOf(Range(15000, 15000), Range(7500, 30000), Range(30000, 30000)),
+            resolutions = listOf(Size(1280, 720), Size(960, 720), Size(640, 480), Size(320, 240)),
+            expected = CaptureSettings(Range(7500, 30000), Size(480, 640), 24)
+        ),
+        Device(
+            name = "slow camera that cannot reach 24 fps",
+            fpsRanges = listOf(Range(5, 10), Range(10, 10), Range(7, 20)),
+            resolutions = fourByThreeSizes,
+            expected = CaptureSettings(Range(7, 20), Size(480, 640), 20)
+        ),
+        Device(
+            name = "camera with only 16:9 sizes",
+            fpsRanges = listOf(Range(24, 24), Range(30, 30)),
+            resolutions = listOf(Size(1920, 1080), Size(1280, 720), Size(640, 360)),
+            expected = CaptureSettings(Range(24, 24), Size(720, 1280), 24)
+        ),
+        Device(
+            name = "low resolution camera",
+            fpsRanges = listOf(Range(15, 30)),
+            resolutions = listOf(Size(352, 288), Size(320, 240), Size(176, 144)),
+            expected = CaptureSettings(Range(15, 30), Size(288, 352), 24)
+        ),
+        Device(
+            name = "camera reporting no ranges or sizes",
+            fpsRanges = emptyList(),
+            resolutions = emptyList(),
+            expected = CaptureSettings.DEFAULT
+        )
+    )
+
+    @Test
+    fun `settings are selected from device capabilities`() {
+        devices.forEach { device ->
+            val selected = CaptureSettings.select(CameraCapabilities(device.fpsRanges, device.resolutions))
+
+            withClue(device.name) { selected shouldBe device.expected }
+        }
+    }
+
+    @Test
+    fun `unknown capabilities use the default settings`() {
+        CaptureSettings.select(null) shouldBe CaptureSettings.DEFAULT
+    }
+}
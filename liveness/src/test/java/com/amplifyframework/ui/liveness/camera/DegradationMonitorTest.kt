@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import android.content.Context
+import android.content.Intent
+import android.os.Looper
+import android.os.PowerManager
+import androidx.test.core.app.ApplicationProvider
+import io.kotest.matchers.collections.shouldBeEmpty
+import io.kotest.matchers.floats.shouldBeLessThan
+import io.kotest.matchers.ints.shouldBeLessThan
+import io.kotest.matchers.shouldBe
+import org.junit.After
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [29], manifest = Config.NONE)
+internal class DegradationMonitorTest {
+
+    private val context = ApplicationProvider.getApplicationContext<Context>()
+    private val powerManager = shadowOf(context.getSystemService(Context.POWER_SERVICE) as PowerManager)
+    private val tiers = mutableListOf<DegradationTier>()
+    private val monitor = DegradationMonitor(context) { tiers += it }
+
+    @After
+    fun teardown() {
+        monitor.stop()
+    }
+
+    @Test
+    fun `no callback while the device is cool`() {
+        monitor.start()
+
+        monitor.tier shouldBe DegradationTier.NONE
+        tiers.shouldBeEmpty()
+    }
+
+    @Test
+    fun `rising thermal status steps through the tiers`() {
+        monitor.start()
+
+        setThermalStatus(PowerManager.THERMAL_STATUS_LIGHT)
+        setThermalStatus(PowerManager.THERMAL_STATUS_MODERATE)
+        setThermalStatus(PowerManager.THERMAL_STATUS_SEVERE)
+        setThermalStatus(PowerManager.THERMAL_STATUS_CRITICAL)
+
+        tiers shouldBe listOf(DegradationTier.LIGHT, DegradationTier.MODERATE, DegradationTier.SEVERE)
+    }
+
+    @Test
+    fun `cooling down restores the full pipeline`() {
+        monitor.start()
+
+        setThermalStatus(PowerManager.THERMAL_STATUS_SEVERE)
+        setThermalStatus(PowerManager.THERMAL_STATUS_NONE)
+
+        tiers shouldBe listOf(DegradationTier.SEVERE, DegradationTier.NONE)
+    }
+
+    @Test
+    fun `a hot device starts degraded`() {
+        powerManager.setCurrentThermalStatus(PowerManager.THERMAL_STATUS_MODERATE)
+
+        monitor.start()
+
+        tiers shouldBe listOf(DegradationTier.MODERATE)
+    }
+
+    @Test
+    fun `battery saver uses at least the light tier`() {
+        monitor.start()
+
+        setPowerSaveMode(true)
+        setThermalStatus(PowerManager.THERMAL_STATUS_SEVERE)
+        setThermalStatus(PowerManager.THERMAL_STATUS_NONE)
+        setPowerSaveMode(false)
+
+        tiers shouldBe listOf(
+            DegradationTier.LIGHT,
+            DegradationTier.SEVERE,
+            DegradationTier.LIGHT,
+            DegradationTier.NONE
+        )
+    }
+
+    @Test
+    @Config(sdk = [28])
+    fun `battery saver degrades devices without thermal status`() {
+        monitor.start()
+
+        setPowerSaveMode(true)
+
+        tiers shouldBe listOf(DegradationTier.LIGHT)
+    }
+
+    @Test
+    fun `no callbacks after stopping`() {
+        monitor.start()
+        monitor.stop()
+
+        setThermalStatus(PowerManager.THERMAL_STATUS_SEVERE)
+        setPowerSaveMode(true)
+
+        tiers.shouldBeEmpty()
+    }
+
+    @Test
+    fun `higher tiers do less work`() {
+        DegradationTier.entries.zipWithNext().forEach { (lower, higher) ->
+            higher.encoderBitrateScale shouldBeLessThan lower.encoderBitrateScale
+        }
+        DegradationTier.entries.drop(1).zipWithNext().forEach { (lower, higher) ->
+            higher.analysisFrameRate shouldBeLessThan lower.analysisFrameRate
+        }
+    }
+
+    private fun setThermalStatus(status: Int) {
+        powerManager.setCurrentThermalStatus(status)
+        shadowOf(Looper.getMainLooper()).idle()
+    }
+
+    private fun setPowerSaveMode(enabled: Boolean) {
+        powerManager.setIsPowerSaveMode(enabled)
+        context.sendBroadcast(Intent(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED))
+        shadowOf(Looper.getMainLooper()).idle()
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import androidx.test.core.app.ApplicationProvider
+import com.amplifyframework.predictions.aws.models.FaceTargetChallenge
+import com.amplifyframework.predictions.models.FaceLivenessChallengeType
+import com.amplifyframework.predictions.models.FaceLivenessSession
+import com.amplifyframework.ui.liveness.ml.FaceDetectionModel
+import com.amplifyframework.ui.liveness.ml.FacePresenceGate
+import com.amplifyframework.ui.liveness.ml.FrameQualityGate
+import com.amplifyframework.ui.liveness.model.LivenessCheckState
+import com.amplifyframework.ui.liveness.state.LivenessState
+import com.amplifyframework.ui.liveness.testUtil.ScriptedFaceDetectionInterpreter
+import io.kotest.matchers.shouldBe
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import java.nio.ByteBuffer
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+internal class FrameAnalyzerTest {
+
+    private val faceTargetChallenge = mockk<FaceTargetChallenge>(relaxed = true) {
+        every { faceTargetMatching.faceDetectionThreshold } returns 0.7f
+    }
+
+    // Textured skin tones, so frames pass both the face presence and the frame quality gates
+    private val frames = List(3) { index -> checkerboardFrame(index, LIGHT_SKIN, DARK_SKIN) }
+
+    @Test
+    fun `no face in replayed frames asks the user to move their face into view`() {
+        val livenessState = createLivenessState()
+        val interpreter = ScriptedFaceDetectionInterpreter { 0 }
+
+        ReplayFrameSource(frames).replay(FrameAnalyzer(livenessState, interpreter)::analyze)
+
+        interpreter.runs shouldBe frames.size
+        livenessState.livenessCheckState shouldBe LivenessCheckState.Initial.withMoveFaceMessage()
+    }
+
+    @Test
+    fun `multiple faces in replayed frames are reported to the state`() {
+        val livenessState = createLivenessState()
+        val interpreter = ScriptedFaceDetectionInterpreter { 2 }
+
+        ReplayFrameSource(frames).replay(FrameAnalyzer(livenessState, interpreter)::analyze)
+
+        livenessState.livenessCheckState shouldBe LivenessCheckState.Initial.withMultipleFaceMessage()
+    }
+
+    @Test
+    fun `single face is passed to the state`() {
+        val livenessState = mockk<LivenessState>(relaxed = true) {
+            every { onFrameAvailable() } returns true
+            every { faceTargetChallenge } returns this@FrameAnalyzerTest.faceTargetChallenge
+        }
+
+        ReplayFrameSource(frames).replay(FrameAnalyzer(livenessState, ScriptedFaceDetectionInterpreter { 1 })::analyze)
+
+        verify(exactly = frames.size) { livenessState.onFrameFaceCountUpdate(1) }
+        verify(exactly = frames.size) { livenessState.onFrameFaceUpdate(any(), any(), any(), any()) }
+    }
+
+    @Test
+    fun `float models are fed normalized float input`() {
+        val interpreter = ScriptedFaceDetectionInterpreter()
+
+        ReplayFrameSource(frames).replay(FrameAnalyzer(createLivenessState(), interpreter)::analyze)
+
+        interpreter.lastInputBytes shouldBe MODEL_INPUT_PIXELS * 3 * Float.SIZE_BYTES
+    }
+
+    @Test
+    fun `quantized models are fed uint8 input`() {
+        val quantized = FaceDetectionModel.SHORT_RANGE.run {
+            FaceDetectionModel("quantized", assetName, inputWidth, inputHeight, anchorConfig, outputLayout, true)
+        }
+        val interpreter = ScriptedFaceDetectionInterpreter(quantized)
+
+        ReplayFrameSource(frames).replay(FrameAnalyzer(createLivenessState(), interpreter)::analyze)
+
+        interpreter.runs shouldBe frames.size
+        interpreter.lastInputBytes shouldBe MODEL_INPUT_PIXELS * 3
+    }
+
+    @Test
+    fun `frames without skin tones run detection without the presence gate`() {
+        val interpreter = ScriptedFaceDetectionInterpreter { 0 }
+        val greyFrames = List(3) { index -> checkerboardFrame(index, LIGHT_GREY, DARK_GREY) }
+        val analyzer = FrameAnalyzer(createLivenessState(), interpreter)
+
+        ReplayFrameSource(greyFrames).replay(analyzer::analyze)
+
+        interpreter.runs shouldBe greyFrames.size
+        analyzer.gatedFrames shouldBe 0
+    }
+
+    @Test
+    fun `frames without skin tones skip detection with the presence gate`() {
+        val livenessState = mockk<LivenessState>(relaxed = true) {
+            every { onFrameAvailable() } returns true
+        }
+        val interpreter = ScriptedFaceDetectionInterpreter { 0 }
+        val greyFrames = List(FacePresenceGate.SAFETY_NET_INTERVAL) { index ->
+            checkerboardFrame(index, LIGHT_GREY, DARK_GREY)
+        }
+        val analyzer = FrameAnalyzer(livenessState, interpreter, presenceGate = FacePresenceGate())
+
+        ReplayFrameSource(greyFrames).replay(analyzer::analyze)
+
+        // Only the safety net frame runs the detector, and only its result is reported
+        interpreter.runs shouldBe 1
+        analyzer.detectorRuns shouldBe 1
+        analyzer.gatedFrames shouldBe FacePresenceGate.SAFETY_NET_INTERVAL - 1
+        verify(exactly = 1) { livenessState.onFrameFaceCountUpdate(any()) }
+    }
+
+    @Test
+    fun `the presence gate does not skip frames after a detected face`() {
+        val livenessState = mockk<LivenessState>(relaxed = true) {
+            every { onFrameAvailable() } returns true
+            every { faceTargetChallenge } returns this@FrameAnalyzerTest.faceTargetChallenge
+        }
+        val interpreter = ScriptedFaceDetectionInterpreter { 1 }
+        val framesWithFace = listOf(checkerboardFrame(0, LIGHT_SKIN, DARK_SKIN)) +
+            List(3) { index -> checkerboardFrame(index + 1, LIGHT_GREY, DARK_GREY) }
+        val analyzer = FrameAnalyzer(livenessState, interpreter, presenceGate = FacePresenceGate())
+
+        ReplayFrameSource(framesWithFace).replay(analyzer::analyze)
+
+        interpreter.runs shouldBe framesWithFace.size
+        analyzer.gatedFrames shouldBe 0
+        verify(exactly = 0) { livenessState.onFrameFaceCountUpdate(0) }
+    }
+
+    @Test
+    fun `dark frames skip detection and ask for more light`() {
+        val livenessState = createLivenessState()
+        val interpreter = ScriptedFaceDetectionInterpreter()
+        val darkFrames = List(3) { index -> checkerboardFrame(index, BLACK, BLACK) }
+        val analyzer = FrameAnalyzer(livenessState, interpreter)
+
+        ReplayFrameSource(darkFrames).replay(analyzer::analyze)
+
+        interpreter.runs shouldBe 0
+        analyzer.unusableFrames shouldBe darkFrames.size
+        livenessState.livenessCheckState shouldBe
+            LivenessCheckState.Initial.withFrameQualityMessage(FrameQualityGate.Issue.TOO_DARK)
+    }
+
+    @Test
+    fun `severe degradation tier analyzes fewer frames on fewer threads`() {
+        val interpreter = ScriptedFaceDetectionInterpreter()
+        val analyzer = FrameAnalyzer(createLivenessState(), interpreter)
+        val secondOfFrames = secondOfFrames()
+
+        analyzer.setDegradationTier(DegradationTier.SEVERE)
+        ReplayFrameSource(secondOfFrames).replay(analyzer::analyze)
+
+        interpreter.runs shouldBe DegradationTier.SEVERE.analysisFrameRate
+        analyzer.decimatedFrames shouldBe secondOfFrames.size - DegradationTier.SEVERE.analysisFrameRate
+        interpreter.numThreads shouldBe DegradationTier.SEVERE.interpreterThreads
+    }
+
+    @Test
+    fun `low preset analyzes fewer frames on one thread`() {
+        val interpreter = ScriptedFaceDetectionInterpreter()
+        val analyzer = FrameAnalyzer(createLivenessState(), interpreter, pipelineConfig = PipelineConfig.LOW)
+
+        ReplayFrameSource(secondOfFrames()).replay(analyzer::analyze)
+
+        interpreter.runs shouldBe PipelineConfig.LOW.analysisFrameRate
+        interpreter.numThreads shouldBe PipelineConfig.LOW.interpreterThreads
+    }
+
+    @Test
+    fun `detection does not run while the start view is showing`() {
+        val livenessState = createLivenessState(disableStartView = false)
+        val interpreter = ScriptedFaceDetectionInterpreter()
+
+        ReplayFrameSource(frames).replay(FrameAnalyzer(livenessState, interpreter)::analyze)
+
+        interpreter.runs shouldBe 0
+    }
+
+    private fun secondOfFrames() = List(LivenessCoordinator.TARGET_FPS_MAX) { index ->
+        val timestampNanos = (index + 1) * NANOS_PER_SECOND / LivenessCoordinator.TARGET_FPS_MAX
+        checkerboardFrame(index, LIGHT_SKIN, DARK_SKIN, timestampNanos)
+    }
+
+    private fun checkerboardFrame(
+        index: Int,
+        first: IntArray,
+        second: IntArray,
+        timestampNanos: Long = index * 1_000L
+    ): RgbaFrame {
+        val pixels = ByteBuffer.allocateDirect(FRAME_WIDTH * FRAME_HEIGHT * 4)
+        for (y in 0 until FRAME_HEIGHT) {
+            for (x in 0 until FRAME_WIDTH) {
+                val color = if ((x / CHECKER_SIZE + y / CHECKER_SIZE) % 2 == 0) first else second
+                pixels.put(color[0].toByte()).put(color[1].toByte()).put(color[2].toByte()).put(-1)
+            }
+        }
+        pixels.rewind()
+        return RgbaFrame(FRAME_WIDTH, FRAME_HEIGHT, 0, timestampNanos, pixels)
+    }
+
+    private fun createLivenessState(disableStartView: Boolean = true) = LivenessState(
+        "sessionId",
+        ApplicationProvider.getApplicationContext(),
+        disableStartView,
+        { },
+        { _, _ -> },
+        { }
+    ).apply {
+        onLivenessSessionReady(
+            FaceLivenessSession(
+                challengeId = "challengeId",
+                challengeType = FaceLivenessChallengeType.FaceMovementChallenge,
+                challenges = listOf(faceTargetChallenge),
+                onVideoEvent = { },
+                onChallengeResponseEvent = { },
+                stopLivenessSession = { }
+            )
+        )
+    }
+
+    companion object {
+        private const val FRAME_WIDTH = 64
+        private const val FRAME_HEIGHT = 48
+        private const val CHECKER_SIZE = 4
+        private const val NANOS_PER_SECOND = 1_000_000_000L
+        private val LIGHT_SKIN = intArrayOf(224, 172, 140)
+        private val DARK_SKIN = intArrayOf(180, 130, 100)
+        private val LIGHT_GREY = intArrayOf(156, 156, 156)
+        private val DARK_GREY = intArrayOf(100, 100, 100)
+        private val BLACK = intArrayOf(0, 0, 0)
+        private const val MODEL_INPUT_PIXELS = 128 * 128
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import io.kotest.matchers.booleans.shouldBeFalse
+import io.kotest.matchers.booleans.shouldBeTrue
+import io.kotest.matchers.ints.shouldBeInRange
+import io.kotest.matchers.shouldBe
+import org.junit.Test
+
+class FrameRateDecimatorTest {
+
+    @Test
+    fun `unlimited renders every frame`() {
+        val decimator = FrameRateDecimator(FrameRateDecimator.UNLIMITED)
+
+        renderedFrames(decimator, cameraFps = 30, seconds = 2) shouldBe 60
+    }
+
+    @Test
+    fun `30 fps camera is decimated to 24 fps`() {
+        val decimator = FrameRateDecimator(24)
+
+        renderedFrames(decimator, cameraFps = 30, seconds = 10) shouldBeInRange 239..241
+    }
+
+    @Test
+    fun `camera slower than the limit renders every frame`() {
+        val decimator = FrameRateDecimator(24)
+
+        renderedFrames(decimator, cameraFps = 15, seconds = 2) shouldBe 30
+    }
+
+    @Test
+    fun `camera at the limit with jitter renders every frame`() {
+        val decimator = FrameRateDecimator(24)
+        val intervalNs = NANOS_PER_SECOND / 24
+        val jitterNs = intervalNs / 20
+
+        val rendered = (0 until 48).count { frame ->
+            val jitter = if (frame % 2 == 0) jitterNs else -jitterNs
+            decimator.shouldRender(START_NS + frame * intervalNs + jitter)
+        }
+
+        rendered shouldBe 48
+    }
+
+    @Test
+    fun `cadence restarts after a stall`() {
+        val decimator = FrameRateDecimator(24)
+
+        decimator.shouldRender(START_NS).shouldBeTrue()
+        decimator.shouldRender(START_NS + NANOS_PER_SECOND / 60).shouldBeFalse()
+
+        // No frames for a second, then frames resume
+        val resumeNs = START_NS + NANOS_PER_SECOND
+        decimator.shouldRender(resumeNs).shouldBeTrue()
+        decimator.shouldRender(resumeNs + NANOS_PER_SECOND / 60).shouldBeFalse()
+    }
+
+    @Test
+    fun `cadence restarts when timestamps jump backwards`() {
+        val decimator = FrameRateDecimator(24)
+
+        decimator.shouldRender(START_NS).shouldBeTrue()
+        decimator.shouldRender(START_NS / 2).shouldBeTrue()
+    }
+
+    @Test
+    fun `frames without timestamps are always rendered`() {
+        val decimator = FrameRateDecimator(24)
+
+        repeat(10) {
+            decimator.shouldRender(0).shouldBeTrue()
+        }
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun `negative frame rate is rejected`() {
+        FrameRateDecimator(-1)
+    }
+
+    private fun renderedFrames(decimator: FrameRateDecimator, cameraFps: Int, seconds: Int): Int {
+        val intervalNs = NANOS_PER_SECOND / cameraFps
+        return (0 until cameraFps * seconds).count { frame ->
+            decimator.shouldRender(START_NS + frame * intervalNs)
+        }
+    }
+
+    companion object {
+        private const val NANOS_PER_SECOND = 1_000_000_000L
+        private const val START_NS = 5 * NANOS_PER_SECOND
+    }
+}
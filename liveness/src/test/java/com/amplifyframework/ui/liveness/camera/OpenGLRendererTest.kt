@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import android.util.Size
+import android.view.Surface
+import com.amplifyframework.ui.liveness.camera.RecordingRenderBackend.Companion.OUTPUT_CONTEXT
+import com.amplifyframework.ui.liveness.camera.RecordingRenderBackend.Companion.PREVIEW_CONTEXT
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.collections.shouldContainExactlyInAnyOrder
+import io.kotest.matchers.ints.shouldBeInRange
+import io.kotest.matchers.shouldBe
+import io.mockk.mockk
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [28], manifest = Config.NONE)
+class OpenGLRendererTest {
+
+    private val backend = RecordingRenderBackend()
+    private val renderer = OpenGLRenderer(backend)
+    private val frameUpdates = mutableListOf<Long>()
+
+    @Before
+    fun setup() {
+        renderer.setFrameUpdateListener({ it.run() }) { frameUpdates += it }
+        renderer.attachOutputSurface(mockk<Surface>(), OUTPUT_SIZE, 0)
+        idleRenderer()
+        renderer.setPreviewSize(PREVIEW_SIZE)
+    }
+
+    @Test
+    fun `every frame is rendered to the output surface and reported`() {
+        val timestamps = frameTimestamps(fps = 30, count = 10)
+
+        timestamps.forEach { renderer.renderFrame(it, ROTATION_0) }
+
+        backend.framesRenderedTo(OUTPUT_CONTEXT).map { it.timestampNs } shouldContainExactly timestamps
+        frameUpdates shouldContainExactly timestamps
+    }
+
+    @Test
+    fun `mvp is only marked dirty when the transform changes`() {
+        val timestamps = frameTimestamps(fps = 30, count = 6)
+
+        renderer.renderFrame(timestamps[0], ROTATION_0)
+        renderer.renderFrame(timestamps[1], ROTATION_0)
+        renderer.renderFrame(timestamps[2], ROTATION_90)
+        renderer.renderFrame(timestamps[3], ROTATION_90)
+        renderer.invalidateOutputSurface(90)
+        idleRenderer()
+        renderer.renderFrame(timestamps[4], ROTATION_90)
+        renderer.renderFrame(timestamps[5], ROTATION_90)
+
+        backend.framesRenderedTo(OUTPUT_CONTEXT).map { it.mvpDirty } shouldContainExactly
+            listOf(true, false, true, false, true, false)
+    }
+
+    @Test
+    fun `unchanged texture transform is only uploaded once`() {
+        val timestamps = frameTimestamps(fps = 30, count = 6)
+
+        timestamps.take(3).forEach { renderer.renderFrame(it, ROTATION_0) }
+        timestamps.drop(3).forEach { renderer.renderFrame(it, ROTATION_0_CROPPED) }
+
+        val frames = backend.framesRenderedTo(OUTPUT_CONTEXT)
+        frames.map { it.textureTransformDirty } shouldContainExactly listOf(true, false, false, true, false, false)
+        // A new crop with the same rotation does not change the MVP
+        frames.map { it.mvpDirty } shouldContainExactly listOf(true, false, false, false, false, false)
+        backend.viewPortUpdates shouldBe 1
+    }
+
+    @Test
+    fun `viewport and mvp are reapplied when alternating between surfaces`() {
+        renderer.attachPreviewSurface(mockk<Surface>(), PREVIEW_SIZE, 0)
+        idleRenderer()
+
+        frameTimestamps(fps = 30, count = 5).forEach { renderer.renderFrame(it, ROTATION_0) }
+
+        backend.viewPortUpdates shouldBe 10
+        backend.mvpUploads shouldBe 10
+        backend.textureTransformUploads shouldBe 1
+    }
+
+    @Test
+    fun `output frame rate is limited independently of the preview`() {
+        renderer.attachPreviewSurface(mockk<Surface>(), PREVIEW_SIZE, 0)
+        renderer.setOutputMaxFrameRate(24)
+        idleRenderer()
+
+        frameTimestamps(fps = 30, count = 300).forEach { renderer.renderFrame(it, ROTATION_0) }
+
+        val outputFrames = backend.framesRenderedTo(OUTPUT_CONTEXT).size
+        outputFrames shouldBeInRange 239..241
+        backend.framesRenderedTo(PREVIEW_CONTEXT).size shouldBe 300
+        frameUpdates.size shouldBe outputFrames
+        backend.currentContext shouldBe PREVIEW_CONTEXT
+    }
+
+    @Test
+    fun `shutdown closes both contexts`() {
+        renderer.attachPreviewSurface(mockk<Surface>(), PREVIEW_SIZE, 0)
+        idleRenderer()
+
+        val rendererThread = renderer.looper.thread
+        renderer.shutdown()
+        rendererThread.join(1_000)
+
+        rendererThread.isAlive shouldBe false
+        backend.closedContexts shouldContainExactlyInAnyOrder listOf(OUTPUT_CONTEXT, PREVIEW_CONTEXT)
+    }
+
+    private fun idleRenderer() = shadowOf(renderer.looper).idle()
+
+    private fun frameTimestamps(fps: Int, count: Int) = List(count) { FIRST_FRAME_NS + it * 1_000_000_000L / fps }
+
+    companion object {
+        private const val FIRST_FRAME_NS = 1_000_000_000L
+        private val OUTPUT_SIZE = Size(480, 640)
+        private val PREVIEW_SIZE = Size(640, 480)
+
+        // Texture transforms as reported by SurfaceTexture for an upright and a rotated sensor
+        private val ROTATION_0 = floatArrayOf(1f, 0f, 0f, 0f, 0f, -1f, 0f, 0f, 0f, 0f, 1f, 0f, 0f, 1f, 0f, 1f)
+        private val ROTATION_0_CROPPED =
+            floatArrayOf(0.9f, 0f, 0f, 0f, 0f, -0.9f, 0f, 0f, 0f, 0f, 1f, 0f, 0.05f, 0.95f, 0f, 1f)
+        private val ROTATION_90 = floatArrayOf(0f, 1f, 0f, 0f, -1f, 0f, 0f, 0f, 0f, 0f, 1f, 0f, 1f, 0f, 0f, 1f)
+    }
+}
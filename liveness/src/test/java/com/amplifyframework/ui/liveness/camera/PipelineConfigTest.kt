@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import android.os.Build
+import com.amplifyframework.ui.liveness.media.VideoCodec
+import com.amplifyframework.ui.liveness.ml.FaceDetectionInterpreter
+import com.amplifyframework.ui.liveness.ui.PerformancePreset
+import com.amplifyframework.ui.liveness.ui.VideoOptions
+import io.kotest.matchers.shouldBe
+import org.junit.Test
+
+internal class PipelineConfigTest {
+
+    @Test
+    fun `low ram devices use the low preset`() {
+        classify(isLowRamDevice = true) shouldBe PerformancePreset.Low
+    }
+
+    @Test
+    fun `few cores, little memory or old android versions use the low preset`() {
+        classify(cores = 4) shouldBe PerformancePreset.Low
+        classify(memoryClassMb = 128) shouldBe PerformancePreset.Low
+        classify(sdkInt = Build.VERSION_CODES.N_MR1) shouldBe PerformancePreset.Low
+    }
+
+    @Test
+    fun `flagship devices use the high preset`() {
+        classify() shouldBe PerformancePreset.High
+    }
+
+    @Test
+    fun `mid range devices use the standard preset`() {
+        classify(cores = 6) shouldBe PerformancePreset.Standard
+        classify(memoryClassMb = 192) shouldBe PerformancePreset.Standard
+        classify(sdkInt = Build.VERSION_CODES.P) shouldBe PerformancePreset.Standard
+    }
+
+    @Test
+    fun `presets map to their configs`() {
+        PipelineConfig.forPreset(PerformancePreset.High) shouldBe PipelineConfig.HIGH
+        PipelineConfig.forPreset(PerformancePreset.Standard) shouldBe PipelineConfig.STANDARD
+        PipelineConfig.forPreset(PerformancePreset.Low) shouldBe PipelineConfig.LOW
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun `auto preset has no config`() {
+        PipelineConfig.forPreset(PerformancePreset.Auto)
+    }
+
+    @Test
+    fun `presets chosen for the device keep the configured codec`() {
+        PipelineConfig.videoCodec(PerformancePreset.Auto, null) shouldBe VideoCodec.VP8
+        PipelineConfig.videoCodec(PerformancePreset.Auto, VideoOptions()) shouldBe VideoCodec.VP8
+        PipelineConfig.videoCodec(PerformancePreset.Auto, VideoOptions(VideoCodec.VP9)) shouldBe VideoCodec.VP9
+    }
+
+    @Test
+    fun `explicit presets select the codec only without video options`() {
+        PipelineConfig.videoCodec(PerformancePreset.Low, null) shouldBe VideoCodec.H264
+        PipelineConfig.videoCodec(PerformancePreset.High, null) shouldBe VideoCodec.VP8
+        // Video options passed with the default codec still decide it
+        PipelineConfig.videoCodec(PerformancePreset.Low, VideoOptions()) shouldBe VideoCodec.VP8
+        PipelineConfig.videoCodec(PerformancePreset.Low, VideoOptions(VideoCodec.VP9)) shouldBe VideoCodec.VP9
+    }
+
+    @Test
+    fun `degradation tiers only lower the preset limits`() {
+        PipelineConfig.HIGH.analysisFrameRate(DegradationTier.NONE) shouldBe FrameRateDecimator.UNLIMITED
+        PipelineConfig.HIGH.analysisFrameRate(DegradationTier.LIGHT) shouldBe DegradationTier.LIGHT.analysisFrameRate
+        PipelineConfig.LOW.analysisFrameRate(DegradationTier.LIGHT) shouldBe PipelineConfig.LOW.analysisFrameRate
+        PipelineConfig.LOW.analysisFrameRate(DegradationTier.SEVERE) shouldBe DegradationTier.SEVERE.analysisFrameRate
+
+        PipelineConfig.HIGH.interpreterThreads(DegradationTier.NONE) shouldBe FaceDetectionInterpreter.DEFAULT_THREADS
+        PipelineConfig.HIGH.interpreterThreads(DegradationTier.SEVERE) shouldBe 1
+        PipelineConfig.LOW.interpreterThreads(DegradationTier.LIGHT) shouldBe 1
+    }
+
+    @Test
+    fun `encoder bitrate is scaled by the tier down to the minimum`() {
+        PipelineConfig.HIGH.encoderBitrate(DegradationTier.NONE) shouldBe LivenessCoordinator.TARGET_ENCODE_BITRATE
+        PipelineConfig.HIGH.encoderBitrate(DegradationTier.MODERATE) shouldBe
+            (LivenessCoordinator.TARGET_ENCODE_BITRATE * DegradationTier.MODERATE.encoderBitrateScale).toInt()
+        PipelineConfig.LOW.encoderBitrate(DegradationTier.SEVERE) shouldBe LivenessCoordinator.MIN_ENCODE_BITRATE
+    }
+
+    private fun classify(
+        cores: Int = 8,
+        isLowRamDevice: Boolean = false,
+        memoryClassMb: Int = 256,
+        sdkInt: Int = Build.VERSION_CODES.Q
+    ) = DeviceClassifier.classify(cores, isLowRamDevice, memoryClassMb, sdkInt)
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import android.view.Surface
+
+/**
+ * A [RenderBackend] that records the GL work the renderer schedules instead of performing it, so
+ * the render loop can run without a GPU.
+ */
+internal class RecordingRenderBackend : RenderBackend {
+    data class RenderedFrame(
+        val context: Long,
+        val timestampNs: Long,
+        val mvpDirty: Boolean,
+        val textureTransformDirty: Boolean
+    )
+
+    // Set to false to only count frames, so the backend does not allocate while benchmarking
+    var recordFrames = true
+    val renderedFrames = mutableListOf<RenderedFrame>()
+    var framesRendered = 0
+        private set
+    var mvpUploads = 0
+        private set
+    var textureTransformUploads = 0
+        private set
+    val windowSurfaces = mutableMapOf<Long, Surface?>()
+    val closedContexts = mutableListOf<Long>()
+    var viewPortUpdates = 0
+        private set
+    var currentContext = 0L
+        private set
+
+    fun framesRenderedTo(context: Long) = renderedFrames.filter { it.context == context }
+
+    override fun initContext() = OUTPUT_CONTEXT
+
+    override fun initAdditionalContext(nativeContext: Long) = PREVIEW_CONTEXT
+
+    override fun setWindowSurface(nativeContext: Long, surface: Surface?): Boolean {
+        windowSurfaces[nativeContext] = surface
+        return true
+    }
+
+    override fun getTexName(nativeContext: Long) = TEX_NAME
+
+    override fun makeCurrent(nativeContext: Long): Boolean {
+        currentContext = nativeContext
+        return true
+    }
+
+    override fun setViewPort(width: Int, height: Int) {
+        viewPortUpdates++
+    }
+
+    override fun renderTexture(
+        nativeContext: Long,
+        timestampNs: Long,
+        mvpTransform: FloatArray,
+        mvpDirty: Boolean,
+        textureTransform: FloatArray,
+        textureTransformDirty: Boolean,
+        texName: Int
+    ): Boolean {
+        framesRendered++
+        if (mvpDirty) mvpUploads++
+        if (textureTransformDirty) textureTransformUploads++
+        if (recordFrames) {
+            renderedFrames += RenderedFrame(nativeContext, timestampNs, mvpDirty, textureTransformDirty)
+        }
+        return true
+    }
+
+    override fun closeContext(nativeContext: Long) {
+        closedContexts += nativeContext
+    }
+
+    override fun closeAdditionalContext(nativeContext: Long) {
+        closedContexts += nativeContext
+    }
+
+    companion object {
+        const val OUTPUT_CONTEXT = 1L
+        const val PREVIEW_CONTEXT = 2L
+        const val TEX_NAME = 7
+    }
+}
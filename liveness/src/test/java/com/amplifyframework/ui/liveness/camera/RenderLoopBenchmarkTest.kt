@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import android.util.Size
+import android.view.Surface
+import com.amplifyframework.ui.liveness.testUtil.ThreadAllocations
+import io.kotest.matchers.longs.shouldBeLessThan
+import io.kotest.matchers.shouldBe
+import io.mockk.mockk
+import java.io.File
+import java.util.Locale
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+import org.robolectric.annotation.Config
+
+/**
+ * Measures the renderer's per-frame work (transform tracking, MVP updates and backend calls)
+ * without a GPU, by counting the work done and the bytes allocated. Frames with a changing transform
+ * miss the transform cache and are compared with steady frames that hit it. The counts and the time
+ * per frame are written as JSON to build/benchmarks/render-loop.json. The time is not asserted, as
+ * Robolectric stands in for the framework.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [28], manifest = Config.NONE)
+class RenderLoopBenchmarkTest {
+
+    private val backend = RecordingRenderBackend().apply { recordFrames = false }
+    private val renderer = OpenGLRenderer(backend)
+    private var timestampNs = 1_000_000_000L
+
+    @Before
+    fun setup() {
+        renderer.attachOutputSurface(mockk<Surface>(), Size(480, 640), 0)
+        renderer.attachPreviewSurface(mockk<Surface>(), Size(480, 640), 0)
+        shadowOf(renderer.looper).idle()
+        renderer.setPreviewSize(Size(640, 480))
+        // Computes the MVP for the attached surfaces, so the measured frames start from a cached transform
+        renderFrames(1) { TRANSFORMS[1] }
+    }
+
+    @Test
+    fun `steady state frames skip transform work`() {
+        val uncached = measureWork("uncached") { TRANSFORMS[it % 2] }
+        val cached = measureWork("cached") { TRANSFORMS[0] }
+
+        // A changed transform is checked and uploaded once per frame, however many surfaces the frame is drawn to
+        uncached.framesRendered shouldBe 2 * MEASURED_FRAMES
+        uncached.textureTransformUploads shouldBe MEASURED_FRAMES
+        uncached.rotationChecks shouldBe MEASURED_FRAMES
+        // Only the first frame of the steady transform misses the cache
+        cached.framesRendered shouldBe 2 * MEASURED_FRAMES
+        cached.textureTransformUploads shouldBe 1
+        cached.rotationChecks shouldBe 1
+        // The transforms share a rotation, so neither recomputes the MVP
+        uncached.mvpUpdates shouldBe 0
+        cached.mvpUpdates shouldBe 0
+
+        val output = File("build/benchmarks/render-loop.json")
+        output.parentFile?.mkdirs()
+        output.writeText("{\"results\":[${uncached.toJson()},${cached.toJson()}]}")
+    }
+
+    @Test
+    fun `steady state frames do not allocate`() {
+        renderFrames(WARMUP_FRAMES) { TRANSFORMS[0] }
+
+        val bytes = ThreadAllocations.measure { renderFrames(MEASURED_FRAMES) { TRANSFORMS[0] } }
+
+        bytes shouldBeLessThan ALLOCATION_TOLERANCE_BYTES
+    }
+
+    private data class Work(
+        val name: String,
+        val framesRendered: Int,
+        val textureTransformUploads: Int,
+        val rotationChecks: Int,
+        val mvpUpdates: Int,
+        val nanosPerFrame: Long
+    ) {
+        fun toJson() = buildString {
+            append("{\"name\":\"").append(name).append("\",")
+            append("\"frames\":").append(MEASURED_FRAMES).append(',')
+            append("\"framesRendered\":").append(framesRendered).append(',')
+            append("\"textureTransformUploadsPerFrame\":").append(perFrame(textureTransformUploads)).append(',')
+            append("\"rotationChecksPerFrame\":").append(perFrame(rotationChecks)).append(',')
+            append("\"mvpUpdatesPerFrame\":").append(perFrame(mvpUpdates)).append(',')
+            append("\"nanosPerFrame\":").append(nanosPerFrame)
+            append('}')
+        }
+
+        private fun perFrame(count: Int) = String.format(Locale.ROOT, "%.4f", count.toDouble() / MEASURED_FRAMES)
+    }
+
+    private fun measureWork(name: String, transform: (Int) -> FloatArray): Work {
+        val framesBefore = backend.framesRendered
+        val uploadsBefore = backend.textureTransformUploads
+        val rotationChecksBefore = renderer.rotationChecks
+        val mvpUpdatesBefore = renderer.mvpUpdates
+        val start = System.nanoTime()
+        renderFrames(MEASURED_FRAMES, transform)
+        val nanosPerFrame = (System.nanoTime() - start) / MEASURED_FRAMES
+        return Work(
+            name = name,
+            framesRendered = backend.framesRendered - framesBefore,
+            textureTransformUploads = backend.textureTransformUploads - uploadsBefore,
+            rotationChecks = renderer.rotationChecks - rotationChecksBefore,
+            mvpUpdates = renderer.mvpUpdates - mvpUpdatesBefore,
+            nanosPerFrame = nanosPerFrame
+        )
+    }
+
+    private inline fun renderFrames(count: Int, transform: (Int) -> FloatArray) {
+        repeat(count) {
+            timestampNs += FRAME_INTERVAL_NS
+            renderer.renderFrame(timestampNs, transform(it))
+        }
+    }
+
+    companion object {
+        private const val WARMUP_FRAMES = 2_000
+        private const val MEASURED_FRAMES = 10_000
+        private const val FRAME_INTERVAL_NS = 33_333_333L
+        private const val ALLOCATION_TOLERANCE_BYTES = 1_024L
+
+        // Same rotation with a different crop, so alternating them misses the cache without changing the MVP
+        private val TRANSFORMS = arrayOf(
+            floatArrayOf(1f, 0f, 0f, 0f, 0f, -1f, 0f, 0f, 0f, 0f, 1f, 0f, 0f, 1f, 0f, 1f),
+            floatArrayOf(0.9f, 0f, 0f, 0f, 0f, -0.9f, 0f, 0f, 0f, 0f, 1f, 0f, 0.05f, 0.95f, 0f, 1f)
+        )
+    }
+}
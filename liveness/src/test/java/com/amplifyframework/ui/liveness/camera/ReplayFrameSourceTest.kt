@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.longs.shouldBeGreaterThanOrEqual
+import io.kotest.matchers.shouldBe
+import java.io.ByteArrayInputStream
+import java.io.EOFException
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import org.junit.Test
+
+internal class ReplayFrameSourceTest {
+
+    @Test
+    fun `raw frames are read back to back`() {
+        val bytes = ByteArray(FRAME_SIZE * 3) { (it / FRAME_SIZE).toByte() }
+
+        val frames = ReplayFrameSource.readRawFrames(ByteArrayInputStream(bytes), WIDTH, HEIGHT, framesPerSecond = 10)
+
+        frames.map { it.pixels.get(0).toInt() } shouldContainExactly listOf(0, 1, 2)
+        frames.map { it.timestampNanos } shouldContainExactly listOf(0L, 100_000_000L, 200_000_000L)
+        frames.map { it.pixels.remaining() } shouldContainExactly List(3) { FRAME_SIZE }
+    }
+
+    @Test
+    fun `truncated raw frame fails to read`() {
+        shouldThrow<EOFException> {
+            ReplayFrameSource.readRawFrames(ByteArrayInputStream(ByteArray(FRAME_SIZE + 1)), WIDTH, HEIGHT)
+        }
+    }
+
+    @Test
+    fun `frames are replayed repeatedly from the start of their pixels`() {
+        val source = ReplayFrameSource(frames(2), repeatCount = 3)
+        val remaining = mutableListOf<Int>()
+
+        val delivered = source.replay {
+            remaining += it.pixels.remaining()
+            it.pixels.position(it.pixels.limit())
+        }
+
+        delivered shouldBe 6
+        remaining shouldContainExactly List(6) { FRAME_SIZE }
+    }
+
+    @Test
+    fun `frames are paced at the configured rate`() {
+        val source = ReplayFrameSource(frames(5), framesPerSecond = 100)
+
+        val start = System.nanoTime()
+        source.replay { }
+
+        // The first frame is delivered immediately, the rest 10ms apart
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) shouldBeGreaterThanOrEqual 40L
+    }
+
+    @Test
+    fun `started source replays in the background until complete`() {
+        val completed = CountDownLatch(1)
+        var delivered = 0
+        val source = ReplayFrameSource(frames(4), onComplete = { completed.countDown() })
+
+        source.start { delivered++ }
+
+        completed.await(1, TimeUnit.SECONDS) shouldBe true
+        delivered shouldBe 4
+        source.stop()
+    }
+
+    @Test
+    fun `stopped source delivers no more frames`() {
+        val firstFrame = CountDownLatch(1)
+        var delivered = 0
+        val source = ReplayFrameSource(frames(1_000), framesPerSecond = 100)
+
+        source.start {
+            delivered++
+            firstFrame.countDown()
+        }
+        firstFrame.await(1, TimeUnit.SECONDS)
+        source.stop()
+        val deliveredAtStop = delivered
+
+        Thread.sleep(50)
+        delivered shouldBe deliveredAtStop
+    }
+
+    private fun frames(count: Int) = ReplayFrameSource.readRawFrames(
+        ByteArrayInputStream(ByteArray(FRAME_SIZE * count)),
+        WIDTH,
+        HEIGHT
+    )
+
+    companion object {
+        private const val WIDTH = 4
+        private const val HEIGHT = 2
+        private const val FRAME_SIZE = WIDTH * HEIGHT * 4
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.camera
+
+import android.media.MediaCodec
+import android.media.MediaFormat
+import android.view.Surface
+import androidx.test.core.app.ApplicationProvider
+import com.amplifyframework.predictions.aws.models.FaceTargetChallenge
+import com.amplifyframework.predictions.models.FaceLivenessChallengeType
+import com.amplifyframework.predictions.models.FaceLivenessSession
+import com.amplifyframework.ui.liveness.media.LivenessVideoEncoder
+import com.amplifyframework.ui.liveness.media.VideoCodec
+import com.amplifyframework.ui.liveness.state.LivenessState
+import com.amplifyframework.ui.liveness.testUtil.ScriptedFaceDetectionInterpreter
+import com.amplifyframework.ui.liveness.util.ResourceLedger
+import io.kotest.matchers.collections.shouldBeEmpty
+import io.kotest.matchers.collections.shouldContain
+import io.kotest.matchers.ints.shouldBeLessThanOrEqual
+import io.kotest.matchers.shouldBe
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.mockkStatic
+import io.mockk.unmockkStatic
+import io.mockk.verify
+import java.nio.ByteBuffer
+import java.util.concurrent.Executors
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.robolectric.shadows.ShadowMediaCodec
+import org.robolectric.shadows.ShadowSurface
+
+/**
+ * Runs the analysis, state and encoder of many sessions in a row, releasing them the way LivenessCoordinator.destroy
+ * does, to check that sessions do not leave threads or native resources behind
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(
+    sdk = [28],
+    manifest = Config.NONE,
+    shadows = [
+        ShadowMediaCodec::class,
+        ShadowSurface::class
+    ]
+)
+internal class SessionResourcesTest {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private val mockCodec = mockk<MediaCodec>(relaxed = true)
+    private val mockSurface = mockk<Surface>(relaxed = true)
+    private val faceTargetChallenge = mockk<FaceTargetChallenge>(relaxed = true) {
+        every { faceTargetMatching.faceDetectionThreshold } returns 0.7f
+        every { faceTargetMatching.ovalFitTimeout } returns OVAL_FIT_TIMEOUT_MILLIS
+        every { targetCenterX } returns LivenessCoordinator.TARGET_WIDTH / 2f
+        every { targetCenterY } returns LivenessCoordinator.TARGET_HEIGHT / 2f
+        every { targetWidth } returns LivenessCoordinator.TARGET_WIDTH / 2f
+        every { targetHeight } returns LivenessCoordinator.TARGET_HEIGHT / 2f
+    }
+    private val frames = List(3) { index -> checkerboardFrame(index) }
+
+    @Before
+    fun setup() {
+        mockkStatic(MediaCodec::class)
+        mockkStatic(MediaFormat::class)
+        every { MediaCodec.createEncoderByType(any()) } returns mockCodec
+        every { mockCodec.createInputSurface() } returns mockSurface
+    }
+
+    @After
+    fun teardown() {
+        unmockkStatic(MediaCodec::class)
+        unmockkStatic(MediaFormat::class)
+    }
+
+    @Test
+    fun `sequential sessions release their threads and native resources`() {
+        // The first session loads classes and starts any threads the test environment keeps for itself
+        runSession()
+        val baselineThreads = awaitThreadCount(Int.MAX_VALUE)
+
+        repeat(SESSIONS) { runSession() }
+
+        awaitThreadCount(baselineThreads) shouldBeLessThanOrEqual baselineThreads
+        verify(exactly = SESSIONS + 1) { mockCodec.release() }
+        verify(exactly = SESSIONS + 1) { mockSurface.release() }
+    }
+
+    private fun runSession() {
+        val resources = ResourceLedger(failOnLeak = true)
+        val analysisExecutor = resources.register("analysis executor", Executors.newSingleThreadExecutor()) {
+            it.shutdown()
+        }.value
+        val livenessState = createLivenessState(resources)
+        val interpreter = ScriptedFaceDetectionInterpreter()
+        val analyzer = FrameAnalyzer(livenessState, interpreter, resources = resources)
+        val encoder = createEncoder(resources)
+
+        analysisExecutor.submit { ReplayFrameSource(frames).replay(analyzer::analyze) }.get()
+
+        // The face never fits the oval, so the state has started its oval fit timer
+        resources.liveResources shouldContain "liveness state timer"
+        resources.liveResources shouldContain "analysis bitmap"
+
+        livenessState.onDestroy(false)
+        runBlocking {
+            encoder.stop()
+            encoder.destroy()
+        }
+        analysisExecutor.submit { analyzer.close() }.get()
+        resources.releaseAll()
+        resources.checkForLeaks()
+
+        interpreter.closed shouldBe true
+        resources.liveResources.shouldBeEmpty()
+    }
+
+    // Threads stop shortly after they are released, so this waits for the count to settle
+    private fun awaitThreadCount(expected: Int): Int {
+        val deadline = System.currentTimeMillis() + THREAD_EXIT_TIMEOUT_MILLIS
+        var count = liveThreadCount()
+        while (count > expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10)
+            count = liveThreadCount()
+        }
+        return count
+    }
+
+    private fun liveThreadCount() = Thread.getAllStackTraces().keys.count { it.isAlive }
+
+    private fun createEncoder(resources: ResourceLedger) = LivenessVideoEncoder(
+        videoCodec = VideoCodec.H264,
+        outputFile = folder.newFile(),
+        width = LivenessCoordinator.TARGET_WIDTH,
+        height = LivenessCoordinator.TARGET_HEIGHT,
+        bitrate = LivenessCoordinator.TARGET_ENCODE_BITRATE,
+        keyframeInterval = LivenessCoordinator.TARGET_ENCODE_KEYFRAME_INTERVAL,
+        frameRate = LivenessCoordinator.TARGET_FPS_MAX,
+        onMuxedSegment = { _, _ -> },
+        onEncoderError = { },
+        onMuxerError = { },
+        resources = resources
+    )
+
+    private fun createLivenessState(resources: ResourceLedger) = LivenessState(
+        "sessionId",
+        ApplicationProvider.getApplicationContext(),
+        true,
+        { },
+        { _, _ -> },
+        { },
+        resources
+    ).apply {
+        onLivenessSessionReady(
+            FaceLivenessSession(
+                challengeId = "challengeId",
+                challengeType = FaceLivenessChallengeType.FaceMovementChallenge,
+                challenges = listOf(faceTargetChallenge),
+                onVideoEvent = { },
+                onChallengeResponseEvent = { },
+                stopLivenessSession = { }
+            )
+        )
+        initialFaceDistanceCheckPassed = true
+    }
+
+    // Textured skin tones, so frames pass the face presence and frame quality gates
+    private fun checkerboardFrame(index: Int): RgbaFrame {
+        val pixels = ByteBuffer.allocateDirect(FRAME_WIDTH * FRAME_HEIGHT * 4)
+        for (y in 0 until FRAME_HEIGHT) {
+            for (x in 0 until FRAME_WIDTH) {
+                val color = if ((x / CHECKER_SIZE + y / CHECKER_SIZE) % 2 == 0) LIGHT_SKIN else DARK_SKIN
+                pixels.put(color[0].toByte()).put(color[1].toByte()).put(color[2].toByte()).put(-1)
+            }
+        }
+        pixels.rewind()
+        return RgbaFrame(FRAME_WIDTH, FRAME_HEIGHT, 0, index * 1_000L, pixels)
+    }
+
+    companion object {
+        private const val SESSIONS = 50
+        private const val OVAL_FIT_TIMEOUT_MILLIS = 60_000
+        private const val THREAD_EXIT_TIMEOUT_MILLIS = 5_000L
+        private const val FRAME_WIDTH = 64
+        private const val FRAME_HEIGHT = 48
+        private const val CHECKER_SIZE = 4
+        private val LIGHT_SKIN = intArrayOf(224, 172, 140)
+        private val DARK_SKIN = intArrayOf(180, 130, 100)
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.geometry
+
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder.Companion.BOTTOM
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder.Companion.LEFT
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder.Companion.LEFT_EAR_X
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder.Companion.LEFT_EYE_X
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder.Companion.NUM_COORDS
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder.Companion.RIGHT
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder.Companion.RIGHT_EAR_X
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder.Companion.RIGHT_EYE_X
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder.Companion.SCORE
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder.Companion.TOP
+import com.amplifyframework.ui.liveness.ml.FaceDetectionModel
+import com.amplifyframework.ui.liveness.testUtil.ThreadAllocations
+import io.kotest.matchers.floats.plusOrMinus
+import io.kotest.matchers.floats.shouldBeGreaterThan
+import io.kotest.matchers.floats.shouldBeLessThan
+import io.kotest.matchers.longs.shouldBeLessThan
+import io.kotest.matchers.shouldBe
+import org.junit.Test
+
+class FaceDetectionDecoderTest {
+
+    private val model = FaceDetectionModel.SHORT_RANGE
+    private val decoder = model.createDecoder()
+    private val boxes = arrayOf(Array(model.outputLayout.numBoxes) { FloatArray(NUM_COORDS) })
+    private val scores = arrayOf(Array(model.outputLayout.numBoxes) { floatArrayOf(NO_FACE_SCORE) })
+
+    @Test
+    fun `no detections above the threshold`() {
+        decoder.decode(boxes, scores, THRESHOLD) shouldBe 0
+    }
+
+    @Test
+    fun `single detection is decoded relative to its anchor`() {
+        face(CENTER_ANCHOR, score = 10f)
+
+        decoder.decode(boxes, scores, THRESHOLD) shouldBe 1
+
+        // The center anchor is at (0.53125, 0.53125) and the box is 40 of 128 pixels wide
+        decoder.get(0, LEFT) shouldBe (48f plusOrMinus TOLERANCE)
+        decoder.get(0, TOP) shouldBe (48f plusOrMinus TOLERANCE)
+        decoder.get(0, RIGHT) shouldBe (88f plusOrMinus TOLERANCE)
+        decoder.get(0, BOTTOM) shouldBe (88f plusOrMinus TOLERANCE)
+        // The model reports the eye and ear on the left of the image first, which is the face's right
+        decoder.get(0, RIGHT_EYE_X) shouldBe (60f plusOrMinus TOLERANCE)
+        decoder.get(0, LEFT_EYE_X) shouldBe (76f plusOrMinus TOLERANCE)
+        decoder.get(0, RIGHT_EAR_X) shouldBe (50f plusOrMinus TOLERANCE)
+        decoder.get(0, LEFT_EAR_X) shouldBe (86f plusOrMinus TOLERANCE)
+        decoder.get(0, SCORE) shouldBe (0.99995f plusOrMinus 1e-5f)
+    }
+
+    @Test
+    fun `overlapping detections are merged weighted by score`() {
+        face(CENTER_ANCHOR, score = 4f)
+        // The next anchor to the right is 8 pixels away
+        face(CENTER_ANCHOR + 2, score = 4f)
+
+        decoder.decode(boxes, scores, THRESHOLD) shouldBe 1
+
+        decoder.get(0, LEFT) shouldBe (52f plusOrMinus TOLERANCE)
+        decoder.get(0, RIGHT) shouldBe (92f plusOrMinus TOLERANCE)
+    }
+
+    @Test
+    fun `higher scoring detections pull the merged face towards them`() {
+        face(CENTER_ANCHOR, score = 1f)
+        face(CENTER_ANCHOR + 2, score = 6f)
+
+        decoder.decode(boxes, scores, THRESHOLD) shouldBe 1
+
+        decoder.get(0, LEFT) shouldBeGreaterThan 52f
+        decoder.get(0, LEFT) shouldBeLessThan 56f
+    }
+
+    @Test
+    fun `separate detections are separate faces`() {
+        face(CENTER_ANCHOR, score = 10f)
+        face(CORNER_ANCHOR, score = 10f)
+
+        decoder.decode(boxes, scores, THRESHOLD) shouldBe 2
+    }
+
+    // A detection with no area has no overlap with itself, so suppression never removed it and looped forever
+    @Test(timeout = 1_000)
+    fun `detection without area is still decoded`() {
+        scores[0][CENTER_ANCHOR][0] = 10f
+
+        decoder.decode(boxes, scores, THRESHOLD) shouldBe 1
+
+        // It collapses to the center of its anchor
+        decoder.get(0, LEFT) shouldBe (68f plusOrMinus TOLERANCE)
+        decoder.get(0, RIGHT) shouldBe (68f plusOrMinus TOLERANCE)
+        decoder.get(0, SCORE) shouldBe (0.99995f plusOrMinus 1e-5f)
+    }
+
+    @Test(timeout = 1_000)
+    fun `detection without area does not merge with a face around it`() {
+        face(CENTER_ANCHOR, score = 4f)
+        scores[0][CENTER_ANCHOR + 2][0] = 10f
+
+        decoder.decode(boxes, scores, THRESHOLD) shouldBe 2
+    }
+
+    @Test
+    fun `decoding does not allocate`() {
+        face(CENTER_ANCHOR, score = 4f)
+        face(CENTER_ANCHOR + 2, score = 6f)
+        face(CORNER_ANCHOR, score = 10f)
+        repeat(WARMUP_FRAMES) { decoder.decode(boxes, scores, THRESHOLD) }
+
+        val bytes = ThreadAllocations.measure {
+            repeat(MEASURED_FRAMES) { decoder.decode(boxes, scores, THRESHOLD) }
+        }
+
+        bytes shouldBeLessThan ALLOCATION_TOLERANCE_BYTES
+    }
+
+    private fun face(anchor: Int, score: Float) {
+        scores[0][anchor][0] = score
+        floatArrayOf(
+            0f, 0f, 40f, 40f, // box
+            -8f, -6f, 8f, -6f, // eyes
+            0f, 0f, // nose
+            0f, 10f, // mouth
+            -18f, -2f, 18f, -2f // ears
+        ).copyInto(boxes[0][anchor])
+    }
+
+    companion object {
+        private const val NO_FACE_SCORE = -100f
+        private const val THRESHOLD = 0.7f
+        private const val TOLERANCE = 1e-3f
+
+        // Anchors of the stride 8 grid, which has two anchors per cell
+        private const val CENTER_ANCHOR = (8 * 16 + 8) * 2
+        private const val CORNER_ANCHOR = (2 * 16 + 2) * 2
+
+        private const val WARMUP_FRAMES = 1_000
+        private const val MEASURED_FRAMES = 1_000
+        private const val ALLOCATION_TOLERANCE_BYTES = 1_024L
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.geometry
+
+import com.amplifyframework.ui.liveness.geometry.FaceGeometry.OvalPosition
+import io.kotest.matchers.floats.plusOrMinus
+import io.kotest.matchers.shouldBe
+import org.junit.Test
+
+class FaceGeometryTest {
+
+    @Test
+    fun `intersection over union of overlapping rectangles`() {
+        // 50x100 overlap of two 100x100 rectangles
+        FaceGeometry.intersectionOverUnion(0f, 0f, 100f, 100f, 50f, 0f, 150f, 100f) shouldBe (1f / 3f plusOrMinus 1e-6f)
+        FaceGeometry.intersectionOverUnion(0f, 0f, 100f, 100f, 0f, 0f, 100f, 100f) shouldBe 1f
+        FaceGeometry.intersectionOverUnion(0f, 0f, 100f, 100f, 100f, 0f, 200f, 100f) shouldBe 0f
+    }
+
+    @Test
+    fun `overlap similarity matches intersection over union`() {
+        FaceGeometry.overlapSimilarity(0f, 0f, 100f, 100f, 50f, 0f, 150f, 100f) shouldBe (1f / 3f plusOrMinus 1e-6f)
+        FaceGeometry.overlapSimilarity(0f, 0f, 100f, 100f, 100f, 0f, 200f, 100f) shouldBe 0f
+        // Empty rectangles never overlap
+        FaceGeometry.overlapSimilarity(10f, 10f, 10f, 10f, 10f, 10f, 10f, 10f) shouldBe 0f
+    }
+
+    @Test
+    fun `face position relative to the oval`() {
+        ovalPosition(100f, 100f, 300f, 400f) shouldBe OvalPosition.MATCHED
+        ovalPosition(20f, 100f, 220f, 400f) shouldBe OvalPosition.TOO_FAR_LEFT
+        ovalPosition(180f, 100f, 380f, 400f) shouldBe OvalPosition.TOO_FAR_RIGHT
+        ovalPosition(50f, 20f, 350f, 480f) shouldBe OvalPosition.TOO_CLOSE
+        ovalPosition(150f, 200f, 250f, 320f) shouldBe OvalPosition.TOO_FAR
+    }
+
+    @Test
+    fun `face match percentage is scaled between the initial and target iou`() {
+        // The face starts with no overlap and the target is an iou of 0.7
+        matchPercentage(100f, 100f, 300f, 400f, initialIou = 0f) shouldBe 1f
+        matchPercentage(400f, 100f, 600f, 400f, initialIou = 0f) shouldBe 0.25f
+        matchPercentage(400f, 100f, 600f, 400f, initialIou = 0.5f) shouldBe 0f
+    }
+
+    @Test
+    fun `mirroring flips x within the view`() {
+        FaceGeometry.mirrorX(0f, 480) shouldBe 479f
+        FaceGeometry.mirrorX(479f, 480) shouldBe 0f
+        FaceGeometry.mirrorX(100.5f, 480) shouldBe 378.5f
+    }
+
+    @Test
+    fun `face distance is relative to the static oval width`() {
+        val distance = FaceGeometry.faceDistance(
+            0.668633f, 0.48738188f,
+            0.35714725f, 0.46644497f,
+            0.5062596f, 0.68926525f,
+            1,
+            1
+        )
+
+        distance shouldBe (0.31462398f plusOrMinus 1e-6f)
+    }
+
+    private fun ovalPosition(left: Float, top: Float, right: Float, bottom: Float) = FaceGeometry.ovalPosition(
+        left, top, right, bottom,
+        OVAL_LEFT, OVAL_TOP, OVAL_RIGHT, OVAL_BOTTOM,
+        targetIouThreshold = 0.7f,
+        targetIouWidthThreshold = 0.25f,
+        targetIouHeightThreshold = 0.25f,
+        faceIouWidthThreshold = 0.15f,
+        faceIouHeightThreshold = 0.15f
+    )
+
+    private fun matchPercentage(left: Float, top: Float, right: Float, bottom: Float, initialIou: Float) =
+        FaceGeometry.faceMatchPercentage(
+            left, top, right, bottom,
+            OVAL_LEFT, OVAL_TOP, OVAL_RIGHT, OVAL_BOTTOM,
+            targetIouThreshold = 0.7f,
+            initialIou = initialIou
+        )
+
+    companion object {
+        private const val OVAL_LEFT = 100f
+        private const val OVAL_TOP = 100f
+        private const val OVAL_RIGHT = 300f
+        private const val OVAL_BOTTOM = 400f
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.media
+
+import android.media.MediaCodec
+import android.os.Bundle
+import com.amplifyframework.ui.liveness.testUtil.MockEncoderRule
+import com.amplifyframework.ui.liveness.testUtil.ThreadAllocations
+import io.kotest.matchers.longs.shouldBeLessThan
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import io.mockk.excludeRecords
+import io.mockk.verify
+import java.io.File
+import kotlinx.coroutines.runBlocking
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.robolectric.shadows.ShadowMediaCodec
+import org.robolectric.shadows.ShadowSurface
+import androidx.media3.muxer.BufferInfo as Media3BufferInfo
+
+@RunWith(RobolectricTestRunner::class)
+@Config(
+    sdk = [28],
+    manifest = Config.NONE,
+    shadows = [
+        ShadowMediaCodec::class,
+        ShadowSurface::class
+    ]
+)
+internal class EncoderAllocationTest {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    @get:Rule
+    val encoders = MockEncoderRule(SAMPLE_SIZE, FRAME_RATE)
+
+    private lateinit var outputFile: File
+    private val info = MediaCodec.BufferInfo()
+
+    // Keeps baseline BufferInfo instances reachable so they are not optimized away
+    private val bufferInfos = arrayOfNulls<Media3BufferInfo>(FRAME_COUNT)
+    private val baselineBundle = Bundle()
+
+    @Before
+    fun setup() {
+        outputFile = folder.newFile()
+    }
+
+    @Test
+    fun `steady state frames do not allocate`() {
+        val encoder = startEncoder()
+        val codec = encoders.codec
+
+        // The codec calls are mocked, so they are excluded from recording and measured separately below
+        excludeRecords {
+            codec.getOutputBuffer(any())
+            codec.releaseOutputBuffer(any<Int>(), any<Boolean>())
+            codec.setParameters(any())
+        }
+
+        // Warm up: the first keyframe creates the muxer
+        encoders.drive(encoder, 0, MediaCodec.BUFFER_FLAG_KEY_FRAME)
+        repeat(WARMUP_FRAMES) { encoders.drive(encoder, it) }
+        repeat(WARMUP_FRAMES) { driveBaseline(it) }
+
+        // Allocations that are outside of our control: the mocked codec calls, and the one known exception in the
+        // encoder itself. FragmentedMp4Muxer takes an immutable media3 BufferInfo for every sample and holds it until
+        // the fragment is written, so it cannot be reused and the baseline allocates one per frame as well.
+        val baselineBytes = ThreadAllocations.measure {
+            repeat(FRAME_COUNT) { driveBaseline(it) }
+        }
+        encoder.framesSinceSyncRequest = 0
+        val encoderBytes = ThreadAllocations.measure {
+            repeat(FRAME_COUNT) { encoders.drive(encoder, it) }
+        }
+
+        (encoderBytes - baselineBytes) shouldBeLessThan ALLOCATION_TOLERANCE_BYTES
+        outputFile.length() shouldBe (1L + WARMUP_FRAMES + FRAME_COUNT) * SAMPLE_SIZE
+
+        runBlocking { encoder.stop(); encoder.destroy() }
+    }
+
+    @Test
+    fun `sync frame requests reuse the same parameters`() {
+        val encoder = startEncoder()
+
+        encoders.drive(encoder, 0, MediaCodec.BUFFER_FLAG_KEY_FRAME)
+        repeat(FRAME_RATE * 3) { encoders.drive(encoder, it) }
+
+        val requests = mutableListOf<Bundle>()
+        verify(exactly = 4) { encoders.codec.setParameters(capture(requests)) }
+        requests.forEach { it shouldBeSameInstanceAs requests.first() }
+
+        runBlocking { encoder.stop(); encoder.destroy() }
+    }
+
+    @Test
+    fun `sync frames follow the delivered frame rate`() {
+        val encoder = startEncoder()
+        encoder.setFrameRate(FRAME_RATE / 2)
+
+        encoders.drive(encoder, 0, MediaCodec.BUFFER_FLAG_KEY_FRAME)
+        repeat(FRAME_RATE * 3) { encoders.drive(encoder, it) }
+
+        // One request from start() and one every half second of frames
+        verify(exactly = 7) { encoders.codec.setParameters(any()) }
+
+        runBlocking { encoder.stop(); encoder.destroy() }
+    }
+
+    private fun startEncoder() = encoders.createEncoder(outputFile).also { encoders.startEncoding(it) }
+
+    private fun driveBaseline(frame: Int) {
+        info.set(0, SAMPLE_SIZE, frame * FRAME_DURATION_US, 0)
+        encoders.codec.getOutputBuffer(0)
+        bufferInfos[frame % bufferInfos.size] = Media3BufferInfo(info.presentationTimeUs, info.size, info.flags)
+        if ((frame + 1) % FRAME_RATE == 0) {
+            encoders.codec.setParameters(baselineBundle)
+        }
+        encoders.codec.releaseOutputBuffer(0, false)
+    }
+
+    companion object {
+        private const val SAMPLE_SIZE = 512
+        private const val FRAME_RATE = 24
+        private const val FRAME_DURATION_US = 1_000_000L / FRAME_RATE
+        private const val WARMUP_FRAMES = 200
+        private const val FRAME_COUNT = 1_000
+
+        // Absorbs one-off allocations by the JVM or mockk during the measured run. Allocating even the smallest
+        // object on every frame would exceed it many times over.
+        private const val ALLOCATION_TOLERANCE_BYTES = 1_024L
+    }
+}
@@ -16,6 +16,7 @@
 package com.amplifyframework.ui.liveness.media
 
 import android.media.MediaCodec
+import android.media.MediaFormat
 import com.amplifyframework.logging.Logger
 import io.mockk.every
 import io.mockk.mockk
@@ -27,14 +28,16 @@ class EncoderRuntimeFailureHandlingTest {
 
     private lateinit var callback: EncoderCallback
     private lateinit var mockOnError: (MediaCodec.CodecException) -> Unit
+    private lateinit var mockOnFormat: (MediaFormat) -> Unit
     private lateinit var mockLogger: Logger
 
     @Before
     fun createCallback() {
-        val mockHandleFrame = mockk<(Int, MediaCodec.BufferInfo) -> Unit>()
+        val mockHandleFrame = mockk<EncodedFrameHandler>()
         mockOnError = mockk<(MediaCodec.CodecException) -> Unit>(relaxed = true)
+        mockOnFormat = mockk<(MediaFormat) -> Unit>(relaxed = true)
         mockLogger = mockk<Logger>(relaxed = true)
-        callback = EncoderCallback(mockHandleFrame, mockOnError, mockLogger)
+        callback = EncoderCallback(mockHandleFrame, mockOnFormat, mockOnError, mockLogger)
     }
 
     @Test
@@ -58,4 +61,12 @@ class EncoderRuntimeFailureHandlingTest {
         verify(exactly = 1) { mockOnError(fatalError) }
         verify { mockLogger.error(any(), fatalError) }
     }
+
+    @Test
+    fun `callback forwards output format changes`() {
+        val format = mockk<MediaFormat>()
+        callback.onOutputFormatChanged(mockk(), format)
+
+        verify(exactly = 1) { mockOnFormat(format) }
+    }
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.media
+
+import android.media.MediaCodec
+import com.amplifyframework.ui.liveness.testUtil.MockEncoderRule
+import com.amplifyframework.ui.liveness.testUtil.TestMuxer
+import io.kotest.matchers.longs.shouldBeLessThan
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.shouldNotBe
+import io.mockk.mockk
+import io.mockk.verify
+import java.io.File
+import java.util.concurrent.TimeUnit
+import kotlinx.coroutines.runBlocking
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.robolectric.shadows.ShadowMediaCodec
+import org.robolectric.shadows.ShadowSurface
+
+@RunWith(RobolectricTestRunner::class)
+@Config(
+    sdk = [28],
+    manifest = Config.NONE,
+    shadows = [
+        ShadowMediaCodec::class,
+        ShadowSurface::class
+    ]
+)
+internal class MuxerPrewarmTest {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    @get:Rule
+    val encoders = MockEncoderRule(SAMPLE_SIZE, FRAME_RATE)
+
+    private lateinit var outputFile: File
+    private val outputFormat get() = encoders.outputFormat
+    private var muxersCreated = 0
+
+    // Simulates the file and muxer setup cost that prewarming moves off the first keyframe
+    private val slowMuxerFactory: (VideoCodec) -> LivenessMuxer = {
+        Thread.sleep(MUXER_CREATION_DELAY_MS)
+        muxersCreated++
+        Mp4Muxer(createMediaMuxer = { stream -> TestMuxer(stream) })
+    }
+
+    @Before
+    fun setup() {
+        outputFile = folder.newFile()
+    }
+
+    @Test
+    fun `muxer is created when the output format is available`() {
+        val encoder = createEncoder(slowMuxerFactory)
+
+        encoder.prepareMuxer(outputFormat)
+
+        muxersCreated shouldBe 1
+        encoder.muxerCreationAttempts shouldBe 1
+
+        // Keyframes received before recording starts do not create another muxer
+        encoder.handleFrame(0, keyframe(0))
+        muxersCreated shouldBe 1
+
+        runBlocking { encoder.stop(); encoder.destroy() }
+    }
+
+    @Test
+    fun `first keyframe after start is written without muxer setup`() {
+        var firstSegmentNanos = 0L
+        val encoder = createEncoder(slowMuxerFactory) { _, _ ->
+            if (firstSegmentNanos == 0L) firstSegmentNanos = System.nanoTime()
+        }
+        encoder.prepareMuxer(outputFormat)
+        startEncoding(encoder)
+
+        val keyframeNanos = System.nanoTime()
+        encoder.handleFrame(0, keyframe(0))
+        val firstKeyframeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - keyframeNanos)
+
+        // The mp4 muxer emits the first segment when the following keyframe arrives
+        for (frame in 1 until FRAME_RATE) {
+            encoder.handleFrame(0, frame(frame))
+        }
+        encoder.handleFrame(0, keyframe(FRAME_RATE))
+        firstSegmentNanos shouldNotBe 0L
+        val keyframeToSegmentMillis = TimeUnit.NANOSECONDS.toMillis(firstSegmentNanos - keyframeNanos)
+
+        muxersCreated shouldBe 1
+        firstKeyframeMillis shouldBeLessThan MUXER_CREATION_DELAY_MS
+        keyframeToSegmentMillis shouldBeLessThan MUXER_CREATION_DELAY_MS
+
+        runBlocking { encoder.stop(); encoder.destroy() }
+    }
+
+    @Test
+    fun `frames encoded before the first keyframe after start are not written`() {
+        val encoder = createEncoder(slowMuxerFactory)
+        encoder.prepareMuxer(outputFormat)
+        startEncoding(encoder)
+
+        // Frames already in the encoder when the sync frame was requested
+        for (frame in 0 until PENDING_FRAMES) {
+            encoder.handleFrame(0, frame(frame))
+        }
+        outputFile.length() shouldBe 0L
+
+        encoder.handleFrame(0, keyframe(PENDING_FRAMES))
+        encoder.handleFrame(0, frame(PENDING_FRAMES + 1))
+
+        outputFile.length() shouldBe 2L * SAMPLE_SIZE
+
+        runBlocking { encoder.stop(); encoder.destroy() }
+    }
+
+    @Test
+    fun `muxer is created on the first keyframe if the output format was not reported`() {
+        val encoder = createEncoder(slowMuxerFactory)
+        startEncoding(encoder)
+
+        encoder.handleFrame(0, keyframe(0))
+
+        muxersCreated shouldBe 1
+        outputFile.length() shouldBe SAMPLE_SIZE.toLong()
+
+        runBlocking { encoder.stop(); encoder.destroy() }
+    }
+
+    @Test
+    fun `muxer creation failure is reported before recording starts`() {
+        val onMuxerError = mockk<(Exception) -> Unit>(relaxed = true)
+        val encoder = createEncoder(
+            muxerFactory = { throw RuntimeException("Muxer creation failed") },
+            onMuxerError = onMuxerError
+        )
+
+        // Creation is retried on the keyframes the encoder produces while waiting for the challenge
+        encoder.prepareMuxer(outputFormat)
+        repeat(LivenessVideoEncoder.MAX_MUXER_CREATION_ATTEMPTS + 2) {
+            encoder.handleFrame(0, keyframe(it))
+        }
+
+        encoder.muxerCreationAttempts shouldBe LivenessVideoEncoder.MAX_MUXER_CREATION_ATTEMPTS
+        verify(exactly = 1) { onMuxerError(any()) }
+
+        runBlocking { encoder.stop(); encoder.destroy() }
+    }
+
+    @Test
+    fun `muxer is not recreated after stop`() {
+        val encoder = createEncoder(slowMuxerFactory)
+        encoder.prepareMuxer(outputFormat)
+
+        runBlocking { encoder.stop() }
+        encoder.prepareMuxer(outputFormat)
+        encoder.handleFrame(0, keyframe(0))
+
+        muxersCreated shouldBe 1
+
+        runBlocking { encoder.destroy() }
+    }
+
+    private fun createEncoder(
+        muxerFactory: (VideoCodec) -> LivenessMuxer,
+        onMuxerError: (Exception) -> Unit = { },
+        onMuxedSegment: (ByteArray, Long) -> Unit = { _, _ -> }
+    ) = encoders.createEncoder(outputFile, muxerFactory, onMuxerError, onMuxedSegment)
+
+    private fun startEncoding(encoder: LivenessVideoEncoder) = encoders.startEncoding(encoder)
+
+    private fun frame(index: Int, flags: Int = 0) = MediaCodec.BufferInfo().apply {
+        set(0, SAMPLE_SIZE, index * 1_000_000L / FRAME_RATE, flags)
+    }
+
+    private fun keyframe(index: Int) = frame(index, MediaCodec.BUFFER_FLAG_KEY_FRAME)
+
+    companion object {
+        private const val SAMPLE_SIZE = 512
+        private const val FRAME_RATE = 24
+        private const val MUXER_CREATION_DELAY_MS = 200L
+        private const val PENDING_FRAMES = 3
+    }
+}
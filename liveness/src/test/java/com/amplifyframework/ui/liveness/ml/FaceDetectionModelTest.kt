@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.ml
+
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder
+import com.amplifyframework.ui.liveness.geometry.FaceDetectionDecoder.AnchorConfig
+import io.kotest.matchers.shouldBe
+import io.mockk.every
+import io.mockk.justRun
+import io.mockk.mockk
+import io.mockk.verify
+import org.junit.Test
+import org.tensorflow.lite.DataType
+import org.tensorflow.lite.Interpreter
+import org.tensorflow.lite.Tensor
+
+class FaceDetectionModelTest {
+
+    private val model = FaceDetectionModel.SHORT_RANGE
+
+    @Test
+    fun `short range anchors match the model output`() {
+        model.anchorConfig.count(model.inputWidth, model.inputHeight) shouldBe model.outputLayout.numBoxes
+
+        val anchors = model.anchorConfig.generate(model.inputWidth, model.inputHeight)
+        // The first anchor is the center of the top left cell of the stride 8 feature map
+        anchors[0] shouldBe 0.5f / 16
+        anchors[1] shouldBe 0.5f / 16
+        // The last anchor is the center of the bottom right cell of the stride 16 feature map
+        anchors[anchors.size - 4] shouldBe 7.5f / 8
+        anchors[anchors.size - 3] shouldBe 7.5f / 8
+    }
+
+    @Test
+    fun `anchors scale with the model input size`() {
+        // A full range style 192x192 input with a single stride 4 layer
+        AnchorConfig(strides = intArrayOf(4), anchorsPerLayer = 1).count(192, 192) shouldBe 48 * 48
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun `decoder rejects an output layout that does not match the anchors`() {
+        val mismatched = FaceDetectionDecoder.OutputLayout(
+            numBoxes = 2304,
+            xScale = 128f,
+            yScale = 128f,
+            wScale = 128f,
+            hScale = 128f
+        )
+
+        FaceDetectionDecoder(model.inputWidth, model.inputHeight, model.anchorConfig, mismatched)
+    }
+
+    @Test
+    fun `float model is accepted with a float input`() {
+        LiteRtFaceDetectionInterpreter({ interpreter(DataType.FLOAT32) }, model).model shouldBe model
+    }
+
+    @Test
+    fun `quantized model is accepted with a uint8 input`() {
+        val quantized = quantizedModel()
+
+        LiteRtFaceDetectionInterpreter({ interpreter(DataType.UINT8) }, quantized).model shouldBe quantized
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun `model with a different input type is rejected`() {
+        LiteRtFaceDetectionInterpreter({ interpreter(DataType.FLOAT32) }, quantizedModel())
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun `model with a different input size is rejected`() {
+        LiteRtFaceDetectionInterpreter({ interpreter(DataType.FLOAT32, size = 192) }, model)
+    }
+
+    @Test
+    fun `changing the thread count reloads the interpreter`() {
+        val loaded = mutableListOf<Pair<Int, Interpreter>>()
+        val liteRtInterpreter = LiteRtFaceDetectionInterpreter(
+            { numThreads -> interpreter(DataType.FLOAT32).also { loaded += numThreads to it } },
+            model
+        )
+
+        liteRtInterpreter.setNumThreads(2)
+        liteRtInterpreter.setNumThreads(2)
+
+        loaded.map { it.first } shouldBe listOf(FaceDetectionInterpreter.DEFAULT_THREADS, 2)
+        verify { loaded[0].second.close() }
+    }
+
+    private fun quantizedModel() = FaceDetectionModel(
+        name = "short_range_int8",
+        assetName = "face_detection_short_range_int8.tflite",
+        inputWidth = model.inputWidth,
+        inputHeight = model.inputHeight,
+        anchorConfig = model.anchorConfig,
+        outputLayout = model.outputLayout,
+        quantized = true
+    )
+
+    private fun interpreter(inputType: DataType, size: Int = 128): Interpreter {
+        val input = mockk<Tensor> {
+            every { dataType() } returns inputType
+            every { shape() } returns intArrayOf(1, size, size, 3)
+        }
+        val output = mockk<Tensor> {
+            every { dataType() } returns DataType.FLOAT32
+        }
+        return mockk {
+            every { getInputTensor(0) } returns input
+            every { getOutputTensor(any()) } returns output
+            justRun { close() }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.ml
+
+import io.kotest.matchers.doubles.shouldBeGreaterThanOrEqual
+import io.kotest.matchers.shouldBe
+import java.nio.ByteBuffer
+import kotlin.random.Random
+import org.junit.Test
+
+class FacePresenceGateTest {
+
+    private val random = Random(7)
+
+    @Test
+    fun `gate finds every face and skips most empty scenes`() {
+        val gate = FacePresenceGate()
+        val faces = SKIN_TONES.flatMap { tone ->
+            FACE_SIZES.flatMap { size ->
+                listOf(0.3f, 0.6f).map { centerX -> frame(GREY_WALL) { drawFace(tone, size, centerX) } }
+            }
+        }
+        val empty = BACKGROUNDS.flatMap { background -> List(3) { frame(background) } }
+
+        val truePositives = faces.count { gate.mayContainFace(it, WIDTH, HEIGHT) }
+        val falsePositives = empty.count { gate.mayContainFace(it, WIDTH, HEIGHT) }
+        val recall = truePositives.toDouble() / faces.size
+        val precision = truePositives.toDouble() / (truePositives + falsePositives)
+
+        // A missed face delays the check, so every face must pass. Skin toned walls are expected to pass too.
+        recall shouldBe 1.0
+        precision shouldBeGreaterThanOrEqual 0.85
+    }
+
+    @Test
+    fun `frames without a face run the detector at the safety net interval`() {
+        val gate = FacePresenceGate(safetyNetInterval = 4)
+        val empty = frame(GREY_WALL)
+
+        val detections = List(12) { gate.shouldDetect(empty, WIDTH, HEIGHT, faceInPreviousFrame = false) }
+
+        detections.count { it } shouldBe 3
+        detections[3] shouldBe true
+    }
+
+    @Test
+    fun `detector keeps running while a face is found`() {
+        val gate = FacePresenceGate()
+        val empty = frame(GREY_WALL)
+
+        List(12) { gate.shouldDetect(empty, WIDTH, HEIGHT, faceInPreviousFrame = true) } shouldBe List(12) { true }
+    }
+
+    @Test
+    fun `frames too dark to judge pass the gate`() {
+        val gate = FacePresenceGate()
+
+        gate.mayContainFace(frame(intArrayOf(15, 15, 20)), WIDTH, HEIGHT) shouldBe true
+    }
+
+    @Test
+    fun `gate does not consume the frame pixels`() {
+        val pixels = frame(GREY_WALL)
+
+        FacePresenceGate().mayContainFace(pixels, WIDTH, HEIGHT)
+
+        pixels.position() shouldBe 0
+    }
+
+    private fun frame(background: IntArray, draw: ByteBuffer.() -> Unit = {}): ByteBuffer {
+        val pixels = ByteBuffer.allocateDirect(WIDTH * HEIGHT * 4)
+        repeat(WIDTH * HEIGHT) { pixel -> putNoisy(pixels, pixel, background) }
+        return pixels.apply(draw)
+    }
+
+    private fun ByteBuffer.drawFace(tone: IntArray, widthFraction: Float, centerX: Float) {
+        val radiusX = WIDTH * widthFraction / 2
+        val radiusY = radiusX * 1.3f
+        val cx = WIDTH * centerX
+        val cy = HEIGHT * 0.5f
+        for (y in 0 until HEIGHT) {
+            for (x in 0 until WIDTH) {
+                val dx = (x - cx) / radiusX
+                val dy = (y - cy) / radiusY
+                if (dx * dx + dy * dy <= 1f) putNoisy(this, y * WIDTH + x, tone)
+            }
+        }
+    }
+
+    private fun putNoisy(pixels: ByteBuffer, pixel: Int, color: IntArray) {
+        for (channel in 0 until 3) {
+            val value = color[channel] + random.nextInt(-NOISE, NOISE + 1)
+            pixels.put(pixel * 4 + channel, value.coerceIn(0, 255).toByte())
+        }
+        pixels.put(pixel * 4 + 3, -1)
+    }
+
+    companion object {
+        private const val WIDTH = 640
+        private const val HEIGHT = 480
+        private const val NOISE = 8
+
+        private val GREY_WALL = intArrayOf(128, 128, 128)
+        private val BACKGROUNDS = listOf(
+            GREY_WALL,
+            intArrayOf(40, 60, 160), // blue wall
+            intArrayOf(50, 120, 60), // plants
+            intArrayOf(200, 200, 205) // white wall
+        )
+        private val SKIN_TONES = listOf(
+            intArrayOf(232, 190, 172),
+            intArrayOf(198, 134, 66),
+            intArrayOf(141, 85, 36),
+            intArrayOf(90, 56, 40)
+        )
+
+        // Face width as a fraction of the frame width, from arm's length to close up
+        private val FACE_SIZES = listOf(0.2f, 0.35f, 0.5f)
+    }
+}
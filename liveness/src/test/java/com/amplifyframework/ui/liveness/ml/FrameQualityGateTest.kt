@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.ml
+
+import com.amplifyframework.ui.liveness.testUtil.ThreadAllocations
+import io.kotest.matchers.floats.plusOrMinus
+import io.kotest.matchers.floats.shouldBeGreaterThan
+import io.kotest.matchers.longs.shouldBeLessThan
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.shouldBe
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import org.junit.Test
+
+class FrameQualityGateTest {
+
+    private val gate = FrameQualityGate(SIZE, SIZE)
+
+    @Test
+    fun `textured frame is usable`() {
+        gate.check(uint8Image { x, y -> checker(x, y, 90, 170) }, floatInput = false).shouldBeNull()
+
+        gate.meanLuma shouldBe (130f plusOrMinus 1f)
+        gate.sharpness shouldBeGreaterThan 100f
+    }
+
+    @Test
+    fun `underexposed frame is too dark`() {
+        gate.check(uint8Image { x, y -> checker(x, y, 0, 12) }, floatInput = false) shouldBe
+            FrameQualityGate.Issue.TOO_DARK
+    }
+
+    @Test
+    fun `overexposed frame is too bright`() {
+        gate.check(uint8Image { x, y -> checker(x, y, 245, 255) }, floatInput = false) shouldBe
+            FrameQualityGate.Issue.TOO_BRIGHT
+    }
+
+    @Test
+    fun `dim frame with detail is still usable`() {
+        gate.check(uint8Image { x, y -> checker(x, y, 20, 60) }, floatInput = false).shouldBeNull()
+    }
+
+    @Test
+    fun `frame without detail is blurry`() {
+        // A smooth gradient, like a face smeared by motion blur
+        gate.check(uint8Image { x, _ -> 64 + x }, floatInput = false) shouldBe FrameQualityGate.Issue.BLURRY
+    }
+
+    @Test
+    fun `float input gives the same statistics as uint8 input`() {
+        val value = { x: Int, y: Int -> checker(x, y, 90, 170) + x % 7 }
+        gate.check(uint8Image(value), floatInput = false)
+        val meanLuma = gate.meanLuma
+        val sharpness = gate.sharpness
+
+        gate.check(floatImage(value), floatInput = true)
+
+        gate.meanLuma shouldBe (meanLuma plusOrMinus 1f)
+        gate.sharpness shouldBe (sharpness plusOrMinus sharpness * 0.05f)
+    }
+
+    @Test
+    fun `check does not change the buffer position`() {
+        val image = uint8Image { x, y -> checker(x, y, 90, 170) }
+
+        gate.check(image, floatInput = false)
+
+        image.position() shouldBe 0
+    }
+
+    @Test
+    fun `check does not allocate`() {
+        val image = floatImage { x, y -> checker(x, y, 90, 170) }
+        repeat(WARMUP_FRAMES) { gate.check(image, floatInput = true) }
+
+        val bytes = ThreadAllocations.measure {
+            repeat(MEASURED_FRAMES) { gate.check(image, floatInput = true) }
+        }
+
+        bytes shouldBeLessThan ALLOCATION_TOLERANCE_BYTES
+    }
+
+    private fun checker(x: Int, y: Int, dark: Int, light: Int) = if ((x / 8 + y / 8) % 2 == 0) dark else light
+
+    // Grey RGB images with the given value per pixel
+    private fun uint8Image(value: (x: Int, y: Int) -> Int): ByteBuffer {
+        val image = ByteBuffer.allocateDirect(SIZE * SIZE * 3)
+        for (y in 0 until SIZE) {
+            for (x in 0 until SIZE) {
+                val grey = value(x, y).toByte()
+                image.put(grey).put(grey).put(grey)
+            }
+        }
+        return image.rewind() as ByteBuffer
+    }
+
+    private fun floatImage(value: (x: Int, y: Int) -> Int): ByteBuffer {
+        val image = ByteBuffer.allocateDirect(SIZE * SIZE * 3 * Float.SIZE_BYTES).order(ByteOrder.nativeOrder())
+        for (y in 0 until SIZE) {
+            for (x in 0 until SIZE) {
+                val grey = value(x, y) / 255f
+                image.putFloat(grey).putFloat(grey).putFloat(grey)
+            }
+        }
+        return image.rewind() as ByteBuffer
+    }
+
+    companion object {
+        private const val SIZE = 128
+        private const val WARMUP_FRAMES = 100
+        private const val MEASURED_FRAMES = 1_000
+
+        // Allows for the measurement itself, far below one frame's buffers
+        private const val ALLOCATION_TOLERANCE_BYTES = 1_024L
+    }
+}
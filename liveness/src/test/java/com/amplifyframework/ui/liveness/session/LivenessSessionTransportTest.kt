@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.session
+
+import androidx.test.core.app.ApplicationProvider
+import com.amplifyframework.predictions.PredictionsException
+import com.amplifyframework.predictions.aws.models.ColorChallenge
+import com.amplifyframework.predictions.aws.models.FaceTargetChallenge
+import com.amplifyframework.predictions.models.FaceLivenessChallengeType
+import com.amplifyframework.predictions.models.FaceLivenessSession
+import com.amplifyframework.predictions.models.FaceLivenessSessionInformation
+import com.amplifyframework.predictions.models.VideoEvent
+import com.amplifyframework.ui.liveness.state.LivenessState
+import com.amplifyframework.ui.liveness.testUtil.FakeLivenessSessionTransport
+import com.amplifyframework.ui.liveness.util.WebSocketCloseCode
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.longs.shouldBeGreaterThanOrEqual
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import io.mockk.mockk
+import java.util.Date
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+import org.junit.After
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+internal class LivenessSessionTransportTest {
+
+    private val faceTargetChallenge = mockk<FaceTargetChallenge>(relaxed = true)
+    private val colorChallenge = mockk<ColorChallenge>(relaxed = true)
+    private val sessionInformation = mockk<FaceLivenessSessionInformation>()
+
+    private var transport = FakeLivenessSessionTransport()
+
+    @After
+    fun tearDown() {
+        transport.shutdown()
+    }
+
+    @Test
+    fun `scripted challenges are delivered to the liveness state`() {
+        transport = FakeLivenessSessionTransport(
+            FakeLivenessSessionTransport.Script(
+                challengeType = FaceLivenessChallengeType.FaceMovementAndLightChallenge,
+                challenges = listOf(faceTargetChallenge, colorChallenge)
+            )
+        )
+        val livenessState = createLivenessState()
+
+        livenessState.onLivenessSessionReady(startSession().get(1, TimeUnit.SECONDS))
+
+        livenessState.faceTargetChallenge shouldBeSameInstanceAs faceTargetChallenge
+        livenessState.colorChallenge shouldBeSameInstanceAs colorChallenge
+        transport.sessionInformation shouldContainExactly listOf(sessionInformation)
+    }
+
+    @Test
+    fun `scripted error is reported instead of a session`() {
+        val error = PredictionsException("failed", "retry")
+        transport = FakeLivenessSessionTransport(FakeLivenessSessionTransport.Script(error = error))
+        val errors = CompletableFuture<PredictionsException>()
+
+        transport.startSession("sessionId", sessionInformation, null, { }, { }, { errors.complete(it) })
+
+        errors.get(1, TimeUnit.SECONDS) shouldBeSameInstanceAs error
+    }
+
+    @Test
+    fun `video events are recorded until the stream ends`() {
+        val completed = CompletableFuture<Unit>()
+        val session = startSession(onComplete = { completed.complete(Unit) }).get(1, TimeUnit.SECONDS)
+
+        session.sendVideoEvent(VideoEvent(ByteArray(100), Date(1)))
+        session.sendVideoEvent(VideoEvent(ByteArray(50), Date(2)))
+        session.sendVideoEvent(VideoEvent(ByteArray(0), Date(3)))
+
+        completed.get(1, TimeUnit.SECONDS)
+        transport.completed shouldBe true
+        transport.bytesReceived shouldBe 150L
+        transport.videoEvents.map { it.size } shouldContainExactly listOf(100, 50, 0)
+        transport.videoEvents.map { it.timestamp.time } shouldContainExactly listOf(1L, 2L, 3L)
+    }
+
+    @Test
+    fun `latency and throughput delay delivery`() {
+        transport = FakeLivenessSessionTransport(eventLatencyMillis = 20, bytesPerSecond = 10_000)
+        val session = startSession().get(1, TimeUnit.SECONDS)
+
+        // 1000 bytes at 10 KB/s take 100ms each on top of the 20ms latency
+        session.sendVideoEvent(VideoEvent(ByteArray(1_000), Date()))
+        session.sendVideoEvent(VideoEvent(ByteArray(1_000), Date()))
+        transport.awaitIdle()
+
+        val (first, second) = transport.videoEvents
+        TimeUnit.NANOSECONDS.toMillis(first.receivedAtNanos - first.sentAtNanos) shouldBeGreaterThanOrEqual 120L
+        TimeUnit.NANOSECONDS.toMillis(second.receivedAtNanos - first.receivedAtNanos) shouldBeGreaterThanOrEqual 100L
+    }
+
+    @Test
+    fun `stopping the liveness state closes the session with its close code`() {
+        val livenessState = createLivenessState()
+        livenessState.onLivenessSessionReady(startSession().get(1, TimeUnit.SECONDS))
+
+        livenessState.onError(true, WebSocketCloseCode.CANCELED)
+
+        transport.stopCodes shouldContainExactly listOf(WebSocketCloseCode.CANCELED.code)
+    }
+
+    private fun startSession(onComplete: () -> Unit = {}): CompletableFuture<FaceLivenessSession> {
+        val session = CompletableFuture<FaceLivenessSession>()
+        transport.startSession(
+            "sessionId",
+            sessionInformation,
+            null,
+            { session.complete(it) },
+            { onComplete() },
+            { session.completeExceptionally(it) }
+        )
+        return session
+    }
+
+    private fun createLivenessState() = LivenessState(
+        "sessionId",
+        ApplicationProvider.getApplicationContext(),
+        true,
+        { },
+        { _, _ -> },
+        { }
+    )
+}
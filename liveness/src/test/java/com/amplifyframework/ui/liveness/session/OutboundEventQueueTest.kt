@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.session
+
+import com.amplifyframework.predictions.aws.models.InitialFaceDetected
+import com.amplifyframework.predictions.models.ChallengeResponseEvent
+import com.amplifyframework.predictions.models.FaceLivenessChallengeType
+import com.amplifyframework.predictions.models.FaceLivenessSession
+import com.amplifyframework.predictions.models.VideoEvent
+import com.amplifyframework.ui.liveness.util.WebSocketCloseCode
+import io.kotest.matchers.collections.shouldBeEmpty
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.shouldBe
+import io.mockk.mockk
+import java.util.Date
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import org.junit.After
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+internal class OutboundEventQueueTest {
+
+    private val sent = mutableListOf<Any>()
+    private val session = FaceLivenessSession(
+        challengeId = "challengeId",
+        challengeType = FaceLivenessChallengeType.FaceMovementChallenge,
+        challenges = emptyList(),
+        onVideoEvent = { sent += it.bytes.size },
+        onChallengeResponseEvent = { sent += it },
+        stopLivenessSession = { }
+    )
+
+    // Holds events until run, like a socket that is slow to write
+    private val pending = mutableListOf<Runnable>()
+    private val heldExecutor = Executor { pending += it }
+    private val executor = Executors.newSingleThreadExecutor()
+
+    @After
+    fun teardown() {
+        executor.shutdownNow()
+    }
+
+    @Test
+    fun `events are sent in the order they were queued`() {
+        val challengeResponse = mockk<InitialFaceDetected>()
+        val queue = OutboundEventQueue(executor)
+        val blocked = CountDownLatch(1)
+        executor.execute { blocked.await() }
+
+        queue.sendVideoEvent(session, videoEvent(10))
+        queue.sendChallengeResponseEvent(session, challengeResponse)
+        queue.sendVideoEvent(session, videoEvent(20))
+        blocked.countDown()
+        awaitSent()
+
+        sent.shouldContainExactly(10, challengeResponse, 20)
+        queue.sentEvents shouldBe 3
+    }
+
+    @Test
+    fun `queue depth is tracked until events are sent`() {
+        val queue = OutboundEventQueue(heldExecutor)
+
+        queue.sendVideoEvent(session, videoEvent(100))
+        queue.sendChallengeResponseEvent(session, mockk<ChallengeResponseEvent>())
+
+        queue.depth shouldBe 2
+        queue.queuedBytes shouldBe 100
+        runPending()
+        queue.depth shouldBe 0
+        queue.queuedBytes shouldBe 0
+        queue.peakDepth shouldBe 2
+        queue.peakQueuedBytes shouldBe 100
+    }
+
+    @Test
+    fun `backpressure is signalled over budget and lifted at half the budget`() {
+        val signals = mutableListOf<Boolean>()
+        val queue = OutboundEventQueue(heldExecutor, maxQueuedBytes = 100).apply {
+            onBackpressureChanged = { signals += it }
+        }
+
+        repeat(3) { queue.sendVideoEvent(session, videoEvent(40)) }
+        queue.backpressure shouldBe true
+
+        // 80 bytes left is still over half the budget
+        pending.removeAt(0).run()
+        queue.backpressure shouldBe true
+        pending.removeAt(0).run()
+        queue.backpressure shouldBe false
+
+        signals.shouldContainExactly(true, false)
+    }
+
+    @Test
+    fun `session is stopped after the events queued before it are sent`() {
+        val stopped = mutableListOf<Int?>()
+        val stoppingSession = FaceLivenessSession(
+            challengeId = "challengeId",
+            challengeType = FaceLivenessChallengeType.FaceMovementChallenge,
+            challenges = emptyList(),
+            onVideoEvent = { sent += it.bytes.size },
+            onChallengeResponseEvent = { },
+            stopLivenessSession = {
+                stopped += it
+                sent += "stop"
+            }
+        )
+        val queue = OutboundEventQueue(heldExecutor)
+
+        queue.sendVideoEvent(stoppingSession, videoEvent(10))
+        queue.stopSession(stoppingSession, WebSocketCloseCode.DISPOSED.code)
+        stopped.shouldBeEmpty()
+        runPending()
+
+        sent.shouldContainExactly(10, "stop")
+        stopped.shouldContainExactly(WebSocketCloseCode.DISPOSED.code)
+    }
+
+    @Test
+    fun `events queued after shutdown are dropped`() {
+        val queue = OutboundEventQueue(executor)
+        executor.shutdown()
+
+        queue.sendVideoEvent(session, videoEvent(10))
+
+        queue.depth shouldBe 0
+        queue.sentEvents shouldBe 0
+    }
+
+    @Test
+    fun `a failed send does not stop later events`() {
+        val failingSession = FaceLivenessSession(
+            challengeId = "challengeId",
+            challengeType = FaceLivenessChallengeType.FaceMovementChallenge,
+            challenges = emptyList(),
+            onVideoEvent = { throw IllegalStateException("Socket closed") },
+            onChallengeResponseEvent = { },
+            stopLivenessSession = { }
+        )
+        val queue = OutboundEventQueue(heldExecutor)
+
+        queue.sendVideoEvent(failingSession, videoEvent(10))
+        queue.sendVideoEvent(session, videoEvent(20))
+        runPending()
+
+        sent.shouldContainExactly(20)
+        queue.sentEvents shouldBe 1
+        queue.depth shouldBe 0
+    }
+
+    private fun videoEvent(size: Int) = VideoEvent(ByteArray(size), Date())
+
+    private fun runPending() {
+        pending.toList().also { pending.clear() }.forEach { it.run() }
+    }
+
+    private fun awaitSent() {
+        executor.submit { }.get(1, TimeUnit.SECONDS)
+    }
+}
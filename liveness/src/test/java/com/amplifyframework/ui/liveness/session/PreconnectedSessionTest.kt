@@ -0,0 +1,208 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.session
+
+import android.os.Looper
+import android.os.SystemClock
+import com.amplifyframework.auth.AWSCredentials
+import com.amplifyframework.auth.AWSCredentialsProvider
+import com.amplifyframework.core.Action
+import com.amplifyframework.core.Consumer
+import com.amplifyframework.predictions.PredictionsException
+import com.amplifyframework.predictions.models.FaceLivenessSession
+import com.amplifyframework.predictions.models.FaceLivenessSessionInformation
+import com.amplifyframework.ui.liveness.testUtil.FakeLivenessSessionTransport
+import com.amplifyframework.ui.liveness.util.WebSocketCloseCode
+import io.kotest.matchers.collections.shouldBeEmpty
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import io.mockk.mockk
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+import org.junit.After
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+
+@RunWith(RobolectricTestRunner::class)
+internal class PreconnectedSessionTest {
+
+    private val sessionInformation = mockk<FaceLivenessSessionInformation>()
+    private var transport = FakeLivenessSessionTransport()
+
+    @After
+    fun tearDown() {
+        SessionPreconnector.claim(SESSION_ID, REGION, null, false)?.close()
+        transport.shutdown()
+    }
+
+    @Test
+    fun `session that started before the detector attached is delivered on attach`() {
+        val session = preconnect()
+        transport.awaitIdle()
+        transport.sessionInformation shouldContainExactly listOf(sessionInformation)
+
+        val claimed = SessionPreconnector.claim(SESSION_ID, REGION, null, false)
+        claimed shouldBeSameInstanceAs session
+        val started = CompletableFuture<FaceLivenessSession>()
+        claimed!!.startSession(SESSION_ID, mockk(), null, started::complete, { }, started::completeExceptionally)
+
+        started.get(1, TimeUnit.SECONDS).challengeId shouldBe "challengeId"
+        // The session information was only sent once, when the session was preconnected
+        transport.sessionInformation.size shouldBe 1
+    }
+
+    @Test
+    fun `session is delivered when it starts after the detector attached`() {
+        transport = FakeLivenessSessionTransport(FakeLivenessSessionTransport.Script(sessionReadyDelayMillis = 100))
+        preconnect()
+        val started = CompletableFuture<FaceLivenessSession>()
+
+        SessionPreconnector.claim(SESSION_ID, REGION, null, false)!!
+            .startSession(SESSION_ID, mockk(), null, started::complete, { }, started::completeExceptionally)
+
+        started.get(1, TimeUnit.SECONDS).challengeId shouldBe "challengeId"
+    }
+
+    @Test
+    fun `detector for a different session starts its own and stops the preconnected one`() {
+        preconnect()
+        transport.awaitIdle()
+
+        SessionPreconnector.claim("otherSessionId", REGION, null, false).shouldBeNull()
+
+        transport.stopCodes shouldContainExactly listOf(WebSocketCloseCode.DISPOSED.code)
+    }
+
+    @Test
+    fun `preconnected session is claimed only once`() {
+        val session = preconnect()
+
+        SessionPreconnector.claim(SESSION_ID, REGION, null, false) shouldBeSameInstanceAs session
+        SessionPreconnector.claim(SESSION_ID, REGION, null, false).shouldBeNull()
+    }
+
+    @Test
+    fun `failed preconnection is discarded`() {
+        transport = FakeLivenessSessionTransport(
+            FakeLivenessSessionTransport.Script(error = PredictionsException("failed", "retry"))
+        )
+        preconnect()
+        transport.awaitIdle()
+
+        SessionPreconnector.claim(SESSION_ID, REGION, null, false).shouldBeNull()
+    }
+
+    @Test
+    fun `stale preconnection is discarded`() {
+        val startedAt = SystemClock.elapsedRealtime() - SessionPreconnector.MAX_PRECONNECT_AGE_MILLIS - 1
+        preconnect(PreconnectedSession(SESSION_ID, REGION, null, false, startedAt))
+        transport.awaitIdle()
+
+        SessionPreconnector.claim(SESSION_ID, REGION, null, false).shouldBeNull()
+        transport.stopCodes shouldContainExactly listOf(WebSocketCloseCode.DISPOSED.code)
+    }
+
+    @Test
+    fun `newer preconnection replaces the older one`() {
+        preconnect()
+        transport.awaitIdle()
+        val newer = preconnect(PreconnectedSession("otherSessionId", REGION, null, false))
+
+        transport.stopCodes shouldContainExactly listOf(WebSocketCloseCode.DISPOSED.code)
+        SessionPreconnector.claim("otherSessionId", REGION, null, false) shouldBeSameInstanceAs newer
+    }
+
+    @Test
+    fun `preconnection replaced while it is negotiated is stopped once it starts`() {
+        transport = FakeLivenessSessionTransport(
+            FakeLivenessSessionTransport.Script(sessionReadyDelayMillis = NEGOTIATION_MILLIS)
+        )
+        preconnect()
+        preconnect(PreconnectedSession("otherSessionId", REGION, null, false))
+
+        transport.stopCodes.shouldBeEmpty()
+        awaitStopCodes(1)
+        // Only the replaced session is stopped
+        transport.stopCodes shouldContainExactly listOf(WebSocketCloseCode.DISPOSED.code)
+    }
+
+    @Test
+    fun `mismatched claim while the preconnection is negotiated stops it once it starts`() {
+        transport = FakeLivenessSessionTransport(
+            FakeLivenessSessionTransport.Script(sessionReadyDelayMillis = NEGOTIATION_MILLIS)
+        )
+        preconnect()
+
+        SessionPreconnector.claim("otherSessionId", REGION, null, false).shouldBeNull()
+
+        awaitStopCodes(1)
+        transport.stopCodes shouldContainExactly listOf(WebSocketCloseCode.DISPOSED.code)
+    }
+
+    @Test
+    fun `preconnection the service already ended is discarded`() {
+        val endingTransport = object : LivenessSessionTransport {
+            override fun startSession(
+                sessionId: String,
+                sessionInformation: FaceLivenessSessionInformation,
+                credentialsProvider: AWSCredentialsProvider<AWSCredentials>?,
+                onSessionStarted: Consumer<FaceLivenessSession>,
+                onComplete: Action,
+                onError: Consumer<PredictionsException>
+            ) {
+                onSessionStarted.accept(mockk(relaxed = true))
+                onComplete.call()
+            }
+        }
+        val session = PreconnectedSession(SESSION_ID, REGION, null, false)
+        SessionPreconnector.connect(session, endingTransport, sessionInformation)
+
+        session.finished shouldBe true
+        SessionPreconnector.claim(SESSION_ID, REGION, null, false).shouldBeNull()
+    }
+
+    @Test
+    fun `unclaimed preconnection is stopped when it expires`() {
+        preconnect()
+        transport.awaitIdle()
+
+        shadowOf(Looper.getMainLooper()).idleFor(SessionPreconnector.MAX_PRECONNECT_AGE_MILLIS, TimeUnit.MILLISECONDS)
+
+        transport.stopCodes shouldContainExactly listOf(WebSocketCloseCode.DISPOSED.code)
+        SessionPreconnector.claim(SESSION_ID, REGION, null, false).shouldBeNull()
+    }
+
+    private fun awaitStopCodes(count: Int) {
+        val deadline = System.currentTimeMillis() + 5_000
+        while (transport.stopCodes.size < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10)
+        }
+        transport.awaitIdle()
+    }
+
+    private fun preconnect(session: PreconnectedSession = PreconnectedSession(SESSION_ID, REGION, null, false)) =
+        session.also { SessionPreconnector.connect(it, transport, sessionInformation) }
+
+    companion object {
+        private const val SESSION_ID = "sessionId"
+        private const val REGION = "us-east-1"
+        private const val NEGOTIATION_MILLIS = 100L
+    }
+}
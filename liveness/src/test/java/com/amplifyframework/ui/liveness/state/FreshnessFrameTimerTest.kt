@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.state
+
+import io.kotest.matchers.shouldBe
+import org.junit.Test
+
+class FreshnessFrameTimerTest {
+
+    private val timer = FreshnessFrameTimer(frameIntervalNanos = FRAME_INTERVAL_NANOS, epochOffsetMillis = EPOCH_OFFSET)
+
+    @Test
+    fun `present time is estimated one frame after the vsync`() {
+        timer.onFrame(1_000_000_000L)
+
+        timer.presentTimeMillis shouldBe EPOCH_OFFSET + 1_000 + 16
+    }
+
+    @Test
+    fun `frames on consecutive vsyncs are not missed`() {
+        var frameTime = 1_000_000_000L
+        repeat(10) {
+            // Frame times jitter around the vsync period
+            frameTime += FRAME_INTERVAL_NANOS + if (it % 2 == 0) 2_000_000L else -2_000_000L
+            timer.onFrame(frameTime)
+        }
+
+        timer.missedFrameCount shouldBe 0
+        timer.frameCount shouldBe 10
+    }
+
+    @Test
+    fun `skipped vsyncs are counted as missed frames`() {
+        timer.onFrame(1_000_000_000L)
+        timer.onFrame(1_000_000_000L + FRAME_INTERVAL_NANOS)
+        timer.missedFrames shouldBe 0
+
+        timer.onFrame(1_000_000_000L + 4 * FRAME_INTERVAL_NANOS)
+        timer.missedFrames shouldBe 2
+
+        timer.onFrame(1_000_000_000L + 5 * FRAME_INTERVAL_NANOS)
+        timer.missedFrames shouldBe 0
+        timer.missedFrameCount shouldBe 2
+        timer.longestFrameIntervalNanos shouldBe 3 * FRAME_INTERVAL_NANOS
+    }
+
+    companion object {
+        private const val FRAME_INTERVAL_NANOS = 16_666_667L
+        private const val EPOCH_OFFSET = 1_700_000_000_000L
+    }
+}
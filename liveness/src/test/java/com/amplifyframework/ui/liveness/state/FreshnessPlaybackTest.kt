@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.state
+
+import com.amplifyframework.predictions.aws.models.ColorDisplayInformation
+import com.amplifyframework.predictions.aws.models.RgbColor
+import com.amplifyframework.ui.liveness.model.FreshnessFrameStats
+import com.amplifyframework.ui.liveness.session.FreshnessColorListener
+import com.amplifyframework.ui.liveness.ui.PerformanceOptions
+import io.kotest.matchers.collections.shouldHaveSize
+import io.kotest.matchers.floats.shouldBeLessThan
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.shouldNotBe
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+internal class FreshnessPlaybackTest {
+
+    private val frames = mutableListOf<Triple<Int, Int, Float>>()
+    private val stats = mutableListOf<FreshnessFrameStats>()
+    private var completed = 0
+
+    private val playback = playback(onFrameStats = { stats += it })
+
+    @Test
+    fun `flat colors fill the whole screen`() {
+        playback.start()
+        playback.doFrame(0)
+
+        val (current, previous, scrollFraction) = frames.single()
+        previous shouldBe current
+        scrollFraction shouldBe 1f
+    }
+
+    @Test
+    fun `scrolling colors reveal the new color over the previous color`() {
+        playback.start()
+        playFrames(count = 10)
+
+        val flatColor = frames.first().first
+        val (current, previous, scrollFraction) = frames.first { it.third < 1f }
+        previous shouldBe flatColor
+        current shouldNotBe flatColor
+        scrollFraction shouldBeLessThan 1f
+    }
+
+    @Test
+    fun `frame stats are reported once when the colors end`() {
+        playback.start()
+        playFrames(count = 20)
+
+        completed shouldBe 1
+        stats shouldHaveSize 1
+        stats.single().frameCount shouldBe frames.size + 1
+    }
+
+    @Test
+    fun `missed frames are passed to the performance options callback`() {
+        val reported = mutableListOf<FreshnessFrameStats>()
+        val options = PerformanceOptions(onFreshnessFrameStats = { reported += it })
+        val playback = playback(onFrameStats = { options.onFreshnessFrameStats?.accept(it) })
+
+        playback.start()
+        playback.doFrame(0)
+        // Two vsyncs pass without a frame
+        repeat(20) { playback.doFrame((it + 3) * FRAME_INTERVAL_NANOS) }
+
+        reported shouldHaveSize 1
+        reported.single().missedFrameCount shouldBe 2
+        reported.single().longestFrameIntervalMillis shouldBe 3 * FRAME_INTERVAL_NANOS / 1_000_000
+    }
+
+    @Test
+    fun `stopped playback reports no colors`() {
+        playback.start()
+        playback.stop()
+        playback.doFrame(0)
+
+        frames shouldHaveSize 0
+    }
+
+    private fun playback(onFrameStats: (FreshnessFrameStats) -> Unit) = FreshnessPlayback(
+        FreshnessState(
+            listOf(color(RgbColor(5, 10, 15), scroll = false), color(RgbColor(20, 25, 30), scroll = true)),
+            onColorDisplayed = { _, _, _, _ -> },
+            onComplete = { completed++ }
+        ),
+        FreshnessFrameTimer(FRAME_INTERVAL_NANOS, epochOffsetMillis = 0),
+        FreshnessColorListener { current, previous, scrollFraction ->
+            frames += Triple(current, previous, scrollFraction)
+        },
+        onFrameStats = onFrameStats
+    )
+
+    private fun playFrames(count: Int) {
+        repeat(count) { playback.doFrame(it * FRAME_INTERVAL_NANOS) }
+    }
+
+    private fun color(rgbColor: RgbColor, scroll: Boolean) = mockk<ColorDisplayInformation> {
+        every { color } returns rgbColor
+        every { duration } returns COLOR_DURATION_MILLIS
+        every { shouldScroll } returns scroll
+    }
+
+    companion object {
+        private const val FRAME_INTERVAL_NANOS = 16_000_000L
+        private const val COLOR_DURATION_MILLIS = 100f
+    }
+}
@@ -20,6 +20,8 @@ import com.amplifyframework.predictions.aws.models.ColorDisplayInformation
 import com.amplifyframework.predictions.aws.models.RgbColor
 import com.amplifyframework.ui.liveness.model.FreshnessColorFrame
 import com.amplifyframework.ui.liveness.model.SceneType
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.shouldBe
 import io.mockk.every
 import io.mockk.mockk
 import io.mockk.verify
@@ -131,4 +133,65 @@ internal class FreshnessStateTest {
         verify(exactly = 3) { onColorDisplayed(any(), any(), any(), any()) }
         verify(exactly = 1) { onComplete() }
     }
+
+    @Test
+    fun `stall past a scene boundary delays the following scenes`() {
+        val onColorDisplayed = mockk<OnColorDisplayed>(relaxed = true)
+        val state = FreshnessState(threeColors(), onColorDisplayed, mockk(relaxed = true))
+
+        state.advanceTo(0)
+        state.advanceTo(990)
+        // Scene 1 should have started at 1000 but the next frame is not displayed until 1200
+        state.advanceTo(1200, missedFrames = 12)
+
+        state.compensationMillis shouldBe 200
+        state.sceneCompletionPercentage shouldBe 0f
+        verify { onColorDisplayed(any(), any(), 1, 1200) }
+
+        // Scene 1 is still shown for its full 2000ms
+        state.advanceTo(3199)
+        state.currentScene?.startTime shouldBe 1000
+        state.advanceTo(3201)
+        state.currentScene?.startTime shouldBe 3000
+        state.missedFramesPerScene() shouldContainExactly listOf(0, 12, 0)
+    }
+
+    @Test
+    fun `stall longer than a scene does not skip it`() {
+        val onColorDisplayed = mockk<OnColorDisplayed>(relaxed = true)
+        val state = FreshnessState(threeColors(), onColorDisplayed, mockk(relaxed = true))
+
+        state.advanceTo(0)
+        // Long enough to have skipped scene 1 entirely
+        state.advanceTo(3100)
+
+        verify { onColorDisplayed(any(), any(), 1, 3100) }
+        verify(exactly = 0) { onColorDisplayed(any(), any(), 2, any()) }
+        state.advanceTo(5101)
+        verify { onColorDisplayed(any(), any(), 2, 5101) }
+    }
+
+    @Test
+    fun `small lateness at a scene boundary is not compensated`() {
+        val state = FreshnessState(threeColors(), mockk(relaxed = true), mockk(relaxed = true))
+
+        state.advanceTo(0)
+        state.advanceTo(1010, frameIntervalMillis = 16)
+
+        state.compensationMillis shouldBe 0
+        state.sceneCompletionPercentage shouldBe 0.005f
+    }
+
+    private fun threeColors() = listOf(
+        colorInfo(RgbColor(5, 10, 15), 1000f, shouldScroll = false),
+        colorInfo(RgbColor(20, 25, 30), 2000f, shouldScroll = true),
+        colorInfo(RgbColor(35, 40, 45), 500f, shouldScroll = false)
+    )
+
+    private fun colorInfo(rgbColor: RgbColor, durationMillis: Float, shouldScroll: Boolean) =
+        mockk<ColorDisplayInformation> {
+            every { color } returns rgbColor
+            every { duration } returns durationMillis
+            every { this@mockk.shouldScroll } returns shouldScroll
+        }
 }
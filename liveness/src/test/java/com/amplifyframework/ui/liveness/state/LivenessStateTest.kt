@@ -16,6 +16,7 @@
 package com.amplifyframework.ui.liveness.state
 
 import android.graphics.RectF
+import androidx.compose.runtime.snapshots.Snapshot
 import androidx.test.core.app.ApplicationProvider
 import com.amplifyframework.predictions.aws.models.ColorChallenge
 import com.amplifyframework.predictions.aws.models.FaceTargetChallenge
@@ -29,10 +30,15 @@ import com.amplifyframework.predictions.models.VideoEvent
 import com.amplifyframework.ui.liveness.ml.FaceDetector
 import com.amplifyframework.ui.liveness.model.FaceLivenessDetectionException
 import com.amplifyframework.ui.liveness.model.LivenessCheckState
+import com.amplifyframework.ui.liveness.session.OutboundEventQueue
 import com.amplifyframework.ui.liveness.util.WebSocketCloseCode
 import io.mockk.every
 import io.mockk.mockk
 import io.mockk.verify
+import java.util.Date
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
 import org.junit.Assert.assertEquals
 import org.junit.Assert.assertFalse
 import org.junit.Assert.assertTrue
@@ -58,7 +64,9 @@ internal class LivenessStateTest {
             false,
             onCaptureReady,
             onSessionError,
-            onFinalEventsSent
+            onFinalEventsSent,
+            // Sends events on the calling thread so they can be verified right away
+            outboundEvents = OutboundEventQueue(Runnable::run)
         )
         livenessState.onStartViewComplete()
     }
@@ -210,6 +218,42 @@ internal class LivenessStateTest {
         verify(exactly = 1) { stopSession(null) }
     }
 
+    @Test
+    fun `session is stopped after the events still being sent on a slow socket`() {
+        val received = CopyOnWriteArrayList<Any?>()
+        val executor = Executors.newSingleThreadExecutor()
+        val slowState = LivenessState(
+            "1234",
+            ApplicationProvider.getApplicationContext(),
+            true,
+            onCaptureReady,
+            onSessionError,
+            onFinalEventsSent,
+            outboundEvents = OutboundEventQueue(executor)
+        )
+        val session = FaceLivenessSession(
+            challengeId = "12345",
+            challengeType = FaceLivenessChallengeType.FaceMovementAndLightChallenge,
+            challenges = emptyList(),
+            onVideoEvent = {
+                // Each write takes a while, like a socket that is slow to drain
+                Thread.sleep(SLOW_WRITE_MILLIS)
+                received += it.bytes.size
+            },
+            onChallengeResponseEvent = { },
+            stopLivenessSession = { received += "stop $it" }
+        )
+        slowState.livenessSessionInfo = session
+
+        slowState.outboundEvents.sendVideoEvent(session, VideoEvent(ByteArray(10), Date()))
+        slowState.outboundEvents.sendVideoEvent(session, VideoEvent(ByteArray(20), Date()))
+        slowState.onDestroy(true, WebSocketCloseCode.DISPOSED)
+        executor.shutdown()
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS))
+
+        assertEquals(listOf(10, 20, "stop ${WebSocketCloseCode.DISPOSED.code}"), received.toList())
+    }
+
     @Test
     fun `session is not stopped when stopLivenessSession is false and error occurs`() {
         val challenges = mockk<List<FaceLivenessSessionChallenge>>(relaxed = true)
@@ -476,4 +520,56 @@ internal class LivenessStateTest {
         livenessState.onFrameFaceUpdate(faceRect, landmark, landmark, landmark)
         verify(exactly = 1) { sendChallengeResponse(any<InitialFaceDetected>()) }
     }
+
+    @Test
+    fun `state changes are reported to the change listener`() {
+        val onStateChanged = mockk<() -> Unit>(relaxed = true)
+        livenessState.onStateChanged = onStateChanged
+
+        livenessState.onError(true, WebSocketCloseCode.RUNTIME_ERROR)
+
+        verify(exactly = 1) { onStateChanged() }
+    }
+
+    @Test
+    fun `unchanged state is not reported to the change listener`() {
+        val onStateChanged = mockk<() -> Unit>(relaxed = true)
+        livenessState.onStateChanged = onStateChanged
+
+        livenessState.onStartViewComplete()
+
+        verify(exactly = 0) { onStateChanged() }
+    }
+
+    @Test
+    fun `state without snapshot state does not write to compose snapshots`() {
+        val fieldState = LivenessState(
+            "1234",
+            ApplicationProvider.getApplicationContext(),
+            true,
+            onCaptureReady,
+            onSessionError,
+            onFinalEventsSent,
+            outboundEvents = OutboundEventQueue(Runnable::run),
+            snapshotState = false
+        )
+        val onStateChanged = mockk<() -> Unit>(relaxed = true)
+        fieldState.onStateChanged = onStateChanged
+        var snapshotWrites = 0
+        val observer = Snapshot.registerGlobalWriteObserver { snapshotWrites++ }
+
+        try {
+            fieldState.onError(true, WebSocketCloseCode.RUNTIME_ERROR)
+        } finally {
+            observer.dispose()
+        }
+
+        assertTrue(fieldState.livenessCheckState is LivenessCheckState.Error)
+        verify(exactly = 1) { onStateChanged() }
+        assertEquals(0, snapshotWrites)
+    }
+
+    companion object {
+        private const val SLOW_WRITE_MILLIS = 50L
+    }
 }
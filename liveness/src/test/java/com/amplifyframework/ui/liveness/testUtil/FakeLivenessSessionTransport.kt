@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.testUtil
+
+import com.amplifyframework.auth.AWSCredentials
+import com.amplifyframework.auth.AWSCredentialsProvider
+import com.amplifyframework.core.Action
+import com.amplifyframework.core.Consumer
+import com.amplifyframework.predictions.PredictionsException
+import com.amplifyframework.predictions.models.ChallengeResponseEvent
+import com.amplifyframework.predictions.models.FaceLivenessChallengeType
+import com.amplifyframework.predictions.models.FaceLivenessSession
+import com.amplifyframework.predictions.models.FaceLivenessSessionChallenge
+import com.amplifyframework.predictions.models.FaceLivenessSessionInformation
+import com.amplifyframework.ui.liveness.session.LivenessSessionTransport
+import java.util.Date
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+/**
+ * An in-process stand-in for the liveness service. Each started session is answered with the scripted challenges
+ * and every event sent on it is recorded. Events are delivered in order on a single worker thread after
+ * [eventLatencyMillis], and no faster than [bytesPerSecond] allows (0 for unlimited). The session completes once the
+ * empty video event that ends the stream has been delivered.
+ */
+internal class FakeLivenessSessionTransport(
+    private val script: Script = Script(),
+    private val eventLatencyMillis: Long = 0,
+    private val bytesPerSecond: Long = 0
+) : LivenessSessionTransport {
+
+    data class Script(
+        val challengeId: String = "challengeId",
+        val challengeType: FaceLivenessChallengeType = FaceLivenessChallengeType.FaceMovementAndLightChallenge,
+        val challenges: List<FaceLivenessSessionChallenge> = emptyList(),
+        val sessionReadyDelayMillis: Long = 0,
+        val error: PredictionsException? = null
+    )
+
+    class ReceivedVideoEvent(val size: Int, val timestamp: Date, val sentAtNanos: Long, val receivedAtNanos: Long)
+
+    private val worker = Executors.newSingleThreadScheduledExecutor { Thread(it, "FakeLivenessSessionTransport") }
+    private var lastDeliveryNanos = 0L
+
+    val sessionInformation = CopyOnWriteArrayList<FaceLivenessSessionInformation>()
+    val videoEvents = CopyOnWriteArrayList<ReceivedVideoEvent>()
+    val challengeResponses = CopyOnWriteArrayList<ChallengeResponseEvent>()
+    val stopCodes = CopyOnWriteArrayList<Int?>()
+
+    @Volatile var bytesReceived = 0L
+        private set
+
+    @Volatile var completed = false
+        private set
+
+    override fun startSession(
+        sessionId: String,
+        sessionInformation: FaceLivenessSessionInformation,
+        credentialsProvider: AWSCredentialsProvider<AWSCredentials>?,
+        onSessionStarted: Consumer<FaceLivenessSession>,
+        onComplete: Action,
+        onError: Consumer<PredictionsException>
+    ) {
+        this.sessionInformation += sessionInformation
+        val session = FaceLivenessSession(
+            challengeId = script.challengeId,
+            challengeType = script.challengeType,
+            challenges = script.challenges,
+            onVideoEvent = { event ->
+                deliver(event.bytes.size) { sentAt ->
+                    bytesReceived += event.bytes.size
+                    videoEvents += ReceivedVideoEvent(event.bytes.size, event.timestamp, sentAt, System.nanoTime())
+                    if (event.bytes.isEmpty()) {
+                        completed = true
+                        onComplete.call()
+                    }
+                }
+            },
+            onChallengeResponseEvent = { event -> deliver(0) { challengeResponses += event } },
+            stopLivenessSession = { code -> stopCodes += code }
+        )
+        worker.schedule(
+            {
+                val error = script.error
+                if (error != null) onError.accept(error) else onSessionStarted.accept(session)
+            },
+            script.sessionReadyDelayMillis,
+            TimeUnit.MILLISECONDS
+        )
+    }
+
+    private fun deliver(size: Int, block: (sentAtNanos: Long) -> Unit) {
+        val sentAt = System.nanoTime()
+        worker.execute {
+            val transferNanos = if (bytesPerSecond > 0) size * NANOS_PER_SECOND / bytesPerSecond else 0L
+            val deliverAt = maxOf(sentAt + TimeUnit.MILLISECONDS.toNanos(eventLatencyMillis), lastDeliveryNanos) +
+                transferNanos
+            val wait = deliverAt - System.nanoTime()
+            if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait)
+            lastDeliveryNanos = deliverAt
+            block(sentAt)
+        }
+    }
+
+    /**
+     * Blocks until every event sent so far has been delivered
+     */
+    fun awaitIdle(timeoutMillis: Long = 5_000) {
+        worker.submit { }.get(timeoutMillis, TimeUnit.MILLISECONDS)
+    }
+
+    fun shutdown() {
+        worker.shutdownNow()
+    }
+
+    companion object {
+        private const val NANOS_PER_SECOND = 1_000_000_000L
+    }
+}
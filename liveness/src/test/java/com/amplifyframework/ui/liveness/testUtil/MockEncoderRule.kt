@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.testUtil
+
+import android.media.MediaCodec
+import android.media.MediaFormat
+import android.view.Surface
+import androidx.media3.common.util.MediaFormatUtil
+import com.amplifyframework.ui.liveness.media.LivenessMuxer
+import com.amplifyframework.ui.liveness.media.LivenessVideoEncoder
+import com.amplifyframework.ui.liveness.media.Mp4Muxer
+import com.amplifyframework.ui.liveness.media.VideoCodec
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.mockkStatic
+import io.mockk.unmockkStatic
+import io.mockk.verify
+import java.io.File
+import java.nio.ByteBuffer
+import org.junit.rules.ExternalResource
+
+/**
+ * Replaces MediaCodec with a relaxed mock for the duration of a test, so a [LivenessVideoEncoder] can be driven
+ * with encoded frames of [sampleSize] bytes. Frames are muxed with a [TestMuxer] unless another factory is passed.
+ */
+internal class MockEncoderRule(
+    private val sampleSize: Int = 512,
+    val frameRate: Int = 24
+) : ExternalResource() {
+
+    lateinit var codec: MediaCodec
+        private set
+    val outputFormat = mockk<MediaFormat>(relaxed = true)
+
+    private val sample = ByteBuffer.allocate(sampleSize)
+
+    // Reused by drive, so driving the encoder does not allocate
+    private val info = MediaCodec.BufferInfo()
+
+    override fun before() {
+        mockkStatic(MediaCodec::class)
+        mockkStatic(MediaFormat::class)
+        mockkStatic(MediaFormatUtil::class)
+
+        codec = mockk<MediaCodec>(relaxed = true)
+        every { MediaCodec.createEncoderByType(any()) } returns codec
+        every { codec.createInputSurface() } returns mockk<Surface>(relaxed = true)
+        every { codec.outputFormat } returns outputFormat
+        every { codec.getOutputBuffer(any()) } answers { sample.also { it.rewind() } }
+        every { MediaFormatUtil.createFormatFromMediaFormat(any()) } returns mockk()
+    }
+
+    override fun after() {
+        unmockkStatic(MediaCodec::class)
+        unmockkStatic(MediaFormat::class)
+        unmockkStatic(MediaFormatUtil::class)
+    }
+
+    fun createEncoder(
+        outputFile: File,
+        muxerFactory: (VideoCodec) -> LivenessMuxer = { Mp4Muxer(createMediaMuxer = { stream -> TestMuxer(stream) }) },
+        onMuxerError: (Exception) -> Unit = { },
+        onMuxedSegment: (ByteArray, Long) -> Unit = { _, _ -> }
+    ) = LivenessVideoEncoder(
+        videoCodec = VideoCodec.H264,
+        outputFile = outputFile,
+        width = 640,
+        height = 480,
+        bitrate = 1,
+        keyframeInterval = 1,
+        frameRate = frameRate,
+        onMuxedSegment = onMuxedSegment,
+        onEncoderError = { },
+        onMuxerError = onMuxerError,
+        muxerFactory = muxerFactory
+    )
+
+    fun startEncoding(encoder: LivenessVideoEncoder) {
+        encoder.start()
+        // start() requests a sync frame on the encoder thread once encoding has begun
+        verify(timeout = 1_000) { codec.setParameters(any()) }
+    }
+
+    /**
+     * Passes the encoder an output buffer for [frame], timed at [frameRate]
+     */
+    fun drive(encoder: LivenessVideoEncoder, frame: Int, flags: Int = 0) {
+        info.set(0, sampleSize, frame * 1_000_000L / frameRate, flags)
+        encoder.handleFrame(0, info)
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.testUtil
+
+import com.amplifyframework.ui.liveness.ml.FaceDetectionInterpreter
+import com.amplifyframework.ui.liveness.ml.FaceDetectionModel
+import java.nio.ByteBuffer
+
+/**
+ * A stand-in for the face detection model that reports the scripted number of faces for each run. Faces are placed
+ * on well separated anchors so they survive non-max suppression as distinct detections.
+ */
+internal class ScriptedFaceDetectionInterpreter(
+    override val model: FaceDetectionModel = FaceDetectionModel.SHORT_RANGE,
+    private val faceCount: (run: Int) -> Int = { 1 }
+) : FaceDetectionInterpreter {
+
+    var runs = 0
+        private set
+
+    // Size in bytes of the input of the last run
+    var lastInputBytes = 0
+        private set
+
+    var numThreads = FaceDetectionInterpreter.DEFAULT_THREADS
+        private set
+
+    var closed = false
+        private set
+
+    override fun setNumThreads(numThreads: Int) {
+        this.numThreads = numThreads
+    }
+
+    override fun close() {
+        closed = true
+    }
+
+    override fun run(
+        input: ByteBuffer,
+        outputLocations: Array<Array<FloatArray>>,
+        outputScores: Array<Array<FloatArray>>
+    ) {
+        val faces = faceCount(runs++)
+        lastInputBytes = input.capacity()
+        for (i in 0 until model.outputLayout.numBoxes) {
+            outputScores[0][i][0] = NO_FACE_SCORE
+            outputLocations[0][i].fill(0f)
+        }
+        for (face in 0 until faces) {
+            val anchor = FACE_ANCHORS[face]
+            outputScores[0][anchor][0] = FACE_SCORE
+            FACE.copyInto(outputLocations[0][anchor])
+        }
+    }
+
+    companion object {
+        const val MAX_FACES = 3
+        private const val NO_FACE_SCORE = -100f
+        private const val FACE_SCORE = 10f
+
+        // Anchors at the center and two opposite corners of the stride 8 grid
+        private val FACE_ANCHORS = intArrayOf(272, 68, 442)
+
+        // Box and landmark offsets from the anchor center, in model input pixels
+        private val FACE = floatArrayOf(
+            0f, 0f, 40f, 40f, // box
+            -8f, -6f, 8f, -6f, // eyes
+            0f, 0f, // nose
+            0f, 10f, // mouth
+            -18f, -2f, 18f, -2f // ears
+        )
+    }
+}
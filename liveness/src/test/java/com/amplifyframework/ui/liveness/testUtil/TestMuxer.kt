@@ -19,24 +19,30 @@ import androidx.media3.common.Format
 import androidx.media3.common.Metadata
 import androidx.media3.muxer.BufferInfo
 import androidx.media3.muxer.Muxer
-import io.kotest.matchers.ints.shouldBeLessThan
 import java.io.OutputStream
 import java.nio.ByteBuffer
 
 /**
- * A fake muxer for testing that simply writes all samples directly to the outputStream
+ * A fake muxer for testing that simply writes all samples directly to the outputStream.
+ * Samples are copied through a reused scratch array so the muxer does not allocate per sample.
  */
 class TestMuxer(private val outputStream: OutputStream) : Muxer {
     private var tracks = 0
+    private var scratch = ByteArray(0)
 
     var closed: Boolean = false
 
     override fun addTrack(format: Format): Int = tracks++
 
     override fun writeSampleData(trackId: Int, byteBuffer: ByteBuffer, bufferInfo: BufferInfo) {
-        trackId shouldBeLessThan tracks
+        check(trackId < tracks) { "Sample written to unknown track $trackId" }
         if (!closed) {
-            outputStream.write(byteBuffer.toByteArray())
+            val size = byteBuffer.remaining()
+            if (scratch.size < size) {
+                scratch = ByteArray(size)
+            }
+            byteBuffer.get(scratch, 0, size)
+            outputStream.write(scratch, 0, size)
         }
     }
 
@@ -47,10 +53,4 @@ class TestMuxer(private val outputStream: OutputStream) : Muxer {
     override fun close() {
         closed = true
     }
-
-    fun ByteBuffer.toByteArray(): ByteArray {
-        val bytes = ByteArray(remaining())
-        get(bytes)
-        return bytes
-    }
 }
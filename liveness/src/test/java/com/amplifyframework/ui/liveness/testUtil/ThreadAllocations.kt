@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.testUtil
+
+import java.lang.management.ManagementFactory
+
+/**
+ * Measures heap allocations made by the calling thread, using the HotSpot ThreadMXBean extension
+ */
+object ThreadAllocations {
+    private val threadBean = (ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean).apply {
+        isThreadAllocatedMemoryEnabled = true
+    }
+
+    fun allocatedBytes(): Long = threadBean.getThreadAllocatedBytes(Thread.currentThread().id)
+
+    /**
+     * @return the number of bytes allocated on this thread while running [block]
+     */
+    fun measure(block: () -> Unit): Long {
+        val start = allocatedBytes()
+        block()
+        return allocatedBytes() - start
+    }
+}
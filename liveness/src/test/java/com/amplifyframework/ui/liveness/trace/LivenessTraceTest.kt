@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.trace
+
+import androidx.test.core.app.ApplicationProvider
+import com.amplifyframework.predictions.aws.models.FaceTargetChallenge
+import com.amplifyframework.predictions.models.FaceLivenessChallengeType
+import com.amplifyframework.predictions.models.FaceLivenessSession
+import com.amplifyframework.ui.liveness.camera.FrameAnalyzer
+import com.amplifyframework.ui.liveness.camera.LivenessCoordinator
+import com.amplifyframework.ui.liveness.camera.ReplayFrameSource
+import com.amplifyframework.ui.liveness.camera.RgbaFrame
+import com.amplifyframework.ui.liveness.ml.FaceDetectionModel
+import com.amplifyframework.ui.liveness.session.OutboundEventQueue
+import com.amplifyframework.ui.liveness.state.LivenessState
+import com.amplifyframework.ui.liveness.testUtil.ScriptedFaceDetectionInterpreter
+import com.amplifyframework.ui.liveness.util.ResourceLedger
+import io.kotest.matchers.collections.shouldContain
+import io.kotest.matchers.collections.shouldHaveSize
+import io.kotest.matchers.collections.shouldNotBeEmpty
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.nulls.shouldNotBeNull
+import io.kotest.matchers.shouldBe
+import io.mockk.every
+import io.mockk.mockk
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.nio.ByteBuffer
+import org.junit.After
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+internal class LivenessTraceTest {
+
+    private val faceTargetChallenge = mockk<FaceTargetChallenge>(relaxed = true) {
+        every { faceTargetMatching.faceDetectionThreshold } returns 0.7f
+        every { faceTargetMatching.faceDistanceThresholdMin } returns 1f
+        every { faceTargetMatching.ovalFitTimeout } returns OVAL_FIT_TIMEOUT_MILLIS
+        every { targetCenterX } returns LivenessCoordinator.TARGET_WIDTH / 2f
+        every { targetCenterY } returns LivenessCoordinator.TARGET_HEIGHT / 2f
+        every { targetWidth } returns LivenessCoordinator.TARGET_WIDTH / 2f
+        every { targetHeight } returns LivenessCoordinator.TARGET_HEIGHT / 2f
+    }
+
+    // No face, then one face, two faces and one face again
+    private val faceCounts = listOf(0, 0, 1, 1, 2, 1, 1, 1)
+    private val resources = ResourceLedger(failOnLeak = false)
+    private var now = START_MILLIS
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    @After
+    fun tearDown() {
+        LivenessTraceWriter.recordNextSession(null)
+        resources.releaseAll()
+    }
+
+    @Test
+    fun `recorded session is read back`() {
+        val trace = LivenessTrace.read(ByteArrayInputStream(recordSession()))
+
+        trace.sessionId shouldBe SESSION_ID
+        trace.modelName shouldBe FaceDetectionModel.DEFAULT.name
+        trace.startMillis shouldBe START_MILLIS
+        val sessionReady = trace.records.filterIsInstance<TraceRecord.SessionReady>().single()
+        sessionReady.challengeId shouldBe CHALLENGE_ID
+        sessionReady.faceTarget shouldBe FaceTargetParameters.from(faceTargetChallenge)
+        val frames = trace.records.filterIsInstance<TraceRecord.Frame>()
+        frames shouldHaveSize faceCounts.size
+        // Only the boxes of the faces found are kept
+        frames.map { it.outputs!!.indices.size } shouldBe faceCounts
+        trace.states.shouldNotBeEmpty()
+        trace.events.map { it.type } shouldContain TraceRecord.EventType.INITIAL_FACE_DETECTED
+    }
+
+    @Test
+    fun `replay goes through the recorded states and events`() {
+        val trace = LivenessTrace.read(ByteArrayInputStream(recordSession()))
+
+        val result = LivenessTraceReplay(ApplicationProvider.getApplicationContext()).run(trace)
+
+        result.states.shouldNotBeEmpty()
+        result.matchesRecording shouldBe true
+        result.detectorRuns shouldBe faceCounts.size
+        result.framesWithoutOutputs shouldBe 0
+    }
+
+    @Test
+    fun `replay is deterministic`() {
+        val trace = LivenessTrace.read(ByteArrayInputStream(recordSession()))
+        val replay = LivenessTraceReplay(ApplicationProvider.getApplicationContext())
+
+        replay.run(trace).states shouldBe replay.run(trace).states
+    }
+
+    @Test
+    fun `only the next session is recorded`() {
+        val directory = folder.newFolder()
+
+        LivenessTraceWriter.recordNextSession(directory, enabled = true) shouldBe true
+
+        createWriter().shouldNotBeNull()
+        createWriter().shouldBeNull()
+        directory.listFiles().shouldNotBeNull().shouldHaveSize(1)
+    }
+
+    @Test
+    fun `sessions are not recorded when recording is disabled`() {
+        LivenessTraceWriter.recordNextSession(folder.newFolder(), enabled = false) shouldBe false
+
+        createWriter().shouldBeNull()
+    }
+
+    @Test
+    fun `trace cut short is read up to its last complete record`() {
+        val bytes = recordSession()
+        val complete = LivenessTrace.read(ByteArrayInputStream(bytes))
+
+        val truncated = LivenessTrace.read(ByteArrayInputStream(bytes.copyOf(bytes.size - 1)))
+
+        truncated.records shouldHaveSize complete.records.size - 1
+    }
+
+    private fun recordSession(): ByteArray {
+        now = START_MILLIS
+        val output = ByteArrayOutputStream()
+        val writer = LivenessTraceWriter(output, SESSION_ID, FaceDetectionModel.DEFAULT.name, true) { now }
+        val livenessState = LivenessState(
+            SESSION_ID,
+            ApplicationProvider.getApplicationContext(),
+            true,
+            { },
+            { _, _ -> },
+            { },
+            resources = resources,
+            outboundEvents = OutboundEventQueue(Runnable::run),
+            trace = writer,
+            currentTimeMillis = { now }
+        )
+        livenessState.onLivenessSessionReady(
+            FaceLivenessSession(
+                challengeId = CHALLENGE_ID,
+                challengeType = FaceLivenessChallengeType.FaceMovementChallenge,
+                challenges = listOf(faceTargetChallenge),
+                onVideoEvent = { },
+                onChallengeResponseEvent = { },
+                stopLivenessSession = { }
+            )
+        )
+        val analyzer = FrameAnalyzer(
+            livenessState,
+            ScriptedFaceDetectionInterpreter { faceCounts[it] },
+            resources = resources
+        )
+
+        ReplayFrameSource(faceCounts.indices.map(::checkerboardFrame)).replay { frame ->
+            now += FRAME_INTERVAL_MILLIS
+            analyzer.analyze(frame)
+        }
+        livenessState.onDestroy(false)
+        analyzer.close()
+        writer.close()
+        return output.toByteArray()
+    }
+
+    private fun checkerboardFrame(index: Int): RgbaFrame {
+        val pixels = ByteBuffer.allocateDirect(FRAME_WIDTH * FRAME_HEIGHT * 4)
+        for (y in 0 until FRAME_HEIGHT) {
+            for (x in 0 until FRAME_WIDTH) {
+                val color = if ((x / CHECKER_SIZE + y / CHECKER_SIZE) % 2 == 0) LIGHT_SKIN else DARK_SKIN
+                pixels.put(color[0].toByte()).put(color[1].toByte()).put(color[2].toByte()).put(-1)
+            }
+        }
+        pixels.rewind()
+        val timestampNanos = (index + 1) * NANOS_PER_SECOND / LivenessCoordinator.TARGET_FPS_MAX
+        return RgbaFrame(FRAME_WIDTH, FRAME_HEIGHT, 0, timestampNanos, pixels)
+    }
+
+    private fun createWriter() =
+        LivenessTraceWriter.create(SESSION_ID, FaceDetectionModel.DEFAULT.name, true, resources)
+
+    companion object {
+        private const val SESSION_ID = "sessionId"
+        private const val CHALLENGE_ID = "challengeId"
+        private const val START_MILLIS = 1_700_000_000_000L
+        private const val FRAME_INTERVAL_MILLIS = 1_000L / LivenessCoordinator.TARGET_FPS_MAX
+        private const val NANOS_PER_SECOND = 1_000_000_000L
+        private const val OVAL_FIT_TIMEOUT_MILLIS = 60_000
+        private const val FRAME_WIDTH = 64
+        private const val FRAME_HEIGHT = 48
+        private const val CHECKER_SIZE = 4
+        private val LIGHT_SKIN = intArrayOf(224, 172, 140)
+        private val DARK_SKIN = intArrayOf(180, 130, 100)
+    }
+}
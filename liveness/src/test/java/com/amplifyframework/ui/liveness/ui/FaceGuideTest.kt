@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.ui
+
+import android.graphics.RectF
+import androidx.compose.ui.geometry.Offset
+import androidx.compose.ui.geometry.Size
+import androidx.compose.ui.graphics.Canvas
+import androidx.compose.ui.graphics.Color
+import androidx.compose.ui.graphics.drawscope.CanvasDrawScope
+import androidx.compose.ui.graphics.drawscope.DrawScope
+import androidx.compose.ui.unit.Density
+import androidx.compose.ui.unit.IntSize
+import androidx.compose.ui.unit.LayoutDirection
+import io.kotest.matchers.shouldBe
+import io.mockk.mockk
+import io.mockk.verify
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class FaceGuideTest {
+
+    private val canvas = mockk<Canvas>(relaxed = true)
+
+    @Test
+    fun `mask is drawn with two draw calls and no offscreen layer`() {
+        val mask = FaceGuideMask(CANVAS_SIZE, VIEWPORT_SIZE, OVAL, strokeWidth = 8f)
+
+        // Redraw the same mask, as happens on every freshness color frame
+        repeat(FRAMES) {
+            draw { drawFaceGuideMask(mask, Color.White) }
+        }
+
+        verify(exactly = FRAMES) { canvas.drawPath(mask.background, any()) }
+        verify(exactly = FRAMES) { canvas.drawOval(any(), any(), any(), any(), any()) }
+        verify(exactly = 0) { canvas.saveLayer(any(), any()) }
+        verify(exactly = 0) { canvas.drawRect(any(), any(), any(), any(), any()) }
+    }
+
+    @Test
+    fun `oval is centered within the viewport`() {
+        val mask = FaceGuideMask(CANVAS_SIZE, VIEWPORT_SIZE, OVAL, strokeWidth = 8f)
+
+        // The viewport is centered vertically, 90px from the top. The stroke is outset by 2px.
+        mask.strokeTopLeft shouldBe Offset(100f - 2f, 90f + 200f - 2f)
+        mask.strokeSize shouldBe Size(400f + 4f, 600f + 4f)
+        mask.stroke.width shouldBe 4f
+    }
+
+    private fun draw(block: DrawScope.() -> Unit) =
+        CanvasDrawScope().draw(Density(1f), LayoutDirection.Ltr, canvas, CANVAS_SIZE, block)
+
+    companion object {
+        private const val FRAMES = 30
+        private val CANVAS_SIZE = Size(1080f, 2100f)
+        private val VIEWPORT_SIZE = IntSize(1080, 1920)
+        private val OVAL = RectF(100f, 200f, 500f, 800f)
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.ui
+
+import androidx.compose.foundation.layout.fillMaxSize
+import androidx.compose.runtime.Recomposer
+import androidx.compose.ui.Modifier
+import androidx.compose.ui.test.junit4.createComposeRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.amplifyframework.predictions.aws.models.ColorDisplayInformation
+import com.amplifyframework.predictions.aws.models.RgbColor
+import com.amplifyframework.ui.liveness.model.FreshnessFrameStats
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.nulls.shouldNotBeNull
+import io.kotest.matchers.shouldBe
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class FreshnessChallengeTest {
+
+    @get:Rule
+    val composeTestRule = createComposeRule()
+
+    private val displayedSequenceNumbers = mutableListOf<Int>()
+    private var completions = 0
+    private var frameStats: FreshnessFrameStats? = null
+
+    @Test
+    fun `color playback does not recompose`() {
+        composeTestRule.mainClock.autoAdvance = false
+        setFreshnessChallenge()
+        composeTestRule.mainClock.advanceTimeByFrame()
+        val changeCount = recomposerChangeCount()
+
+        // Play the three scenes through to the end
+        repeat(PLAYBACK_FRAMES) {
+            composeTestRule.mainClock.advanceTimeByFrame()
+        }
+
+        displayedSequenceNumbers shouldContainExactly listOf(0, 1, 2)
+        completions shouldBe 1
+        recomposerChangeCount() shouldBe changeCount
+    }
+
+    @Test
+    fun `frame stats are reported when playback completes`() {
+        composeTestRule.mainClock.autoAdvance = false
+        setFreshnessChallenge()
+
+        composeTestRule.mainClock.advanceTimeByFrame()
+        frameStats.shouldBeNull()
+        repeat(PLAYBACK_FRAMES) {
+            composeTestRule.mainClock.advanceTimeByFrame()
+        }
+
+        frameStats.shouldNotBeNull().apply {
+            missedFrameCount shouldBe 0
+            missedFramesPerScene shouldContainExactly listOf(0, 0, 0)
+            compensationMillis shouldBe 0
+        }
+    }
+
+    private fun setFreshnessChallenge() = composeTestRule.setContent {
+        FreshnessChallenge(
+            key = Unit,
+            modifier = Modifier.fillMaxSize(),
+            colors = listOf(
+                color(RgbColor(255, 0, 0), shouldScroll = false),
+                color(RgbColor(0, 255, 0), shouldScroll = true),
+                color(RgbColor(0, 0, 255), shouldScroll = false)
+            ),
+            onColorDisplayed = { _, _, sequenceNumber, _ -> displayedSequenceNumbers += sequenceNumber },
+            onComplete = { completions++ },
+            onFrameStats = { frameStats = it }
+        )
+    }
+
+    private fun recomposerChangeCount() = Recomposer.runningRecomposers.value.sumOf { it.changeCount }
+
+    private fun color(rgbColor: RgbColor, shouldScroll: Boolean) = mockk<ColorDisplayInformation> {
+        every { color } returns rgbColor
+        every { duration } returns SCENE_MILLIS.toFloat()
+        every { this@mockk.shouldScroll } returns shouldScroll
+    }
+
+    companion object {
+        private const val FRAME_MILLIS = 16L
+        private const val SCENE_MILLIS = 200L
+        private const val PLAYBACK_FRAMES = 3 * (SCENE_MILLIS / FRAME_MILLIS).toInt() + 2
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amplifyframework.ui.liveness.util
+
+import io.kotest.matchers.collections.shouldBeEmpty
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.shouldBe
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+internal class ResourceLedgerTest {
+
+    private val ledger = ResourceLedger(failOnLeak = true)
+    private val released = mutableListOf<String>()
+
+    @Test
+    fun `resources are released in reverse order of registration`() {
+        register("thread")
+        register("interpreter")
+        register("bitmap")
+
+        ledger.releaseAll()
+
+        released.shouldContainExactly("bitmap", "interpreter", "thread")
+        ledger.liveResources.shouldBeEmpty()
+        ledger.checkForLeaks()
+    }
+
+    @Test
+    fun `resources released early are not released again`() {
+        val timer = register("timer")
+        register("bitmap")
+
+        timer.release()
+        timer.release()
+        ledger.releaseAll()
+
+        released.shouldContainExactly("timer", "bitmap")
+    }
+
+    @Test
+    fun `live resources are listed until released`() {
+        register("timer")
+        register("bitmap")
+
+        ledger.liveResources.shouldContainExactly("timer", "bitmap")
+    }
+
+    @Test(expected = IllegalStateException::class)
+    fun `live resources fail the leak check`() {
+        register("timer")
+
+        ledger.checkForLeaks()
+    }
+
+    @Test(expected = IllegalStateException::class)
+    fun `resources that fail to release fail the leak check`() {
+        ledger.register("interpreter", Unit) { throw IllegalStateException("Already closed") }
+
+        ledger.releaseAll()
+        ledger.checkForLeaks()
+    }
+
+    @Test
+    fun `resources registered after release are released right away`() {
+        ledger.releaseAll()
+
+        register("timer")
+
+        released.shouldContainExactly("timer")
+        ledger.liveResources.shouldBeEmpty()
+    }
+
+    @Test(expected = IllegalStateException::class)
+    fun `resources registered after release fail the leak check`() {
+        ledger.releaseAll()
+        register("timer")
+
+        ledger.checkForLeaks()
+    }
+
+    @Test
+    fun `leaks are only reported outside of debug builds`() {
+        val ledger = ResourceLedger(failOnLeak = false)
+        ledger.register("timer", Unit) { }
+
+        ledger.checkForLeaks()
+
+        ledger.liveResources.size shouldBe 1
+    }
+
+    private fun register(name: String) = ledger.register(name, name) { released += it }
+}
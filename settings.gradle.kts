@@ -17,6 +17,7 @@ dependencyResolutionManagement {
 
 rootProject.name = "amplify-ui-android"
 include(":liveness")
+include(":liveness-benchmark")
 include(":authenticator")
 include(":testing")
 